@@ -0,0 +1,129 @@
+package com.investmentcalc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Double-speed engine whose cent-rounded outputs are guaranteed to match the precise engine.
+ *
+ * The schedule is first computed in doubles with a running error bound per value (see
+ * {@link PrimitiveSchedule#simulateWithErrorBounds}). Every value that is shown rounded to cents
+ * (monthly and yearly rows, totals, end balance) is then checked: if its error bound could reach
+ * the nearest half-cent rounding boundary, the whole schedule is recomputed with
+ * {@link FinalInvestmentEngine}. Recomputing only the affected months is not possible because
+ * the exact balance entering those months is exactly what the double pass does not have.
+ */
+public class AdaptiveInvestmentEngine implements InvestmentEngine {
+
+    public static final String NAME = "adaptive";
+
+    // Stored values are rounded to 10 decimals before display rounding
+    private static final double STORED_ROUNDING = 5e-11;
+    // Beyond this magnitude a double cannot resolve the half-cent boundary
+    private static final double MAX_VERIFIABLE_MAGNITUDE = 1e13;
+
+    private final FinalInvestmentEngine reference = new FinalInvestmentEngine();
+    private final AtomicLong verifiedRuns = new AtomicLong();
+    private final AtomicLong fallbackRuns = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public InvestmentResult calculateInvestment(InvestmentScenario scenario) {
+        if (!scenario.getAdjustments().isNone()) {
+            // The error bounds do not cover the fee and tax stages
+            fallbackRuns.incrementAndGet();
+            return reference.calculateInvestment(scenario);
+        }
+        PrimitiveSchedule schedule = PrimitiveSchedule.simulateWithErrorBounds(scenario);
+        if (isCentExact(schedule, scenario)) {
+            verifiedRuns.incrementAndGet();
+            return schedule.toResult(scenario);
+        }
+        fallbackRuns.incrementAndGet();
+        return reference.calculateInvestment(scenario);
+    }
+
+    /** Number of calculations answered by the double pass alone. */
+    public long getVerifiedRuns() { return verifiedRuns.get(); }
+
+    /** Number of calculations that had to be recomputed in BigDecimal. */
+    public long getFallbackRuns() { return fallbackRuns.get(); }
+
+    /**
+     * Checks every cent-rounded output against its error bound, aggregating the same way
+     * PrimitiveSchedule.toResult does.
+     */
+    static boolean isCentExact(PrimitiveSchedule s, InvestmentScenario scenario) {
+        final double u = PrimitiveSchedule.UNIT_ROUNDOFF;
+
+        double totalContributions = 0.0, totalContributionsError = 0.0;
+        double totalInterest = 0.0, totalInterestError = 0.0;
+        double yearStart = scenario.getStartingAmount().doubleValue();
+        double yearStartError = s.startingAmountError;
+        double yearContributions = 0.0, yearContributionsError = 0.0;
+        double yearInterest = 0.0, yearInterestError = 0.0;
+
+        for (int i = 0; i < s.months; i++) {
+            double startError = i == 0 ? s.startingAmountError : s.endBalanceError[i - 1];
+            if (!isCentSafe(s.startBalance[i], startError)
+                    || !isCentSafe(s.contributions[i], s.contributionError[i])
+                    || !isCentSafe(s.interest[i], s.interestError[i])
+                    || !isCentSafe(s.endBalance[i], s.endBalanceError[i])) {
+                return false;
+            }
+
+            // Sums carry the addends' errors, one rounding per addition, and the 10-decimal
+            // rounding the reference applies to each addend before summing
+            totalContributions += s.contributions[i];
+            totalContributionsError += s.contributionError[i] + Math.abs(totalContributions) * u + STORED_ROUNDING;
+            totalInterest += s.interest[i];
+            totalInterestError += s.interestError[i] + Math.abs(totalInterest) * u + STORED_ROUNDING;
+            yearContributions += s.contributions[i];
+            yearContributionsError += s.contributionError[i] + Math.abs(yearContributions) * u + STORED_ROUNDING;
+            yearInterest += s.interest[i];
+            yearInterestError += s.interestError[i] + Math.abs(yearInterest) * u + STORED_ROUNDING;
+
+            if ((i + 1) % 12 == 0) {
+                if (!isCentSafe(yearStart, yearStartError)
+                        || !isCentSafe(yearContributions, yearContributionsError)
+                        || !isCentSafe(yearInterest, yearInterestError)) {
+                    return false;
+                }
+                yearStart = s.endBalance[i];
+                yearStartError = s.endBalanceError[i];
+                yearContributions = 0.0;
+                yearContributionsError = 0.0;
+                yearInterest = 0.0;
+                yearInterestError = 0.0;
+            }
+        }
+
+        double startingAmount = scenario.getStartingAmount().doubleValue();
+        double contributionsWithStart = startingAmount + totalContributions;
+        double contributionsWithStartError = s.startingAmountError + totalContributionsError
+            + Math.abs(contributionsWithStart) * u;
+        return isCentSafe(contributionsWithStart, contributionsWithStartError)
+            && isCentSafe(totalInterest, totalInterestError);
+    }
+
+    /**
+     * True when no half-cent rounding boundary lies within the error bound of the value, so the
+     * value and the exact one round to the same cent.
+     */
+    static boolean isCentSafe(double value, double errorBound) {
+        double magnitude = Math.abs(value);
+        if (magnitude > MAX_VERIFIABLE_MAGNITUDE || Double.isNaN(value)) {
+            return false;
+        }
+        double cents = value * 100.0;
+        double fraction = cents - Math.floor(cents);
+        // Distance in currency units to the nearest x.xx5 boundary, less the error of the
+        // computation above and the stored 10-decimal rounding
+        double distance = Math.abs(fraction - 0.5) / 100.0;
+        double slack = errorBound + STORED_ROUNDING + magnitude * 4 * PrimitiveSchedule.UNIT_ROUNDOFF;
+        return distance > slack;
+    }
+}
@@ -0,0 +1,150 @@
+package com.investmentcalc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs Monte Carlo in rounds of parallel batches until one statistic is known well enough.
+ *
+ * After every round the 95% confidence interval of the requested statistic is computed from all
+ * batches so far (each batch is an independent replicate); the run stops as soon as its half-width
+ * is within the tolerance, the time budget is used up, or the path limit is reached. Batch sizes
+ * and seeds do not depend on the number of cores, so a run that converges reproduces exactly for
+ * the same seed.
+ */
+public class AdaptiveMonteCarlo {
+
+    /**
+     * Why an adaptive run stopped.
+     */
+    public enum StopReason {
+        CONVERGED, TIME_BUDGET, PATH_LIMIT
+    }
+
+    static final int DEFAULT_BATCH_PATHS = 1024;
+    static final int BATCHES_PER_ROUND = 16;
+    // Fewer replicates make the standard error itself too noisy to stop on
+    static final int MIN_BATCHES = 32;
+
+    private final MonteCarloSimulator simulator;
+    private final int batchPaths;
+    private final long maxPaths;
+
+    public AdaptiveMonteCarlo(MonteCarloSimulator simulator) {
+        this(simulator, DEFAULT_BATCH_PATHS, 100_000_000L);
+    }
+
+    /**
+     * @param batchPaths paths per batch (a power of two suits Sobol sampling)
+     * @param maxPaths hard limit on the total number of paths; the last round is cut short to
+     *                 stay within it
+     */
+    public AdaptiveMonteCarlo(MonteCarloSimulator simulator, int batchPaths, long maxPaths) {
+        if (batchPaths <= 0 || maxPaths <= 0) {
+            throw new IllegalArgumentException("Batch size and path limit must be positive.");
+        }
+        this.simulator = simulator;
+        this.batchPaths = batchPaths;
+        this.maxPaths = maxPaths;
+    }
+
+    /**
+     * Simulates until the 95% confidence half-width of the statistic is at most the tolerance
+     * (in the statistic's unit: currency for balances, probability for probabilities) or the
+     * time budget in milliseconds runs out.
+     */
+    public Result run(InvestmentScenario scenario, MonteCarloStatistic statistic, double tolerance,
+                      long timeBudgetMillis, long seed) {
+        if (tolerance <= 0) {
+            throw new IllegalArgumentException("Tolerance must be positive.");
+        }
+        long started = System.nanoTime();
+        long deadline = started + timeBudgetMillis * 1_000_000L;
+        SplittableRandom root = new SplittableRandom(seed);
+        // Per-year sketches are merged into the total as they arrive; only the small replicates
+        // are kept per batch, so memory does not grow with the number of paths
+        MonteCarloSimulator.ChunkResult total = new MonteCarloSimulator.ChunkResult(scenario.getYears());
+        List<MonteCarloSimulator.ChunkResult> replicates = new ArrayList<>();
+        long paths = 0;
+        int rounds = 0;
+
+        StopReason reason;
+        MonteCarloEstimate estimate;
+        while (true) {
+            // The last round is cut short to end exactly at the path limit
+            long roundPaths = Math.min((long) BATCHES_PER_ROUND * batchPaths, maxPaths - paths);
+            int batchCount = (int) ((roundPaths + batchPaths - 1) / batchPaths);
+            List<SplittableRandom> generators = new ArrayList<>(batchCount);
+            for (int b = 0; b < batchCount; b++) {
+                generators.add(root.split());
+            }
+            List<MonteCarloSimulator.ChunkResult> batches = IntStream.range(0, batchCount).parallel()
+                .mapToObj(b -> simulator.simulateChunk(scenario,
+                    (int) Math.min(batchPaths, roundPaths - (long) b * batchPaths), generators.get(b)))
+                .collect(Collectors.toList());
+            for (MonteCarloSimulator.ChunkResult batch : batches) {
+                total.merge(batch);
+                replicates.add(batch.replicate());
+            }
+            paths += roundPaths;
+            rounds++;
+
+            estimate = simulator.estimate(scenario, replicates, total, statistic);
+            if (replicates.size() >= MIN_BATCHES && 1.96 * estimate.getStandardError() <= tolerance) {
+                reason = StopReason.CONVERGED;
+                break;
+            }
+            if (System.nanoTime() >= deadline) {
+                reason = StopReason.TIME_BUDGET;
+                break;
+            }
+            if (paths >= maxPaths) {
+                reason = StopReason.PATH_LIMIT;
+                break;
+            }
+        }
+
+        MonteCarloResult result = simulator.buildResult(scenario, replicates, total);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+        return new Result(result, statistic, estimate, reason, rounds, elapsedMillis);
+    }
+
+    /**
+     * Outcome of an adaptive run: the full Monte Carlo result plus how the run ended.
+     */
+    public static final class Result {
+        private final MonteCarloResult result;
+        private final MonteCarloStatistic statistic;
+        private final MonteCarloEstimate estimate;
+        private final StopReason stopReason;
+        private final int rounds;
+        private final long elapsedMillis;
+
+        Result(MonteCarloResult result, MonteCarloStatistic statistic, MonteCarloEstimate estimate,
+               StopReason stopReason, int rounds, long elapsedMillis) {
+            this.result = result;
+            this.statistic = statistic;
+            this.estimate = estimate;
+            this.stopReason = stopReason;
+            this.rounds = rounds;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public MonteCarloResult getResult() { return result; }
+        public MonteCarloStatistic getStatistic() { return statistic; }
+        public MonteCarloEstimate getEstimate() { return estimate; }
+        public StopReason getStopReason() { return stopReason; }
+        public int getRounds() { return rounds; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public int getPathCount() { return result.getPathCount(); }
+
+        @Override
+        public String toString() {
+            return String.format("%s = %s after %d paths in %d ms (%s)",
+                statistic, estimate, result.getPathCount(), elapsedMillis, stopReason);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.investmentcalc;
+
+/**
+ * The balance map x -> growth * x + offset of one or more months.
+ *
+ * A month with growth g and contribution c is (g, c * g) for beginning-of-period contributions
+ * and (g, c) for end-of-period ones. Consecutive months compose into one map, and k repetitions
+ * of a map are computed with O(log k) compositions.
+ */
+final class AffineMap {
+
+    static final AffineMap IDENTITY = new AffineMap(1.0, 0.0);
+
+    final double growth;
+    final double offset;
+
+    AffineMap(double growth, double offset) {
+        this.growth = growth;
+        this.offset = offset;
+    }
+
+    static AffineMap month(double growth, double contribution, boolean contributeAtBeginning) {
+        return new AffineMap(growth, contributeAtBeginning ? contribution * growth : contribution);
+    }
+
+    double apply(double balance) {
+        return growth * balance + offset;
+    }
+
+    /**
+     * This map followed by the next one.
+     */
+    AffineMap then(AffineMap next) {
+        return new AffineMap(next.growth * growth, next.growth * offset + next.offset);
+    }
+
+    /**
+     * This map applied k times in a row, by repeated squaring.
+     */
+    AffineMap power(long k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Cannot apply a map a negative number of times.");
+        }
+        AffineMap result = IDENTITY;
+        AffineMap square = this;
+        while (k > 0) {
+            if ((k & 1) != 0) {
+                result = result.then(square);
+            }
+            k >>= 1;
+            if (k > 0) {
+                square = square.then(square);
+            }
+        }
+        return result;
+    }
+}
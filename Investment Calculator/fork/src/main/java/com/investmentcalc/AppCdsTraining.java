@@ -0,0 +1,63 @@
+package com.investmentcalc;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.math.BigDecimal;
+
+/**
+ * Training run used at packaging time to record the classes loaded during a typical session
+ * into an AppCDS archive (see the "appcds" profile in pom.xml).
+ *
+ * Runs headless, so it exercises everything the main window touches except the top-level
+ * frame itself: the look and feel, the engine, both chart panels, the sensitivity heatmap, the
+ * results summary and the schedule view. Start the application with {@code -XX:SharedArchiveFile=target/investment-calculator.jsa}
+ * to use the archive.
+ */
+public final class AppCdsTraining {
+
+    private AppCdsTraining() {}
+
+    public static void main(String[] args) {
+        InvestmentCalculator.initializeLookAndFeel();
+
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("20000"), 10, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("12000"), 12, ContributionTiming.END_OF_PERIOD);
+        InvestmentResult result = new FinalInvestmentEngine().calculateInvestment(scenario);
+
+        ResultsSummaryPanel summary = new ResultsSummaryPanel();
+        summary.showResult(result, result.getEndBalance(), result.getTotalContributions(),
+            result.getTotalInterest(), "USD");
+
+        // The first rows are formatted on the calling thread, which is all this schedule has
+        ProgressiveScheduleView schedule = new ProgressiveScheduleView(12);
+        schedule.showRows("Year  End Balance\n", result.getYearlyData(),
+            data -> String.format("%-6d %.2f%n", data.getYear(), data.getEndBalance()), null);
+        JTabbedPane schedules = new JTabbedPane();
+        schedules.addTab("Annual Schedule", schedule);
+
+        // One sweep computed here rather than on the panel's background thread, so it finishes
+        SensitivityHeatmapPanel.createGrid(scenario, SensitivityHeatmapPanel.View.RATE_BY_YEARS)
+            .compute((fromColumn, toColumn, fromRow, toRow) -> { });
+        SensitivityHeatmapPanel heatmap = new SensitivityHeatmapPanel();
+
+        InvestmentChartPanel chartPanel = new InvestmentChartPanel(null);
+        chartPanel.updateChart(result, "USD");
+        InvestmentPieChartPanel pieChartPanel = new InvestmentPieChartPanel(null);
+        pieChartPanel.updateChart(result, "USD");
+
+        // Paint the charts once so the renderer and axis classes are loaded too
+        BufferedImage image = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            chartPanel.getCurrentChart().draw(g2, new Rectangle(0, 0, 600, 400));
+            pieChartPanel.setSize(600, 400);
+            pieChartPanel.doLayout();
+            pieChartPanel.paint(g2);
+            heatmap.setSize(600, 400);
+            heatmap.paint(g2);
+        } finally {
+            g2.dispose();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.investmentcalc;
+
+/**
+ * Backtests a plan against historical monthly returns instead of a fixed annual rate.
+ *
+ * Contributions follow exactly the month and timing semantics of the other engines; only the
+ * growth of each month comes from the {@link ReturnSeries} (a single asset or a portfolio
+ * rebalanced monthly to fixed weights), starting at a chosen month of the history. The result's
+ * annual return rate is the scenario's nominal rate; the realized growth is in the schedule.
+ *
+ * Unlike the registered engines this one is configured with its data, so it is created directly
+ * rather than through {@link InvestmentEngines}. It is immutable and safe to share across threads,
+ * as is the underlying series.
+ */
+public class BacktestEngine implements InvestmentEngine {
+
+    public static final String NAME = "backtest";
+
+    private final ReturnSeries series;
+    private final double[] weights;
+    private final int startIndex;
+
+    /**
+     * Backtests a single asset of the series.
+     */
+    public BacktestEngine(ReturnSeries series, int asset, int startIndex) {
+        this(series, singleAsset(series, asset), startIndex);
+    }
+
+    /**
+     * Backtests a portfolio rebalanced monthly to the given weights (one per asset).
+     */
+    public BacktestEngine(ReturnSeries series, double[] weights, int startIndex) {
+        if (weights.length != series.getAssetCount()) {
+            throw new IllegalArgumentException("Expected " + series.getAssetCount() + " portfolio weights, got " + weights.length + ".");
+        }
+        if (startIndex < 0 || startIndex >= series.getMonthCount()) {
+            throw new IllegalArgumentException("Start month is outside the return series.");
+        }
+        this.series = series;
+        this.weights = weights.clone();
+        this.startIndex = startIndex;
+    }
+
+    private static double[] singleAsset(ReturnSeries series, int asset) {
+        if (asset < 0 || asset >= series.getAssetCount()) {
+            throw new IllegalArgumentException("Asset " + asset + " is not in the return series.");
+        }
+        double[] weights = new double[series.getAssetCount()];
+        weights[asset] = 1.0;
+        return weights;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Same backtest starting at another month of the history.
+     */
+    public BacktestEngine startingAt(int newStartIndex) {
+        return new BacktestEngine(series, weights, newStartIndex);
+    }
+
+    @Override
+    public InvestmentResult calculateInvestment(InvestmentScenario scenario) {
+        checkCoverage(scenario);
+        return PrimitiveSchedule.replay(scenario, series, weights, startIndex).toResult(scenario);
+    }
+
+    /**
+     * End balance only, without building the schedule; for sweeping many portfolios or start
+     * months over the same history.
+     */
+    public double calculateEndBalance(InvestmentScenario scenario) {
+        checkCoverage(scenario);
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+        int totalMonths = scenario.getTotalMonths();
+        PlanAdjustments adjustments = scenario.getAdjustments();
+
+        double balance = scenario.getStartingAmount().doubleValue();
+        for (int i = 0; i < totalMonths; i++) {
+            double contribution = scenario.getContributionForMonthAsDouble(i + 1);
+            double growth = adjustments.adjustGrowth(1.0 + series.getPortfolioReturn(startIndex + i, weights));
+            if (contributeAtBeginning) {
+                balance = (balance + contribution) * growth;
+            } else {
+                balance = balance * growth + contribution;
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * Number of start months for which the whole scenario fits in the history.
+     */
+    public int getAvailableStartCount(InvestmentScenario scenario) {
+        return Math.max(0, series.getMonthCount() - scenario.getTotalMonths() + 1);
+    }
+
+    private void checkCoverage(InvestmentScenario scenario) {
+        if (startIndex + scenario.getTotalMonths() > series.getMonthCount()) {
+            throw new IllegalArgumentException(String.format(
+                "Return series covers %d months from %s; the plan needs %d months starting at %s.",
+                series.getMonthCount(), series.getMonthLabel(0), scenario.getTotalMonths(),
+                series.getMonthLabel(startIndex)));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.investmentcalc;
+
+import org.jfree.chart.JFreeChart;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Renders the growth chart of many results to PNG files without a screen, e.g. for client
+ * reports.
+ *
+ * Results are rendered in parallel. A chart being rendered borrows an image, a byte buffer and
+ * a PNG writer from a pool and returns them when its file is written, so a batch of thousands
+ * allocates one set per worker thread rather than one per chart, and releases them all when it
+ * is done. Each chart is written to the output directory with a single write. Works in
+ * headless mode.
+ */
+public final class BatchChartRenderer {
+
+    private final int width;
+    private final int height;
+
+    public BatchChartRenderer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image size must be positive.");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Image, encode buffer and PNG writer used by one chart at a time.
+     */
+    private final class Buffers {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+    }
+
+    /**
+     * Name of the file written for the result at the given index.
+     */
+    static String fileName(int index, int count) {
+        int digits = Math.max(4, String.valueOf(count).length());
+        return String.format("chart-%0" + digits + "d.png", index + 1);
+    }
+
+    /**
+     * Writes one PNG per result to the directory, created if needed, named chart-0001.png and
+     * so on in list order, and reports the throughput.
+     */
+    public BatchRenderReport render(List<InvestmentResult> results, String currency, Path directory) throws IOException {
+        if (results == null || currency == null || directory == null) {
+            throw new IllegalArgumentException("Please fill in all required fields.");
+        }
+        Files.createDirectories(directory);
+
+        ConcurrentLinkedQueue<Buffers> idle = new ConcurrentLinkedQueue<>();
+        AtomicInteger created = new AtomicInteger();
+        AtomicLong totalBytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        try {
+            IntStream.range(0, results.size()).parallel().forEach(i -> {
+                Buffers buffers = idle.poll();
+                if (buffers == null) {
+                    buffers = new Buffers();
+                    created.incrementAndGet();
+                }
+                Path file = directory.resolve(fileName(i, results.size()));
+                try {
+                    totalBytes.addAndGet(renderChart(results.get(i), currency, buffers, file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                idle.offer(buffers);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (Buffers buffers : idle) {
+                buffers.writer.dispose();
+            }
+        }
+        return new BatchRenderReport(results.size(), totalBytes.get(), System.nanoTime() - start, created.get());
+    }
+
+    private long renderChart(InvestmentResult result, String currency, Buffers buffers, Path file) throws IOException {
+        JFreeChart chart = InvestmentChartPanel.createInvestmentChart(result, currency);
+        Graphics2D g2 = buffers.image.createGraphics();
+        try {
+            // The chart paints its white background over the whole image first
+            chart.draw(g2, new Rectangle2D.Double(0, 0, width, height));
+        } finally {
+            g2.dispose();
+        }
+
+        buffers.bytes.reset();
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(buffers.bytes)) {
+            buffers.writer.setOutput(out);
+            buffers.writer.write(buffers.image);
+        } finally {
+            buffers.writer.reset();
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            buffers.bytes.writeTo(out);
+        }
+        return buffers.bytes.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.investmentcalc;
+
+/**
+ * Outcome of a {@link BatchChartRenderer} run: how many charts were written and how fast.
+ */
+public class BatchRenderReport {
+    private final int chartCount;
+    private final long totalBytes;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    BatchRenderReport(int chartCount, long totalBytes, long elapsedNanos, int parallelism) {
+        this.chartCount = chartCount;
+        this.totalBytes = totalBytes;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    public int getChartCount() { return chartCount; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    /** Charts rendered at the same time at most, i.e. image buffers allocated. */
+    public int getParallelism() { return parallelism; }
+
+    public double getChartsPerSecond() {
+        return elapsedNanos == 0 ? 0 : chartCount / (elapsedNanos / 1e9);
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : totalBytes / 1e6 / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d charts (%.1f MB) in %.2f s, %d in parallel: %.1f charts/s, %.1f MB/s",
+            chartCount, totalBytes / 1e6, elapsedNanos / 1e9, parallelism,
+            getChartsPerSecond(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,76 @@
+package com.investmentcalc;
+
+/**
+ * Brownian bridge construction of a discretely sampled Brownian path.
+ *
+ * Turns independent standard normals into the unit-variance increments of a path with the given
+ * number of steps, in an order where the first normal fixes the end point, the next the midpoint,
+ * and so on. Paired with a low-discrepancy sequence for the first few normals this puts the
+ * quasi-random points where they reduce variance the most.
+ */
+final class BrownianBridge {
+
+    private final int steps;
+    private final int[] bridgeIndex;
+    private final int[] leftIndex;
+    private final int[] rightIndex;
+    private final double[] leftWeight;
+    private final double[] rightWeight;
+    private final double[] stdDev;
+    private final double[] path;
+
+    BrownianBridge(int steps) {
+        this.steps = steps;
+        bridgeIndex = new int[steps];
+        leftIndex = new int[steps];
+        rightIndex = new int[steps];
+        leftWeight = new double[steps];
+        rightWeight = new double[steps];
+        stdDev = new double[steps];
+        path = new double[steps];
+
+        // Path index m is time m + 1; a set map entry marks a point already constructed
+        boolean[] map = new boolean[steps];
+        map[steps - 1] = true;
+        bridgeIndex[0] = steps - 1;
+        stdDev[0] = Math.sqrt(steps);
+        for (int i = 1, j = 0; i < steps; i++) {
+            while (map[j]) {
+                j++;
+            }
+            int k = j;
+            while (!map[k]) {
+                k++;
+            }
+            // Points j .. k-1 are open, bounded by time j on the left and point k on the right
+            int l = j + ((k - 1 - j) >> 1);
+            map[l] = true;
+            bridgeIndex[i] = l;
+            leftIndex[i] = j - 1;
+            rightIndex[i] = k;
+            leftWeight[i] = (double) (k - l) / (k + 1 - j);
+            rightWeight[i] = (double) (l + 1 - j) / (k + 1 - j);
+            stdDev[i] = Math.sqrt((double) (l + 1 - j) * (k - l) / (k + 1 - j));
+            j = k + 1;
+            if (j >= steps) {
+                j = 0;
+            }
+        }
+    }
+
+    /**
+     * Builds the path from normals (most important first) and writes its increments.
+     */
+    void increments(double[] normals, double[] out) {
+        path[steps - 1] = stdDev[0] * normals[0];
+        for (int i = 1; i < steps; i++) {
+            double left = leftIndex[i] >= 0 ? path[leftIndex[i]] : 0.0;
+            path[bridgeIndex[i]] = leftWeight[i] * left + rightWeight[i] * path[rightIndex[i]]
+                + stdDev[i] * normals[i];
+        }
+        out[0] = path[0];
+        for (int i = 1; i < steps; i++) {
+            out[i] = path[i] - path[i - 1];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * One dated change to a plan's cash flows: a lump sum, a one-off withdrawal, a pause or
+ * resumption of the regular contributions, or a new annual contribution amount.
+ *
+ * Months are plan months, 1-based like {@link InvestmentScenario#getContributionForMonth(int)}.
+ * Lump sums and withdrawals are applied in their month with the scenario's contribution timing;
+ * the other events take effect from their month onwards.
+ */
+public final class CashFlowEvent {
+
+    public enum Type {
+        LUMP_SUM("Lump Sum"),
+        WITHDRAWAL("Withdrawal"),
+        PAUSE_CONTRIBUTIONS("Pause Contributions"),
+        RESUME_CONTRIBUTIONS("Resume Contributions"),
+        SET_ANNUAL_CONTRIBUTION("Set Annual Contribution");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final Type type;
+    private final int month;
+    private final BigDecimal amount;
+
+    private CashFlowEvent(Type type, int month, BigDecimal amount) {
+        if (month < 1) {
+            throw new IllegalArgumentException("Event month must be 1 or later.");
+        }
+        this.type = type;
+        this.month = month;
+        this.amount = amount;
+    }
+
+    public static CashFlowEvent lumpSum(int month, BigDecimal amount) {
+        return new CashFlowEvent(Type.LUMP_SUM, month, requirePositive(amount, "Lump sum"));
+    }
+
+    public static CashFlowEvent withdrawal(int month, BigDecimal amount) {
+        return new CashFlowEvent(Type.WITHDRAWAL, month, requirePositive(amount, "Withdrawal"));
+    }
+
+    public static CashFlowEvent pauseContributions(int month) {
+        return new CashFlowEvent(Type.PAUSE_CONTRIBUTIONS, month, BigDecimal.ZERO);
+    }
+
+    public static CashFlowEvent resumeContributions(int month) {
+        return new CashFlowEvent(Type.RESUME_CONTRIBUTIONS, month, BigDecimal.ZERO);
+    }
+
+    /**
+     * Replaces the scenario's additional contribution per year from the given month, e.g. a
+     * raise. Negative amounts are regular withdrawals, as for the scenario itself.
+     */
+    public static CashFlowEvent setAnnualContribution(int month, BigDecimal annualAmount) {
+        if (annualAmount == null) {
+            throw new IllegalArgumentException("Please fill in all required fields.");
+        }
+        return new CashFlowEvent(Type.SET_ANNUAL_CONTRIBUTION, month, annualAmount);
+    }
+
+    private static BigDecimal requirePositive(BigDecimal amount, String what) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Please fill in all required fields.");
+        }
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException(what + " amount must be positive.");
+        }
+        return amount;
+    }
+
+    public Type getType() { return type; }
+    public int getMonth() { return month; }
+    public BigDecimal getAmount() { return amount; }
+
+    /**
+     * Signed one-off amount added to the balance in this event's month: positive for a lump
+     * sum, negative for a withdrawal, zero for the other event types.
+     */
+    public BigDecimal getOneOffAmount() {
+        switch (type) {
+            case LUMP_SUM:
+                return amount;
+            case WITHDRAWAL:
+                return amount.negate();
+            default:
+                return BigDecimal.ZERO;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CashFlowEvent)) {
+            return false;
+        }
+        CashFlowEvent other = (CashFlowEvent) o;
+        return type == other.type && month == other.month && amount.equals(other.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, month, amount);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case PAUSE_CONTRIBUTIONS:
+            case RESUME_CONTRIBUTIONS:
+                return String.format("%s in month %d", type.getLabel(), month);
+            default:
+                return String.format("%s of %s in month %d", type.getLabel(), amount, month);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.investmentcalc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of cash-flow events, sorted by month.
+ *
+ * Events in the same month keep the order they were given in. Lookups are binary searches over
+ * the sorted months, so engines can find the next event after any month without scanning.
+ */
+public final class CashFlowEvents {
+
+    public static final CashFlowEvents NONE = new CashFlowEvents(Collections.emptyList());
+
+    private final List<CashFlowEvent> events;
+    private final int[] months;
+
+    private CashFlowEvents(List<CashFlowEvent> sorted) {
+        this.events = Collections.unmodifiableList(sorted);
+        this.months = new int[sorted.size()];
+        for (int i = 0; i < months.length; i++) {
+            months[i] = sorted.get(i).getMonth();
+        }
+    }
+
+    public static CashFlowEvents of(CashFlowEvent... events) {
+        return of(Arrays.asList(events));
+    }
+
+    public static CashFlowEvents of(List<CashFlowEvent> events) {
+        if (events.isEmpty()) {
+            return NONE;
+        }
+        List<CashFlowEvent> sorted = new ArrayList<>(events.size());
+        for (CashFlowEvent event : events) {
+            if (event == null) {
+                throw new IllegalArgumentException("Cash-flow events cannot be null.");
+            }
+            sorted.add(event);
+        }
+        // List.sort is stable, so same-month events keep their given order
+        sorted.sort(Comparator.comparingInt(CashFlowEvent::getMonth));
+        return new CashFlowEvents(sorted);
+    }
+
+    public boolean isEmpty() { return events.isEmpty(); }
+    public int size() { return events.size(); }
+
+    /**
+     * All events, sorted by month.
+     */
+    public List<CashFlowEvent> getEvents() { return events; }
+
+    /**
+     * First month strictly after the given month that has an event, or Integer.MAX_VALUE if
+     * there is none.
+     */
+    public int nextEventMonth(int afterMonth) {
+        int i = firstIndexAfter(afterMonth);
+        return i < months.length ? months[i] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Events in months from..to, both inclusive.
+     */
+    public List<CashFlowEvent> between(int fromMonth, int toMonth) {
+        if (toMonth < fromMonth) {
+            return Collections.emptyList();
+        }
+        return events.subList(firstIndexAfter(fromMonth - 1), firstIndexAfter(toMonth));
+    }
+
+    private int firstIndexAfter(int month) {
+        int low = 0;
+        int high = months.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (months[mid] <= month) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return events.toString();
+    }
+}
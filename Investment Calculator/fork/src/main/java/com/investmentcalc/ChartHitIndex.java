@@ -0,0 +1,91 @@
+package com.investmentcalc;
+
+import org.jfree.chart.entity.ChartEntity;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.XYItemEntity;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the data item under the mouse without scanning every entity of the chart.
+ *
+ * {@link EntityCollection#getEntity} tests each entity in turn, so with monthly data or several
+ * series a hover costs tens of thousands of shape tests. This index puts every item entity into
+ * the square cells of a grid that its bounds overlap; a lookup only tests the few entities of the
+ * cell under the point. Building it is one pass over the entities, so it is built once per chart
+ * drawing and reused for every mouse move until the chart is drawn again.
+ */
+final class ChartHitIndex {
+
+    /**
+     * Edge length of a grid cell, in chart coordinates.
+     */
+    static final int CELL_SIZE = 16;
+
+    private final Map<Long, List<XYItemEntity>> cells = new HashMap<>();
+    private final int entityCount;
+
+    private ChartHitIndex(EntityCollection entities) {
+        int count = 0;
+        for (int i = 0; i < entities.getEntityCount(); i++) {
+            ChartEntity entity = entities.getEntity(i);
+            if (!(entity instanceof XYItemEntity)) {
+                continue;
+            }
+            count++;
+            Rectangle2D bounds = entity.getArea().getBounds2D();
+            int fromX = cell(bounds.getMinX());
+            int toX = cell(bounds.getMaxX());
+            int fromY = cell(bounds.getMinY());
+            int toY = cell(bounds.getMaxY());
+            for (int x = fromX; x <= toX; x++) {
+                for (int y = fromY; y <= toY; y++) {
+                    cells.computeIfAbsent(key(x, y), k -> new ArrayList<>(4)).add((XYItemEntity) entity);
+                }
+            }
+        }
+        this.entityCount = count;
+    }
+
+    /**
+     * Indexes the item entities of a drawn chart. The index is a snapshot: build a new one after
+     * the chart is drawn again.
+     */
+    static ChartHitIndex build(EntityCollection entities) {
+        return new ChartHitIndex(entities);
+    }
+
+    int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * The item whose area contains the point, or null. Where items overlap, the one drawn last
+     * wins, as with {@link EntityCollection#getEntity}.
+     */
+    XYItemEntity getItemAt(double x, double y) {
+        List<XYItemEntity> candidates = cells.get(key(cell(x), cell(y)));
+        if (candidates == null) {
+            return null;
+        }
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            XYItemEntity entity = candidates.get(i);
+            if (entity.getArea().contains(x, y)) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,100 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Derived growth factors for one (annual rate, compounding frequency) pair.
+ *
+ * Instances are immutable and shared through a process-wide concurrent table, so batch runs that
+ * revisit the same few hundred rate/frequency pairs compute the divisions and the
+ * {@code Math.pow} only once per pair.
+ */
+public final class CompoundingFactors {
+
+    // Stop caching beyond this many pairs so sweeps over arbitrary rates cannot grow the table forever
+    private static final int MAX_CACHED = 10_000;
+    private static final ConcurrentMap<Key, CompoundingFactors> CACHE = new ConcurrentHashMap<>();
+
+    private final BigDecimal periodicRate;
+    private final BigDecimal monthlyMultiplier;
+    private final BigDecimal monthlyInterestFactor;
+    private final double monthlyMultiplierDouble;
+    private final double monthlyInterestFactorDouble;
+
+    private CompoundingFactors(BigDecimal annualReturnRate, int compoundingPeriodsPerYear) {
+        // Convert annual percent to decimal (e.g. 7% -> 0.07)
+        BigDecimal annualRateDecimal = annualReturnRate
+                .divide(BigDecimal.valueOf(100), 30, RoundingMode.HALF_UP);
+
+        // periodic rate per compounding period (nominal) : r_period = annualRateDecimal / compoundingPeriodsPerYear
+        periodicRate = annualRateDecimal
+                .divide(BigDecimal.valueOf(compoundingPeriodsPerYear), 30, RoundingMode.HALF_UP);
+
+        // multiplier per compounding period: (1 + r_period)
+        BigDecimal periodMultiplier = BigDecimal.ONE.add(periodicRate);
+
+        // periods per month (may be fractional, e.g. weekly: 52/12 = 4.3333)
+        double periodsPerMonth = (double) compoundingPeriodsPerYear / 12.0;
+
+        // monthly multiplier = (1 + r_period)^(periodsPerMonth)
+        // use double pow then convert to BigDecimal with scale
+        monthlyMultiplierDouble = Math.pow(periodMultiplier.doubleValue(), periodsPerMonth);
+        monthlyMultiplier = BigDecimal.valueOf(monthlyMultiplierDouble);
+
+        // monthly interest factor = monthlyMultiplier - 1
+        monthlyInterestFactor = monthlyMultiplier.subtract(BigDecimal.ONE);
+        monthlyInterestFactorDouble = monthlyInterestFactor.doubleValue();
+    }
+
+    /**
+     * Returns the (cached) factors for a rate given as percent, e.g. 7 for 7%.
+     */
+    public static CompoundingFactors of(BigDecimal annualReturnRate, CompoundingFrequency frequency) {
+        Key key = new Key(annualReturnRate, frequency);
+        CompoundingFactors factors = CACHE.get(key);
+        if (factors == null) {
+            factors = new CompoundingFactors(annualReturnRate, frequency.getPeriodsPerYear());
+            if (CACHE.size() < MAX_CACHED) {
+                CompoundingFactors existing = CACHE.putIfAbsent(key, factors);
+                if (existing != null) {
+                    factors = existing;
+                }
+            }
+        }
+        return factors;
+    }
+
+    public BigDecimal getPeriodicRate() { return periodicRate; }
+    public BigDecimal getMonthlyMultiplier() { return monthlyMultiplier; }
+    public BigDecimal getMonthlyInterestFactor() { return monthlyInterestFactor; }
+    public double getMonthlyMultiplierAsDouble() { return monthlyMultiplierDouble; }
+    public double getMonthlyInterestFactorAsDouble() { return monthlyInterestFactorDouble; }
+
+    private static final class Key {
+        private final BigDecimal rate;
+        private final CompoundingFrequency frequency;
+
+        Key(BigDecimal rate, CompoundingFrequency frequency) {
+            // 7, 7.0 and 7.00 produce identical factors and must share one entry
+            this.rate = rate.stripTrailingZeros();
+            this.frequency = frequency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return rate.equals(other.rate) && frequency == other.frequency;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rate, frequency);
+        }
+    }
+}
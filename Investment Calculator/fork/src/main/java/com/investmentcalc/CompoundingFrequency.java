@@ -0,0 +1,41 @@
+package com.investmentcalc;
+
+/**
+ * Supported compounding frequencies with their number of compounding periods per year.
+ */
+public enum CompoundingFrequency {
+    ANNUALLY("Annually", 1),
+    QUARTERLY("Quarterly", 4),
+    MONTHLY("Monthly", 12),
+    WEEKLY("Weekly", 52),
+    DAILY("Daily", 365);
+
+    private final String label;
+    private final int periodsPerYear;
+
+    CompoundingFrequency(String label, int periodsPerYear) {
+        this.label = label;
+        this.periodsPerYear = periodsPerYear;
+    }
+
+    public String getLabel() { return label; }
+    public int getPeriodsPerYear() { return periodsPerYear; }
+
+    /**
+     * Parses a display label such as "Monthly". Unknown labels fall back to monthly compounding,
+     * as the engine always has.
+     */
+    public static CompoundingFrequency fromLabel(String label) {
+        for (CompoundingFrequency frequency : values()) {
+            if (frequency.label.equals(label)) {
+                return frequency;
+            }
+        }
+        return MONTHLY;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,35 @@
+package com.investmentcalc;
+
+/**
+ * When in each month a contribution (or withdrawal) is applied.
+ */
+public enum ContributionTiming {
+    /** Contribution is added before the month's interest and earns interest that month. */
+    BEGINNING_OF_PERIOD("Beginning of Period"),
+    /** Contribution is added after the month's interest. */
+    END_OF_PERIOD("End of Period");
+
+    private final String label;
+
+    ContributionTiming(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+
+    public static ContributionTiming of(boolean contributeAtBeginning) {
+        return contributeAtBeginning ? BEGINNING_OF_PERIOD : END_OF_PERIOD;
+    }
+
+    /**
+     * Parses a display label such as "End of Period"; anything else means beginning of period.
+     */
+    public static ContributionTiming fromLabel(String label) {
+        return END_OF_PERIOD.label.equals(label) ? END_OF_PERIOD : BEGINNING_OF_PERIOD;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
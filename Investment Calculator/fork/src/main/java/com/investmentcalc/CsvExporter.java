@@ -1,12 +1,13 @@
 package com.investmentcalc;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.math.RoundingMode;
@@ -19,36 +20,77 @@ public final class CsvExporter {
     private CsvExporter() {}
 
     public static void writeScheduleCsv(InvestmentResult result, boolean monthly, Writer writer) throws IOException {
+        writeScheduleCsv(result, monthly, writer, null);
+    }
+
+    /**
+     * Writes the schedule, reporting progress to the listener (may be null) as rows are written;
+     * stops with an InterruptedIOException if the writing thread is interrupted.
+     */
+    static void writeScheduleCsv(InvestmentResult result, boolean monthly, Writer writer,
+                                 ExportService.Listener listener) throws IOException {
         try (PrintWriter pw = new PrintWriter(writer)) {
             if (monthly) {
                 pw.println("Month,Start Balance,Contributions,Interest,End Balance");
                 List<MonthlyData> monthlyData = result.getMonthlyData();
                 if (monthlyData != null) {
-                    for (MonthlyData d : monthlyData) {
+                    for (int i = 0; i < monthlyData.size(); i++) {
+                        MonthlyData d = monthlyData.get(i);
                         pw.printf(Locale.US, "%s,%.2f,%.2f,%.2f,%.2f%n",
                             d.getMonth(), asDouble(d.getStartBalance()), asDouble(d.getContributions()), asDouble(d.getInterestEarned()), asDouble(d.getEndBalance()));
+                        ExportService.rowWritten(i + 1, monthlyData.size(), listener);
                     }
                 }
             } else {
                 pw.println("Year,Start Balance,Contributions,Interest,End Balance");
                 List<YearlyData> yearlyData = result.getYearlyData();
                 if (yearlyData != null) {
-                    for (YearlyData d : yearlyData) {
+                    for (int i = 0; i < yearlyData.size(); i++) {
+                        YearlyData d = yearlyData.get(i);
                         pw.printf(Locale.US, "%d,%.2f,%.2f,%.2f,%.2f%n",
                             d.getYear(), asDouble(d.getStartBalance()), asDouble(d.getContributions()), asDouble(d.getInterestEarned()), asDouble(d.getEndBalance()));
+                        ExportService.rowWritten(i + 1, yearlyData.size(), listener);
                     }
                 }
             }
             pw.flush();
+            // PrintWriter swallows write errors; an export must not report success after one
+            if (pw.checkError()) {
+                throw new IOException("Error writing CSV.");
+            }
         }
     }
 
+    /**
+     * Writes the schedule to a file, gzip-compressed if its name ends in ".gz".
+     */
     public static void writeScheduleCsvToFile(InvestmentResult result, boolean monthly, File file) throws IOException {
-        try (Writer w = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+        try (Writer w = GzipFiles.newBufferedWriter(file.toPath(), false)) {
             writeScheduleCsv(result, monthly, w);
         }
     }
 
+    /**
+     * Reads back a schedule written by this class, compressed or not: the cells of each row
+     * after the header line.
+     */
+    public static List<String[]> readScheduleCsv(Path file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = GzipFiles.newBufferedReader(file)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("Empty schedule file: " + file);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    rows.add(line.split(",", -1));
+                }
+            }
+        }
+        return rows;
+    }
+
     private static double asDouble(BigDecimal bd) {
         if (bd == null) return 0.0;
         return bd.setScale(2, RoundingMode.HALF_UP).doubleValue();
@@ -0,0 +1,48 @@
+package com.investmentcalc;
+
+/**
+ * How often and when a given withdrawal runs out of money across Monte Carlo paths, from
+ * {@link WithdrawalPlanner#simulateDepletion}.
+ */
+public class DepletionSimulation {
+    private final InvestmentScenario scenario;
+    private final double annualWithdrawal;
+    private final int pathCount;
+    private final MonteCarloEstimate depletionProbability;
+    private final QuantileSketch depletionMonths;
+    private final long simulatedMonths;
+
+    DepletionSimulation(InvestmentScenario scenario, double annualWithdrawal, int pathCount,
+                        MonteCarloEstimate depletionProbability, QuantileSketch depletionMonths, long simulatedMonths) {
+        this.scenario = scenario;
+        this.annualWithdrawal = annualWithdrawal;
+        this.pathCount = pathCount;
+        this.depletionProbability = depletionProbability;
+        this.depletionMonths = depletionMonths;
+        this.simulatedMonths = simulatedMonths;
+    }
+
+    public InvestmentScenario getScenario() { return scenario; }
+    public double getAnnualWithdrawal() { return annualWithdrawal; }
+    public int getPathCount() { return pathCount; }
+    public MonteCarloEstimate getDepletionProbability() { return depletionProbability; }
+
+    /**
+     * Percentile (0-100) of the depletion month among the paths that ran out, or NaN if none did.
+     */
+    public double getDepletionMonth(double percentile) {
+        return depletionMonths.getCount() == 0 ? Double.NaN : depletionMonths.quantile(percentile / 100);
+    }
+
+    /**
+     * Months actually simulated; a path that runs out stops there.
+     */
+    public long getSimulatedMonths() { return simulatedMonths; }
+
+    /**
+     * Share of the full paths-times-months work that was skipped by stopping depleted paths.
+     */
+    public double getSkippedShare() {
+        return 1 - (double) simulatedMonths / ((long) pathCount * scenario.getTotalMonths());
+    }
+}
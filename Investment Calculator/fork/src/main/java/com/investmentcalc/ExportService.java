@@ -0,0 +1,266 @@
+package com.investmentcalc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes exports on its own small pool of I/O threads, so a slow disk or network drive never
+ * blocks the event dispatch thread.
+ *
+ * The pool has a fixed number of threads and a bounded queue; an export submitted while the
+ * queue is full is rejected with a RejectedExecutionException rather than piling up. Each export
+ * reports its progress to a listener and can be cancelled through the returned Future, which
+ * interrupts the writing thread. The file is written under a temporary name next to the target
+ * and moved over it only when complete, so a partial file never appears under the target name,
+ * and a cancelled or failed export leaves any previous file untouched.
+ */
+public final class ExportService {
+
+    /**
+     * Told about an export's progress and its end, from the I/O thread that runs it.
+     */
+    public interface Listener {
+        /**
+         * done of total units written, e.g. schedule rows.
+         */
+        default void progress(int done, int total) {
+        }
+
+        /**
+         * Called once the export succeeded, failed or was cancelled; see the Future for which.
+         */
+        default void finished(Future<Path> export) {
+        }
+    }
+
+    /**
+     * Body of an export: writes the complete content to the given file.
+     */
+    interface ExportWriter {
+        void write(Path file, Listener listener) throws IOException;
+    }
+
+    /**
+     * Rows written between progress reports and cancellation checks.
+     */
+    static final int PROGRESS_ROWS = 100;
+
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    private static final SecureRandom PART_NAMES = new SecureRandom();
+
+    private final ThreadPoolExecutor executor;
+
+    public ExportService() {
+        this(2, 16);
+    }
+
+    /**
+     * @param threads exports written at the same time
+     * @param queueCapacity exports that may wait for a thread before new ones are rejected
+     */
+    public ExportService(int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Threads and queue capacity must be positive.");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "export-io-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Exports the annual or monthly schedule as CSV, gzip-compressed if the target name ends in
+     * ".gz".
+     */
+    public Future<Path> exportScheduleCsv(InvestmentResult result, boolean monthly, Path target, Listener listener) {
+        if (result == null) {
+            throw new IllegalArgumentException("No results to export.");
+        }
+        boolean compress = target != null && GzipFiles.isGzipName(target);
+        return submit(target, listener, (file, progress) -> {
+            try (Writer writer = GzipFiles.newBufferedWriter(file, compress, false)) {
+                CsvExporter.writeScheduleCsv(result, monthly, writer, progress);
+            }
+        });
+    }
+
+    /**
+     * Saves the text report of {@link TextFileSaver}, gzip-compressed if the target name ends in
+     * ".gz".
+     */
+    public Future<Path> saveResultsText(InvestmentResult result, Path target, Listener listener) {
+        if (result == null) {
+            throw new IllegalArgumentException("No results to save.");
+        }
+        boolean compress = target != null && GzipFiles.isGzipName(target);
+        return submit(target, listener, (file, progress) -> {
+            progress.progress(0, 1);
+            try (Writer writer = GzipFiles.newBufferedWriter(file, compress, false)) {
+                writer.write(TextFileSaver.formatResultsForFile(result));
+            }
+            progress.progress(1, 1);
+        });
+    }
+
+    /**
+     * Runs an export on the I/O threads: writes to a temporary file, then moves it to the target.
+     */
+    Future<Path> submit(Path target, Listener listener, ExportWriter body) {
+        if (target == null) {
+            throw new IllegalArgumentException("Please choose a file to export to.");
+        }
+        Listener notified = listener != null ? listener : NO_LISTENER;
+        Path absolute = target.toAbsolutePath();
+        ExportTask export = new ExportTask(task -> writeAndMove(absolute, notified, body, task), notified);
+        executor.execute(export);
+        return export;
+    }
+
+    private static Path writeAndMove(Path target, Listener listener, ExportWriter body, ExportTask task)
+            throws IOException {
+        Path temp = createPartFile(target);
+        try {
+            body.write(temp, listener);
+            checkpoint();
+            if (!task.beginCommit()) {
+                throw new InterruptedIOException("Export cancelled.");
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Creates the temporary file next to the target, so the final move is a rename on the same
+     * file system. Unlike Files.createTempFile, which makes it readable by the owner only, the file
+     * gets the permissions of the file it replaces, or of any new file under the umask.
+     */
+    private static Path createPartFile(Path target) throws IOException {
+        Path temp;
+        while (true) {
+            temp = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(PART_NAMES.nextLong()) + ".part");
+            try {
+                Files.createFile(temp);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Taken by another export; try another name
+            }
+        }
+        if (Files.exists(target) && Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            try {
+                Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+        return temp;
+    }
+
+    /**
+     * An export whose cancellation and final move exclude each other, so the Future's outcome
+     * always matches the file on disk: once the move has begun, cancel() returns false and the
+     * export completes; once cancelled, the move never begins.
+     */
+    static final class ExportTask extends FutureTask<Path> {
+
+        /**
+         * Body of the task, given the task so it can begin the commit.
+         */
+        interface Work {
+            Path run(ExportTask task) throws Exception;
+        }
+
+        private final Listener listener;
+        private boolean committing;
+
+        ExportTask(Work work, Listener listener) {
+            this(new ExportTask[1], work, listener);
+        }
+
+        private ExportTask(ExportTask[] self, Work work, Listener listener) {
+            super(() -> work.run(self[0]));
+            self[0] = this;
+            this.listener = listener;
+        }
+
+        /**
+         * Marks the point of no return; false if the export was cancelled first.
+         */
+        synchronized boolean beginCommit() {
+            if (isCancelled()) {
+                return false;
+            }
+            committing = true;
+            return true;
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            return !committing && super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        protected void done() {
+            listener.finished(this);
+        }
+    }
+
+    /**
+     * Reports progress every {@link #PROGRESS_ROWS} rows and stops a cancelled export there.
+     */
+    static void rowWritten(int done, int total, Listener listener) throws InterruptedIOException {
+        if (done % PROGRESS_ROWS == 0 || done == total) {
+            checkpoint();
+            if (listener != null) {
+                listener.progress(done, total);
+            }
+        }
+    }
+
+    private static void checkpoint() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Export cancelled.");
+        }
+    }
+
+    /**
+     * Exports waiting for a thread or being written.
+     */
+    int getPendingCount() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    /**
+     * Lets running exports finish and rejects new ones.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
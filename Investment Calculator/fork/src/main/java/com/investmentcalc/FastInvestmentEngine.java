@@ -0,0 +1,23 @@
+package com.investmentcalc;
+
+/**
+ * Month-by-month engine computing in primitive doubles.
+ *
+ * Produces the same schedule shape as {@link FinalInvestmentEngine} (monthly and yearly rows),
+ * trading the BigDecimal arithmetic for speed. Differences against the reference stay far below
+ * a cent for realistic plans; use the precise engine where exact decimal results matter.
+ */
+public class FastInvestmentEngine implements InvestmentEngine {
+
+    public static final String NAME = "fast";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public InvestmentResult calculateInvestment(InvestmentScenario scenario) {
+        return PrimitiveSchedule.simulate(scenario).toResult(scenario);
+    }
+}
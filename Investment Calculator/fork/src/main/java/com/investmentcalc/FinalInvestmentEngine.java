@@ -17,49 +17,92 @@ import java.util.List;
  * Note: MonthlyData, YearlyData and InvestmentResult classes are assumed to exist
  * and provide constructors/getters used here.
  */
-public class FinalInvestmentEngine {
-
-    public InvestmentResult calculateInvestment(
-            BigDecimal startingAmount,
-            int years,
-            BigDecimal annualReturnRate,     // as percent, e.g. 7 for 7%
-            String compoundingFrequency,
-            BigDecimal additionalContribution,
-            int contributionsPerYear,
-            boolean contributeAtBeginning) {
-
-        List<MonthlyData> monthlyData = new ArrayList<>();
-        List<YearlyData> yearlyData = new ArrayList<>();
-
-        // Generate monthly schedule and also compute totals from it
-        generateMonthlySchedule(
-            monthlyData,
-            startingAmount,
-            years,
-            annualReturnRate,
-            getCompoundingPeriods(compoundingFrequency),
-            additionalContribution,
-            contributionsPerYear,
-            contributeAtBeginning
-        );
+public class FinalInvestmentEngine implements InvestmentEngine {
 
-        // Compute final totals from monthlyData
-        BigDecimal currentBalance = startingAmount;
-        BigDecimal totalContributions = startingAmount;
-        BigDecimal totalInterest = BigDecimal.ZERO;
+    @Override
+    public String getName() {
+        return InvestmentEngines.PRECISE;
+    }
+
+    @Override
+    public InvestmentResult calculateInvestment(InvestmentScenario scenario) {
+        BigDecimal startingAmount = scenario.getStartingAmount();
+        List<ScheduleCheckpoint> checkpoints = new ArrayList<>(scenario.getYears() + 1);
+        checkpoints.add(new ScheduleCheckpoint(0, startingAmount, startingAmount, BigDecimal.ZERO));
+        return calculateFrom(scenario,
+            new ArrayList<>(scenario.getTotalMonths()), new ArrayList<>(scenario.getYears()), checkpoints);
+    }
+
+    /**
+     * Resumes from the prior result's last yearly checkpoint before the first month the edit
+     * changes, reusing the prior rows up to there. Extending a 30-year plan to 40 years only
+     * simulates the 120 new months. Results without checkpoints are recalculated in full.
+     */
+    @Override
+    public InvestmentResult recalculate(InvestmentResult prior, InvestmentScenario scenario) {
+        if (prior == null || prior.getScenario() == null) {
+            return calculateInvestment(scenario);
+        }
+        int firstChangedMonth = prior.getScenario().firstChangedMonth(scenario);
+        ScheduleCheckpoint from = prior.getCheckpointAtOrBefore(firstChangedMonth - 1);
+        if (from == null || from.getMonth() == 0) {
+            return calculateInvestment(scenario);
+        }
+
+        int years = from.getMonth() / 12;
+        List<MonthlyData> monthlyData = new ArrayList<>(scenario.getTotalMonths());
+        monthlyData.addAll(prior.getMonthlyData().subList(0, from.getMonth()));
+        List<YearlyData> yearlyData = new ArrayList<>(scenario.getYears());
+        yearlyData.addAll(prior.getYearlyData().subList(0, years));
+        List<ScheduleCheckpoint> checkpoints = new ArrayList<>(scenario.getYears() + 1);
+        checkpoints.addAll(prior.getCheckpoints().subList(0, years + 1));
+        return calculateFrom(scenario, monthlyData, yearlyData, checkpoints);
+    }
+
+    /**
+     * Continues the schedule from the last checkpoint, whose months are already in monthlyData
+     * and whose years are already in yearlyData, to the end of the scenario.
+     */
+    private InvestmentResult calculateFrom(InvestmentScenario scenario, List<MonthlyData> monthlyData,
+                                           List<YearlyData> yearlyData, List<ScheduleCheckpoint> checkpoints) {
+        BigDecimal startingAmount = scenario.getStartingAmount();
+        ScheduleCheckpoint from = checkpoints.get(checkpoints.size() - 1);
+        int firstMonth = from.getMonth() + 1;
+        int fromYear = from.getMonth() / 12;
+
+        // Generate the remaining monthly schedule and also compute totals from it
+        List<BigDecimal> yearEndBalances = new ArrayList<>();
+        List<BigDecimal> yearEndDeflators = new ArrayList<>();
+        generateMonthlySchedule(monthlyData, scenario, from, yearEndBalances, yearEndDeflators);
 
-        BigDecimal yearStartBalance = startingAmount;
+        // Compute final totals from monthlyData
+        MonthlyData lastReused = firstMonth == 1 ? null : monthlyData.get(firstMonth - 2);
+        BigDecimal currentBalance = lastReused == null ? startingAmount : lastReused.getEndBalance();
+        BigDecimal realBalance = lastReused == null ? startingAmount : lastReused.getRealEndBalance();
+        BigDecimal totalContributions = from.getTotalContributions();
+        BigDecimal totalInterest = from.getTotalInterest();
+        BigDecimal totalFees = from.getTotalFees();
+        BigDecimal totalTaxes = from.getTotalTaxes();
+
+        BigDecimal yearStartBalance = currentBalance;
         BigDecimal yearContributions = BigDecimal.ZERO;
         BigDecimal yearInterest = BigDecimal.ZERO;
+        BigDecimal yearFees = BigDecimal.ZERO;
+        BigDecimal yearTaxes = BigDecimal.ZERO;
 
-        for (int i = 0; i < monthlyData.size(); i++) {
+        for (int i = firstMonth - 1; i < monthlyData.size(); i++) {
             MonthlyData md = monthlyData.get(i);
             totalContributions = totalContributions.add(md.getContributions());
             totalInterest = totalInterest.add(md.getInterestEarned());
+            totalFees = totalFees.add(md.getFees());
+            totalTaxes = totalTaxes.add(md.getTaxes());
             currentBalance = md.getEndBalance();
+            realBalance = md.getRealEndBalance();
 
             yearContributions = yearContributions.add(md.getContributions());
             yearInterest = yearInterest.add(md.getInterestEarned());
+            yearFees = yearFees.add(md.getFees());
+            yearTaxes = yearTaxes.add(md.getTaxes());
 
             if ((i + 1) % 12 == 0) {
                 int year = (i + 1) / 12;
@@ -68,106 +111,75 @@ public class FinalInvestmentEngine {
                     yearStartBalance,
                     yearContributions,
                     yearInterest,
-                    currentBalance
+                    currentBalance,
+                    yearFees,
+                    yearTaxes,
+                    realBalance
                 ));
+                checkpoints.add(new ScheduleCheckpoint(i + 1, yearEndBalances.get(year - fromYear - 1),
+                    totalContributions, totalInterest, totalFees, totalTaxes, yearEndDeflators.get(year - fromYear - 1)));
                 yearStartBalance = currentBalance;
                 yearContributions = BigDecimal.ZERO;
                 yearInterest = BigDecimal.ZERO;
+                yearFees = BigDecimal.ZERO;
+                yearTaxes = BigDecimal.ZERO;
             }
         }
 
         return new InvestmentResult(
                 startingAmount,
-                years,
-                annualReturnRate,
-                compoundingFrequency,
+                scenario.getYears(),
+                scenario.getAnnualReturnRate(),
+                scenario.getCompoundingFrequency().getLabel(),
                 currentBalance,
                 totalContributions,
                 totalInterest,
                 monthlyData,
-                yearlyData
+                yearlyData,
+                scenario,
+                checkpoints,
+                totalFees,
+                totalTaxes,
+                realBalance
         );
     }
 
     /**
      * Simulate month-by-month but compute monthly interest using the discrete compounding math:
      * monthlyMultiplier = (1 + periodicRate)^(compoundingPeriodsPerYear / 12.0)
+     *
+     * Starts from the given checkpoint and records the unrounded balance and deflator at the end
+     * of every year in yearEndBalances and yearEndDeflators. Fees, taxes and the real balance
+     * are worked out in the same pass when the scenario has adjustments.
      */
-    private void generateMonthlySchedule(
-        List<MonthlyData> monthlyData,
-        BigDecimal startingAmount,
-        int years,
-        BigDecimal annualReturnRate,
-        int compoundingPeriodsPerYear,
-        BigDecimal additionalContribution,
-        int contributionsPerYear,
-        boolean contributeAtBeginning) {
-
-        BigDecimal currentBalance = startingAmount;
-
-        // contribution per event (e.g. if contributionsPerYear=12, this is monthly amount)
-        BigDecimal contributionAmountPerEvent = BigDecimal.ZERO;
-        if (contributionsPerYear > 0) {
-            contributionAmountPerEvent = additionalContribution
-                    .divide(BigDecimal.valueOf(contributionsPerYear), 20, RoundingMode.HALF_UP);
-        }
-
-        int totalMonths = years * 12;
-
-        // Convert annual percent to decimal (e.g. 7% -> 0.07)
-        BigDecimal annualRateDecimal = annualReturnRate
-                .divide(BigDecimal.valueOf(100), 30, RoundingMode.HALF_UP);
+    private void generateMonthlySchedule(List<MonthlyData> monthlyData, InvestmentScenario scenario,
+                                         ScheduleCheckpoint from, List<BigDecimal> yearEndBalances,
+                                         List<BigDecimal> yearEndDeflators) {
 
-        // periodic rate per compounding period (nominal) : r_period = annualRateDecimal / compoundingPeriodsPerYear
-        BigDecimal periodicRate = annualRateDecimal
-                .divide(BigDecimal.valueOf(compoundingPeriodsPerYear), 30, RoundingMode.HALF_UP);
+        BigDecimal currentBalance = from.getBalance();
+        BigDecimal deflator = from.getDeflator();
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+        int totalMonths = scenario.getTotalMonths();
 
-        // multiplier per compounding period: (1 + r_period)
-        BigDecimal periodMultiplier = BigDecimal.ONE.add(periodicRate);
+        PlanAdjustments adjustments = scenario.getAdjustments();
+        boolean adjusted = !adjustments.isNone();
+        boolean deductions = adjustments.hasDeductions();
+        BigDecimal taxFactor = adjustments.getTaxFactor();
+        BigDecimal monthlyFeeFactor = adjustments.getMonthlyFeeFactor();
+        BigDecimal monthlyDeflator = adjustments.getMonthlyDeflator();
 
-        // periods per month (may be fractional, e.g. weekly: 52/12 = 4.3333)
-        double periodsPerMonth = (double) compoundingPeriodsPerYear / 12.0;
-
-        // monthly multiplier = (1 + r_period)^(periodsPerMonth)
-        // use double pow then convert to BigDecimal with scale
-        double periodMultiplierDouble = periodMultiplier.doubleValue();
-        double monthlyMultiplierDouble = Math.pow(periodMultiplierDouble, periodsPerMonth);
-        BigDecimal monthlyMultiplier = BigDecimal.valueOf(monthlyMultiplierDouble);
-
-        // monthly interest factor = monthlyMultiplier - 1
-        BigDecimal monthlyInterestFactor = monthlyMultiplier.subtract(BigDecimal.ONE);
+        // monthly interest factor = monthlyMultiplier - 1, cached per (rate, frequency)
+        BigDecimal monthlyInterestFactor = scenario.getFactors().getMonthlyInterestFactor();
 
         // Build a simple contribution schedule mapping months -> contribution amount.
         // For standard frequencies (1,4,12) use explicit months; otherwise distribute evenly per month.
         // This preserves the month semantics you described.
-        for (int month = 1; month <= totalMonths; month++) {
+        for (int month = from.getMonth() + 1; month <= totalMonths; month++) {
 
             BigDecimal monthStartBalance = currentBalance;
-            BigDecimal thisMonthContributions = BigDecimal.ZERO;
 
             // Determine contributions this month
-            if (contributionsPerYear > 0 || additionalContribution.compareTo(BigDecimal.ZERO) != 0) {
-                switch (contributionsPerYear) {
-                    case 1: // annual -> assumed in month 1 (January)
-                        if ((month - 1) % 12 == 0) {
-                            thisMonthContributions = contributionAmountPerEvent;
-                        }
-                        break;
-                    case 4: // quarterly -> months 1,4,7,10
-                        int monthInYear = ((month - 1) % 12) + 1;
-                        if (monthInYear == 1 || monthInYear == 4 || monthInYear == 7 || monthInYear == 10) {
-                            thisMonthContributions = contributionAmountPerEvent;
-                        }
-                        break;
-                    case 12: // monthly
-                        thisMonthContributions = contributionAmountPerEvent;
-                        break;
-                    default:
-                        // distribute evenly across 12 months (for nonstandard contributed-per-year values)
-                        thisMonthContributions = additionalContribution.divide(BigDecimal.valueOf(12), 20, RoundingMode.HALF_UP);
-                        break;
-                }
-            }
+            BigDecimal thisMonthContributions = scenario.getContributionForMonth(month);
 
             // Handle both positive contributions and negative withdrawals
             if (contributeAtBeginning && thisMonthContributions.compareTo(BigDecimal.ZERO) != 0) {
@@ -176,7 +188,7 @@ public class FinalInvestmentEngine {
 
             // Calculate interest for the month using the discrete compounding monthly factor
             // interest = balance * monthlyInterestFactor
-            BigDecimal thisMonthInterest = monthStartBalance.multiply(monthlyInterestFactor).setScale(20, RoundingMode.HALF_UP);
+            BigDecimal thisMonthInterest;
 
             // Apply interest to current balance (if contribution was added at beginning, interest should be applied to monthStartBalance or to balance including beginning-of-month contribution?)
             // We use monthStartBalance for the interest base so that "contributeAtBeginning" yields contribution earning interest for the month.
@@ -193,6 +205,16 @@ public class FinalInvestmentEngine {
             // Add computed interest to current balance
             currentBalance = currentBalance.add(thisMonthInterest);
 
+            // Tax on the month's return, then the fee on what is left
+            BigDecimal thisMonthTax = BigDecimal.ZERO;
+            BigDecimal thisMonthFee = BigDecimal.ZERO;
+            if (deductions) {
+                thisMonthTax = thisMonthInterest.multiply(taxFactor).setScale(20, RoundingMode.HALF_UP);
+                currentBalance = currentBalance.subtract(thisMonthTax);
+                thisMonthFee = currentBalance.multiply(monthlyFeeFactor).setScale(20, RoundingMode.HALF_UP);
+                currentBalance = currentBalance.subtract(thisMonthFee);
+            }
+
             // Handle end-of-period contributions/withdrawals
             if (!contributeAtBeginning && thisMonthContributions.compareTo(BigDecimal.ZERO) != 0) {
                 currentBalance = currentBalance.add(thisMonthContributions); // This will subtract if negative
@@ -209,24 +231,19 @@ public class FinalInvestmentEngine {
             BigDecimal displayedInterest = thisMonthInterest.setScale(10, RoundingMode.HALF_UP);
             BigDecimal displayedEnd = currentBalance.setScale(10, RoundingMode.HALF_UP);
 
-            monthlyData.add(new MonthlyData(monthLabel, displayedStart, displayedContrib, displayedInterest, displayedEnd));
-        }
-    }
-
-    private int getCompoundingPeriods(String compoundingFrequency) {
-        switch (compoundingFrequency) {
-            case "Annually":
-                return 1;
-            case "Quarterly":
-                return 4;
-            case "Monthly":
-                return 12;
-            case "Weekly":
-                return 52;
-            case "Daily":
-                return 365;
-            default:
-                return 12;
+            if (adjusted) {
+                deflator = deflator.multiply(monthlyDeflator).setScale(20, RoundingMode.HALF_UP);
+                monthlyData.add(new MonthlyData(monthLabel, displayedStart, displayedContrib, displayedInterest, displayedEnd,
+                    thisMonthFee.setScale(10, RoundingMode.HALF_UP),
+                    thisMonthTax.setScale(10, RoundingMode.HALF_UP),
+                    currentBalance.multiply(deflator).setScale(10, RoundingMode.HALF_UP)));
+            } else {
+                monthlyData.add(new MonthlyData(monthLabel, displayedStart, displayedContrib, displayedInterest, displayedEnd));
+            }
+            if (month % 12 == 0) {
+                yearEndBalances.add(currentBalance);
+                yearEndDeflators.add(deflator);
+            }
         }
     }
 }
@@ -0,0 +1,253 @@
+package com.investmentcalc;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.XYItemEntity;
+import org.jfree.chart.event.ChartProgressEvent;
+import org.jfree.chart.event.ChartProgressListener;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Full-screen view of the investment growth chart.
+ *
+ * Kept out of InvestmentCalculator so that the JFreeChart Swing classes it needs are only
+ * loaded the first time the user opens the full-screen view. The frame is created once and
+ * reused for every subsequent opening.
+ */
+public class FullScreenChartFrame extends JFrame {
+    private final JPanel fullScreenPanel;
+    private org.jfree.chart.ChartPanel fullScreenChartPanel;
+    private JFreeChart chart;
+    private String selectedCurrency = "USD";
+    private ChartHitIndex hitIndex; // null until the first lookup after each drawing
+    private final ChartProgressListener redrawListener = event -> {
+        if (event.getType() == ChartProgressEvent.DRAWING_FINISHED) {
+            hitIndex = null;
+        }
+    };
+
+    public FullScreenChartFrame() {
+        super("Investment Growth Chart - Full Screen");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setExtendedState(JFrame.MAXIMIZED_BOTH);
+        setUndecorated(false);
+
+        // Create a panel for the full-screen chart
+        fullScreenPanel = new JPanel(new BorderLayout());
+        fullScreenPanel.setBackground(Color.WHITE);
+
+        // Add close button at the top
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        controlPanel.setBackground(Color.WHITE);
+
+        JButton closeButton = new JButton("Close Full Screen");
+        closeButton.setBackground(new Color(220, 53, 69));
+        closeButton.setForeground(Color.WHITE);
+        closeButton.setFocusPainted(false);
+        closeButton.addActionListener(e -> dispose());
+
+        JButton printButton = new JButton("Save Chart Image");
+        printButton.setBackground(new Color(40, 167, 69));
+        printButton.setForeground(Color.WHITE);
+        printButton.setFocusPainted(false);
+        printButton.addActionListener(e -> saveChartImage());
+
+        controlPanel.add(printButton);
+        controlPanel.add(closeButton);
+
+        fullScreenPanel.add(controlPanel, BorderLayout.NORTH);
+        add(fullScreenPanel);
+
+        // Add ESC key listener to close full screen
+        fullScreenPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+            .put(KeyStroke.getKeyStroke("ESCAPE"), "closeFullScreen");
+        fullScreenPanel.getActionMap().put("closeFullScreen", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dispose();
+            }
+        });
+    }
+
+    /**
+     * Shows the given chart, replacing whatever chart was displayed the last time the frame was open.
+     */
+    public void showChart(JFreeChart chart, String currency, Component parent) {
+        if (this.chart != null) {
+            this.chart.removeProgressListener(redrawListener);
+        }
+        this.chart = chart;
+        this.selectedCurrency = currency;
+        hitIndex = null;
+        chart.addProgressListener(redrawListener);
+
+        if (fullScreenChartPanel != null) {
+            fullScreenPanel.remove(fullScreenChartPanel);
+        }
+        // Create enhanced chart panel for full screen with tooltips
+        fullScreenChartPanel = createEnhancedChartPanel(chart);
+        fullScreenPanel.add(fullScreenChartPanel, BorderLayout.CENTER);
+
+        pack();
+        setLocationRelativeTo(parent);
+        setVisible(true);
+    }
+
+    private org.jfree.chart.ChartPanel createEnhancedChartPanel(JFreeChart chart) {
+        // Create a chart panel with enhanced tooltips
+        org.jfree.chart.ChartPanel chartPanel = new org.jfree.chart.ChartPanel(chart) {
+            @Override
+            public String getToolTipText(MouseEvent e) {
+                XYItemEntity xyEntity = getItemAt(this, e);
+                if (xyEntity != null) {
+                    XYDataset dataset = xyEntity.getDataset();
+                    int series = xyEntity.getSeriesIndex();
+                    int item = xyEntity.getItem();
+
+                    double xValue = dataset.getXValue(series, item);
+                    String seriesName = dataset.getSeriesKey(series).toString();
+
+                    return String.format("<html><b>%s</b><br>Year: %.0f<br>Value: %s</html>",
+                        seriesName, xValue, formatValue(dataset, series, item));
+                }
+                return super.getToolTipText(e);
+            }
+        };
+
+        // Add click listener to show information dialog
+        chartPanel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                XYItemEntity xyEntity = getItemAt(chartPanel, e);
+                if (xyEntity != null) {
+                    XYDataset dataset = xyEntity.getDataset();
+                    int series = xyEntity.getSeriesIndex();
+                    int item = xyEntity.getItem();
+
+                    double xValue = dataset.getXValue(series, item);
+                    String seriesName = dataset.getSeriesKey(series).toString();
+
+                    // Create detailed information dialog
+                    String message = String.format(
+                        "<html><div style='font-family: Arial; font-size: 14px;'>" +
+                        "<h3 style='color: #2c5aa0; margin-bottom: 10px;'>%s</h3>" +
+                        "<div style='margin-bottom: 8px;'><b>Year:</b> %.0f</div>" +
+                        "<div style='margin-bottom: 8px;'><b>Value:</b> %s</div>" +
+                        "<div style='font-size: 12px; color: #666; margin-top: 15px;'>Click on any data point to see detailed information</div>" +
+                        "</div></html>",
+                        seriesName, xValue, formatValue(dataset, series, item)
+                    );
+
+                    JOptionPane.showMessageDialog(
+                        chartPanel,
+                        message,
+                        "Investment Data Point",
+                        JOptionPane.INFORMATION_MESSAGE
+                    );
+                }
+            }
+        });
+
+        // Configure the chart panel for full screen
+        chartPanel.setPreferredSize(new Dimension(1200, 800));
+        chartPanel.setMaximumDrawWidth(2000);
+        chartPanel.setMaximumDrawHeight(2000);
+        chartPanel.setMinimumDrawWidth(100);
+        chartPanel.setMinimumDrawHeight(100);
+
+        // Enable tooltips (for hover effect)
+        chartPanel.setDisplayToolTips(true);
+
+        return chartPanel;
+    }
+
+    /**
+     * The data item under the mouse, looked up in the hit index of the last drawing, which is
+     * built on the first hover or click after the chart was drawn.
+     */
+    private XYItemEntity getItemAt(org.jfree.chart.ChartPanel chartPanel, MouseEvent e) {
+        if (hitIndex == null) {
+            EntityCollection entities = chartPanel.getChartRenderingInfo().getEntityCollection();
+            if (entities == null) {
+                return null;
+            }
+            hitIndex = ChartHitIndex.build(entities);
+        }
+        // Entities are in chart coordinates, which are scaled when the panel exceeds the draw limits
+        Insets insets = chartPanel.getInsets();
+        double x = (e.getX() - insets.left) / chartPanel.getScaleX();
+        double y = (e.getY() - insets.top) / chartPanel.getScaleY();
+        return hitIndex.getItemAt(x, y);
+    }
+
+    /**
+     * The item's value, or for a percentile band of a fan chart the range it covers.
+     */
+    private String formatValue(XYDataset dataset, int series, int item) {
+        String currencySymbol = InvestmentChartPanel.getCurrencySymbol(selectedCurrency);
+        if (dataset instanceof YIntervalSeriesCollection) {
+            YIntervalSeriesCollection bands = (YIntervalSeriesCollection) dataset;
+            return String.format("%s%,.2f - %s%,.2f", currencySymbol, bands.getStartYValue(series, item),
+                currencySymbol, bands.getEndYValue(series, item));
+        }
+        return String.format("%s%,.2f", currencySymbol, dataset.getYValue(series, item));
+    }
+
+    private void saveChartImage() {
+        if (chart == null) {
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Chart Image");
+        fileChooser.setSelectedFile(new java.io.File("investment_chart.png"));
+
+        // Set file filter for image formats
+        javax.swing.filechooser.FileNameExtensionFilter pngFilter =
+            new javax.swing.filechooser.FileNameExtensionFilter("PNG Images (*.png)", "png");
+        javax.swing.filechooser.FileNameExtensionFilter jpgFilter =
+            new javax.swing.filechooser.FileNameExtensionFilter("JPEG Images (*.jpg)", "jpg");
+        fileChooser.addChoosableFileFilter(pngFilter);
+        fileChooser.addChoosableFileFilter(jpgFilter);
+        fileChooser.setFileFilter(pngFilter);
+
+        int userSelection = fileChooser.showSaveDialog(this);
+        if (userSelection == JFileChooser.APPROVE_OPTION) {
+            try {
+                java.io.File fileToSave = fileChooser.getSelectedFile();
+                if (fileChooser.getFileFilter() == jpgFilter) {
+                    if (!fileToSave.getName().toLowerCase().endsWith(".jpg")) {
+                        fileToSave = new java.io.File(fileToSave.getAbsolutePath() + ".jpg");
+                    }
+                } else {
+                    if (!fileToSave.getName().toLowerCase().endsWith(".png")) {
+                        fileToSave = new java.io.File(fileToSave.getAbsolutePath() + ".png");
+                    }
+                }
+
+                // Save the chart as image
+                ChartUtils.saveChartAsPNG(fileToSave, chart, 1200, 800);
+
+                JOptionPane.showMessageDialog(this,
+                    "Chart saved successfully!",
+                    "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(this,
+                    "Error saving chart: " + e.getMessage(),
+                    "Save Error",
+                    JOptionPane.ERROR_MESSAGE);
+                e.printStackTrace();
+            }
+        }
+    }
+}
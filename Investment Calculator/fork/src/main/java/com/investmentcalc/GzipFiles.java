@@ -0,0 +1,103 @@
+package com.investmentcalc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads and writes export files that may be gzip-compressed.
+ *
+ * Files named "*.gz" are written compressed, with the compression on its own thread (see
+ * {@link PipelinedGzipOutputStream}) so that formatting and compressing overlap. Readers detect
+ * gzip from the content rather than the name, so a renamed file still reads, and read files that
+ * hold several gzip members one after the other, as appending to a compressed file produces.
+ */
+public final class GzipFiles {
+
+    public static final String SUFFIX = ".gz";
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private GzipFiles() {}
+
+    /**
+     * True if the file name marks it as gzip-compressed.
+     */
+    public static boolean isGzipName(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(SUFFIX);
+    }
+
+    /**
+     * A UTF-8 writer for the file, compressed if its name ends in ".gz".
+     */
+    public static Writer newBufferedWriter(Path file, boolean append) throws IOException {
+        return newBufferedWriter(file, isGzipName(file), append);
+    }
+
+    /**
+     * A UTF-8 writer for the file, compressed or not regardless of its name. Appending to a
+     * compressed file adds a new gzip member, which {@link #newBufferedReader} reads on from the
+     * previous one.
+     */
+    public static Writer newBufferedWriter(Path file, boolean compress, boolean append) throws IOException {
+        OutputStream out = append
+            ? Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+            : Files.newOutputStream(file);
+        if (compress) {
+            try {
+                out = new PipelinedGzipOutputStream(out, Deflater.DEFAULT_COMPRESSION);
+            } catch (IOException e) {
+                out.close();
+                throw e;
+            }
+        }
+        // The compressor already buffers, so this only batches the character encoding
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A UTF-8 reader for the file, decompressing it if it is gzip.
+     */
+    public static BufferedReader newBufferedReader(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), PipelinedGzipOutputStream.BUFFER_SIZE);
+        try {
+            in.mark(2);
+            int magic = in.read() | (in.read() << 8);
+            in.reset();
+            if (magic == GZIP_MAGIC) {
+                in = new GZIPInputStream(in, PipelinedGzipOutputStream.BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the whole file as text, decompressing it if it is gzip.
+     */
+    public static String readString(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        try (BufferedReader reader = newBufferedReader(file)) {
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, n);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,15 +1,9 @@
 package com.investmentcalc;
 
 import com.formdev.flatlaf.FlatLightLaf;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.ChartUtils;
-import org.jfree.chart.entity.ChartEntity;
-import org.jfree.chart.entity.XYItemEntity;
-import org.jfree.data.xy.XYDataset;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -17,6 +11,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 /**
  * Main Investment Calculator Application
@@ -32,20 +30,44 @@ public class InvestmentCalculator extends JFrame {
     private JTextField contributionFrequencyField;
     private JComboBox<String> contributionTimingCombo;
     private JComboBox<String> currencyCombo;
-    private JEditorPane resultsArea;
+    private JComboBox<String> engineCombo;
+    private ResultsSummaryPanel resultsArea;
     private JTabbedPane scheduleTabbedPane;
+    private ProgressiveScheduleView annualScheduleView;
+    private ProgressiveScheduleView monthlyScheduleView;
+    private InvestmentResult scheduleResult; // result the schedule tabs were built for
     
-    private FinalInvestmentEngine calculator;
+    private InvestmentEngine calculator;
+    // Chart components pull in JFreeChart, so they are created on the first calculation;
+    // until then the holders below show a lightweight placeholder.
+    private JPanel chartHolder;
+    private JPanel pieChartHolder;
     private InvestmentChartPanel chartPanelComponent;
     private InvestmentPieChartPanel pieChartPanelComponent; // Added pie chart panel
     private String selectedCurrency = "USD";
     private InvestmentResult lastResult; // store last calculated result for export
     
-    private JFrame fullScreenChartFrame;
+    private FullScreenChartFrame fullScreenChartFrame;
+    private JTabbedPane chartTabs;
+    private JPanel heatmapTab;
+    private SensitivityHeatmapPanel heatmapPanel;
+    private JComboBox<SensitivityHeatmapPanel.View> heatmapViewCombo;
+    private InvestmentScenario heatmapScenario; // scenario the heatmap was last computed for
+    private JCheckBox fanChartCheckBox;
+    private JTextField volatilityField;
+    private JComboBox<String> fanPathsCombo;
+    private JLabel fanStatusLabel;
+    private SwingWorker<MonteCarloResult, Void> fanWorker;
+    private final ExportService exportService = new ExportService();
+    private JProgressBar exportProgressBar;
+    private JButton exportCancelButton;
+    private JLabel exportStatusLabel;
+    private Future<java.nio.file.Path> currentExport; // export whose progress is shown
+    private final ScenarioComparison comparison = new ScenarioComparison();
+    private ScenarioComparisonFrame comparisonFrame;
 
     public InvestmentCalculator() {
-        initializeLookAndFeel();
-        calculator = new FinalInvestmentEngine();
+        calculator = InvestmentEngines.getDefault();
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -56,7 +78,7 @@ public class InvestmentCalculator extends JFrame {
         setLocationRelativeTo(null);
     }
 
-    private void initializeLookAndFeel() {
+    static void initializeLookAndFeel() {
         try {
             UIManager.setLookAndFeel(new FlatLightLaf());
             // Ensure a sensible default font on some Linux/OpenJDK setups where
@@ -89,18 +111,50 @@ public class InvestmentCalculator extends JFrame {
         currencyCombo = new JComboBox<>(currencyOptions);
         currencyCombo.setSelectedIndex(0); // Default to USD
         
-        // Results area - using JEditorPane for HTML formatting
-        resultsArea = new JEditorPane();
-        resultsArea.setEditable(false);
-        resultsArea.setContentType("text/html");
-        resultsArea.setPreferredSize(new Dimension(350, 180));
+        engineCombo = new JComboBox<>(InvestmentEngines.getNames().toArray(new String[0]));
+        engineCombo.setSelectedItem(calculator.getName());
+        
+        // Results area - labels updated in place on every calculation
+        resultsArea = new ResultsSummaryPanel();
         
-        // Chart panels
-        chartPanelComponent = new InvestmentChartPanel(null);
-        pieChartPanelComponent = new InvestmentPieChartPanel(null); // Initialize pie chart panel
+        // Chart placeholders (the chart panels themselves are created lazily)
+        chartHolder = new JPanel(new BorderLayout());
+        chartHolder.add(createPlaceholderLabel("Chart will appear here after calculation"), BorderLayout.CENTER);
+        pieChartHolder = new JPanel(new BorderLayout());
+        pieChartHolder.setBorder(BorderFactory.createTitledBorder("End Balance Breakdown"));
+        pieChartHolder.add(createPlaceholderLabel("Pie chart will appear here."), BorderLayout.CENTER);
         
         // Schedule tabbed pane
         scheduleTabbedPane = new JTabbedPane();
+        scheduleTabbedPane.addChangeListener(e -> loadSelectedSchedule());
+    }
+
+    private JLabel createPlaceholderLabel(String message) {
+        JLabel placeholder = new JLabel(message, SwingConstants.CENTER);
+        placeholder.setFont(new Font(Font.SANS_SERIF, Font.ITALIC, 14));
+        placeholder.setForeground(Color.GRAY);
+        return placeholder;
+    }
+
+    private InvestmentChartPanel getChartPanelComponent() {
+        if (chartPanelComponent == null) {
+            chartPanelComponent = new InvestmentChartPanel(null);
+            chartHolder.removeAll();
+            chartHolder.add(chartPanelComponent, BorderLayout.CENTER);
+            chartHolder.revalidate();
+        }
+        return chartPanelComponent;
+    }
+
+    private InvestmentPieChartPanel getPieChartPanelComponent() {
+        if (pieChartPanelComponent == null) {
+            pieChartPanelComponent = new InvestmentPieChartPanel(null);
+            pieChartHolder.removeAll();
+            pieChartHolder.setBorder(null);
+            pieChartHolder.add(pieChartPanelComponent, BorderLayout.CENTER);
+            pieChartHolder.revalidate();
+        }
+        return pieChartPanelComponent;
     }
 
     private void setupLayout() {
@@ -133,7 +187,7 @@ public class InvestmentCalculator extends JFrame {
         JPanel panel = new JPanel(new GridBagLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Investment Parameters"));
         panel.setBackground(new Color(245, 245, 245));
-        panel.setMaximumSize(new Dimension(950, 220)); // Fixed maximum size
+        panel.setMaximumSize(new Dimension(950, 255)); // Fixed maximum size
         
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(5, 5, 5, 5);
@@ -187,12 +241,31 @@ public class InvestmentCalculator extends JFrame {
         gbc.gridx = 3;
         panel.add(currencyCombo, gbc);
         
+        // Calculation Engine
+        gbc.gridx = 0; gbc.gridy = 4;
+        panel.add(new JLabel("Calculation Engine:"), gbc);
+        gbc.gridx = 1;
+        panel.add(engineCombo, gbc);
+        
+        // Scenario comparison
+        JPanel comparePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        comparePanel.setOpaque(false);
+        JButton pinButton = new JButton("Pin for Comparison");
+        JButton compareButton = new JButton("Compare Pinned");
+        pinButton.addActionListener(e -> pinCurrentScenario());
+        compareButton.addActionListener(e -> showComparison());
+        comparePanel.add(pinButton);
+        comparePanel.add(compareButton);
+        gbc.gridx = 2; gbc.gridy = 4; gbc.gridwidth = 2;
+        panel.add(comparePanel, gbc);
+        gbc.gridwidth = 1;
+        
         // Calculate Button
         JButton calculateButton = new JButton("Calculate Investment");
         calculateButton.setBackground(new Color(0, 123, 255));
         calculateButton.setForeground(Color.WHITE);
         calculateButton.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
-        gbc.gridx = 0; gbc.gridy = 4; gbc.gridwidth = 2;
+        gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 2;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(15, 5, 5, 5);
         panel.add(calculateButton, gbc);
@@ -202,7 +275,7 @@ public class InvestmentCalculator extends JFrame {
         saveToTextButton.setBackground(new Color(40, 167, 69));
         saveToTextButton.setForeground(Color.WHITE);
         saveToTextButton.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
-        gbc.gridx = 2; gbc.gridy = 4; gbc.gridwidth = 2;
+        gbc.gridx = 2; gbc.gridy = 5; gbc.gridwidth = 2;
         gbc.anchor = GridBagConstraints.CENTER;
         gbc.insets = new Insets(15, 5, 5, 5);
         panel.add(saveToTextButton, gbc);
@@ -229,8 +302,8 @@ public class InvestmentCalculator extends JFrame {
         chartsPanel.setLayout(new BoxLayout(chartsPanel, BoxLayout.Y_AXIS));
     
         // Top chart: Pie Chart
-        pieChartPanelComponent.setPreferredSize(new Dimension(550, 250));
-        pieChartPanelComponent.setMaximumSize(new Dimension(Integer.MAX_VALUE, 250)); // Constrain height
+        pieChartHolder.setPreferredSize(new Dimension(550, 250));
+        pieChartHolder.setMaximumSize(new Dimension(Integer.MAX_VALUE, 250)); // Constrain height
     
         // Bottom chart: Line Chart with click-to-fullscreen
         JPanel chartContainer = new JPanel(new BorderLayout());
@@ -262,22 +335,64 @@ public class InvestmentCalculator extends JFrame {
         JLayeredPane layeredPane = new JLayeredPane();
         layeredPane.setPreferredSize(new Dimension(550, 320));
         
-        chartPanelComponent.setBounds(0, 0, 550, 320);
+        chartHolder.setBounds(0, 0, 550, 320);
         
         JPanel chartOverlay = new JPanel();
         chartOverlay.setOpaque(false);
         chartOverlay.setBounds(0, 0, 550, 320);
         chartOverlay.addMouseListener(fullScreenListener); // Add listener to overlay
         
-        layeredPane.add(chartPanelComponent, JLayeredPane.DEFAULT_LAYER);
+        layeredPane.add(chartHolder, JLayeredPane.DEFAULT_LAYER);
         layeredPane.add(chartOverlay, JLayeredPane.PALETTE_LAYER);
         
         chartContainer.add(layeredPane, BorderLayout.CENTER);
+
+        // Optional Monte Carlo fan over the growth chart
+        fanChartCheckBox = new JCheckBox("Monte Carlo fan");
+        fanChartCheckBox.addActionListener(e -> {
+            if (lastResult != null) {
+                updateChart(lastResult);
+            }
+        });
+        volatilityField = new JTextField("15", 3);
+        fanPathsCombo = new JComboBox<>(new String[] {"10,000", "100,000", "1,000,000"});
+        fanPathsCombo.setSelectedIndex(1);
+        fanStatusLabel = new JLabel(" ");
+        fanStatusLabel.setForeground(Color.GRAY);
+        JPanel fanControls = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        fanControls.add(fanChartCheckBox);
+        fanControls.add(new JLabel("Volatility (%):"));
+        fanControls.add(volatilityField);
+        fanControls.add(new JLabel("Paths:"));
+        fanControls.add(fanPathsCombo);
+        fanControls.add(fanStatusLabel);
+        JPanel growthTab = new JPanel(new BorderLayout());
+        growthTab.add(fanControls, BorderLayout.NORTH);
+        growthTab.add(chartContainer, BorderLayout.CENTER);
+    
+        // Sensitivity heatmap next to the growth chart, computed when its tab is shown
+        heatmapPanel = new SensitivityHeatmapPanel();
+        heatmapViewCombo = new JComboBox<>(SensitivityHeatmapPanel.View.values());
+        heatmapViewCombo.addActionListener(e -> {
+            heatmapScenario = null;
+            updateHeatmap();
+        });
+        JPanel heatmapControls = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        heatmapControls.add(new JLabel("End balance by:"));
+        heatmapControls.add(heatmapViewCombo);
+        heatmapTab = new JPanel(new BorderLayout());
+        heatmapTab.add(heatmapControls, BorderLayout.NORTH);
+        heatmapTab.add(heatmapPanel, BorderLayout.CENTER);
+
+        chartTabs = new JTabbedPane();
+        chartTabs.addTab("Growth Chart", growthTab);
+        chartTabs.addTab("Sensitivity Heatmap", heatmapTab);
+        chartTabs.addChangeListener(e -> updateHeatmap());
     
         // Add both charts to the vertical charts panel
-        chartsPanel.add(pieChartPanelComponent);
+        chartsPanel.add(pieChartHolder);
         chartsPanel.add(Box.createRigidArea(new Dimension(0, 5)));
-        chartsPanel.add(chartContainer);
+        chartsPanel.add(chartTabs);
     
         // Use a split pane to separate text results from the charts
         JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, resultsScrollPane, chartsPanel);
@@ -306,6 +421,23 @@ public class InvestmentCalculator extends JFrame {
         exportMonthlyBtn.setBackground(new Color(23, 162, 184));
         exportMonthlyBtn.setForeground(Color.WHITE);
 
+        // Progress of the running export; exports are written off the event dispatch thread
+        exportStatusLabel = new JLabel(" ");
+        exportStatusLabel.setForeground(Color.GRAY);
+        exportProgressBar = new JProgressBar();
+        exportProgressBar.setStringPainted(true);
+        exportProgressBar.setVisible(false);
+        exportCancelButton = new JButton("Cancel Export");
+        exportCancelButton.setVisible(false);
+        exportCancelButton.addActionListener(e -> {
+            if (currentExport != null) {
+                currentExport.cancel(true);
+            }
+        });
+
+        exportPanel.add(exportStatusLabel);
+        exportPanel.add(exportProgressBar);
+        exportPanel.add(exportCancelButton);
         exportPanel.add(exportAnnualBtn);
         exportPanel.add(exportMonthlyBtn);
 
@@ -343,7 +475,7 @@ public class InvestmentCalculator extends JFrame {
     }
 
     private void showFullScreenChart() {
-        if (chartPanelComponent.getCurrentChart() == null) {
+        if (chartPanelComponent == null || chartPanelComponent.getCurrentChart() == null) {
             JOptionPane.showMessageDialog(this, 
                 "No chart available. Please calculate an investment first.", 
                 "No Chart", 
@@ -351,185 +483,45 @@ public class InvestmentCalculator extends JFrame {
             return;
         }
         
-        // Create full-screen frame
-        fullScreenChartFrame = new JFrame("Investment Growth Chart - Full Screen");
-        fullScreenChartFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        fullScreenChartFrame.setExtendedState(JFrame.MAXIMIZED_BOTH);
-        fullScreenChartFrame.setUndecorated(false);
-        
-        // Create a panel for the full-screen chart
-        JPanel fullScreenPanel = new JPanel(new BorderLayout());
-        fullScreenPanel.setBackground(Color.WHITE);
-        
-        // Create enhanced chart panel for full screen with tooltips
-        org.jfree.chart.ChartPanel fullScreenChartPanel = createEnhancedChartPanel();
-        
-        // Add close button at the top
-        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        controlPanel.setBackground(Color.WHITE);
-        
-        JButton closeButton = new JButton("Close Full Screen");
-        closeButton.setBackground(new Color(220, 53, 69));
-        closeButton.setForeground(Color.WHITE);
-        closeButton.setFocusPainted(false);
-        closeButton.addActionListener(e -> fullScreenChartFrame.dispose());
-        
-        JButton printButton = new JButton("Save Chart Image");
-        printButton.setBackground(new Color(40, 167, 69));
-        printButton.setForeground(Color.WHITE);
-        printButton.setFocusPainted(false);
-        printButton.addActionListener(e -> saveChartImage());
-        
-        controlPanel.add(printButton);
-        controlPanel.add(closeButton);
-        
-        fullScreenPanel.add(controlPanel, BorderLayout.NORTH);
-        fullScreenPanel.add(fullScreenChartPanel, BorderLayout.CENTER);
-        
-        fullScreenChartFrame.add(fullScreenPanel);
-        fullScreenChartFrame.pack();
-        fullScreenChartFrame.setLocationRelativeTo(this);
-        fullScreenChartFrame.setVisible(true);
-        
-        // Add ESC key listener to close full screen
-        fullScreenChartPanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
-            .put(KeyStroke.getKeyStroke("ESCAPE"), "closeFullScreen");
-        fullScreenChartPanel.getActionMap().put("closeFullScreen", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                fullScreenChartFrame.dispose();
-            }
-        });
+        // The full-screen frame is built on first use and reused afterwards
+        if (fullScreenChartFrame == null) {
+            fullScreenChartFrame = new FullScreenChartFrame();
+        }
+        fullScreenChartFrame.showChart(chartPanelComponent.getCurrentChart(), selectedCurrency, this);
     }
-    
-    private org.jfree.chart.ChartPanel createEnhancedChartPanel() {
-        JFreeChart chart = chartPanelComponent.getCurrentChart();
-        
-        // Create a chart panel with enhanced tooltips
-        org.jfree.chart.ChartPanel chartPanel = new org.jfree.chart.ChartPanel(chart) {
-            @Override
-            public String getToolTipText(MouseEvent e) {
-                ChartEntity entity = getChartRenderingInfo().getEntityCollection().getEntity(e.getPoint().getX(), e.getPoint().getY());
-                if (entity instanceof XYItemEntity) {
-                    XYItemEntity xyEntity = (XYItemEntity) entity;
-                    XYDataset dataset = xyEntity.getDataset();
-                    int series = xyEntity.getSeriesIndex();
-                    int item = xyEntity.getItem();
-                    
-                    double xValue = dataset.getXValue(series, item);
-                    double yValue = dataset.getYValue(series, item);
-                    String seriesName = dataset.getSeriesKey(series).toString();
-                    String currencySymbol = getCurrencySymbol(selectedCurrency);
-                    
-                    return String.format("<html><b>%s</b><br>Year: %.0f<br>Value: %s%,.2f</html>", 
-                        seriesName, xValue, currencySymbol, yValue);
-                }
-                return super.getToolTipText(e);
-            }
-        };
-        
-        // Add click listener to show information dialog
-        chartPanel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                ChartEntity entity = chartPanel.getChartRenderingInfo().getEntityCollection()
-                    .getEntity(e.getPoint().getX(), e.getPoint().getY());
-                if (entity instanceof XYItemEntity) {
-                    XYItemEntity xyEntity = (XYItemEntity) entity;
-                    XYDataset dataset = xyEntity.getDataset();
-                    int series = xyEntity.getSeriesIndex();
-                    int item = xyEntity.getItem();
-                    
-                    double xValue = dataset.getXValue(series, item);
-                    double yValue = dataset.getYValue(series, item);
-                    String seriesName = dataset.getSeriesKey(series).toString();
-                    String currencySymbol = getCurrencySymbol(selectedCurrency);
-                    
-                    // Create detailed information dialog
-                    String message = String.format(
-                        "<html><div style='font-family: Arial; font-size: 14px;'>" +
-                        "<h3 style='color: #2c5aa0; margin-bottom: 10px;'>%s</h3>" +
-                        "<div style='margin-bottom: 8px;'><b>Year:</b> %.0f</div>" +
-                        "<div style='margin-bottom: 8px;'><b>Value:</b> %s%,.2f</div>" +
-                        "<div style='font-size: 12px; color: #666; margin-top: 15px;'>Click on any data point to see detailed information</div>" +
-                        "</div></html>",
-                        seriesName, xValue, currencySymbol, yValue
-                    );
-                    
-                    JOptionPane.showMessageDialog(
-                        chartPanel,
-                        message,
-                        "Investment Data Point",
-                        JOptionPane.INFORMATION_MESSAGE
-                    );
-                }
-            }
-        });
-        
-        // Configure the chart panel for full screen
-        chartPanel.setPreferredSize(new Dimension(1200, 800));
-        chartPanel.setMaximumDrawWidth(2000);
-        chartPanel.setMaximumDrawHeight(2000);
-        chartPanel.setMinimumDrawWidth(100);
-        chartPanel.setMinimumDrawHeight(100);
-        
-        // Enable tooltips (for hover effect)
-        chartPanel.setDisplayToolTips(true);
-        
-        return chartPanel;
+
+    private void pinCurrentScenario() {
+        if (lastResult == null || lastResult.getScenario() == null) {
+            JOptionPane.showMessageDialog(this,
+                "No scenario to pin. Please calculate first.",
+                "No Data",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String name = JOptionPane.showInputDialog(this, "Name for this scenario:", "Scenario " + (comparison.size() + 1));
+        if (name == null || name.trim().isEmpty()) {
+            return;
+        }
+        comparison.pin(name.trim(), lastResult.getScenario(), lastResult, calculator.getName());
+        if (comparisonFrame != null && comparisonFrame.isVisible()) {
+            comparisonFrame.recalculate();
+        }
     }
-    
-    private void saveChartImage() {
-        if (chartPanelComponent.getCurrentChart() == null) {
+
+    private void showComparison() {
+        if (comparison.size() == 0) {
+            JOptionPane.showMessageDialog(this,
+                "No pinned scenarios yet. Calculate a scenario and pin it first.",
+                "Nothing to Compare",
+                JOptionPane.INFORMATION_MESSAGE);
             return;
         }
-        
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Chart Image");
-        fileChooser.setSelectedFile(new java.io.File("investment_chart.png"));
-        
-        // Set file filter for image formats
-        javax.swing.filechooser.FileNameExtensionFilter pngFilter = 
-            new javax.swing.filechooser.FileNameExtensionFilter("PNG Images (*.png)", "png");
-        javax.swing.filechooser.FileNameExtensionFilter jpgFilter = 
-            new javax.swing.filechooser.FileNameExtensionFilter("JPEG Images (*.jpg)", "jpg");
-        fileChooser.addChoosableFileFilter(pngFilter);
-        fileChooser.addChoosableFileFilter(jpgFilter);
-        fileChooser.setFileFilter(pngFilter);
-        
-        int userSelection = fileChooser.showSaveDialog(this);
-        if (userSelection == JFileChooser.APPROVE_OPTION) {
-            try {
-                java.io.File fileToSave = fileChooser.getSelectedFile();
-                if (fileChooser.getFileFilter() == jpgFilter) {
-                    if (!fileToSave.getName().toLowerCase().endsWith(".jpg")) {
-                        fileToSave = new java.io.File(fileToSave.getAbsolutePath() + ".jpg");
-                    }
-                } else {
-                    if (!fileToSave.getName().toLowerCase().endsWith(".png")) {
-                        fileToSave = new java.io.File(fileToSave.getAbsolutePath() + ".png");
-                    }
-                }
-                
-                // Save the chart as image
-                ChartUtils.saveChartAsPNG(
-                    fileToSave, 
-                    chartPanelComponent.getCurrentChart(), 
-                    1200, 800);
-                
-                JOptionPane.showMessageDialog(this, 
-                    "Chart saved successfully!", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                    
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error saving chart: " + e.getMessage(), 
-                    "Save Error", 
-                    JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+        // Built on first use, like the full-screen chart
+        if (comparisonFrame == null) {
+            comparisonFrame = new ScenarioComparisonFrame(comparison,
+                () -> InvestmentEngines.get((String) engineCombo.getSelectedItem()));
         }
+        comparisonFrame.showComparison(selectedCurrency, this);
     }
 
     private void calculateInvestment() {
@@ -551,60 +543,37 @@ public class InvestmentCalculator extends JFrame {
                 return;
             }
             
-            // Parse and validate numbers
+            // Parse numbers
             BigDecimal startingAmount = new BigDecimal(startingAmountText);
             int years = Integer.parseInt(yearsText);
             BigDecimal annualReturnRate = new BigDecimal(returnRateText);
             BigDecimal additionalContribution = new BigDecimal(additionalContributionText);
             int contributionsPerYear = Integer.parseInt(contributionsPerYearText);
             
-            // Validate ranges
-            if (startingAmount.compareTo(BigDecimal.ZERO) < 0) {
-                JOptionPane.showMessageDialog(this, 
-                    "Starting amount cannot be negative.", 
-                    "Invalid Input", 
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            if (years <= 0 || years > 100) {
-                JOptionPane.showMessageDialog(this, 
-                    "Years must be between 1 and 100.", 
-                    "Invalid Input", 
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            if (annualReturnRate.compareTo(BigDecimal.valueOf(-100)) < 0 || 
-                annualReturnRate.compareTo(BigDecimal.valueOf(1000)) > 0) {
-                JOptionPane.showMessageDialog(this, 
-                    "Annual return rate must be between -100% and 1000%.", 
-                    "Invalid Input", 
-                    JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            
-            // Remove the validation that prevented negative additional contributions
-            // Additional contribution can now be negative (withdrawals)
+            String compoundingFrequency = (String) compoundingCombo.getSelectedItem();
+            String contributionTiming = (String) contributionTimingCombo.getSelectedItem();
             
-            if (contributionsPerYear < 0 || contributionsPerYear > 365) {
+            // Validate ranges (additional contribution can be negative: withdrawals)
+            InvestmentScenario scenario;
+            try {
+                scenario = new InvestmentScenario(
+                    startingAmount, years, annualReturnRate,
+                    CompoundingFrequency.fromLabel(compoundingFrequency),
+                    additionalContribution, contributionsPerYear,
+                    ContributionTiming.fromLabel(contributionTiming));
+            } catch (IllegalArgumentException e) {
                 JOptionPane.showMessageDialog(this, 
-                    "Contributions per year must be between 0 and 365.", 
+                    e.getMessage(), 
                     "Invalid Input", 
                     JOptionPane.ERROR_MESSAGE);
                 return;
             }
             
-            String compoundingFrequency = (String) compoundingCombo.getSelectedItem();
-            String contributionTiming = (String) contributionTimingCombo.getSelectedItem();
             selectedCurrency = ((String) currencyCombo.getSelectedItem()).split("\\s+")[0].trim();
+            calculator = InvestmentEngines.get((String) engineCombo.getSelectedItem());
             
-            // Calculate investment
-            InvestmentResult result = calculator.calculateInvestment(
-                startingAmount, years, annualReturnRate, compoundingFrequency,
-                additionalContribution, contributionsPerYear, 
-                contributionTiming.equals("Beginning of Period")
-            );
+            // Calculate investment, resuming from the previous result where the edit allows
+            InvestmentResult result = calculator.recalculate(lastResult, scenario);
             // Store last result for export operations
             lastResult = result;
             
@@ -622,6 +591,9 @@ public class InvestmentCalculator extends JFrame {
             // Update pie chart
             updatePieChart(result);
             
+            // Update the heatmap if it is showing
+            updateHeatmap();
+            
             // Update schedules
             updateSchedules(result);
             
@@ -642,52 +614,8 @@ public class InvestmentCalculator extends JFrame {
 
     private void displayResults(InvestmentResult result, BigDecimal formattedEndBalance, 
                               BigDecimal formattedTotalContributions, BigDecimal formattedTotalInterest) {
-        String currencySymbol = getCurrencySymbol(selectedCurrency);
-        StringBuilder sb = new StringBuilder();
-        
-        // Investment results at the very top of the summary area
-        sb.append("<html><body style='font-family: Arial, sans-serif; margin: 0; padding: 0;'>");
-        
-        // Main results - always at the top
-        sb.append("<div style='padding: 10px; border-bottom: 1px solid #eee;'>");
-        sb.append("<div style='font-size: 18px; font-weight: bold; color: #2c5aa0; margin-bottom: 10px;'>Investment Results</div>");
-        sb.append(String.format("<div style='font-size: 16px; font-weight: bold; color: #28a745; margin-bottom: 8px;'>End Balance: %s%,.2f</div>", currencySymbol, formattedEndBalance));
-        sb.append(String.format("<div style='margin-bottom: 5px;'><b>Starting Amount:</b> %s%,.2f</div>", currencySymbol, result.getStartingAmount()));
-        
-        // Update the label based on whether it's contributions or withdrawals
-        // Note: formattedTotalContributions includes the starting amount.
-        BigDecimal additionalContributions = formattedTotalContributions.subtract(result.getStartingAmount());
-        if (additionalContributions.compareTo(BigDecimal.ZERO) >= 0) {
-            sb.append(String.format("<div style='margin-bottom: 5px;'><b>Total Additional Contributions:</b> %s%,.2f</div>", currencySymbol, additionalContributions));
-        } else {
-            sb.append(String.format("<div style='margin-bottom: 5px;'><b>Total Withdrawals:</b> %s%,.2f</div>", currencySymbol, additionalContributions.abs()));
-        }
-        
-        sb.append(String.format("<div style='margin-bottom: 5px;'><b>Total Interest Earned:</b> %s%,.2f</div>", currencySymbol, formattedTotalInterest));
-        sb.append("</div>");
-        
-        // Additional details below (will scroll if needed)
-        sb.append("<div style='padding: 10px; font-size: 12px; color: #666;'>");
-        sb.append("<div style='font-weight: bold; margin-bottom: 5px;'>Details:</div>");
-        sb.append(String.format("<div style='margin-bottom: 3px;'>Compounding Frequency: %s</div>", result.getCompoundingFrequency()));
-        sb.append(String.format("<div style='margin-bottom: 3px;'>Annual Return Rate: %.2f%%</div>", result.getAnnualReturnRate()));
-        sb.append(String.format("<div style='margin-bottom: 3px;'>Number of Years: %d</div>", result.getYears()));
-        sb.append(String.format("<div style='margin-bottom: 3px;'>Currency: %s</div>", selectedCurrency));
-        
-        // Add note about negative contributions
-        if (result.getTotalContributions().subtract(result.getStartingAmount()).compareTo(BigDecimal.ZERO) < 0) {
-            sb.append("<div style='margin-top: 10px; padding: 8px; background-color: #fff3cd; border-radius: 4px; color: #856404;'>");
-            sb.append("<small><b>Note:</b> Negative contribution values indicate withdrawals from the account.</small>");
-            sb.append("</div>");
-        }
-        
-        sb.append("</div>");
-        
-        sb.append("</body></html>");
-        
-        resultsArea.setText(sb.toString());
-        // Scroll to top to ensure results are visible
-        resultsArea.setCaretPosition(0);
+        resultsArea.showResult(result, formattedEndBalance, formattedTotalContributions, formattedTotalInterest,
+            selectedCurrency);
     }
     
     private String getCurrencySymbol(String currency) {
@@ -703,31 +631,110 @@ public class InvestmentCalculator extends JFrame {
     }
 
     private void updateChart(InvestmentResult result) {
-        chartPanelComponent.updateChart(result, selectedCurrency);
+        if (fanWorker != null) {
+            fanWorker.cancel(true);
+            fanWorker = null;
+        }
+        getChartPanelComponent().updateChart(result, selectedCurrency);
+        if (fanChartCheckBox.isSelected()) {
+            updateFanChart(result);
+        }
+    }
+
+    /**
+     * Runs the Monte Carlo simulation off the event dispatch thread and replaces the growth chart
+     * with the fan once it is done. Only the per-year percentiles reach the chart, so even a
+     * million paths give a chart of a few hundred points.
+     */
+    private void updateFanChart(InvestmentResult result) {
+        double volatility;
+        int paths;
+        try {
+            volatility = Double.parseDouble(volatilityField.getText().trim()) / 100;
+            paths = Integer.parseInt(((String) fanPathsCombo.getSelectedItem()).replace(",", ""));
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this,
+                "Please enter a valid volatility.",
+                "Invalid Input",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        MonteCarloSimulator simulator;
+        try {
+            simulator = new MonteCarloSimulator(volatility);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this,
+                e.getMessage(),
+                "Invalid Input",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        String currency = selectedCurrency;
+        long start = System.nanoTime();
+        fanStatusLabel.setText("Simulating...");
+        fanWorker = new SwingWorker<MonteCarloResult, Void>() {
+            @Override
+            protected MonteCarloResult doInBackground() {
+                // Cancelling stops the simulation's parallel chunks too, not just this thread
+                return simulator.simulate(result.getScenario(), paths, 42L, this::isCancelled);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || lastResult != result) {
+                    return;
+                }
+                try {
+                    getChartPanelComponent().updateFanChart(result, get(), currency);
+                    fanStatusLabel.setText(String.format("%.1f s", (System.nanoTime() - start) / 1e9));
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    fanStatusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(InvestmentCalculator.this,
+                        "Error simulating: " + cause.getMessage(),
+                        "Simulation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        fanWorker.execute();
     }
     
+    private void updateHeatmap() {
+        if (chartTabs == null || chartTabs.getSelectedComponent() != heatmapTab
+                || lastResult == null || lastResult.getScenario() == null
+                || lastResult.getScenario() == heatmapScenario) {
+            return;
+        }
+        heatmapScenario = lastResult.getScenario();
+        heatmapPanel.showSweep(heatmapScenario,
+            (SensitivityHeatmapPanel.View) heatmapViewCombo.getSelectedItem(), selectedCurrency);
+    }
+
     private void updatePieChart(InvestmentResult result) {
-        pieChartPanelComponent.updateChart(result, selectedCurrency);
+        getPieChartPanelComponent().updateChart(result, selectedCurrency);
     }
 
     private void updateSchedules(InvestmentResult result) {
         SwingUtilities.invokeLater(() -> {
             try {
+                scheduleResult = result;
+                if (monthlyScheduleView != null) {
+                    annualScheduleView.cancel();
+                    monthlyScheduleView.cancel();
+                }
                 scheduleTabbedPane.removeAll();
                 
                 // Annual Schedule
-                JTextArea annualSchedule = new JTextArea();
-                annualSchedule.setEditable(false);
-                annualSchedule.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
-                annualSchedule.setText(generateAnnualSchedule(result));
-                scheduleTabbedPane.addTab("Annual Schedule", new JScrollPane(annualSchedule));
+                annualScheduleView = new ProgressiveScheduleView(11);
+                showAnnualSchedule(annualScheduleView, result);
+                scheduleTabbedPane.addTab("Annual Schedule", annualScheduleView);
                 
-                // Monthly Schedule - Show ALL months
-                JTextArea monthlySchedule = new JTextArea();
-                monthlySchedule.setEditable(false);
-                monthlySchedule.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 10));
-                monthlySchedule.setText(generateMonthlySchedule(result));
-                scheduleTabbedPane.addTab("Monthly Schedule", new JScrollPane(monthlySchedule));
+                // Monthly Schedule - Show ALL months, loaded progressively the first time the tab is opened
+                monthlyScheduleView = new ProgressiveScheduleView(10);
+                scheduleTabbedPane.addTab("Monthly Schedule", monthlyScheduleView);
+                loadSelectedSchedule();
                 
                 // Force UI update
                 scheduleTabbedPane.revalidate();
@@ -743,62 +750,56 @@ public class InvestmentCalculator extends JFrame {
         });
     }
 
+    private void loadSelectedSchedule() {
+        if (monthlyScheduleView == null || scheduleResult == null
+                || scheduleTabbedPane.getSelectedComponent() != monthlyScheduleView
+                || monthlyScheduleView.hasRows()) {
+            return;
+        }
+        showMonthlySchedule(monthlyScheduleView, scheduleResult);
+    }
+
     // Fix the annual schedule formatting in InvestmentCalculator.java
-    private String generateAnnualSchedule(InvestmentResult result) {
-        StringBuilder sb = new StringBuilder();
+    private void showAnnualSchedule(ProgressiveScheduleView view, InvestmentResult result) {
         String currencySymbol = getCurrencySymbol(selectedCurrency);
         
         // Update column header based on whether we have contributions or withdrawals
         boolean hasWithdrawals = result.getTotalContributions().subtract(result.getStartingAmount()).compareTo(BigDecimal.ZERO) < 0;
         String contributionLabel = hasWithdrawals ? "Withdrawals" : "Contributions";
         
-        sb.append(String.format("%-6s %-18s %-18s %-18s %-18s%n", 
-            "Year", "Start Balance", contributionLabel, "Interest", "End Balance"));
-        sb.append("-".repeat(90)).append("\n");
-        
-        List<YearlyData> yearlyData = result.getYearlyData();
-        for (YearlyData data : yearlyData) {
-            sb.append(String.format("%-6d %s%-17.2f %s%-17.2f %s%-17.2f %s%-17.2f%n",
-                data.getYear(), 
-                currencySymbol, data.getStartBalance().setScale(2, RoundingMode.HALF_UP), 
-                currencySymbol, data.getContributions().setScale(2, RoundingMode.HALF_UP),
-                currencySymbol, data.getInterestEarned().setScale(2, RoundingMode.HALF_UP), 
-                currencySymbol, data.getEndBalance().setScale(2, RoundingMode.HALF_UP)));
-        }
+        String header = String.format("%-6s %-18s %-18s %-18s %-18s%n", 
+            "Year", "Start Balance", contributionLabel, "Interest", "End Balance")
+            + "-".repeat(90) + "\n";
         
-        return sb.toString();
+        view.showRows(header, result.getYearlyData(), data -> String.format("%-6d %s%-17.2f %s%-17.2f %s%-17.2f %s%-17.2f%n",
+            data.getYear(), 
+            currencySymbol, data.getStartBalance().setScale(2, RoundingMode.HALF_UP), 
+            currencySymbol, data.getContributions().setScale(2, RoundingMode.HALF_UP),
+            currencySymbol, data.getInterestEarned().setScale(2, RoundingMode.HALF_UP), 
+            currencySymbol, data.getEndBalance().setScale(2, RoundingMode.HALF_UP)), null);
     }
 
-    private String generateMonthlySchedule(InvestmentResult result) {
-        StringBuilder sb = new StringBuilder();
+    private void showMonthlySchedule(ProgressiveScheduleView view, InvestmentResult result) {
         String currencySymbol = getCurrencySymbol(selectedCurrency);
         
         // Update column header based on whether we have contributions or withdrawals
         boolean hasWithdrawals = result.getTotalContributions().subtract(result.getStartingAmount()).compareTo(BigDecimal.ZERO) < 0;
         String contributionLabel = hasWithdrawals ? "Withdrawals" : "Contributions";
         
-        sb.append(String.format("%-15s %-15s %-15s %-15s %-15s%n", 
-            "Month", "Start Balance", contributionLabel, "Interest", "End Balance"));
-        sb.append("-".repeat(80)).append("\n");
+        String header = String.format("%-15s %-15s %-15s %-15s %-15s%n", 
+            "Month", "Start Balance", contributionLabel, "Interest", "End Balance")
+            + "-".repeat(80) + "\n";
         
         List<MonthlyData> monthlyData = result.getMonthlyData();
         
-        // Show ALL monthly data - no limit
-        for (int i = 0; i < monthlyData.size(); i++) {
-            MonthlyData data = monthlyData.get(i);
-            sb.append(String.format("%-15s %s%-14.2f %s%-14.2f %s%-14.2f %s%-14.2f%n",
-                data.getMonth(),
-                currencySymbol, data.getStartBalance().setScale(2, RoundingMode.HALF_UP), 
-                currencySymbol, data.getContributions().setScale(2, RoundingMode.HALF_UP),
-                currencySymbol, data.getInterestEarned().setScale(2, RoundingMode.HALF_UP), 
-                currencySymbol, data.getEndBalance().setScale(2, RoundingMode.HALF_UP)));
-        }
-        
-        // Add summary at the end
-        sb.append("-".repeat(80)).append("\n");
-        sb.append(String.format("Total months: %d%n", monthlyData.size()));
-        
-        return sb.toString();
+        // Show ALL monthly data - no limit; the first years appear at once, the rest as they are formatted
+        String footer = "-".repeat(80) + "\n" + String.format("Total months: %d%n", monthlyData.size());
+        view.showRows(header, monthlyData, data -> String.format("%-15s %s%-14.2f %s%-14.2f %s%-14.2f %s%-14.2f%n",
+            data.getMonth(),
+            currencySymbol, data.getStartBalance().setScale(2, RoundingMode.HALF_UP), 
+            currencySymbol, data.getContributions().setScale(2, RoundingMode.HALF_UP),
+            currencySymbol, data.getInterestEarned().setScale(2, RoundingMode.HALF_UP), 
+            currencySymbol, data.getEndBalance().setScale(2, RoundingMode.HALF_UP)), footer);
     }
 
     /**
@@ -817,16 +818,94 @@ public class InvestmentCalculator extends JFrame {
         if (userSelection != JFileChooser.APPROVE_OPTION) return;
 
         java.io.File fileToSave = fileChooser.getSelectedFile();
-        if (!fileToSave.getName().toLowerCase().endsWith(".csv")) {
+        // "name.csv.gz" is kept as is and saved compressed
+        String fileName = fileToSave.getName().toLowerCase();
+        if (!fileName.endsWith(".csv") && !fileName.endsWith(".csv" + GzipFiles.SUFFIX)) {
             fileToSave = new java.io.File(fileToSave.getAbsolutePath() + ".csv");
         }
 
+        java.nio.file.Path target = fileToSave.toPath();
+        startExport(monthly ? "monthly schedule" : "annual schedule", "Schedule exported successfully:\n", "Error exporting CSV: ",
+            listener -> exportService.exportScheduleCsv(result, monthly, target, listener));
+    }
+
+    /**
+     * Starts an export on the export service and shows its progress in the export bar; the
+     * outcome is reported in a dialog once it is written.
+     */
+    private void startExport(String description, String successMessage, String errorMessage,
+                             Function<ExportService.Listener, Future<java.nio.file.Path>> submit) {
+        ExportProgress progress = new ExportProgress(description, successMessage, errorMessage);
         try {
-            CsvExporter.writeScheduleCsvToFile(result, monthly, fileToSave);
-            JOptionPane.showMessageDialog(this, "Schedule exported successfully:\n" + fileToSave.getAbsolutePath(), "Export Complete", JOptionPane.INFORMATION_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error exporting CSV: " + e.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+            progress.export = submit.apply(progress);
+        } catch (RejectedExecutionException e) {
+            JOptionPane.showMessageDialog(this,
+                "Too many exports are in progress. Please wait for one to finish.",
+                "Export Busy",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        currentExport = progress.export;
+        exportStatusLabel.setText("Exporting " + description + "...");
+        exportProgressBar.setValue(0);
+        exportProgressBar.setString(null);
+        exportProgressBar.setVisible(true);
+        exportCancelButton.setVisible(true);
+    }
+
+    /**
+     * Relays an export's progress and outcome from the I/O thread to the window. Both arrive
+     * through invokeLater, so after startExport has recorded the export.
+     */
+    private final class ExportProgress implements ExportService.Listener {
+        private final String description;
+        private final String successMessage;
+        private final String errorMessage;
+        private Future<java.nio.file.Path> export; // set and read on the event dispatch thread
+
+        ExportProgress(String description, String successMessage, String errorMessage) {
+            this.description = description;
+            this.successMessage = successMessage;
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public void progress(int done, int total) {
+            SwingUtilities.invokeLater(() -> {
+                if (export == currentExport) {
+                    exportProgressBar.setMaximum(total);
+                    exportProgressBar.setValue(done);
+                }
+            });
+        }
+
+        @Override
+        public void finished(Future<java.nio.file.Path> completed) {
+            SwingUtilities.invokeLater(() -> {
+                if (export == currentExport) {
+                    currentExport = null;
+                    exportProgressBar.setVisible(false);
+                    exportCancelButton.setVisible(false);
+                    exportStatusLabel.setText(completed.isCancelled() ? "Export of " + description + " cancelled" : " ");
+                }
+                if (completed.isCancelled()) {
+                    return;
+                }
+                try {
+                    java.nio.file.Path written = completed.get();
+                    JOptionPane.showMessageDialog(InvestmentCalculator.this,
+                        successMessage + written,
+                        "Export Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(InvestmentCalculator.this,
+                        errorMessage + cause.getMessage(),
+                        "Export Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    cause.printStackTrace();
+                }
+            });
         }
     }
 
@@ -850,26 +929,21 @@ public class InvestmentCalculator extends JFrame {
         if (userSelection != JFileChooser.APPROVE_OPTION) return;
 
         java.io.File fileToSave = fileChooser.getSelectedFile();
-        if (!fileToSave.getName().toLowerCase().endsWith(".txt")) {
+        // "name.txt.gz" is kept as is and saved compressed
+        String fileName = fileToSave.getName().toLowerCase();
+        if (!fileName.endsWith(".txt") && !fileName.endsWith(".txt" + GzipFiles.SUFFIX)) {
             fileToSave = new java.io.File(fileToSave.getAbsolutePath() + ".txt");
         }
 
-        boolean success = TextFileSaver.saveResultsToFile(lastResult, fileToSave.getAbsolutePath());
-        
-        if (success) {
-            JOptionPane.showMessageDialog(this, 
-                "Results saved successfully:\n" + fileToSave.getAbsolutePath(), 
-                "Save Complete", 
-                JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(this, 
-                "Error saving results to file", 
-                "Save Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+        InvestmentResult result = lastResult;
+        java.nio.file.Path target = fileToSave.toPath();
+        startExport("results", "Results saved successfully:\n", "Error saving results to file: ",
+            listener -> exportService.saveResultsText(result, target, listener));
     }
 
     public static void main(String[] args) {
+        // The look and feel has to be in place before any component is created
+        initializeLookAndFeel();
         SwingUtilities.invokeLater(() -> {
             try {
                 new InvestmentCalculator().setVisible(true);
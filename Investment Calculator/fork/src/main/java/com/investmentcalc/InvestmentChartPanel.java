@@ -3,10 +3,17 @@ package com.investmentcalc;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.DatasetRenderingOrder;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.ValueMarker;
 import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.DeviationRenderer;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.chart.ui.RectangleAnchor;
+import org.jfree.chart.ui.TextAnchor;
 import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.YIntervalSeries;
+import org.jfree.data.xy.YIntervalSeriesCollection;
 import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
@@ -18,6 +25,16 @@ import java.util.List;
  * Custom chart panel for displaying investment growth over time
  */
 public class InvestmentChartPanel extends JPanel {
+    private static final Color[] COMPARISON_COLORS = {
+        new Color(0, 123, 255), new Color(220, 53, 69), new Color(40, 167, 69), new Color(255, 193, 7),
+        new Color(111, 66, 193), new Color(23, 162, 184), new Color(253, 126, 20), new Color(108, 117, 125)
+    };
+
+    /**
+     * Percentile pairs of the fan chart bands, widest first.
+     */
+    static final double[][] FAN_BANDS = {{5, 95}, {10, 90}, {25, 75}};
+
     private JFreeChart chart;
     private org.jfree.chart.ChartPanel jfreeChartPanel;
     
@@ -54,7 +71,195 @@ public class InvestmentChartPanel extends JPanel {
         repaint();
     }
     
-    private JFreeChart createInvestmentChart(InvestmentResult result, String currency) {
+    /**
+     * Overlays the balance of several results, one line per result, for comparing scenarios.
+     */
+    public void updateComparisonChart(List<String> names, List<InvestmentResult> results, String currency) {
+        removeAll();
+
+        chart = createComparisonChart(names, results, currency);
+        jfreeChartPanel = new org.jfree.chart.ChartPanel(chart);
+        jfreeChartPanel.setPreferredSize(new Dimension(600, 400));
+        add(jfreeChartPanel, BorderLayout.CENTER);
+
+        revalidate();
+        repaint();
+    }
+
+    private JFreeChart createComparisonChart(List<String> names, List<InvestmentResult> results, String currency) {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        for (int i = 0; i < results.size(); i++) {
+            InvestmentResult result = results.get(i);
+            // Pins may share a name; series keys must be unique
+            XYSeries series = new XYSeries((i + 1) + ". " + names.get(i));
+            series.add(0, result.getStartingAmount().doubleValue());
+            for (YearlyData data : result.getYearlyData()) {
+                series.add(data.getYear(), data.getEndBalance().doubleValue());
+            }
+            dataset.addSeries(series);
+        }
+
+        String currencySymbol = getCurrencySymbol(currency);
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            "Scenario Comparison",
+            "Years",
+            "Balance (" + currencySymbol + ")",
+            dataset,
+            PlotOrientation.VERTICAL,
+            true,
+            true,
+            false
+        );
+        customizeChart(chart, currency);
+
+        XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer) chart.getXYPlot().getRenderer();
+        renderer.setDefaultShapesVisible(false);
+        for (int i = 0; i < results.size(); i++) {
+            renderer.setSeriesPaint(i, COMPARISON_COLORS[i % COMPARISON_COLORS.length]);
+        }
+        return chart;
+    }
+
+    /**
+     * Draws the Monte Carlo percentile bands as a shaded fan, with the median path and the
+     * deterministic balance overlaid.
+     */
+    public void updateFanChart(InvestmentResult result, MonteCarloResult monteCarlo, String currency) {
+        removeAll();
+
+        chart = createFanChart(result, monteCarlo, currency);
+        jfreeChartPanel = new org.jfree.chart.ChartPanel(chart);
+        jfreeChartPanel.setPreferredSize(new Dimension(600, 400));
+        add(jfreeChartPanel, BorderLayout.CENTER);
+
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * One interval series per band with one item per year, read from the per-year quantile
+     * sketches. The dataset therefore has the same size for a thousand paths as for a million,
+     * which keeps repaints of the fan, including the full-screen view, cheap.
+     */
+    static YIntervalSeriesCollection createFanDataset(MonteCarloResult monteCarlo) {
+        YIntervalSeriesCollection bands = new YIntervalSeriesCollection();
+        for (double[] band : FAN_BANDS) {
+            YIntervalSeries series = new YIntervalSeries(
+                String.format("%.0fth-%.0fth Percentile", band[0], band[1]), false, false);
+            for (int year = 0; year <= monteCarlo.getYears(); year++) {
+                series.add(year, monteCarlo.getPercentile(year, 50),
+                    monteCarlo.getPercentile(year, band[0]), monteCarlo.getPercentile(year, band[1]));
+            }
+            bands.addSeries(series);
+        }
+        return bands;
+    }
+
+    private JFreeChart createFanChart(InvestmentResult result, MonteCarloResult monteCarlo, String currency) {
+        XYSeries medianSeries = new XYSeries("Median (" + String.format("%,d", monteCarlo.getPathCount()) + " paths)");
+        for (int year = 0; year <= monteCarlo.getYears(); year++) {
+            medianSeries.add(year, monteCarlo.getPercentile(year, 50));
+        }
+        XYSeries balanceSeries = new XYSeries("Total Balance (Fixed Return)");
+        balanceSeries.add(0, result.getStartingAmount().doubleValue());
+        for (YearlyData data : result.getYearlyData()) {
+            balanceSeries.add(data.getYear(), data.getEndBalance().doubleValue());
+        }
+        XYSeriesCollection lines = new XYSeriesCollection();
+        lines.addSeries(balanceSeries);
+        lines.addSeries(medianSeries);
+
+        String currencySymbol = getCurrencySymbol(currency);
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            String.format("Investment Growth with %.0f%% Volatility", monteCarlo.getAnnualVolatility() * 100),
+            "Years",
+            "Amount (" + currencySymbol + ")",
+            lines,
+            PlotOrientation.VERTICAL,
+            true,
+            true,
+            false
+        );
+        customizeChart(chart, currency);
+
+        XYPlot plot = chart.getXYPlot();
+        XYLineAndShapeRenderer lineRenderer = (XYLineAndShapeRenderer) plot.getRenderer();
+        lineRenderer.setDefaultShapesVisible(false);
+        lineRenderer.setSeriesPaint(1, new Color(0, 60, 140));
+        lineRenderer.setSeriesStroke(1, new BasicStroke(2.0f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+            10.0f, new float[]{6.0f, 4.0f}, 0.0f));
+
+        // Translucent bands of one colour: where they overlap the fan gets darker towards the middle
+        DeviationRenderer bandRenderer = new DeviationRenderer(false, false);
+        bandRenderer.setAlpha(0.2f);
+        for (int i = 0; i < FAN_BANDS.length; i++) {
+            bandRenderer.setSeriesPaint(i, new Color(0, 123, 255));
+            bandRenderer.setSeriesFillPaint(i, new Color(0, 123, 255));
+        }
+        plot.setDataset(1, createFanDataset(monteCarlo));
+        plot.setRenderer(1, bandRenderer);
+        plot.setDatasetRenderingOrder(DatasetRenderingOrder.REVERSE); // bands under the lines
+
+        return chart;
+    }
+
+    /**
+     * Shows the end balance of every historical start month from a rolling-window analysis,
+     * with the median outcome marked.
+     */
+    public void updateRollingWindowChart(RollingWindowResult result, String currency) {
+        removeAll();
+
+        chart = createRollingWindowChart(result, currency);
+        jfreeChartPanel = new org.jfree.chart.ChartPanel(chart);
+        jfreeChartPanel.setPreferredSize(new Dimension(600, 400));
+        add(jfreeChartPanel, BorderLayout.CENTER);
+
+        revalidate();
+        repaint();
+    }
+
+    private JFreeChart createRollingWindowChart(RollingWindowResult result, String currency) {
+        XYSeries endBalanceSeries = new XYSeries("End Balance by Start Month");
+        for (int i = 0; i < result.getWindowCount(); i++) {
+            endBalanceSeries.add(result.getStartYear(i), result.getEndBalance(i));
+        }
+        XYSeriesCollection dataset = new XYSeriesCollection(endBalanceSeries);
+
+        String currencySymbol = getCurrencySymbol(currency);
+        JFreeChart chart = ChartFactory.createXYLineChart(
+            result.getScenario().getYears() + "-Year Outcomes by Start Date",
+            "Start Year",
+            "End Balance (" + currencySymbol + ")",
+            dataset,
+            PlotOrientation.VERTICAL,
+            true,
+            true,
+            false
+        );
+        customizeChart(chart, currency);
+
+        // Hundreds of points: draw the line only
+        XYPlot plot = chart.getXYPlot();
+        ((XYLineAndShapeRenderer) plot.getRenderer()).setDefaultShapesVisible(false);
+
+        RollingWindowResult.Window median = result.getMedian();
+        ValueMarker medianMarker = new ValueMarker(median.getEndBalance());
+        medianMarker.setPaint(new Color(220, 53, 69));
+        medianMarker.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+            10.0f, new float[]{6.0f, 4.0f}, 0.0f));
+        medianMarker.setLabel("Median (" + median.getStartLabel() + ")");
+        medianMarker.setLabelAnchor(RectangleAnchor.TOP_LEFT);
+        medianMarker.setLabelTextAnchor(TextAnchor.BOTTOM_LEFT);
+        plot.addRangeMarker(medianMarker);
+
+        return chart;
+    }
+
+    /**
+     * The growth chart of a result, without a panel; used off-screen by {@link BatchChartRenderer}.
+     */
+    static JFreeChart createInvestmentChart(InvestmentResult result, String currency) {
         // Create datasets for different lines
         XYSeries balanceSeries = new XYSeries("Total Balance");
         XYSeries contributionsSeries = new XYSeries("Cumulative Additional Contributions"); // Changed for clarity
@@ -109,7 +314,7 @@ public class InvestmentChartPanel extends JPanel {
         return chart;
     }
     
-    private void customizeChart(JFreeChart chart, String currency) {
+    private static void customizeChart(JFreeChart chart, String currency) {
         // Set chart background
         chart.setBackgroundPaint(Color.WHITE);
         
@@ -152,7 +357,10 @@ public class InvestmentChartPanel extends JPanel {
         }
     }
     
-    private String getCurrencySymbol(String currency) {
+    /**
+     * Symbol shown before amounts in the given currency code, "$" for unknown codes.
+     */
+    static String getCurrencySymbol(String currency) {
         switch (currency.trim()) {
             case "USD": return "$";
             case "EUR": return "€";
@@ -168,7 +376,7 @@ public class InvestmentChartPanel extends JPanel {
     return chart;
     }
     
-    private java.util.Locale getLocaleForCurrency(String currency) {
+    private static java.util.Locale getLocaleForCurrency(String currency) {
         switch (currency.trim()) {
             case "USD": return java.util.Locale.US;
             case "EUR": return java.util.Locale.FRANCE;
@@ -0,0 +1,67 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+
+/**
+ * Calculation engine SPI.
+ *
+ * Implementations are discovered with {@link java.util.ServiceLoader} (see {@link InvestmentEngines})
+ * and selected by {@link #getName()}, so tuned engines can be deployed next to the built-in ones
+ * simply by putting their jar on the classpath with a
+ * {@code META-INF/services/com.investmentcalc.InvestmentEngine} entry.
+ *
+ * Implementations must be stateless (or otherwise thread-safe) and have a public no-arg constructor.
+ */
+public interface InvestmentEngine {
+
+    /**
+     * Short unique name used to select the engine, e.g. "precise".
+     */
+    String getName();
+
+    /**
+     * Calculates an investment plan.
+     */
+    InvestmentResult calculateInvestment(InvestmentScenario scenario);
+
+    /**
+     * Calculates an edited plan, reusing whatever the engine can of an earlier result, e.g. the
+     * months before the first one the edit changes. The result must equal
+     * {@code calculateInvestment(scenario)}; the default simply recalculates.
+     *
+     * @param prior earlier result of this engine, or null
+     */
+    default InvestmentResult recalculate(InvestmentResult prior, InvestmentScenario scenario) {
+        return calculateInvestment(scenario);
+    }
+
+    /**
+     * Calculates an investment plan from untyped inputs.
+     *
+     * @param startingAmount initial balance
+     * @param years investment horizon in years
+     * @param annualReturnRate annual rate as percent, e.g. 7 for 7%
+     * @param compoundingFrequency "Annually", "Quarterly", "Monthly", "Weekly" or "Daily"
+     * @param additionalContribution yearly contribution (negative for withdrawals)
+     * @param contributionsPerYear number of contribution events per year
+     * @param contributeAtBeginning true to contribute at the beginning of each period
+     * @throws IllegalArgumentException if the inputs fail {@link InvestmentScenario} validation
+     */
+    default InvestmentResult calculateInvestment(
+            BigDecimal startingAmount,
+            int years,
+            BigDecimal annualReturnRate,
+            String compoundingFrequency,
+            BigDecimal additionalContribution,
+            int contributionsPerYear,
+            boolean contributeAtBeginning) {
+        return calculateInvestment(new InvestmentScenario(
+            startingAmount,
+            years,
+            annualReturnRate,
+            CompoundingFrequency.fromLabel(compoundingFrequency),
+            additionalContribution,
+            contributionsPerYear,
+            ContributionTiming.of(contributeAtBeginning)));
+    }
+}
@@ -0,0 +1,91 @@
+package com.investmentcalc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the calculation engines available on the classpath.
+ *
+ * Engines are loaded once via {@link ServiceLoader}. The default engine is "precise"
+ * ({@link FinalInvestmentEngine}) unless the {@value #ENGINE_PROPERTY} system property names
+ * another one.
+ */
+public final class InvestmentEngines {
+
+    public static final String ENGINE_PROPERTY = "investmentcalc.engine";
+    public static final String PRECISE = "precise";
+
+    private static volatile Map<String, InvestmentEngine> engines;
+
+    private InvestmentEngines() {}
+
+    /**
+     * Names of all available engines, the built-in reference engine first.
+     */
+    public static List<String> getNames() {
+        return new ArrayList<>(loadEngines().keySet());
+    }
+
+    /**
+     * Looks up an engine by name.
+     *
+     * @throws IllegalArgumentException if no engine with that name is available
+     */
+    public static InvestmentEngine get(String name) {
+        InvestmentEngine engine = loadEngines().get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown calculation engine: " + name
+                + " (available: " + String.join(", ", loadEngines().keySet()) + ")");
+        }
+        return engine;
+    }
+
+    /**
+     * The engine named by the {@value #ENGINE_PROPERTY} system property, or the precise engine.
+     */
+    public static InvestmentEngine getDefault() {
+        return get(System.getProperty(ENGINE_PROPERTY, PRECISE));
+    }
+
+    private static Map<String, InvestmentEngine> loadEngines() {
+        Map<String, InvestmentEngine> result = engines;
+        if (result == null) {
+            synchronized (InvestmentEngines.class) {
+                result = engines;
+                if (result == null) {
+                    result = loadEngines(ServiceLoader.load(InvestmentEngine.class).iterator());
+                    engines = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The precise engine plus every provider that loads; a provider that fails to load is
+     * reported and skipped, so one broken engine jar cannot take the others with it.
+     */
+    static Map<String, InvestmentEngine> loadEngines(Iterator<InvestmentEngine> providers) {
+        Map<String, InvestmentEngine> loaded = new LinkedHashMap<>();
+        // The reference engine is always available, even without a services file
+        loaded.put(PRECISE, new FinalInvestmentEngine());
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                InvestmentEngine engine = providers.next();
+                loaded.putIfAbsent(engine.getName(), engine);
+            } catch (ServiceConfigurationError e) {
+                System.err.println("Skipping calculation engine: " + e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+}
@@ -1,6 +1,7 @@
 package com.investmentcalc;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +17,11 @@ public class InvestmentResult {
     private final BigDecimal totalInterest;
     private final List<MonthlyData> monthlyData;
     private final List<YearlyData> yearlyData;
+    private final InvestmentScenario scenario;
+    private final List<ScheduleCheckpoint> checkpoints;
+    private final BigDecimal totalFees;
+    private final BigDecimal totalTaxes;
+    private final BigDecimal realEndBalance;
     
     public InvestmentResult(BigDecimal startingAmount,
                           int years,
@@ -26,6 +32,48 @@ public class InvestmentResult {
                           BigDecimal totalInterest,
                           List<MonthlyData> monthlyData,
                           List<YearlyData> yearlyData) {
+        this(startingAmount, years, annualReturnRate, compoundingFrequency, endBalance, totalContributions,
+            totalInterest, monthlyData, yearlyData, null, Collections.emptyList());
+    }
+
+    /**
+     * Result that can be resumed: the scenario it was calculated for and the engine state at
+     * the end of every year, index 0 being the starting state.
+     */
+    public InvestmentResult(BigDecimal startingAmount,
+                          int years,
+                          BigDecimal annualReturnRate,
+                          String compoundingFrequency,
+                          BigDecimal endBalance,
+                          BigDecimal totalContributions,
+                          BigDecimal totalInterest,
+                          List<MonthlyData> monthlyData,
+                          List<YearlyData> yearlyData,
+                          InvestmentScenario scenario,
+                          List<ScheduleCheckpoint> checkpoints) {
+        this(startingAmount, years, annualReturnRate, compoundingFrequency, endBalance, totalContributions,
+            totalInterest, monthlyData, yearlyData, scenario, checkpoints, BigDecimal.ZERO, BigDecimal.ZERO, endBalance);
+    }
+
+    /**
+     * Resumable result of a plan with fees, taxes or inflation. The end balance is net of the
+     * fees and taxes (end = contributions + interest - fees - taxes); the real end balance is in
+     * money of the plan's start.
+     */
+    public InvestmentResult(BigDecimal startingAmount,
+                          int years,
+                          BigDecimal annualReturnRate,
+                          String compoundingFrequency,
+                          BigDecimal endBalance,
+                          BigDecimal totalContributions,
+                          BigDecimal totalInterest,
+                          List<MonthlyData> monthlyData,
+                          List<YearlyData> yearlyData,
+                          InvestmentScenario scenario,
+                          List<ScheduleCheckpoint> checkpoints,
+                          BigDecimal totalFees,
+                          BigDecimal totalTaxes,
+                          BigDecimal realEndBalance) {
         this.startingAmount = startingAmount;
         this.years = years;
         this.annualReturnRate = annualReturnRate;
@@ -35,6 +83,11 @@ public class InvestmentResult {
         this.totalInterest = totalInterest;
         this.monthlyData = monthlyData;
         this.yearlyData = yearlyData;
+        this.scenario = scenario;
+        this.checkpoints = checkpoints;
+        this.totalFees = totalFees;
+        this.totalTaxes = totalTaxes;
+        this.realEndBalance = realEndBalance;
     }
     
     // Getters
@@ -47,4 +100,24 @@ public class InvestmentResult {
     public BigDecimal getTotalInterest() { return totalInterest; }
     public List<MonthlyData> getMonthlyData() { return monthlyData; }
     public List<YearlyData> getYearlyData() { return yearlyData; }
+    /** Scenario the result was calculated for, or null if the engine did not record it. */
+    public InvestmentScenario getScenario() { return scenario; }
+    public List<ScheduleCheckpoint> getCheckpoints() { return checkpoints; }
+    public BigDecimal getTotalFees() { return totalFees; }
+    public BigDecimal getTotalTaxes() { return totalTaxes; }
+    public BigDecimal getRealEndBalance() { return realEndBalance; }
+
+    /**
+     * Latest checkpoint taken after at most the given number of months, or null if there is none.
+     */
+    public ScheduleCheckpoint getCheckpointAtOrBefore(int month) {
+        ScheduleCheckpoint best = null;
+        for (ScheduleCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getMonth() > month) {
+                break;
+            }
+            best = checkpoint;
+        }
+        return best;
+    }
 }
@@ -0,0 +1,363 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, validated description of one investment plan.
+ *
+ * Validation matches the input checks of the GUI, so an invalid scenario is rejected with the
+ * same message the user would see there. Everything derived from the inputs (compounding
+ * factors, contribution per event) is computed once when the scenario is created.
+ *
+ * Optional {@link CashFlowEvents} change the contributions at given months. They are resolved
+ * up front into contribution regimes (stretches of months with one regular contribution rule)
+ * and one-off amounts, so {@link #getContributionForMonth(int)} stays a lookup. Events after the
+ * last month of the plan are ignored.
+ */
+public final class InvestmentScenario {
+    private static final BigDecimal MIN_RATE = BigDecimal.valueOf(-100);
+    private static final BigDecimal MAX_RATE = BigDecimal.valueOf(1000);
+
+    private final BigDecimal startingAmount;
+    private final int years;
+    private final BigDecimal annualReturnRate;
+    private final CompoundingFrequency compoundingFrequency;
+    private final BigDecimal additionalContribution;
+    private final int contributionsPerYear;
+    private final ContributionTiming contributionTiming;
+    private final CashFlowEvents events;
+    private final PlanAdjustments adjustments;
+
+    // Derived values
+    private final CompoundingFactors factors;
+    private final boolean hasContributions;
+    private final BigDecimal contributionAmountPerEvent;
+    private final BigDecimal evenMonthlyContribution;
+    private final double contributionAmountPerEventDouble;
+    private final double evenMonthlyContributionDouble;
+
+    // Contribution regimes from the events; regime 0 is the plan's own contribution
+    private final int[] regimeStartMonths;
+    private final boolean[] regimeHasContributions;
+    private final BigDecimal[] regimeAmountPerEvent;
+    private final BigDecimal[] regimeEvenMonthly;
+    private final double[] regimeAmountPerEventDouble;
+    private final double[] regimeEvenMonthlyDouble;
+
+    // Months with lump sums or withdrawals, their net amount and that month's whole contribution
+    private final int[] oneOffMonths;
+    private final BigDecimal[] oneOffAmounts;
+    private final double[] oneOffMonthContributionDouble;
+
+    public InvestmentScenario(BigDecimal startingAmount,
+                              int years,
+                              BigDecimal annualReturnRate,
+                              CompoundingFrequency compoundingFrequency,
+                              BigDecimal additionalContribution,
+                              int contributionsPerYear,
+                              ContributionTiming contributionTiming) {
+        this(startingAmount, years, annualReturnRate, compoundingFrequency, additionalContribution,
+            contributionsPerYear, contributionTiming, CashFlowEvents.NONE);
+    }
+
+    public InvestmentScenario(BigDecimal startingAmount,
+                              int years,
+                              BigDecimal annualReturnRate,
+                              CompoundingFrequency compoundingFrequency,
+                              BigDecimal additionalContribution,
+                              int contributionsPerYear,
+                              ContributionTiming contributionTiming,
+                              CashFlowEvents events) {
+        this(startingAmount, years, annualReturnRate, compoundingFrequency, additionalContribution,
+            contributionsPerYear, contributionTiming, events, PlanAdjustments.NONE);
+    }
+
+    public InvestmentScenario(BigDecimal startingAmount,
+                              int years,
+                              BigDecimal annualReturnRate,
+                              CompoundingFrequency compoundingFrequency,
+                              BigDecimal additionalContribution,
+                              int contributionsPerYear,
+                              ContributionTiming contributionTiming,
+                              CashFlowEvents events,
+                              PlanAdjustments adjustments) {
+        if (startingAmount == null || annualReturnRate == null || compoundingFrequency == null
+                || additionalContribution == null || contributionTiming == null || events == null
+                || adjustments == null) {
+            throw new IllegalArgumentException("Please fill in all required fields.");
+        }
+        if (startingAmount.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Starting amount cannot be negative.");
+        }
+        if (years <= 0 || years > 100) {
+            throw new IllegalArgumentException("Years must be between 1 and 100.");
+        }
+        if (annualReturnRate.compareTo(MIN_RATE) < 0 || annualReturnRate.compareTo(MAX_RATE) > 0) {
+            throw new IllegalArgumentException("Annual return rate must be between -100% and 1000%.");
+        }
+        // Additional contribution can be negative (withdrawals)
+        if (contributionsPerYear < 0 || contributionsPerYear > 365) {
+            throw new IllegalArgumentException("Contributions per year must be between 0 and 365.");
+        }
+
+        this.startingAmount = startingAmount;
+        this.years = years;
+        this.annualReturnRate = annualReturnRate;
+        this.compoundingFrequency = compoundingFrequency;
+        this.additionalContribution = additionalContribution;
+        this.contributionsPerYear = contributionsPerYear;
+        this.contributionTiming = contributionTiming;
+        this.events = events;
+        this.adjustments = adjustments;
+
+        this.factors = CompoundingFactors.of(annualReturnRate, compoundingFrequency);
+        this.hasContributions = contributionsPerYear > 0 || additionalContribution.compareTo(BigDecimal.ZERO) != 0;
+
+        // contribution per event (e.g. if contributionsPerYear=12, this is monthly amount)
+        this.contributionAmountPerEvent = contributionsPerYear > 0
+            ? additionalContribution.divide(BigDecimal.valueOf(contributionsPerYear), 20, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        // nonstandard contributions-per-year values are spread evenly across the 12 months
+        this.evenMonthlyContribution = additionalContribution.divide(BigDecimal.valueOf(12), 20, RoundingMode.HALF_UP);
+        this.contributionAmountPerEventDouble = contributionAmountPerEvent.doubleValue();
+        this.evenMonthlyContributionDouble = evenMonthlyContribution.doubleValue();
+
+        // Walk the events once, opening a new regime at every pause, resume or amount change
+        List<CashFlowEvent> inPlan = events.between(1, years * 12);
+        int[] starts = new int[inPlan.size() + 1];
+        boolean[] active = new boolean[starts.length];
+        BigDecimal[] annual = new BigDecimal[starts.length];
+        starts[0] = 1;
+        active[0] = true;
+        annual[0] = additionalContribution;
+        int regimes = 1;
+        List<Integer> lumpMonths = new ArrayList<>();
+        List<BigDecimal> lumpAmounts = new ArrayList<>();
+        for (CashFlowEvent event : inPlan) {
+            if (event.getType() == CashFlowEvent.Type.LUMP_SUM || event.getType() == CashFlowEvent.Type.WITHDRAWAL) {
+                int last = lumpMonths.size() - 1;
+                if (last >= 0 && lumpMonths.get(last) == event.getMonth()) {
+                    lumpAmounts.set(last, lumpAmounts.get(last).add(event.getOneOffAmount()));
+                } else {
+                    lumpMonths.add(event.getMonth());
+                    lumpAmounts.add(event.getOneOffAmount());
+                }
+                continue;
+            }
+            int r = regimes - 1;
+            if (starts[r] != event.getMonth()) {
+                r = regimes++;
+                starts[r] = event.getMonth();
+                active[r] = active[r - 1];
+                annual[r] = annual[r - 1];
+            }
+            if (event.getType() == CashFlowEvent.Type.PAUSE_CONTRIBUTIONS) {
+                active[r] = false;
+            } else if (event.getType() == CashFlowEvent.Type.RESUME_CONTRIBUTIONS) {
+                active[r] = true;
+            } else {
+                annual[r] = event.getAmount();
+            }
+        }
+
+        this.regimeStartMonths = Arrays.copyOf(starts, regimes);
+        this.regimeHasContributions = new boolean[regimes];
+        this.regimeAmountPerEvent = new BigDecimal[regimes];
+        this.regimeEvenMonthly = new BigDecimal[regimes];
+        this.regimeAmountPerEventDouble = new double[regimes];
+        this.regimeEvenMonthlyDouble = new double[regimes];
+        for (int r = 0; r < regimes; r++) {
+            if (r == 0 && active[0] && annual[0] == additionalContribution) {
+                regimeHasContributions[0] = hasContributions;
+                regimeAmountPerEvent[0] = contributionAmountPerEvent;
+                regimeEvenMonthly[0] = evenMonthlyContribution;
+            } else {
+                regimeHasContributions[r] = active[r]
+                    && (contributionsPerYear > 0 || annual[r].compareTo(BigDecimal.ZERO) != 0);
+                regimeAmountPerEvent[r] = contributionsPerYear > 0
+                    ? annual[r].divide(BigDecimal.valueOf(contributionsPerYear), 20, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+                regimeEvenMonthly[r] = annual[r].divide(BigDecimal.valueOf(12), 20, RoundingMode.HALF_UP);
+            }
+            regimeAmountPerEventDouble[r] = regimeAmountPerEvent[r].doubleValue();
+            regimeEvenMonthlyDouble[r] = regimeEvenMonthly[r].doubleValue();
+        }
+
+        this.oneOffMonths = new int[lumpMonths.size()];
+        this.oneOffAmounts = lumpAmounts.toArray(new BigDecimal[0]);
+        this.oneOffMonthContributionDouble = new double[oneOffMonths.length];
+        for (int i = 0; i < oneOffMonths.length; i++) {
+            oneOffMonths[i] = lumpMonths.get(i);
+            // Rounded once from the exact sum, so the month's double is as accurate as any other
+            oneOffMonthContributionDouble[i] =
+                regularContribution(regimeAt(oneOffMonths[i]), oneOffMonths[i]).add(oneOffAmounts[i]).doubleValue();
+        }
+    }
+
+    /**
+     * Same scenario with a different horizon.
+     */
+    public InvestmentScenario withYears(int newYears) {
+        return new InvestmentScenario(startingAmount, newYears, annualReturnRate, compoundingFrequency,
+            additionalContribution, contributionsPerYear, contributionTiming, events, adjustments);
+    }
+
+    /**
+     * Same scenario with a different annual return rate.
+     */
+    public InvestmentScenario withAnnualReturnRate(BigDecimal newAnnualReturnRate) {
+        return new InvestmentScenario(startingAmount, years, newAnnualReturnRate, compoundingFrequency,
+            additionalContribution, contributionsPerYear, contributionTiming, events, adjustments);
+    }
+
+    /**
+     * Same scenario with a different regular contribution per year; negative for withdrawals.
+     */
+    public InvestmentScenario withAdditionalContribution(BigDecimal newAdditionalContribution) {
+        return new InvestmentScenario(startingAmount, years, annualReturnRate, compoundingFrequency,
+            newAdditionalContribution, contributionsPerYear, contributionTiming, events, adjustments);
+    }
+
+    /**
+     * Same scenario with the given cash-flow events instead of its current ones.
+     */
+    public InvestmentScenario withEvents(CashFlowEvents newEvents) {
+        return new InvestmentScenario(startingAmount, years, annualReturnRate, compoundingFrequency,
+            additionalContribution, contributionsPerYear, contributionTiming, newEvents, adjustments);
+    }
+
+    /**
+     * Same scenario with the given inflation, fee and tax adjustments.
+     */
+    public InvestmentScenario withAdjustments(PlanAdjustments newAdjustments) {
+        return new InvestmentScenario(startingAmount, years, annualReturnRate, compoundingFrequency,
+            additionalContribution, contributionsPerYear, contributionTiming, events, newAdjustments);
+    }
+
+    public BigDecimal getStartingAmount() { return startingAmount; }
+    public int getYears() { return years; }
+    public int getTotalMonths() { return years * 12; }
+    public BigDecimal getAnnualReturnRate() { return annualReturnRate; }
+    public CompoundingFrequency getCompoundingFrequency() { return compoundingFrequency; }
+    public BigDecimal getAdditionalContribution() { return additionalContribution; }
+    public int getContributionsPerYear() { return contributionsPerYear; }
+    public ContributionTiming getContributionTiming() { return contributionTiming; }
+    public boolean isContributeAtBeginning() { return contributionTiming == ContributionTiming.BEGINNING_OF_PERIOD; }
+    public CompoundingFactors getFactors() { return factors; }
+    public CashFlowEvents getEvents() { return events; }
+    public boolean hasEvents() { return !events.isEmpty(); }
+    public PlanAdjustments getAdjustments() { return adjustments; }
+
+    /**
+     * First plan month (1-based) in which this scenario and the other may calculate differently.
+     * Any change to the starting amount, rate, compounding, regular contribution, timing or
+     * adjustments affects month 1; a change to the events affects the month of the first differing event;
+     * a change of horizon alone affects the first month past the shorter one.
+     */
+    public int firstChangedMonth(InvestmentScenario other) {
+        if (!startingAmount.equals(other.startingAmount)
+                || !annualReturnRate.equals(other.annualReturnRate)
+                || compoundingFrequency != other.compoundingFrequency
+                || !additionalContribution.equals(other.additionalContribution)
+                || contributionsPerYear != other.contributionsPerYear
+                || contributionTiming != other.contributionTiming
+                || !adjustments.equals(other.adjustments)) {
+            return 1;
+        }
+        int changed = Math.min(getTotalMonths(), other.getTotalMonths()) + 1;
+        List<CashFlowEvent> mine = events.getEvents();
+        List<CashFlowEvent> theirs = other.events.getEvents();
+        for (int i = 0; i < Math.max(mine.size(), theirs.size()); i++) {
+            CashFlowEvent a = i < mine.size() ? mine.get(i) : null;
+            CashFlowEvent b = i < theirs.size() ? theirs.get(i) : null;
+            if (a == null || b == null || !a.equals(b)) {
+                int month = Math.min(a == null ? Integer.MAX_VALUE : a.getMonth(),
+                    b == null ? Integer.MAX_VALUE : b.getMonth());
+                return Math.min(changed, month);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Contribution applied in the given plan month (1-based). Annual contributions fall in month 1
+     * of each year, quarterly ones in months 1, 4, 7 and 10, monthly ones in every month; any other
+     * number of contributions per year is spread evenly over the 12 months. Lump sums and
+     * withdrawals from the events are included in their month.
+     */
+    public BigDecimal getContributionForMonth(int month) {
+        BigDecimal regular = regularContribution(regimeAt(month), month);
+        if (oneOffMonths.length == 0) {
+            return regular;
+        }
+        int i = Arrays.binarySearch(oneOffMonths, month);
+        return i >= 0 ? regular.add(oneOffAmounts[i]) : regular;
+    }
+
+    /**
+     * {@link #getContributionForMonth(int)} as a double, for the primitive engines.
+     */
+    public double getContributionForMonthAsDouble(int month) {
+        if (oneOffMonths.length > 0) {
+            int i = Arrays.binarySearch(oneOffMonths, month);
+            if (i >= 0) {
+                return oneOffMonthContributionDouble[i];
+            }
+        }
+        int r = regimeAt(month);
+        if (!regimeHasContributions[r]) {
+            return 0.0;
+        }
+        switch (contributionsPerYear) {
+            case 1:
+                return (month - 1) % 12 == 0 ? regimeAmountPerEventDouble[r] : 0.0;
+            case 4:
+                return (month - 1) % 3 == 0 ? regimeAmountPerEventDouble[r] : 0.0;
+            case 12:
+                return regimeAmountPerEventDouble[r];
+            default:
+                return regimeEvenMonthlyDouble[r];
+        }
+    }
+
+    /**
+     * Index of the contribution regime in force in the given month. Two months with the same
+     * regime and the same month of the year get the same regular contribution.
+     */
+    int regimeAt(int month) {
+        if (regimeStartMonths.length == 1) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(regimeStartMonths, month);
+        return i >= 0 ? i : Math.max(0, -i - 2);
+    }
+
+    private BigDecimal regularContribution(int regime, int month) {
+        if (!regimeHasContributions[regime]) {
+            return BigDecimal.ZERO;
+        }
+        switch (contributionsPerYear) {
+            case 1:
+                return (month - 1) % 12 == 0 ? regimeAmountPerEvent[regime] : BigDecimal.ZERO;
+            case 4:
+                return (month - 1) % 3 == 0 ? regimeAmountPerEvent[regime] : BigDecimal.ZERO;
+            case 12:
+                return regimeAmountPerEvent[regime];
+            default:
+                return regimeEvenMonthly[regime];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InvestmentScenario[start=%s, years=%d, rate=%s%%, %s, contribution=%s x%d, %s%s%s]",
+            startingAmount, years, annualReturnRate, compoundingFrequency.getLabel(),
+            additionalContribution, contributionsPerYear, contributionTiming.getLabel(),
+            events.isEmpty() ? "" : ", events=" + events,
+            adjustments.isNone() ? "" : ", " + adjustments);
+    }
+}
@@ -0,0 +1,54 @@
+package com.investmentcalc;
+
+/**
+ * A Monte Carlo estimate with its standard error, computed from the spread of independent
+ * replicates so that it is valid for every sampling method.
+ */
+public final class MonteCarloEstimate {
+    private final double value;
+    private final double standardError;
+    private final int replicates;
+
+    MonteCarloEstimate(double value, double standardError, int replicates) {
+        this.value = value;
+        this.standardError = standardError;
+        this.replicates = replicates;
+    }
+
+    /**
+     * Estimate from replicate values: their (weighted) mean and the standard error of that mean.
+     */
+    static MonteCarloEstimate fromReplicates(double value, double[] replicateValues, double[] replicateWeights) {
+        int r = replicateValues.length;
+        if (r < 2) {
+            return new MonteCarloEstimate(value, Double.NaN, r);
+        }
+        double totalWeight = 0;
+        double mean = 0;
+        for (int i = 0; i < r; i++) {
+            totalWeight += replicateWeights[i];
+            mean += replicateWeights[i] * replicateValues[i];
+        }
+        mean /= totalWeight;
+        double squares = 0;
+        for (int i = 0; i < r; i++) {
+            double d = replicateValues[i] - mean;
+            squares += replicateWeights[i] * d * d;
+        }
+        // Weighted replicates of nearly equal size: variance of the mean ~ s^2 / r
+        double variance = squares / totalWeight * r / (r - 1);
+        return new MonteCarloEstimate(value, Math.sqrt(variance / r), r);
+    }
+
+    public double getValue() { return value; }
+    public double getStandardError() { return standardError; }
+    public int getReplicates() { return replicates; }
+
+    public double getLower95() { return value - 1.96 * standardError; }
+    public double getUpper95() { return value + 1.96 * standardError; }
+
+    @Override
+    public String toString() {
+        return String.format("%.6g ± %.2g", value, standardError);
+    }
+}
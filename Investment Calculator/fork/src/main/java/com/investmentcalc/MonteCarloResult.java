@@ -0,0 +1,127 @@
+package com.investmentcalc;
+
+/**
+ * Percentile bands of a Monte Carlo run, per plan year. Year 0 is the starting amount.
+ */
+public class MonteCarloResult {
+
+    public static final double[] STANDARD_PERCENTILES = {5, 10, 25, 50, 75, 90, 95};
+
+    private final InvestmentScenario scenario;
+    private final double annualVolatility;
+    private final int pathCount;
+    private final QuantileSketch[] yearSketches;
+    private final double[] meanBalances;
+    private final SamplingMethod sampling;
+    private final MonteCarloEstimate[] statistics;
+    private final double shortfallTarget;
+    private final MonteCarloEstimate[] endPercentiles;
+
+    MonteCarloResult(InvestmentScenario scenario, double annualVolatility, SamplingMethod sampling, int pathCount,
+                     QuantileSketch[] yearSketches, double[] meanBalances,
+                     MonteCarloEstimate[] statistics, double shortfallTarget, MonteCarloEstimate[] endPercentiles) {
+        this.scenario = scenario;
+        this.annualVolatility = annualVolatility;
+        this.sampling = sampling;
+        this.pathCount = pathCount;
+        this.yearSketches = yearSketches;
+        this.meanBalances = meanBalances;
+        this.statistics = statistics;
+        this.shortfallTarget = shortfallTarget;
+        this.endPercentiles = endPercentiles;
+    }
+
+    public InvestmentScenario getScenario() { return scenario; }
+    public double getAnnualVolatility() { return annualVolatility; }
+    public SamplingMethod getSampling() { return sampling; }
+    public int getPathCount() { return pathCount; }
+    public int getYears() { return yearSketches.length; }
+
+    /**
+     * Paths times months: the amount of simulation work behind the estimates.
+     */
+    public long getSimulatedMonths() {
+        return (long) pathCount * scenario.getTotalMonths();
+    }
+
+    /**
+     * Mean end balance. With the control variate this is the known exact mean (zero error).
+     */
+    public MonteCarloEstimate getMeanEndBalance() {
+        return getStatistic(MonteCarloStatistic.MEAN_END_BALANCE);
+    }
+
+    /**
+     * Probability of ending below {@link #getShortfallTarget()}, the total amount put in.
+     */
+    public MonteCarloEstimate getShortfallProbability() {
+        return getStatistic(MonteCarloStatistic.SHORTFALL_PROBABILITY);
+    }
+
+    /**
+     * Probability that the balance reaches zero in some month.
+     */
+    public MonteCarloEstimate getDepletionProbability() {
+        return getStatistic(MonteCarloStatistic.DEPLETION_PROBABILITY);
+    }
+
+    public MonteCarloEstimate getStatistic(MonteCarloStatistic statistic) {
+        return statistics[statistic.ordinal()];
+    }
+
+    public double getShortfallTarget() {
+        return shortfallTarget;
+    }
+
+    /**
+     * End balance at one of the {@link #STANDARD_PERCENTILES}, with its standard error.
+     */
+    public MonteCarloEstimate getEndPercentile(double percentile) {
+        for (int i = 0; i < STANDARD_PERCENTILES.length; i++) {
+            if (STANDARD_PERCENTILES[i] == percentile) {
+                return endPercentiles[i];
+            }
+        }
+        throw new IllegalArgumentException("Standard errors are only tracked for the standard percentiles.");
+    }
+
+    /**
+     * Estimated balance at the given percentile (0-100) after the given year (0..years).
+     */
+    public double getPercentile(int year, double percentile) {
+        if (year == 0) {
+            return scenario.getStartingAmount().doubleValue();
+        }
+        return yearSketches[year - 1].quantile(percentile / 100.0);
+    }
+
+    /**
+     * Balance at the given percentile for every year 0..years, for plotting a band.
+     */
+    public double[] getPercentileBand(double percentile) {
+        double[] band = new double[getYears() + 1];
+        for (int year = 0; year < band.length; year++) {
+            band[year] = getPercentile(year, percentile);
+        }
+        return band;
+    }
+
+    /**
+     * {@link #STANDARD_PERCENTILES} after the given year.
+     */
+    public double[] getStandardPercentiles(int year) {
+        double[] values = new double[STANDARD_PERCENTILES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getPercentile(year, STANDARD_PERCENTILES[i]);
+        }
+        return values;
+    }
+
+    public double getMeanBalance(int year) {
+        return year == 0 ? scenario.getStartingAmount().doubleValue() : meanBalances[year - 1];
+    }
+
+    public double getMedianEndBalance() {
+        return getPercentile(getYears(), 50);
+    }
+}
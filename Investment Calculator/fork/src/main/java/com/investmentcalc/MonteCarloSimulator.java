@@ -0,0 +1,618 @@
+package com.investmentcalc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulation of a plan under random monthly returns.
+ *
+ * Monthly growth factors are lognormal with the given annual volatility and an expected value
+ * equal to the scenario's deterministic monthly factor, so the mean outcome matches the fixed-rate
+ * engines while the spread shows sequence risk. Contributions follow the usual month and timing
+ * semantics.
+ *
+ * Paths are never stored: each worker streams its yearly balances into one
+ * {@link QuantileSketch} per year, and the sketches are merged at the end. Memory therefore
+ * depends on the horizon, not on the number of paths. Paths are split into a fixed number of
+ * chunks, each with its own generator split from the seed, so a given seed reproduces the same
+ * result on any machine.
+ *
+ * Sampling can be plain pseudo-random, antithetic or randomized quasi-Monte Carlo (Sobol points
+ * on a Brownian bridge), optionally combined with a control variate: the end balance itself,
+ * whose exact mean is the deterministic plan. The chunks double as independent replicates, so
+ * every reported estimate comes with a standard error that is comparable across methods.
+ */
+public class MonteCarloSimulator {
+
+    // Fixed so the result for a seed does not depend on the number of cores
+    static final int CHUNKS = 64;
+    // Paths between checks for cancellation, a fraction of a millisecond of work
+    static final int CANCEL_CHECK_PATHS = 256;
+
+    // Leading Brownian bridge coordinates drawn from the Sobol sequence
+    static final int SOBOL_DIMENSIONS = SobolSequence.MAX_DIMENSIONS;
+
+    private final double annualVolatility;
+    private final SamplingMethod sampling;
+    private final boolean controlVariate;
+
+    /**
+     * @param annualVolatility standard deviation of annual log returns, e.g. 0.15 for 15%
+     */
+    public MonteCarloSimulator(double annualVolatility) {
+        this(annualVolatility, SamplingMethod.PSEUDO_RANDOM, false);
+    }
+
+    /**
+     * @param annualVolatility standard deviation of annual log returns, e.g. 0.15 for 15%
+     * @param sampling how paths are drawn
+     * @param controlVariate adjust estimates with the end balance, whose mean is known exactly
+     */
+    public MonteCarloSimulator(double annualVolatility, SamplingMethod sampling, boolean controlVariate) {
+        if (annualVolatility < 0 || Double.isNaN(annualVolatility)) {
+            throw new IllegalArgumentException("Volatility cannot be negative.");
+        }
+        if (sampling == null) {
+            throw new IllegalArgumentException("Sampling method is required.");
+        }
+        this.annualVolatility = annualVolatility;
+        this.sampling = sampling;
+        this.controlVariate = controlVariate;
+    }
+
+    public double getAnnualVolatility() {
+        return annualVolatility;
+    }
+
+    public SamplingMethod getSampling() {
+        return sampling;
+    }
+
+    public boolean isControlVariate() {
+        return controlVariate;
+    }
+
+    public MonteCarloResult simulate(InvestmentScenario scenario, int paths, long seed) {
+        return simulate(scenario, paths, seed, () -> false);
+    }
+
+    /**
+     * Simulates until done or until cancelled returns true, which every chunk checks every
+     * {@link #CANCEL_CHECK_PATHS} paths; a cancelled run throws a CancellationException instead
+     * of finishing on all cores.
+     */
+    public MonteCarloResult simulate(InvestmentScenario scenario, int paths, long seed, BooleanSupplier cancelled) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("Number of paths must be positive.");
+        }
+        int chunkCount = Math.min(CHUNKS, paths);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        List<SplittableRandom> generators = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            generators.add(root.split());
+        }
+
+        List<ChunkResult> chunks = IntStream.range(0, chunkCount).parallel()
+            .mapToObj(c -> {
+                int from = (int) ((long) paths * c / chunkCount);
+                int to = (int) ((long) paths * (c + 1) / chunkCount);
+                return simulateChunk(scenario, to - from, generators.get(c), cancelled);
+            })
+            .collect(Collectors.toList());
+
+        return buildResult(scenario, chunks);
+    }
+
+    /**
+     * Combines chunk results, in list order, into percentile bands and estimates.
+     */
+    MonteCarloResult buildResult(InvestmentScenario scenario, List<ChunkResult> chunks) {
+        ChunkResult total = new ChunkResult(scenario.getYears());
+        for (ChunkResult chunk : chunks) {
+            total.merge(chunk);
+        }
+        return buildResult(scenario, chunks, total);
+    }
+
+    /**
+     * Builds the result from the merged total of the chunks; the chunks themselves only serve as
+     * replicates, so they may be {@link ChunkResult#replicate() replicates} without sketches.
+     */
+    MonteCarloResult buildResult(InvestmentScenario scenario, List<ChunkResult> chunks, ChunkResult total) {
+        int years = scenario.getYears();
+        double[] means = new double[years];
+        for (int y = 0; y < years; y++) {
+            means[y] = total.sums[y] / total.paths;
+        }
+
+        MonteCarloEstimate[] percentileEstimates = new MonteCarloEstimate[MonteCarloResult.STANDARD_PERCENTILES.length];
+        for (int i = 0; i < percentileEstimates.length; i++) {
+            percentileEstimates[i] = endPercentile(chunks, total.sketches[years - 1], MonteCarloResult.STANDARD_PERCENTILES[i]);
+        }
+        MonteCarloEstimate[] statistics = new MonteCarloEstimate[MonteCarloStatistic.values().length];
+        for (MonteCarloStatistic statistic : MonteCarloStatistic.values()) {
+            statistics[statistic.ordinal()] = statistic == MonteCarloStatistic.MEDIAN_END_BALANCE
+                ? percentileEstimates[Arrays.binarySearch(MonteCarloResult.STANDARD_PERCENTILES, 50)]
+                : estimate(scenario, chunks, total, statistic);
+        }
+
+        return new MonteCarloResult(scenario, annualVolatility, sampling, (int) total.paths, total.sketches, means,
+            statistics, totalContributed(scenario), percentileEstimates);
+    }
+
+    /**
+     * Estimate of one statistic from the chunks simulated so far and their merged total, which for
+     * the median must include the sketches.
+     */
+    MonteCarloEstimate estimate(InvestmentScenario scenario, List<ChunkResult> chunks, ChunkResult total,
+                                MonteCarloStatistic statistic) {
+        if (statistic == MonteCarloStatistic.MEDIAN_END_BALANCE) {
+            return endPercentile(chunks, total.sketches[scenario.getYears() - 1], 50);
+        }
+        // The end balance is multilinear in independent growth factors with the deterministic
+        // expectation, so its exact mean is the fixed-rate plan
+        double knownMean = PrimitiveSchedule.simulate(scenario).endBalance[scenario.getTotalMonths() - 1];
+        switch (statistic) {
+            case MEAN_END_BALANCE:
+                return controlVariate
+                    ? new MonteCarloEstimate(knownMean, 0.0, chunks.size())
+                    : estimate(chunks, c -> c.sumY / c.paths);
+            case SHORTFALL_PROBABILITY:
+                return indicatorEstimate(scenario, chunks, total, knownMean, true,
+                    c -> c.sumI, c -> c.sumYI, c -> c.sumXI);
+            case DEPLETION_PROBABILITY:
+                return indicatorEstimate(scenario, chunks, total, knownMean, false,
+                    c -> c.sumD, c -> c.sumYD, c -> c.sumXD);
+            default:
+                throw new IllegalArgumentException("Unsupported statistic: " + statistic);
+        }
+    }
+
+    /**
+     * Probability estimate for a path indicator I. With the control variate, I is regressed on
+     * the end balance Y and, for the shortfall, on X = 1{W_T < w*} whose mean Phi(w* / sqrt(T))
+     * is known exactly.
+     */
+    private MonteCarloEstimate indicatorEstimate(InvestmentScenario scenario, List<ChunkResult> chunks,
+                                                 ChunkResult total, double knownMean, boolean useTerminalControl,
+                                                 ToDoubleFunction<ChunkResult> sumI,
+                                                 ToDoubleFunction<ChunkResult> sumYI,
+                                                 ToDoubleFunction<ChunkResult> sumXI) {
+        if (!controlVariate) {
+            return estimate(chunks, c -> sumI.applyAsDouble(c) / c.paths);
+        }
+        PathModel model = new PathModel(scenario, annualVolatility);
+        boolean terminal = useTerminalControl && model.hasThreshold();
+
+        double n = total.paths;
+        double meanY = total.sumY / n;
+        double meanX = total.sumX / n;
+        double meanI = sumI.applyAsDouble(total) / n;
+        double varY = total.sumYY / n - meanY * meanY;
+        double varX = total.sumX / n - meanX * meanX;
+        double covYX = total.sumYX / n - meanY * meanX;
+        double covYI = sumYI.applyAsDouble(total) / n - meanY * meanI;
+        double covXI = sumXI.applyAsDouble(total) / n - meanX * meanI;
+        double knownX = terminal ? NormalSampler.cdf(model.threshold / Math.sqrt(scenario.getTotalMonths())) : 0.0;
+
+        double det = varY * varX - covYX * covYX;
+        final double betaY;
+        final double betaX;
+        if (terminal && det > 1e-12 * varY * varX) {
+            betaY = (varX * covYI - covYX * covXI) / det;
+            betaX = (varY * covXI - covYX * covYI) / det;
+        } else {
+            betaY = varY > 0 ? covYI / varY : 0.0;
+            betaX = 0.0;
+        }
+        return estimate(chunks, c -> sumI.applyAsDouble(c) / c.paths
+            - betaY * (c.sumY / c.paths - knownMean) - betaX * (c.sumX / c.paths - knownX));
+    }
+
+    /**
+     * End balance percentile from the pooled sketch, with chunk quantiles as replicates.
+     */
+    private static MonteCarloEstimate endPercentile(List<ChunkResult> chunks, QuantileSketch pooled, double percentile) {
+        double[] replicates = new double[chunks.size()];
+        double[] weights = new double[chunks.size()];
+        for (int c = 0; c < replicates.length; c++) {
+            ChunkResult chunk = chunks.get(c);
+            replicates[c] = chunk.endPercentile(percentile);
+            weights[c] = chunk.paths;
+        }
+        return MonteCarloEstimate.fromReplicates(pooled.quantile(percentile / 100.0), replicates, weights);
+    }
+
+    /**
+     * Pooled estimate of a per-chunk statistic: the path-weighted mean over chunks, with the
+     * chunks as replicates for the standard error.
+     */
+    private static MonteCarloEstimate estimate(List<ChunkResult> chunks, ToDoubleFunction<ChunkResult> statistic) {
+        double[] replicates = new double[chunks.size()];
+        double[] weights = new double[chunks.size()];
+        double value = 0;
+        double totalWeight = 0;
+        for (int c = 0; c < replicates.length; c++) {
+            replicates[c] = statistic.applyAsDouble(chunks.get(c));
+            weights[c] = chunks.get(c).paths;
+            value += weights[c] * replicates[c];
+            totalWeight += weights[c];
+        }
+        return MonteCarloEstimate.fromReplicates(value / totalWeight, replicates, weights);
+    }
+
+    /**
+     * Starting amount plus every contribution of the plan.
+     */
+    static double totalContributed(InvestmentScenario scenario) {
+        double total = scenario.getStartingAmount().doubleValue();
+        for (int i = 1; i <= scenario.getTotalMonths(); i++) {
+            total += scenario.getContributionForMonthAsDouble(i);
+        }
+        return total;
+    }
+
+    ChunkResult simulateChunk(InvestmentScenario scenario, int paths, SplittableRandom random) {
+        return simulateChunk(scenario, paths, random, null);
+    }
+
+    private ChunkResult simulateChunk(InvestmentScenario scenario, int paths, SplittableRandom random,
+                                      BooleanSupplier cancelled) {
+        int totalMonths = scenario.getTotalMonths();
+        PathModel model = new PathModel(scenario, annualVolatility);
+        ChunkResult result = new ChunkResult(scenario.getYears());
+
+        NormalSampler normal = new NormalSampler(random);
+        double[] normals = new double[totalMonths];
+        double[] increments = new double[totalMonths];
+
+        SobolSequence sobol = null;
+        BrownianBridge bridge = null;
+        double[] point = null;
+        if (sampling == SamplingMethod.SOBOL) {
+            int dimensions = Math.min(SOBOL_DIMENSIONS, totalMonths);
+            int[] shift = new int[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                shift[d] = random.nextInt();
+            }
+            sobol = new SobolSequence(dimensions, shift);
+            bridge = new BrownianBridge(totalMonths);
+            point = new double[dimensions];
+        }
+
+        int p = 0;
+        int nextCheck = CANCEL_CHECK_PATHS;
+        while (p < paths) {
+            if (cancelled != null && p >= nextCheck) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Simulation cancelled.");
+                }
+                nextCheck = p + CANCEL_CHECK_PATHS;
+            }
+            if (sampling == SamplingMethod.SOBOL) {
+                sobol.next(point);
+                for (int d = 0; d < point.length; d++) {
+                    normals[d] = NormalSampler.inverseCdf(point[d]);
+                }
+                for (int i = point.length; i < totalMonths; i++) {
+                    normals[i] = normal.next();
+                }
+                bridge.increments(normals, increments);
+            } else {
+                for (int i = 0; i < totalMonths; i++) {
+                    increments[i] = normal.next();
+                }
+            }
+
+            model.run(increments, 1.0, result);
+            p++;
+            if (sampling == SamplingMethod.ANTITHETIC && p < paths) {
+                model.run(increments, -1.0, result);
+                p++;
+            }
+        }
+        result.compact();
+        return result;
+    }
+
+    /**
+     * One path's month loop for a scenario, driven by standard normal increments.
+     */
+    private static final class PathModel {
+        final double[] contributions;
+        final boolean contributeAtBeginning;
+        final double startingAmount;
+        final PlanAdjustments adjustments;
+        final double expectedGrowth;
+        final double mu;
+        final double sigma;
+        final double target;
+        // Terminal Brownian value below which the straight-line path ends short of the target
+        final double threshold;
+
+        PathModel(InvestmentScenario scenario, double annualVolatility) {
+            int totalMonths = scenario.getTotalMonths();
+            contributions = new double[totalMonths];
+            for (int i = 0; i < totalMonths; i++) {
+                contributions[i] = scenario.getContributionForMonthAsDouble(i + 1);
+            }
+            contributeAtBeginning = scenario.isContributeAtBeginning();
+            startingAmount = scenario.getStartingAmount().doubleValue();
+            // Net growth is affine in the gross growth, so the adjusted plan keeps its exact mean
+            adjustments = scenario.getAdjustments();
+
+            // E[exp(mu + sigma Z)] = exp(mu + sigma^2 / 2) = 1 + monthly factor
+            expectedGrowth = 1.0 + scenario.getFactors().getMonthlyInterestFactorAsDouble();
+            sigma = annualVolatility / Math.sqrt(12);
+            mu = expectedGrowth > 0 ? Math.log(expectedGrowth) - sigma * sigma / 2 : 0;
+            target = totalContributed(scenario);
+            threshold = findThreshold();
+        }
+
+        boolean hasThreshold() {
+            return !Double.isNaN(threshold);
+        }
+
+        /**
+         * End balance when the Brownian path runs in a straight line to w, i.e. every month has
+         * the same growth.
+         */
+        private double straightLineBalance(double w) {
+            double growth = adjustments.adjustGrowth(Math.exp(mu + sigma * w / contributions.length));
+            double balance = startingAmount;
+            for (double c : contributions) {
+                balance = contributeAtBeginning ? (balance + c) * growth : balance * growth + c;
+            }
+            return balance;
+        }
+
+        /**
+         * Solves straightLineBalance(w) = target by bisection; NaN when there is no crossing.
+         */
+        private double findThreshold() {
+            if (sigma == 0 || expectedGrowth <= 0) {
+                return Double.NaN;
+            }
+            double range = 8 * Math.sqrt(contributions.length);
+            double lo = -range;
+            double hi = range;
+            // Only a crossing from short to not short is a usable threshold
+            if (!(straightLineBalance(lo) < target) || straightLineBalance(hi) < target) {
+                return Double.NaN;
+            }
+            for (int iteration = 0; iteration < 100 && hi - lo > 1e-9; iteration++) {
+                double mid = (lo + hi) / 2;
+                if (straightLineBalance(mid) < target) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            return (lo + hi) / 2;
+        }
+
+        void run(double[] increments, double sign, ChunkResult result) {
+            double balance = startingAmount;
+            double w = 0;
+            boolean depleted = false;
+            for (int i = 0; i < contributions.length; i++) {
+                w += increments[i];
+                double growth = adjustments.adjustGrowth(
+                    expectedGrowth > 0 ? Math.exp(mu + sigma * sign * increments[i]) : 0.0);
+                double c = contributions[i];
+                balance = contributeAtBeginning ? (balance + c) * growth : balance * growth + c;
+                depleted |= balance <= 0;
+                if ((i + 1) % 12 == 0) {
+                    result.addYearEnd(i / 12, balance);
+                }
+            }
+            result.addPath(balance, balance < target, hasThreshold() && sign * w < threshold, depleted);
+        }
+    }
+
+    static final class ChunkResult {
+        final QuantileSketch[] sketches;
+        final double[] sums;
+        // Set on replicates, which have no sketches
+        double[] endPercentiles;
+        // End balance Y, shortfall indicator I, depletion indicator D and terminal indicator X
+        long paths;
+        double sumY;
+        double sumYY;
+        double sumI;
+        double sumYI;
+        double sumX;
+        double sumYX;
+        double sumXI;
+        double sumD;
+        double sumYD;
+        double sumXD;
+
+        ChunkResult(int years) {
+            sketches = new QuantileSketch[years];
+            for (int y = 0; y < years; y++) {
+                sketches[y] = new QuantileSketch();
+            }
+            sums = new double[years];
+        }
+
+        void addYearEnd(int yearIndex, double balance) {
+            sketches[yearIndex].add(balance);
+            sums[yearIndex] += balance;
+        }
+
+        void addPath(double endBalance, boolean shortfall, boolean terminalControl, boolean depleted) {
+            double i = shortfall ? 1.0 : 0.0;
+            double x = terminalControl ? 1.0 : 0.0;
+            double d = depleted ? 1.0 : 0.0;
+            paths++;
+            sumY += endBalance;
+            sumYY += endBalance * endBalance;
+            sumI += i;
+            sumYI += endBalance * i;
+            sumX += x;
+            sumYX += endBalance * x;
+            sumXI += x * i;
+            sumD += d;
+            sumYD += endBalance * d;
+            sumXD += x * d;
+        }
+
+        /**
+         * Copy with only what a replicate needs for the standard errors: the moments and the
+         * standard end balance percentiles. It is a few hundred bytes, where the per-year sketches
+         * take kilobytes per year.
+         */
+        ChunkResult replicate() {
+            ChunkResult replicate = new ChunkResult(0);
+            replicate.mergeMoments(this);
+            double[] percentiles = MonteCarloResult.STANDARD_PERCENTILES;
+            replicate.endPercentiles = new double[percentiles.length];
+            for (int i = 0; i < percentiles.length; i++) {
+                replicate.endPercentiles[i] = endPercentile(percentiles[i]);
+            }
+            return replicate;
+        }
+
+        double endPercentile(double percentile) {
+            if (endPercentiles != null) {
+                int index = Arrays.binarySearch(MonteCarloResult.STANDARD_PERCENTILES, percentile);
+                if (index >= 0) {
+                    return endPercentiles[index];
+                }
+                throw new IllegalArgumentException("Replicate has no " + percentile + "th percentile.");
+            }
+            return sketches[sketches.length - 1].quantile(percentile / 100.0);
+        }
+
+        void compact() {
+            for (QuantileSketch sketch : sketches) {
+                sketch.compact();
+            }
+        }
+
+        void merge(ChunkResult other) {
+            for (int y = 0; y < sketches.length; y++) {
+                sketches[y].merge(other.sketches[y]);
+                sums[y] += other.sums[y];
+            }
+            mergeMoments(other);
+        }
+
+        void mergeMoments(ChunkResult other) {
+            paths += other.paths;
+            sumY += other.sumY;
+            sumYY += other.sumYY;
+            sumI += other.sumI;
+            sumYI += other.sumYI;
+            sumX += other.sumX;
+            sumYX += other.sumYX;
+            sumXI += other.sumXI;
+            sumD += other.sumD;
+            sumYD += other.sumYD;
+            sumXD += other.sumXD;
+        }
+    }
+
+    /**
+     * Standard normal variates from a SplittableRandom (Marsaglia polar method), which has no
+     * nextGaussian before Java 17.
+     */
+    static final class NormalSampler {
+        private final SplittableRandom random;
+        private double spare;
+        private boolean hasSpare;
+
+        NormalSampler(SplittableRandom random) {
+            this.random = random;
+        }
+
+        double next() {
+            if (hasSpare) {
+                hasSpare = false;
+                return spare;
+            }
+            double u;
+            double v;
+            double s;
+            do {
+                u = 2 * random.nextDouble() - 1;
+                v = 2 * random.nextDouble() - 1;
+                s = u * u + v * v;
+            } while (s >= 1 || s == 0);
+            double scale = Math.sqrt(-2 * Math.log(s) / s);
+            spare = v * scale;
+            hasSpare = true;
+            return u * scale;
+        }
+
+        /**
+         * Standard normal distribution function (Marsaglia's Taylor series, absolute error
+         * around 1e-15).
+         */
+        static double cdf(double x) {
+            if (x < -8.5) {
+                return 0.0;
+            }
+            if (x > 8.5) {
+                return 1.0;
+            }
+            double sum = x;
+            double term = x;
+            double previous = 0;
+            double squared = x * x;
+            for (int i = 3; sum != previous; i += 2) {
+                previous = sum;
+                term *= squared / i;
+                sum += term;
+            }
+            return 0.5 + sum * Math.exp(-0.5 * squared - 0.91893853320467274178);
+        }
+
+        /**
+         * Inverse of the standard normal distribution function (Acklam's rational approximation,
+         * relative error below 1.2e-9), for mapping quasi-random points to normals.
+         */
+        static double inverseCdf(double p) {
+            if (p <= 0 || p >= 1) {
+                throw new IllegalArgumentException("Probability must be strictly between 0 and 1.");
+            }
+            final double pLow = 0.02425;
+            if (p < pLow) {
+                double q = Math.sqrt(-2 * Math.log(p));
+                return (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                    / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+            }
+            if (p > 1 - pLow) {
+                double q = Math.sqrt(-2 * Math.log(1 - p));
+                return -(((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                    / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+            }
+            double q = p - 0.5;
+            double r = q * q;
+            return (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+                / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1);
+        }
+
+        private static final double[] A = {
+            -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        private static final double[] B = {
+            -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01};
+        private static final double[] C = {
+            -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        private static final double[] D = {
+            7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00};
+    }
+}
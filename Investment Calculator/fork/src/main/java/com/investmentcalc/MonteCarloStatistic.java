@@ -0,0 +1,29 @@
+package com.investmentcalc;
+
+/**
+ * Statistics of a Monte Carlo run that can be estimated with a standard error, e.g. as the
+ * stopping criterion of {@link AdaptiveMonteCarlo}.
+ */
+public enum MonteCarloStatistic {
+    MEAN_END_BALANCE("Mean end balance"),
+    MEDIAN_END_BALANCE("Median end balance"),
+    /** Probability of ending below the total amount put in. */
+    SHORTFALL_PROBABILITY("Shortfall probability"),
+    /** Probability that the balance reaches zero in some month. */
+    DEPLETION_PROBABILITY("Depletion probability");
+
+    private final String label;
+
+    MonteCarloStatistic(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
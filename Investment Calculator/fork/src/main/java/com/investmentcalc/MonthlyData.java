@@ -11,14 +11,30 @@ public class MonthlyData {
     private final BigDecimal contributions;
     private final BigDecimal interestEarned;
     private final BigDecimal endBalance;
+    private final BigDecimal fees;
+    private final BigDecimal taxes;
+    private final BigDecimal realEndBalance;
     
     public MonthlyData(String month, BigDecimal startBalance, BigDecimal contributions, 
                       BigDecimal interestEarned, BigDecimal endBalance) {
+        this(month, startBalance, contributions, interestEarned, endBalance, BigDecimal.ZERO, BigDecimal.ZERO, endBalance);
+    }
+    
+    /**
+     * Row of a plan with fees, taxes or inflation: the end balance is net of the fees and taxes,
+     * and the real end balance is in money of the plan's start.
+     */
+    public MonthlyData(String month, BigDecimal startBalance, BigDecimal contributions, 
+                      BigDecimal interestEarned, BigDecimal endBalance,
+                      BigDecimal fees, BigDecimal taxes, BigDecimal realEndBalance) {
         this.month = month;
         this.startBalance = startBalance;
         this.contributions = contributions;
         this.interestEarned = interestEarned;
         this.endBalance = endBalance;
+        this.fees = fees;
+        this.taxes = taxes;
+        this.realEndBalance = realEndBalance;
     }
     
     // Getters
@@ -27,4 +43,7 @@ public class MonthlyData {
     public BigDecimal getContributions() { return contributions; }
     public BigDecimal getInterestEarned() { return interestEarned; }
     public BigDecimal getEndBalance() { return endBalance; }
+    public BigDecimal getFees() { return fees; }
+    public BigDecimal getTaxes() { return taxes; }
+    public BigDecimal getRealEndBalance() { return realEndBalance; }
 }
@@ -0,0 +1,207 @@
+package com.investmentcalc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip output whose compression runs on its own thread, overlapping with the thread that
+ * formats the content.
+ *
+ * Written bytes fill a buffer on the calling thread; full buffers are handed to a compressor
+ * thread that deflates them into the underlying stream and hands them back. A fixed set of
+ * buffers circulates between the two, so memory stays bounded and a writer that gets ahead of
+ * the compressor waits for a buffer. An error in the compressor is thrown from the next write or
+ * from {@link #close}. Interrupting the writing thread abandons the file: the next write, flush
+ * or close throws an InterruptedIOException and the compressor stops.
+ */
+final class PipelinedGzipOutputStream extends OutputStream {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BUFFER_COUNT = 4;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+    private static final ByteBuffer FLUSH = ByteBuffer.allocate(0);
+
+    private final BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(BUFFER_COUNT);
+    private final Semaphore flushed = new Semaphore(0);
+    private final GZIPOutputStream gzip;
+    private final Thread compressor;
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private boolean closed;
+
+    PipelinedGzipOutputStream(OutputStream out, int level) throws IOException {
+        // Sync flush, so that flush() makes everything written so far readable
+        gzip = new GZIPOutputStream(out, BUFFER_SIZE, true) {
+            {
+                def.setLevel(level);
+            }
+        };
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            free.add(ByteBuffer.allocate(BUFFER_SIZE));
+        }
+        current = free.remove();
+        compressor = new Thread(this::compress, "gzip-compressor");
+        compressor.setDaemon(true);
+        compressor.start();
+    }
+
+    private void compress() {
+        try {
+            while (true) {
+                ByteBuffer buffer = full.take();
+                if (buffer == END) {
+                    break;
+                }
+                if (buffer == FLUSH) {
+                    if (failure == null) {
+                        try {
+                            gzip.flush();
+                        } catch (IOException e) {
+                            failure = e;
+                        }
+                    }
+                    flushed.release();
+                    continue;
+                }
+                if (failure == null) {
+                    try {
+                        gzip.write(buffer.array(), 0, buffer.position());
+                    } catch (IOException e) {
+                        failure = e; // keep recycling buffers so the writer never waits forever
+                    }
+                }
+                buffer.clear();
+                free.put(buffer);
+            }
+        } catch (InterruptedException e) {
+            // Abandoned by close()
+        } finally {
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!current.hasRemaining()) {
+            handOff();
+        }
+        current.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (!current.hasRemaining()) {
+                handOff();
+            }
+            int count = Math.min(length, current.remaining());
+            current.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Passes the current buffer to the compressor and takes a free one.
+     */
+    private void handOff() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        try {
+            full.put(current);
+            current = free.take();
+        } catch (InterruptedException e) {
+            throw abandon();
+        }
+    }
+
+    /**
+     * Waits until everything written so far is compressed and flushed to the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        try {
+            if (current.position() > 0) {
+                full.put(current);
+                current = free.take();
+            }
+            full.put(FLUSH);
+            flushed.acquire();
+        } catch (InterruptedException e) {
+            throw abandon();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+
+    /**
+     * Waits for the compressor to deflate everything written so far and finish the gzip stream,
+     * then closes the underlying stream. When interrupted, it abandons the gzip stream instead.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (current.position() > 0) {
+                full.put(current);
+            }
+            full.put(END);
+            compressor.join();
+        } catch (InterruptedException e) {
+            throw abandon();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops the compressor after an interrupt and waits until it has closed the underlying
+     * stream, so the file can be deleted right away; writers such as OutputStreamWriter may never
+     * call close() after a failed write. Returns the exception to throw, with the interrupt
+     * restored.
+     */
+    private InterruptedIOException abandon() {
+        closed = true;
+        compressor.interrupt();
+        while (compressor.isAlive()) {
+            try {
+                compressor.join();
+            } catch (InterruptedException again) {
+                // Keep waiting; the interrupt is restored below
+            }
+        }
+        Thread.currentThread().interrupt();
+        return new InterruptedIOException("Compression interrupted.");
+    }
+}
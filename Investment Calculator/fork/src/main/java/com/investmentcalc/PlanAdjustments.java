@@ -0,0 +1,134 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Inflation, management fee and tax drag applied inside the monthly loop.
+ *
+ * Each month, after the interest (the gross return) is earned:
+ * <ul>
+ *   <li>tax = interest * tax rate, so losses reduce the tax as with a loss offset;</li>
+ *   <li>fee = (balance after interest and tax) * annual fee / 12;</li>
+ *   <li>the real balance is the nominal balance deflated by the inflation since the start.</li>
+ * </ul>
+ * Both deductions are proportional to the balance the month's growth applies to, so a month with
+ * growth g becomes a month with growth {@link #adjustGrowth(double)}: engines that work with
+ * growth factors, including the closed-form and Monte Carlo ones, apply all stages at once by
+ * adjusting g.
+ */
+public final class PlanAdjustments {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final BigDecimal TWELVE = BigDecimal.valueOf(12);
+
+    public static final PlanAdjustments NONE = new PlanAdjustments(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    private final BigDecimal annualInflationRate;
+    private final BigDecimal annualFeeRate;
+    private final BigDecimal taxRate;
+
+    // Derived values
+    private final BigDecimal monthlyFeeFactor;
+    private final BigDecimal taxFactor;
+    private final BigDecimal monthlyDeflator;
+    private final double monthlyFeeFactorDouble;
+    private final double taxFactorDouble;
+    private final double monthlyDeflatorDouble;
+
+    /**
+     * @param annualInflationRate inflation per year as percent, e.g. 2.5
+     * @param annualFeeRate management fee per year as percent of the balance, e.g. 0.4
+     * @param taxRate share of returns paid as tax, as percent, e.g. 15
+     */
+    public PlanAdjustments(BigDecimal annualInflationRate, BigDecimal annualFeeRate, BigDecimal taxRate) {
+        if (annualInflationRate == null || annualFeeRate == null || taxRate == null) {
+            throw new IllegalArgumentException("Please fill in all required fields.");
+        }
+        if (annualInflationRate.compareTo(BigDecimal.valueOf(-50)) < 0 || annualInflationRate.compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Inflation rate must be between -50% and 100%.");
+        }
+        if (annualFeeRate.signum() < 0 || annualFeeRate.compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Annual fee must be between 0% and 100%.");
+        }
+        if (taxRate.signum() < 0 || taxRate.compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Tax rate must be between 0% and 100%.");
+        }
+        this.annualInflationRate = annualInflationRate;
+        this.annualFeeRate = annualFeeRate;
+        this.taxRate = taxRate;
+
+        this.monthlyFeeFactor = annualFeeRate.divide(HUNDRED.multiply(TWELVE), 20, RoundingMode.HALF_UP);
+        this.taxFactor = taxRate.divide(HUNDRED, 20, RoundingMode.HALF_UP);
+        // Same double-pow convention as the monthly multiplier in CompoundingFactors
+        double inflation = annualInflationRate.divide(HUNDRED, 30, RoundingMode.HALF_UP).doubleValue();
+        this.monthlyDeflatorDouble = Math.pow(1 + inflation, -1.0 / 12);
+        this.monthlyDeflator = BigDecimal.valueOf(monthlyDeflatorDouble);
+        this.monthlyFeeFactorDouble = monthlyFeeFactor.doubleValue();
+        this.taxFactorDouble = taxFactor.doubleValue();
+    }
+
+    public BigDecimal getAnnualInflationRate() { return annualInflationRate; }
+    public BigDecimal getAnnualFeeRate() { return annualFeeRate; }
+    public BigDecimal getTaxRate() { return taxRate; }
+
+    /** Fee per month as a fraction of the balance. */
+    public BigDecimal getMonthlyFeeFactor() { return monthlyFeeFactor; }
+    /** Tax as a fraction of the month's return. */
+    public BigDecimal getTaxFactor() { return taxFactor; }
+    /** 1 / (1 + inflation)^(1/12): one month's change in the value of money. */
+    public BigDecimal getMonthlyDeflator() { return monthlyDeflator; }
+    public double getMonthlyFeeFactorAsDouble() { return monthlyFeeFactorDouble; }
+    public double getTaxFactorAsDouble() { return taxFactorDouble; }
+    public double getMonthlyDeflatorAsDouble() { return monthlyDeflatorDouble; }
+
+    /**
+     * True when no stage changes anything, so engines can keep their plain loops.
+     */
+    public boolean isNone() {
+        return annualInflationRate.signum() == 0 && annualFeeRate.signum() == 0 && taxRate.signum() == 0;
+    }
+
+    /**
+     * True when the nominal balance differs from the gross one, i.e. there is a fee or a tax.
+     */
+    public boolean hasDeductions() {
+        return annualFeeRate.signum() != 0 || taxRate.signum() != 0;
+    }
+
+    /**
+     * Net growth of a month with gross growth g: (1 + (g - 1) * (1 - tax)) * (1 - fee).
+     */
+    public double adjustGrowth(double growth) {
+        if (monthlyFeeFactorDouble == 0 && taxFactorDouble == 0) {
+            return growth;
+        }
+        return (1 + (growth - 1) * (1 - taxFactorDouble)) * (1 - monthlyFeeFactorDouble);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PlanAdjustments)) {
+            return false;
+        }
+        PlanAdjustments other = (PlanAdjustments) o;
+        return annualInflationRate.compareTo(other.annualInflationRate) == 0
+            && annualFeeRate.compareTo(other.annualFeeRate) == 0
+            && taxRate.compareTo(other.taxRate) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * annualInflationRate.stripTrailingZeros().hashCode()
+            + annualFeeRate.stripTrailingZeros().hashCode()) + taxRate.stripTrailingZeros().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlanAdjustments[inflation=%s%%, fee=%s%%, tax=%s%%]",
+            annualInflationRate, annualFeeRate, taxRate);
+    }
+}
@@ -0,0 +1,317 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Month-by-month schedule held in primitive double columns.
+ *
+ * Follows exactly the month semantics of {@link FinalInvestmentEngine}
+ * (contribution months, beginning/end timing, interest base) but uses double arithmetic, so a
+ * full 100-year schedule costs a few microseconds instead of thousands of BigDecimal operations.
+ */
+final class PrimitiveSchedule {
+
+    // Largest magnitude for which value * 1e10 still fits in a long
+    private static final double LONG_SCALE_LIMIT = 9.0e8;
+
+    // Unit roundoff of double arithmetic
+    static final double UNIT_ROUNDOFF = Math.ulp(1.0) / 2;
+
+    final int months;
+    final double[] startBalance;
+    final double[] contributions;
+    final double[] interest;
+    final double[] endBalance;
+
+    // Only for scenarios with adjustments
+    double[] fees;
+    double[] taxes;
+    double[] realEndBalance;
+
+    // Optional running error bounds (absolute, against the exact BigDecimal schedule)
+    double startingAmountError;
+    double[] contributionError;
+    double[] interestError;
+    double[] endBalanceError;
+
+    private PrimitiveSchedule(int months) {
+        this.months = months;
+        this.startBalance = new double[months];
+        this.contributions = new double[months];
+        this.interest = new double[months];
+        this.endBalance = new double[months];
+    }
+
+    static PrimitiveSchedule simulate(InvestmentScenario scenario) {
+        if (!scenario.getAdjustments().isNone()) {
+            return simulateAdjusted(scenario, null, null, 0);
+        }
+        int totalMonths = scenario.getTotalMonths();
+        PrimitiveSchedule schedule = new PrimitiveSchedule(totalMonths);
+
+        double monthlyInterestFactor = scenario.getFactors().getMonthlyInterestFactorAsDouble();
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+
+        double balance = scenario.getStartingAmount().doubleValue();
+        for (int i = 0; i < totalMonths; i++) {
+            double contribution = scenario.getContributionForMonthAsDouble(i + 1);
+
+            schedule.startBalance[i] = balance;
+            schedule.contributions[i] = contribution;
+            double monthInterest;
+            if (contributeAtBeginning) {
+                monthInterest = (balance + contribution) * monthlyInterestFactor;
+                balance = balance + contribution + monthInterest;
+            } else {
+                monthInterest = balance * monthlyInterestFactor;
+                balance = balance + monthInterest + contribution;
+            }
+            schedule.interest[i] = monthInterest;
+            schedule.endBalance[i] = balance;
+        }
+        return schedule;
+    }
+
+    /**
+     * Replays a historical return series through the scenario's contribution schedule and timing:
+     * month i earns the portfolio return of series month {@code startIndex + i} instead of the
+     * scenario's fixed monthly factor.
+     */
+    static PrimitiveSchedule replay(InvestmentScenario scenario, ReturnSeries series, double[] weights, int startIndex) {
+        if (!scenario.getAdjustments().isNone()) {
+            return simulateAdjusted(scenario, series, weights, startIndex);
+        }
+        int totalMonths = scenario.getTotalMonths();
+        PrimitiveSchedule schedule = new PrimitiveSchedule(totalMonths);
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+
+        double balance = scenario.getStartingAmount().doubleValue();
+        for (int i = 0; i < totalMonths; i++) {
+            double contribution = scenario.getContributionForMonthAsDouble(i + 1);
+            double monthReturn = series.getPortfolioReturn(startIndex + i, weights);
+
+            schedule.startBalance[i] = balance;
+            schedule.contributions[i] = contribution;
+            double monthInterest;
+            if (contributeAtBeginning) {
+                monthInterest = (balance + contribution) * monthReturn;
+                balance = balance + contribution + monthInterest;
+            } else {
+                monthInterest = balance * monthReturn;
+                balance = balance + monthInterest + contribution;
+            }
+            schedule.interest[i] = monthInterest;
+            schedule.endBalance[i] = balance;
+        }
+        return schedule;
+    }
+
+    /**
+     * The month loop with the scenario's tax, fee and inflation stages fused in, following
+     * FinalInvestmentEngine: tax on the month's interest, then the fee on the balance after
+     * interest and tax, and the real balance from a running deflator. Returns come from the
+     * series when one is given, otherwise from the scenario's fixed monthly factor.
+     */
+    private static PrimitiveSchedule simulateAdjusted(InvestmentScenario scenario, ReturnSeries series,
+                                                      double[] weights, int startIndex) {
+        int totalMonths = scenario.getTotalMonths();
+        PrimitiveSchedule schedule = new PrimitiveSchedule(totalMonths);
+        schedule.fees = new double[totalMonths];
+        schedule.taxes = new double[totalMonths];
+        schedule.realEndBalance = new double[totalMonths];
+
+        PlanAdjustments adjustments = scenario.getAdjustments();
+        double taxFactor = adjustments.getTaxFactorAsDouble();
+        double feeFactor = adjustments.getMonthlyFeeFactorAsDouble();
+        double monthlyDeflator = adjustments.getMonthlyDeflatorAsDouble();
+        double fixedFactor = scenario.getFactors().getMonthlyInterestFactorAsDouble();
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+
+        double balance = scenario.getStartingAmount().doubleValue();
+        double deflator = 1.0;
+        for (int i = 0; i < totalMonths; i++) {
+            double contribution = scenario.getContributionForMonthAsDouble(i + 1);
+            double monthFactor = series == null ? fixedFactor : series.getPortfolioReturn(startIndex + i, weights);
+
+            schedule.startBalance[i] = balance;
+            schedule.contributions[i] = contribution;
+            double base = contributeAtBeginning ? balance + contribution : balance;
+            double monthInterest = base * monthFactor;
+            double tax = monthInterest * taxFactor;
+            double afterTax = base + monthInterest - tax;
+            double fee = afterTax * feeFactor;
+            balance = afterTax - fee + (contributeAtBeginning ? 0.0 : contribution);
+            deflator *= monthlyDeflator;
+
+            schedule.interest[i] = monthInterest;
+            schedule.taxes[i] = tax;
+            schedule.fees[i] = fee;
+            schedule.endBalance[i] = balance;
+            schedule.realEndBalance[i] = balance * deflator;
+        }
+        return schedule;
+    }
+
+    /**
+     * Same as {@link #simulate} but also tracks, for every month, a rigorous upper bound on the
+     * absolute difference between each double value and the value the BigDecimal engine computes.
+     * Each floating-point operation contributes at most |result| * u, and errors already present
+     * in the balance are carried forward scaled by the growth factor.
+     */
+    static PrimitiveSchedule simulateWithErrorBounds(InvestmentScenario scenario) {
+        final double u = UNIT_ROUNDOFF;
+        int totalMonths = scenario.getTotalMonths();
+        PrimitiveSchedule schedule = new PrimitiveSchedule(totalMonths);
+        schedule.contributionError = new double[totalMonths];
+        schedule.interestError = new double[totalMonths];
+        schedule.endBalanceError = new double[totalMonths];
+
+        double f = scenario.getFactors().getMonthlyInterestFactorAsDouble();
+        double absF = Math.abs(f);
+        // f itself is the double nearest to the BigDecimal factor
+        double factorError = absF * u;
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+
+        double balance = scenario.getStartingAmount().doubleValue();
+        double balanceError = Math.abs(balance) * u;
+        schedule.startingAmountError = balanceError;
+
+        for (int i = 0; i < totalMonths; i++) {
+            double contribution = scenario.getContributionForMonthAsDouble(i + 1);
+            double contributionError = Math.abs(contribution) * u;
+
+            schedule.startBalance[i] = balance;
+            schedule.contributions[i] = contribution;
+            schedule.contributionError[i] = contributionError;
+
+            double monthInterest;
+            double monthInterestError;
+            if (contributeAtBeginning) {
+                double base = balance + contribution;
+                double baseError = balanceError + contributionError + Math.abs(base) * u;
+                monthInterest = base * f;
+                monthInterestError = absF * baseError + Math.abs(base) * factorError + Math.abs(monthInterest) * u;
+                balance = base + monthInterest;
+                balanceError = baseError + monthInterestError + Math.abs(balance) * u;
+            } else {
+                monthInterest = balance * f;
+                monthInterestError = absF * balanceError + Math.abs(balance) * factorError + Math.abs(monthInterest) * u;
+                double grown = balance + monthInterest;
+                double grownError = balanceError + monthInterestError + Math.abs(grown) * u;
+                balance = grown + contribution;
+                balanceError = grownError + contributionError + Math.abs(balance) * u;
+            }
+            // The BigDecimal engine rounds interest to 20 decimals
+            monthInterestError += 1e-20;
+
+            schedule.interest[i] = monthInterest;
+            schedule.interestError[i] = monthInterestError;
+            schedule.endBalance[i] = balance;
+            schedule.endBalanceError[i] = balanceError;
+        }
+        return schedule;
+    }
+
+    /**
+     * Builds the standard result (monthly rows, yearly rows and totals) from the columns,
+     * aggregating the same way FinalInvestmentEngine does.
+     */
+    InvestmentResult toResult(InvestmentScenario scenario) {
+        BigDecimal startingAmount = scenario.getStartingAmount();
+        int years = scenario.getYears();
+        List<MonthlyData> monthlyData = new ArrayList<>(months);
+        List<YearlyData> yearlyData = new ArrayList<>(years);
+
+        double totalContributions = 0.0;
+        double totalInterest = 0.0;
+        double yearStartBalance = startingAmount.doubleValue();
+        double yearContributions = 0.0;
+        double yearInterest = 0.0;
+        boolean adjusted = fees != null;
+        double totalFees = 0.0;
+        double totalTaxes = 0.0;
+        double yearFees = 0.0;
+        double yearTaxes = 0.0;
+
+        for (int i = 0; i < months; i++) {
+            int displayYear = (i / 12) + 1;
+            int displayMonth = (i % 12) + 1;
+            String label = "Year " + displayYear + ", Month " + displayMonth;
+            if (adjusted) {
+                monthlyData.add(new MonthlyData(label,
+                    toDisplayValue(startBalance[i]),
+                    toDisplayValue(contributions[i]),
+                    toDisplayValue(interest[i]),
+                    toDisplayValue(endBalance[i]),
+                    toDisplayValue(fees[i]),
+                    toDisplayValue(taxes[i]),
+                    toDisplayValue(realEndBalance[i])));
+                totalFees += fees[i];
+                totalTaxes += taxes[i];
+                yearFees += fees[i];
+                yearTaxes += taxes[i];
+            } else {
+                monthlyData.add(new MonthlyData(label,
+                    toDisplayValue(startBalance[i]),
+                    toDisplayValue(contributions[i]),
+                    toDisplayValue(interest[i]),
+                    toDisplayValue(endBalance[i])));
+            }
+
+            totalContributions += contributions[i];
+            totalInterest += interest[i];
+            yearContributions += contributions[i];
+            yearInterest += interest[i];
+
+            if ((i + 1) % 12 == 0) {
+                BigDecimal yearEnd = toDisplayValue(endBalance[i]);
+                yearlyData.add(new YearlyData(
+                    (i + 1) / 12,
+                    toDisplayValue(yearStartBalance),
+                    toDisplayValue(yearContributions),
+                    toDisplayValue(yearInterest),
+                    yearEnd,
+                    toDisplayValue(yearFees),
+                    toDisplayValue(yearTaxes),
+                    adjusted ? toDisplayValue(realEndBalance[i]) : yearEnd));
+                yearStartBalance = endBalance[i];
+                yearContributions = 0.0;
+                yearInterest = 0.0;
+                yearFees = 0.0;
+                yearTaxes = 0.0;
+            }
+        }
+
+        BigDecimal endBalanceValue = months > 0 ? toDisplayValue(endBalance[months - 1]) : startingAmount;
+        BigDecimal realEndValue = adjusted && months > 0 ? toDisplayValue(realEndBalance[months - 1]) : endBalanceValue;
+        return new InvestmentResult(
+            startingAmount,
+            years,
+            scenario.getAnnualReturnRate(),
+            scenario.getCompoundingFrequency().getLabel(),
+            endBalanceValue,
+            startingAmount.add(toDisplayValue(totalContributions)),
+            toDisplayValue(totalInterest),
+            monthlyData,
+            yearlyData,
+            scenario,
+            Collections.emptyList(),
+            toDisplayValue(totalFees),
+            toDisplayValue(totalTaxes),
+            realEndValue);
+    }
+
+    /**
+     * Converts to the scale-10 BigDecimal used for stored schedule values.
+     */
+    static BigDecimal toDisplayValue(double value) {
+        if (Math.abs(value) < LONG_SCALE_LIMIT) {
+            return BigDecimal.valueOf(Math.round(value * 1e10), 10);
+        }
+        return BigDecimal.valueOf(value).setScale(10, RoundingMode.HALF_UP);
+    }
+}
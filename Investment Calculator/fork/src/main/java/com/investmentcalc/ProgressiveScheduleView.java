@@ -0,0 +1,193 @@
+package com.investmentcalc;
+
+import javax.swing.*;
+import javax.swing.text.DefaultCaret;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Schedule text that appears progressively: the first rows are formatted straight away, so the
+ * first years are readable immediately, and the rest are formatted on a {@link SwingWorker} and
+ * appended in chunks while a progress bar shows how far it got. Cancel stops the formatting and
+ * keeps the rows shown so far.
+ */
+public class ProgressiveScheduleView extends JPanel {
+
+    /**
+     * Rows formatted on the event dispatch thread before the view is shown: five years of months.
+     */
+    static final int FIRST_ROWS = 60;
+
+    /**
+     * Rows formatted per appended chunk.
+     */
+    static final int CHUNK_ROWS = 120;
+
+    /**
+     * Formatted rows of one chunk and how many rows are shown once it is appended.
+     */
+    private static final class Chunk {
+        final String text;
+        final int rowsShown;
+
+        Chunk(String text, int rowsShown) {
+            this.text = text;
+            this.rowsShown = rowsShown;
+        }
+    }
+
+    private final JTextArea textArea;
+    private final JPanel progressPanel;
+    private final JProgressBar progressBar;
+    private final JLabel statusLabel;
+    private SwingWorker<Void, Chunk> worker;
+    private boolean hasRows;
+    private boolean loading;
+
+    public ProgressiveScheduleView(int fontSize) {
+        super(new BorderLayout());
+        textArea = new JTextArea();
+        textArea.setEditable(false);
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, fontSize));
+        // Appending must not scroll the view away from the first rows
+        ((DefaultCaret) textArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+        add(new JScrollPane(textArea), BorderLayout.CENTER);
+
+        progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> cancel());
+        statusLabel = new JLabel(" ");
+        statusLabel.setForeground(Color.GRAY);
+
+        progressPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 2));
+        progressPanel.add(new JLabel("Loading schedule:"));
+        progressPanel.add(progressBar);
+        progressPanel.add(cancelButton);
+        progressPanel.add(statusLabel);
+        progressPanel.setVisible(false);
+        add(progressPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Replaces the schedule with the given rows, stopping any rows still being loaded.
+     *
+     * @param formatter formats one row, newline included; called off the event dispatch thread
+     *                  for all but the first rows
+     * @param footer text appended after the last row, or null
+     */
+    public <T> void showRows(String header, List<T> rows, Function<T, String> formatter, String footer) {
+        cancel();
+        hasRows = true;
+
+        int first = Math.min(FIRST_ROWS, rows.size());
+        StringBuilder sb = new StringBuilder(header);
+        for (int i = 0; i < first; i++) {
+            sb.append(formatter.apply(rows.get(i)));
+        }
+        if (first == rows.size()) {
+            if (footer != null) {
+                sb.append(footer);
+            }
+            textArea.setText(sb.toString());
+            progressPanel.setVisible(false);
+            return;
+        }
+        textArea.setText(sb.toString());
+        progressBar.setMaximum(rows.size());
+        progressBar.setValue(first);
+        progressBar.setString(first + " / " + rows.size());
+        statusLabel.setText(" ");
+        progressPanel.setVisible(true);
+        loading = true;
+
+        worker = new SwingWorker<Void, Chunk>() {
+            @Override
+            protected Void doInBackground() {
+                for (int from = first; from < rows.size() && !isCancelled(); from += CHUNK_ROWS) {
+                    int to = Math.min(rows.size(), from + CHUNK_ROWS);
+                    StringBuilder chunk = new StringBuilder();
+                    for (int i = from; i < to; i++) {
+                        chunk.append(formatter.apply(rows.get(i)));
+                    }
+                    publish(new Chunk(chunk.toString(), to));
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<Chunk> chunks) {
+                // Chunks published before a cancel may still arrive; drop them
+                if (isCancelled()) {
+                    return;
+                }
+                StringBuilder text = new StringBuilder();
+                for (Chunk chunk : chunks) {
+                    text.append(chunk.text);
+                }
+                textArea.append(text.toString());
+                int shown = chunks.get(chunks.size() - 1).rowsShown;
+                progressBar.setValue(shown);
+                progressBar.setString(shown + " / " + rows.size());
+                // Finish here rather than in done(), which may run before the last chunks arrive
+                if (shown == rows.size()) {
+                    if (footer != null) {
+                        textArea.append(footer);
+                    }
+                    progressPanel.setVisible(false);
+                    loading = false;
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (worker != this || isCancelled()) {
+                    return;
+                }
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    loading = false;
+                    statusLabel.setText("Error formatting schedule: " + cause.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Stops loading; the rows shown so far stay.
+     */
+    public void cancel() {
+        if (loading) {
+            loading = false;
+            worker.cancel(true);
+            statusLabel.setText("Stopped at " + progressBar.getValue() + " of " + progressBar.getMaximum() + " rows");
+        }
+    }
+
+    /**
+     * True while rows are still being formatted.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * True once rows have been shown, even if loading them was cancelled.
+     */
+    public boolean hasRows() {
+        return hasRows;
+    }
+
+    String getText() {
+        return textArea.getText();
+    }
+
+    String getStatus() {
+        return statusLabel.getText();
+    }
+}
@@ -0,0 +1,217 @@
+package com.investmentcalc;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimator in the style of a merging t-digest.
+ *
+ * Values are buffered and periodically folded into a bounded list of weighted centroids, kept
+ * small in the middle of the distribution and smaller still towards the tails, so extreme
+ * percentiles stay accurate. Memory depends only on the compression, never on how many values
+ * were added, and sketches filled on different threads can be merged.
+ *
+ * Not thread-safe: give each thread its own sketch and {@link #merge} them at the end.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    private double[] buffer;
+    private int bufferCount;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public QuantileSketch(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10.");
+        }
+        this.compression = compression;
+        // The k1 scale function never yields more than about compression * pi / 2 centroids
+        int capacity = (int) Math.ceil(compression * Math.PI / 2) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a quantile sketch.");
+        }
+        if (buffer == null) {
+            buffer = new double[(int) (5 * compression)];
+        }
+        if (bufferCount == buffer.length) {
+            compress();
+        }
+        buffer[bufferCount++] = value;
+        totalWeight += 1;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds everything seen by another sketch to this one. The other sketch is compressed but
+     * otherwise unchanged.
+     */
+    public void merge(QuantileSketch other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a sketch into itself.");
+        }
+        other.compress();
+        if (other.centroidCount == 0) {
+            return;
+        }
+        compress();
+        double combinedWeight = totalWeight + other.totalWeight;
+        fold(means, weights, centroidCount, other.means, other.weights, other.centroidCount, combinedWeight);
+        totalWeight = combinedWeight;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Number of values added, including merged sketches.
+     */
+    public long getCount() {
+        return (long) totalWeight;
+    }
+
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+
+    /**
+     * Estimated value at quantile q (0..1), or NaN if nothing was added.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+
+        double target = q * totalWeight;
+        // Before the first centroid's center: interpolate from the minimum
+        double firstCenter = weights[0] / 2;
+        if (target < firstCenter) {
+            return weights[0] == 1 ? means[0] : min + (means[0] - min) * (target / firstCenter);
+        }
+        double cumulative = 0;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double left = cumulative + weights[i] / 2;
+            double right = cumulative + weights[i] + weights[i + 1] / 2;
+            if (target < right) {
+                double fraction = (target - left) / (right - left);
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += weights[i];
+        }
+        // After the last centroid's center: interpolate to the maximum
+        int last = centroidCount - 1;
+        double lastCenter = totalWeight - weights[last] / 2;
+        if (weights[last] == 1) {
+            return means[last];
+        }
+        double fraction = Math.min(1.0, (target - lastCenter) / (weights[last] / 2));
+        return means[last] + (max - means[last]) * fraction;
+    }
+
+    /**
+     * Folds pending values into the centroids and releases the input buffer, leaving only the
+     * compact summary. Call before keeping a finished sketch around.
+     */
+    public void compact() {
+        compress();
+        buffer = null;
+    }
+
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferCount);
+        fold(means, weights, centroidCount, buffer, null, bufferCount, totalWeight);
+        bufferCount = 0;
+    }
+
+    /**
+     * Merges two sorted weighted sequences (null weights mean 1) into new centroids, closing a
+     * centroid whenever it would span more than one unit of the k1 scale function.
+     */
+    private void fold(double[] m1, double[] w1, int n1, double[] m2, double[] w2, int n2, double total) {
+        double[] newMeans = new double[means.length];
+        double[] newWeights = new double[weights.length];
+        int count = 0;
+
+        double weightBefore = 0;
+        double limit = weightLimit(0, total);
+        double currentMean = 0;
+        double currentWeight = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < n1 || j < n2) {
+            double mean;
+            double weight;
+            if (j >= n2 || (i < n1 && m1[i] <= m2[j])) {
+                mean = m1[i];
+                weight = w1[i];
+                i++;
+            } else {
+                mean = m2[j];
+                weight = w2 == null ? 1 : w2[j];
+                j++;
+            }
+
+            if (currentWeight == 0) {
+                currentMean = mean;
+                currentWeight = weight;
+            } else if (weightBefore + currentWeight + weight <= limit) {
+                currentWeight += weight;
+                currentMean += (mean - currentMean) * weight / currentWeight;
+            } else {
+                newMeans[count] = currentMean;
+                newWeights[count] = currentWeight;
+                count++;
+                weightBefore += currentWeight;
+                limit = weightLimit(weightBefore, total);
+                currentMean = mean;
+                currentWeight = weight;
+            }
+        }
+        if (currentWeight > 0) {
+            newMeans[count] = currentMean;
+            newWeights[count] = currentWeight;
+            count++;
+        }
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = count;
+    }
+
+    /**
+     * Largest cumulative weight a centroid starting after weightBefore may reach:
+     * k(q) = compression / (2 pi) * asin(2q - 1) may grow by at most 1 across it.
+     */
+    private double weightLimit(double weightBefore, double total) {
+        double q = weightBefore / total;
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        double qLimit = k >= compression / 4 ? 1.0 : (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+        return qLimit * total;
+    }
+}
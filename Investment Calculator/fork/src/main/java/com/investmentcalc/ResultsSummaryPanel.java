@@ -0,0 +1,154 @@
+package com.investmentcalc;
+
+import javax.swing.*;
+import java.awt.*;
+import java.math.BigDecimal;
+
+/**
+ * Summary of the latest calculation: end balance, totals and the scenario details.
+ *
+ * It is refreshed on every calculation, so it is built once from plain labels whose text is
+ * replaced in place, rather than re-parsed from HTML each time as a JEditorPane would be. A
+ * refresh only sets a dozen strings; Swing revalidates and repaints the labels that changed.
+ */
+public class ResultsSummaryPanel extends JPanel {
+    private static final Color TITLE_COLOR = new Color(44, 90, 160);
+    private static final Color BALANCE_COLOR = new Color(40, 167, 69);
+    private static final Color DETAIL_COLOR = new Color(102, 102, 102);
+
+    private final JLabel endBalanceLabel;
+    private final JLabel startingAmountValue;
+    private final JLabel contributionsKey;
+    private final JLabel contributionsValue;
+    private final JLabel interestValue;
+    private final JLabel compoundingLabel;
+    private final JLabel rateLabel;
+    private final JLabel yearsLabel;
+    private final JLabel currencyLabel;
+    private final JPanel withdrawalNote;
+    private final JPanel figures;
+
+    public ResultsSummaryPanel() {
+        setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        add(label("Investment Results", Font.BOLD, 18f, TITLE_COLOR));
+        add(Box.createVerticalStrut(10));
+        endBalanceLabel = label("Calculate to see your results.", Font.BOLD, 16f, BALANCE_COLOR);
+        add(endBalanceLabel);
+        add(Box.createVerticalStrut(8));
+
+        // Everything below the end balance stays hidden until the first result
+        figures = new JPanel();
+        figures.setLayout(new BoxLayout(figures, BoxLayout.Y_AXIS));
+        figures.setOpaque(false);
+        figures.setAlignmentX(LEFT_ALIGNMENT);
+        figures.setVisible(false);
+        add(figures);
+
+        startingAmountValue = new JLabel();
+        addRow(label("Starting Amount:", Font.BOLD, 0f, null), startingAmountValue);
+        contributionsKey = label("Total Additional Contributions:", Font.BOLD, 0f, null);
+        contributionsValue = new JLabel();
+        addRow(contributionsKey, contributionsValue);
+        interestValue = new JLabel();
+        addRow(label("Total Interest Earned:", Font.BOLD, 0f, null), interestValue);
+
+        JSeparator separator = new JSeparator();
+        separator.setAlignmentX(LEFT_ALIGNMENT);
+        separator.setMaximumSize(new Dimension(Integer.MAX_VALUE, 1));
+        figures.add(separator);
+        figures.add(Box.createVerticalStrut(10));
+
+        figures.add(label("Details:", Font.BOLD, 12f, DETAIL_COLOR));
+        figures.add(Box.createVerticalStrut(5));
+        compoundingLabel = label(" ", Font.PLAIN, 12f, DETAIL_COLOR);
+        rateLabel = label(" ", Font.PLAIN, 12f, DETAIL_COLOR);
+        yearsLabel = label(" ", Font.PLAIN, 12f, DETAIL_COLOR);
+        currencyLabel = label(" ", Font.PLAIN, 12f, DETAIL_COLOR);
+        figures.add(compoundingLabel);
+        figures.add(rateLabel);
+        figures.add(yearsLabel);
+        figures.add(currencyLabel);
+        figures.add(Box.createVerticalStrut(10));
+
+        // Shown only when the plan withdraws more than it contributes
+        withdrawalNote = new JPanel();
+        withdrawalNote.setLayout(new BoxLayout(withdrawalNote, BoxLayout.Y_AXIS));
+        withdrawalNote.setBackground(new Color(255, 243, 205));
+        withdrawalNote.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        withdrawalNote.setAlignmentX(LEFT_ALIGNMENT);
+        withdrawalNote.add(label("Note: Negative contribution values", Font.PLAIN, 11f, new Color(133, 100, 4)));
+        withdrawalNote.add(label("indicate withdrawals from the account.", Font.PLAIN, 11f, new Color(133, 100, 4)));
+        withdrawalNote.setVisible(false);
+        figures.add(withdrawalNote);
+    }
+
+    /**
+     * Shows a result; the amounts are passed already rounded for display.
+     */
+    public void showResult(InvestmentResult result, BigDecimal endBalance, BigDecimal totalContributions,
+                           BigDecimal totalInterest, String currency) {
+        String currencySymbol = InvestmentChartPanel.getCurrencySymbol(currency);
+        endBalanceLabel.setText("End Balance: " + formatMoney(currencySymbol, endBalance));
+        startingAmountValue.setText(formatMoney(currencySymbol, result.getStartingAmount()));
+
+        // Note: totalContributions includes the starting amount.
+        BigDecimal additionalContributions = totalContributions.subtract(result.getStartingAmount());
+        boolean withdrawals = additionalContributions.compareTo(BigDecimal.ZERO) < 0;
+        contributionsKey.setText(withdrawals ? "Total Withdrawals:" : "Total Additional Contributions:");
+        contributionsValue.setText(formatMoney(currencySymbol, additionalContributions.abs()));
+        interestValue.setText(formatMoney(currencySymbol, totalInterest));
+
+        compoundingLabel.setText("Compounding Frequency: " + result.getCompoundingFrequency());
+        rateLabel.setText(String.format("Annual Return Rate: %.2f%%", result.getAnnualReturnRate()));
+        yearsLabel.setText("Number of Years: " + result.getYears());
+        currencyLabel.setText("Currency: " + currency);
+        withdrawalNote.setVisible(withdrawals);
+
+        figures.setVisible(true);
+        scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+    }
+
+    String getEndBalanceText() {
+        return endBalanceLabel.getText();
+    }
+
+    String getContributionsText() {
+        return contributionsKey.getText() + " " + contributionsValue.getText();
+    }
+
+    boolean isWithdrawalNoteVisible() {
+        return withdrawalNote.isVisible();
+    }
+
+    private void addRow(JLabel key, JLabel value) {
+        Box row = Box.createHorizontalBox();
+        row.setAlignmentX(LEFT_ALIGNMENT);
+        row.add(key);
+        row.add(Box.createHorizontalStrut(4));
+        row.add(value);
+        row.add(Box.createHorizontalGlue());
+        figures.add(row);
+        figures.add(Box.createVerticalStrut(5));
+    }
+
+    /**
+     * A left-aligned label; a size of 0 keeps the default font size and a null colour the default.
+     */
+    private static JLabel label(String text, int style, float size, Color color) {
+        JLabel label = new JLabel(text);
+        Font font = label.getFont().deriveFont(style);
+        label.setFont(size > 0 ? font.deriveFont(size) : font);
+        if (color != null) {
+            label.setForeground(color);
+        }
+        label.setAlignmentX(LEFT_ALIGNMENT);
+        return label;
+    }
+
+    private static String formatMoney(String currencySymbol, BigDecimal amount) {
+        return String.format("%s%,.2f", currencySymbol, amount);
+    }
+}
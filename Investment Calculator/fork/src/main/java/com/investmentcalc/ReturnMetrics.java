@@ -0,0 +1,311 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Money-weighted (internal rate of return) and time-weighted returns of a plan.
+ *
+ * "Total Return" (interest / contributions) ignores when the money went in: a contribution made
+ * in the last month counts as much as the starting amount. The IRR is the rate at which the
+ * discounted cash flows (starting amount and contributions in, end balance out) sum to zero; the
+ * time-weighted return chains the monthly growth rates and ignores the cash flows altogether.
+ *
+ * The solvers take plain arrays and find the root with Newton steps kept inside a sign-changing
+ * bracket. Each step evaluates the net present value and its derivative together in one pass
+ * (Horner's scheme for equally spaced flows), so an IRR over a 100-year monthly schedule costs a
+ * few thousand multiplications.
+ */
+public final class ReturnMetrics {
+
+    private static final int MAX_ITERATIONS = 100;
+    private static final double TOLERANCE = 1e-13;
+
+    private final double moneyWeightedReturn;
+    private final double timeWeightedReturn;
+
+    private ReturnMetrics(double moneyWeightedReturn, double timeWeightedReturn) {
+        this.moneyWeightedReturn = moneyWeightedReturn;
+        this.timeWeightedReturn = timeWeightedReturn;
+    }
+
+    /**
+     * Annualized IRR as a decimal (0.07 = 7%), or NaN if the cash flows have none.
+     */
+    public double getMoneyWeightedReturn() { return moneyWeightedReturn; }
+
+    /**
+     * Annualized time-weighted return as a decimal, or NaN if it is undefined.
+     */
+    public double getTimeWeightedReturn() { return timeWeightedReturn; }
+
+    /**
+     * Returns of a calculated plan. Cash flows are taken from the result's scenario when the engine
+     * recorded it (with the scenario's contribution timing) and otherwise from its rows, treated
+     * as end-of-period contributions.
+     */
+    public static ReturnMetrics of(InvestmentResult result) {
+        double[] flows = cashFlows(result);
+        double irr = irr(flows);
+        int periodsPerYear = result.getScenario() != null
+            || (result.getMonthlyData() != null && !result.getMonthlyData().isEmpty()) ? 12 : 1;
+        return new ReturnMetrics(annualize(irr, periodsPerYear), timeWeighted(result));
+    }
+
+    /**
+     * Investor cash flows of a result, one per period starting at time 0: money paid in is
+     * negative, the end balance received at the end is positive.
+     */
+    static double[] cashFlows(InvestmentResult result) {
+        InvestmentScenario scenario = result.getScenario();
+        List<MonthlyData> months = result.getMonthlyData();
+        double[] flows;
+        if (scenario != null) {
+            int n = scenario.getTotalMonths();
+            flows = new double[n + 1];
+            int shift = scenario.isContributeAtBeginning() ? 1 : 0;
+            for (int m = 1; m <= n; m++) {
+                flows[m - shift] -= scenario.getContributionForMonthAsDouble(m);
+            }
+        } else if (months != null && !months.isEmpty()) {
+            flows = new double[months.size() + 1];
+            for (int i = 0; i < months.size(); i++) {
+                flows[i + 1] = -months.get(i).getContributions().doubleValue();
+            }
+        } else {
+            List<YearlyData> years = result.getYearlyData() != null ? result.getYearlyData() : Collections.emptyList();
+            flows = new double[years.size() + 1];
+            for (int i = 0; i < years.size(); i++) {
+                flows[i + 1] = -years.get(i).getContributions().doubleValue();
+            }
+        }
+        flows[0] -= result.getStartingAmount().doubleValue();
+        flows[flows.length - 1] += result.getEndBalance().doubleValue();
+        return flows;
+    }
+
+    /**
+     * Chained return of the monthly rows, each month earning its interest net of taxes and fees on
+     * its start balance plus, for beginning-of-period plans, its contribution. Without monthly rows
+     * the scenario's fixed monthly rate, adjusted for taxes and fees, is used, or failing that the
+     * yearly rows with contributions assumed to arrive mid-year (modified Dietz).
+     */
+    static double timeWeighted(InvestmentResult result) {
+        List<MonthlyData> months = result.getMonthlyData();
+        boolean monthly = months != null && !months.isEmpty();
+        if (!monthly && result.getScenario() != null) {
+            InvestmentScenario scenario = result.getScenario();
+            double growth = 1.0 + scenario.getFactors().getMonthlyInterestFactorAsDouble();
+            return annualize(scenario.getAdjustments().adjustGrowth(growth) - 1.0, 12);
+        }
+        boolean atBeginning = result.getScenario() != null && result.getScenario().isContributeAtBeginning();
+        double logGrowth = 0.0;
+        int periods;
+        if (monthly) {
+            periods = months.size();
+            for (MonthlyData month : months) {
+                double base = month.getStartBalance().doubleValue()
+                    + (atBeginning ? month.getContributions().doubleValue() : 0.0);
+                if (base > 0) {
+                    logGrowth += Math.log1p(netGrowth(month.getInterestEarned(), month.getTaxes(), month.getFees()) / base);
+                }
+            }
+        } else {
+            List<YearlyData> years = result.getYearlyData() != null ? result.getYearlyData() : Collections.emptyList();
+            periods = years.size();
+            for (YearlyData year : years) {
+                double base = year.getStartBalance().doubleValue() + year.getContributions().doubleValue() / 2;
+                if (base > 0) {
+                    logGrowth += Math.log1p(netGrowth(year.getInterestEarned(), year.getTaxes(), year.getFees()) / base);
+                }
+            }
+        }
+        if (periods == 0) {
+            return Double.NaN;
+        }
+        return Math.expm1(logGrowth * (monthly ? 12.0 : 1.0) / periods);
+    }
+
+    /**
+     * What a row's balance grew by: its interest less the taxes and fees taken from it.
+     */
+    private static double netGrowth(BigDecimal interest, BigDecimal taxes, BigDecimal fees) {
+        double growth = interest.doubleValue();
+        if (taxes != null) {
+            growth -= taxes.doubleValue();
+        }
+        if (fees != null) {
+            growth -= fees.doubleValue();
+        }
+        return growth;
+    }
+
+    /**
+     * Per-period rate (1 + r)^periodsPerYear - 1.
+     */
+    public static double annualize(double periodRate, int periodsPerYear) {
+        return Math.expm1(periodsPerYear * Math.log1p(periodRate));
+    }
+
+    /**
+     * Internal rate of return per period of equally spaced cash flows, flows[t] at time t: the
+     * rate r > -1 with sum(flows[t] / (1 + r)^t) = 0 found nearest to 0, or NaN if there is none.
+     */
+    public static double irr(double[] flows) {
+        return solve(flows, null);
+    }
+
+    /**
+     * Annual internal rate of return of dated cash flows, with time measured in days / 365 from
+     * the first date (the usual XIRR convention), or NaN if there is none.
+     */
+    public static double xirr(double[] amounts, LocalDate[] dates) {
+        if (amounts.length != dates.length) {
+            throw new IllegalArgumentException("Every cash flow needs a date.");
+        }
+        double[] years = new double[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            years[i] = ChronoUnit.DAYS.between(dates[0], dates[i]) / 365.0;
+        }
+        return xirr(amounts, years);
+    }
+
+    /**
+     * Annual internal rate of return of cash flows at the given times in years.
+     */
+    public static double xirr(double[] amounts, double[] years) {
+        if (amounts.length != years.length) {
+            throw new IllegalArgumentException("Every cash flow needs a time.");
+        }
+        return solve(amounts, years);
+    }
+
+    /**
+     * Bracketed Newton iteration on npv(r); times == null means flows[t] at time t.
+     */
+    private static double solve(double[] flows, double[] times) {
+        boolean positive = false;
+        boolean negative = false;
+        for (double f : flows) {
+            positive |= f > 0;
+            negative |= f < 0;
+        }
+        if (!positive || !negative) {
+            return Double.NaN;
+        }
+
+        double[] value = new double[2];
+        double[] bracket = findBracket(flows, times, value);
+        if (bracket == null) {
+            return Double.NaN;
+        }
+        double low = bracket[0];
+        double high = bracket[1];
+        double lowValue = bracket[2];
+
+        double r = (low + high) / 2;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            npv(flows, times, r, value);
+            double npv = value[0];
+            if (npv == 0) {
+                return r;
+            }
+            if ((npv > 0) == (lowValue > 0)) {
+                low = r;
+                lowValue = npv;
+            } else {
+                high = r;
+            }
+            double next = r - npv / value[1];
+            if (!(next > low && next < high)) {
+                next = (low + high) / 2;
+            }
+            if (Math.abs(next - r) <= TOLERANCE * (1 + Math.abs(r)) || high - low <= TOLERANCE * (1 + Math.abs(r))) {
+                return next;
+            }
+            r = next;
+        }
+        return r;
+    }
+
+    /**
+     * Steps outward from 0 in both directions until npv changes sign, returning
+     * {low, high, npv(low)}, or null if no sign change is found.
+     */
+    private static double[] findBracket(double[] flows, double[] times, double[] value) {
+        npv(flows, times, 0.0, value);
+        double atZero = value[0];
+        if (atZero == 0) {
+            return new double[] {0.0, 0.0, 0.0};
+        }
+        double step = 0.01;
+        double inner = 0.0;
+        double below = 0.0;
+        boolean searchUp = true;
+        boolean searchDown = true;
+        for (int i = 0; i < 60 && (searchUp || searchDown); i++) {
+            if (searchUp) {
+                double outer = inner + step;
+                npv(flows, times, outer, value);
+                if (Double.isNaN(value[0])) {
+                    searchUp = false;
+                } else if ((value[0] > 0) != (atZero > 0)) {
+                    return new double[] {inner, outer, atZero};
+                }
+                inner = outer;
+                step *= 2;
+                searchUp &= inner < 1e6;
+            }
+            if (searchDown) {
+                // Below zero the rate approaches -1 geometrically; discounting overflows near it
+                double lower = -1 + (1 + below) / 2;
+                npv(flows, times, lower, value);
+                if (Double.isNaN(value[0]) || Double.isInfinite(value[0])) {
+                    searchDown = false;
+                } else if ((value[0] > 0) != (atZero > 0)) {
+                    return new double[] {lower, below, value[0]};
+                }
+                below = lower;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Net present value at rate r and its derivative with respect to r, in one pass.
+     */
+    private static void npv(double[] flows, double[] times, double r, double[] out) {
+        if (times == null) {
+            // Horner in v = 1 / (1 + r): p = sum f_t v^t, dp/dv alongside, dv/dr = -v^2
+            double v = 1 / (1 + r);
+            double p = 0.0;
+            double dp = 0.0;
+            for (int t = flows.length - 1; t >= 0; t--) {
+                dp = dp * v + p;
+                p = p * v + flows[t];
+            }
+            out[0] = p;
+            out[1] = -dp * v * v;
+        } else {
+            double logGrowth = Math.log1p(r);
+            double p = 0.0;
+            double dp = 0.0;
+            for (int i = 0; i < flows.length; i++) {
+                double discounted = flows[i] * Math.exp(-times[i] * logGrowth);
+                p += discounted;
+                dp -= times[i] * discounted;
+            }
+            out[0] = p;
+            out[1] = dp / (1 + r);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReturnMetrics[money-weighted=%.4f%%, time-weighted=%.4f%%]",
+            moneyWeightedReturn * 100, timeWeightedReturn * 100);
+    }
+}
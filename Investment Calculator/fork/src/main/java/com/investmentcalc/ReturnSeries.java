@@ -0,0 +1,262 @@
+package com.investmentcalc;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Historical monthly returns for one or more assets, read straight from a memory-mapped file.
+ *
+ * Binary layout (little endian):
+ * <pre>
+ *   int    magic        "ICRS"
+ *   int    version      1
+ *   int    assetCount
+ *   int    monthCount
+ *   int    startYear
+ *   int    startMonth   1..12
+ *   long   reserved
+ *   double returns[monthCount][assetCount]   month-major, decimal fractions (0.01 = 1%)
+ * </pre>
+ *
+ * Returns are read through a {@link DoubleBuffer} view of the mapping, so opening a series costs
+ * nothing per month and many backtests can share one series concurrently. Use
+ * {@link #convertCsv(Path, Path)} once to turn a CSV history into the binary format.
+ */
+public final class ReturnSeries implements Closeable {
+
+    static final int MAGIC = 0x49435253; // "ICRS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private final int assetCount;
+    private final int monthCount;
+    private final int startYear;
+    private final int startMonth;
+    private final DoubleBuffer returns;
+    private final FileChannel channel;
+
+    private ReturnSeries(int assetCount, int monthCount, int startYear, int startMonth,
+                         DoubleBuffer returns, FileChannel channel) {
+        this.assetCount = assetCount;
+        this.monthCount = monthCount;
+        this.startYear = startYear;
+        this.startMonth = startMonth;
+        this.returns = returns;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a series. Files ending in ".csv" or ".csv.gz" are parsed into memory; anything else
+     * is memory-mapped as the binary format.
+     */
+    public static ReturnSeries open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv") || name.endsWith(".csv" + GzipFiles.SUFFIX)) {
+            return readCsv(file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a return series file: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return fromBuffer(mapped, channel, file.toString());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps monthly returns already in memory, indexed [month][asset].
+     */
+    public static ReturnSeries of(int startYear, int startMonth, double[][] monthlyReturns) {
+        ByteBuffer buffer = encode(startYear, startMonth, monthlyReturns);
+        try {
+            return fromBuffer(buffer, null, "memory");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes monthly returns, indexed [month][asset], in the binary format.
+     */
+    public static void write(Path file, int startYear, int startMonth, double[][] monthlyReturns) throws IOException {
+        ByteBuffer buffer = encode(startYear, startMonth, monthlyReturns);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Converts a CSV history to the binary format. The CSV has a header line followed by one
+     * row per month: {@code YYYY-MM,return1,return2,...} with returns as decimal fractions.
+     */
+    public static void convertCsv(Path csv, Path binary) throws IOException {
+        try (ReturnSeries series = readCsv(csv)) {
+            write(binary, series.startYear, series.startMonth, series.toArray());
+        }
+    }
+
+    private static ReturnSeries readCsv(Path csv) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        int startYear = 0;
+        int startMonth = 0;
+        try (BufferedReader reader = GzipFiles.newBufferedReader(csv)) {
+            String line = reader.readLine(); // header
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 2) {
+                    throw new IOException("Line " + lineNumber + ": expected a date and at least one return");
+                }
+                if (rows.isEmpty()) {
+                    String[] date = parts[0].trim().split("-");
+                    try {
+                        startYear = Integer.parseInt(date[0]);
+                        startMonth = date.length > 1 ? Integer.parseInt(date[1]) : 1;
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Line " + lineNumber + ": invalid date '" + parts[0] + "'");
+                    }
+                }
+                double[] row = new double[parts.length - 1];
+                for (int a = 0; a < row.length; a++) {
+                    try {
+                        row[a] = Double.parseDouble(parts[a + 1].trim());
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Line " + lineNumber + ": invalid return '" + parts[a + 1] + "'");
+                    }
+                }
+                if (!rows.isEmpty() && row.length != rows.get(0).length) {
+                    throw new IOException("Line " + lineNumber + ": expected " + rows.get(0).length + " returns");
+                }
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IOException("No returns in " + csv);
+        }
+        return of(startYear, startMonth, rows.toArray(new double[0][]));
+    }
+
+    private static ByteBuffer encode(int startYear, int startMonth, double[][] monthlyReturns) {
+        if (startMonth < 1 || startMonth > 12) {
+            throw new IllegalArgumentException("Start month must be between 1 and 12.");
+        }
+        int monthCount = monthlyReturns.length;
+        int assetCount = monthCount > 0 ? monthlyReturns[0].length : 0;
+        if (assetCount == 0) {
+            throw new IllegalArgumentException("Return series needs at least one month and one asset.");
+        }
+        long bytes = HEADER_BYTES + (long) monthCount * assetCount * Double.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Return series too large: " + bytes + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(assetCount).putInt(monthCount)
+            .putInt(startYear).putInt(startMonth).putLong(0L);
+        for (double[] month : monthlyReturns) {
+            if (month.length != assetCount) {
+                throw new IllegalArgumentException("Every month needs " + assetCount + " returns.");
+            }
+            for (double r : month) {
+                buffer.putDouble(r);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ReturnSeries fromBuffer(ByteBuffer buffer, FileChannel channel, String source) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a return series file: " + source);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported return series version " + buffer.getInt(4) + ": " + source);
+        }
+        int assetCount = buffer.getInt(8);
+        int monthCount = buffer.getInt(12);
+        long expected = HEADER_BYTES + (long) assetCount * monthCount * Double.BYTES;
+        if (assetCount <= 0 || monthCount <= 0 || buffer.limit() < expected) {
+            throw new IOException("Truncated return series: " + source);
+        }
+        ByteBuffer body = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        body.position(HEADER_BYTES).limit((int) expected);
+        DoubleBuffer returns = body.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        return new ReturnSeries(assetCount, monthCount, buffer.getInt(16), buffer.getInt(20), returns, channel);
+    }
+
+    public int getAssetCount() { return assetCount; }
+    public int getMonthCount() { return monthCount; }
+    public int getStartYear() { return startYear; }
+    public int getStartMonth() { return startMonth; }
+
+    /**
+     * Return of one asset in the given month (0-based index from the start of the series).
+     */
+    public double getReturn(int monthIndex, int asset) {
+        return returns.get(monthIndex * assetCount + asset);
+    }
+
+    /**
+     * Return of a portfolio rebalanced monthly to the given weights.
+     */
+    public double getPortfolioReturn(int monthIndex, double[] weights) {
+        int base = monthIndex * assetCount;
+        double r = 0.0;
+        for (int a = 0; a < weights.length; a++) {
+            r += weights[a] * returns.get(base + a);
+        }
+        return r;
+    }
+
+    /**
+     * Label of a month index, e.g. "1987-10".
+     */
+    public String getMonthLabel(int monthIndex) {
+        int absolute = startYear * 12 + (startMonth - 1) + monthIndex;
+        return String.format("%04d-%02d", absolute / 12, absolute % 12 + 1);
+    }
+
+    /**
+     * Copies the series to the heap, indexed [month][asset].
+     */
+    public double[][] toArray() {
+        double[][] copy = new double[monthCount][assetCount];
+        for (int m = 0; m < monthCount; m++) {
+            for (int a = 0; a < assetCount; a++) {
+                copy[m][a] = getReturn(m, a);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.investmentcalc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a plan over every start month of a historical return series (all 30-year windows in a
+ * century of data, for example) in near-linear time.
+ *
+ * Each month of the plan is an affine map of the balance, {@code B -> g * B + c} (begin-of-period
+ * contributions become {@code c * g}), so a whole window is the composition of its month maps
+ * applied to the starting amount. Composing every window from scratch costs windows x horizon
+ * operations; here the composition slides along the history with a two-stack queue, which costs
+ * amortized O(1) per month regardless of the horizon.
+ *
+ * Contributions depend on the plan month rather than the calendar month, so when they are not the
+ * same every month (annual or quarterly contributions) windows are grouped by start month modulo
+ * 12 and each group slides 12 months at a time. Groups and chunks of start months are processed
+ * in parallel.
+ */
+public final class RollingWindowAnalyzer {
+
+    private final ReturnSeries series;
+    private final double[] weights;
+
+    /**
+     * Analyzes a single asset of the series.
+     */
+    public RollingWindowAnalyzer(ReturnSeries series, int asset) {
+        this(series, singleAsset(series, asset));
+    }
+
+    /**
+     * Analyzes a portfolio rebalanced monthly to the given weights (one per asset).
+     */
+    public RollingWindowAnalyzer(ReturnSeries series, double[] weights) {
+        if (weights.length != series.getAssetCount()) {
+            throw new IllegalArgumentException("Expected " + series.getAssetCount() + " portfolio weights, got " + weights.length + ".");
+        }
+        this.series = series;
+        this.weights = weights.clone();
+    }
+
+    private static double[] singleAsset(ReturnSeries series, int asset) {
+        if (asset < 0 || asset >= series.getAssetCount()) {
+            throw new IllegalArgumentException("Asset " + asset + " is not in the return series.");
+        }
+        double[] weights = new double[series.getAssetCount()];
+        weights[asset] = 1.0;
+        return weights;
+    }
+
+    public RollingWindowResult analyze(InvestmentScenario scenario) {
+        if (scenario.hasEvents()) {
+            // The sliding window relies on contributions repeating every twelve months
+            throw new IllegalArgumentException("Rolling-window analysis does not support cash-flow events.");
+        }
+        int horizon = scenario.getTotalMonths();
+        int windowCount = series.getMonthCount() - horizon + 1;
+        if (windowCount <= 0) {
+            throw new IllegalArgumentException(String.format(
+                "Return series covers %d months; the plan needs %d.", series.getMonthCount(), horizon));
+        }
+
+        PlanAdjustments adjustments = scenario.getAdjustments();
+        double[] growth = new double[series.getMonthCount()];
+        for (int j = 0; j < growth.length; j++) {
+            growth[j] = adjustments.adjustGrowth(1.0 + series.getPortfolioReturn(j, weights));
+        }
+
+        // Contribution of plan month k (0-based) is pattern[k % 12]
+        double[] pattern = new double[12];
+        boolean uniform = true;
+        for (int k = 0; k < 12; k++) {
+            pattern[k] = scenario.getContributionForMonthAsDouble(k + 1);
+            uniform &= pattern[k] == pattern[0];
+        }
+        int step = uniform ? 1 : 12;
+        boolean contributeAtBeginning = scenario.isContributeAtBeginning();
+        double startingAmount = scenario.getStartingAmount().doubleValue();
+
+        double[] endBalances = new double[windowCount];
+        double[] windowGrowth = new double[windowCount];
+
+        List<int[]> chunks = planChunks(windowCount, step, horizon);
+        IntStream.range(0, chunks.size()).parallel().forEach(t -> {
+            int[] chunk = chunks.get(t);
+            slide(chunk[0], chunk[1], step, horizon, growth, pattern, contributeAtBeginning,
+                startingAmount, endBalances, windowGrowth);
+        });
+
+        return new RollingWindowResult(series, scenario, endBalances, windowGrowth);
+    }
+
+    /**
+     * Splits the start months into {first, last} runs of equal residue modulo step, each long
+     * enough that building its first window (horizon pushes) is small next to the sliding work.
+     */
+    private static List<int[]> planChunks(int windowCount, int step, int horizon) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunksPerResidue = Math.max(1, (4 * parallelism + step - 1) / step);
+        int minStarts = Math.max(1, horizon / step);
+        List<int[]> chunks = new ArrayList<>();
+        for (int residue = 0; residue < step && residue < windowCount; residue++) {
+            int starts = (windowCount - 1 - residue) / step + 1;
+            int perChunk = Math.max(minStarts, (starts + chunksPerResidue - 1) / chunksPerResidue);
+            for (int first = 0; first < starts; first += perChunk) {
+                int last = Math.min(starts, first + perChunk) - 1;
+                chunks.add(new int[]{residue + first * step, residue + last * step});
+            }
+        }
+        return chunks;
+    }
+
+    private static void slide(int firstStart, int lastStart, int step, int horizon,
+                              double[] growth, double[] pattern, boolean contributeAtBeginning,
+                              double startingAmount, double[] endBalances, double[] windowGrowth) {
+        SlidingAffineWindow window = new SlidingAffineWindow(horizon + step);
+        for (int j = firstStart; j < firstStart + horizon; j++) {
+            push(window, j, firstStart, growth, pattern, contributeAtBeginning);
+        }
+        for (int start = firstStart; ; start += step) {
+            endBalances[start] = window.growth() * startingAmount + window.offset();
+            windowGrowth[start] = window.growth();
+            if (start + step > lastStart) {
+                break;
+            }
+            for (int k = 0; k < step; k++) {
+                window.pop();
+                push(window, start + horizon + k, firstStart, growth, pattern, contributeAtBeginning);
+            }
+        }
+    }
+
+    private static void push(SlidingAffineWindow window, int month, int anyStart, double[] growth,
+                             double[] pattern, boolean contributeAtBeginning) {
+        // All starts in one run share the residue, so the plan month index is (month - start) mod 12
+        double g = growth[month];
+        double c = pattern[Math.floorMod(month - anyStart, 12)];
+        window.push(g, contributeAtBeginning ? c * g : c);
+    }
+
+    /**
+     * FIFO of affine maps x -> a*x + b that keeps the composition of its contents available in
+     * O(1): new maps collect in a back stack with a running composition, and when the front is
+     * empty the back is moved over while precomputing suffix compositions.
+     */
+    static final class SlidingAffineWindow {
+        private final double[] backA;
+        private final double[] backB;
+        private int backSize;
+        private double backAggA = 1.0;
+        private double backAggB = 0.0;
+
+        private final double[] frontAggA;
+        private final double[] frontAggB;
+        private int frontSize;
+
+        SlidingAffineWindow(int capacity) {
+            backA = new double[capacity];
+            backB = new double[capacity];
+            frontAggA = new double[capacity];
+            frontAggB = new double[capacity];
+        }
+
+        /**
+         * Appends a map applied after everything already in the window.
+         */
+        void push(double a, double b) {
+            backA[backSize] = a;
+            backB[backSize] = b;
+            backSize++;
+            backAggB = a * backAggB + b;
+            backAggA = a * backAggA;
+        }
+
+        /**
+         * Removes the oldest map.
+         */
+        void pop() {
+            if (frontSize == 0) {
+                double aggA = 1.0;
+                double aggB = 0.0;
+                for (int k = backSize - 1; k >= 0; k--) {
+                    // suffix composition: (maps newer than k) after map k
+                    aggB = aggA * backB[k] + aggB;
+                    aggA = aggA * backA[k];
+                    frontAggA[frontSize] = aggA;
+                    frontAggB[frontSize] = aggB;
+                    frontSize++;
+                }
+                backSize = 0;
+                backAggA = 1.0;
+                backAggB = 0.0;
+            }
+            frontSize--;
+        }
+
+        private double frontA() { return frontSize == 0 ? 1.0 : frontAggA[frontSize - 1]; }
+        private double frontB() { return frontSize == 0 ? 0.0 : frontAggB[frontSize - 1]; }
+
+        /**
+         * Slope of the composed window: the product of the growth factors.
+         */
+        double growth() {
+            return backAggA * frontA();
+        }
+
+        /**
+         * Offset of the composed window: the balance it produces from zero.
+         */
+        double offset() {
+            return backAggA * frontB() + backAggB;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.investmentcalc;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Outcome of a plan for every start month of a return series, from {@link RollingWindowAnalyzer}.
+ * Window i starts at month i of the series.
+ */
+public class RollingWindowResult {
+    private final ReturnSeries series;
+    private final InvestmentScenario scenario;
+    private final double[] endBalances;
+    private final double[] growth;
+    private final Integer[] rankedWindows;
+
+    RollingWindowResult(ReturnSeries series, InvestmentScenario scenario, double[] endBalances, double[] growth) {
+        this.series = series;
+        this.scenario = scenario;
+        this.endBalances = endBalances;
+        this.growth = growth;
+        this.rankedWindows = new Integer[endBalances.length];
+        for (int i = 0; i < rankedWindows.length; i++) {
+            rankedWindows[i] = i;
+        }
+        Arrays.sort(rankedWindows, Comparator.comparingDouble(i -> endBalances[i]));
+    }
+
+    /**
+     * One start month and its outcome.
+     */
+    public static final class Window {
+        private final int startIndex;
+        private final String startLabel;
+        private final double endBalance;
+        private final double annualizedReturn;
+
+        Window(int startIndex, String startLabel, double endBalance, double annualizedReturn) {
+            this.startIndex = startIndex;
+            this.startLabel = startLabel;
+            this.endBalance = endBalance;
+            this.annualizedReturn = annualizedReturn;
+        }
+
+        public int getStartIndex() { return startIndex; }
+        public String getStartLabel() { return startLabel; }
+        public double getEndBalance() { return endBalance; }
+        public double getAnnualizedReturn() { return annualizedReturn; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.2f (%.2f%% a year)", startLabel, endBalance, annualizedReturn * 100);
+        }
+    }
+
+    public InvestmentScenario getScenario() { return scenario; }
+    public ReturnSeries getSeries() { return series; }
+    public int getWindowCount() { return endBalances.length; }
+
+    public double getEndBalance(int window) {
+        return endBalances[window];
+    }
+
+    public double[] getEndBalances() {
+        return endBalances.clone();
+    }
+
+    /**
+     * Compound annual return of the portfolio over the window, ignoring contributions.
+     */
+    public double getAnnualizedReturn(int window) {
+        return growth[window] > 0 ? Math.pow(growth[window], 1.0 / scenario.getYears()) - 1.0 : -1.0;
+    }
+
+    public Window getWindow(int window) {
+        return new Window(window, series.getMonthLabel(window), endBalances[window], getAnnualizedReturn(window));
+    }
+
+    public Window getWorst() {
+        return getWindow(rankedWindows[0]);
+    }
+
+    public Window getBest() {
+        return getWindow(rankedWindows[rankedWindows.length - 1]);
+    }
+
+    public Window getMedian() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Window at the given percentile (0-100) of end balance, nearest rank.
+     */
+    public Window getPercentile(double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * rankedWindows.length) - 1;
+        rank = Math.max(0, Math.min(rankedWindows.length - 1, rank));
+        return getWindow(rankedWindows[rank]);
+    }
+
+    /**
+     * Fraction of windows ending at or above the given balance.
+     */
+    public double getShareAtLeast(double balance) {
+        int count = 0;
+        for (double b : endBalances) {
+            if (b >= balance) {
+                count++;
+            }
+        }
+        return (double) count / endBalances.length;
+    }
+
+    /**
+     * Start month of a window as a fractional year, for plotting.
+     */
+    public double getStartYear(int window) {
+        return series.getStartYear() + (series.getStartMonth() - 1 + window) / 12.0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.investmentcalc;
+
+/**
+ * How {@link MonteCarloSimulator} draws the random monthly returns of its paths.
+ */
+public enum SamplingMethod {
+    /** Independent pseudo-random normals for every month. */
+    PSEUDO_RANDOM("Pseudo-random"),
+    /** Each path is paired with its mirror image (negated normals). */
+    ANTITHETIC("Antithetic"),
+    /** Randomized Sobol points for the leading Brownian bridge coordinates of each path. */
+    SOBOL("Sobol");
+
+    private final String label;
+
+    SamplingMethod(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,131 @@
+package com.investmentcalc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Scenarios pinned side by side for comparison, with their latest results.
+ *
+ * {@link #calculate} computes every pin that is out of date at the same time, so recalculating
+ * all of them after a shared edit takes about as long as the slowest one. Each pin is resumed
+ * from its previous result through {@link InvestmentEngine#recalculate}, so an edit that only
+ * extends the horizon or changes late events redoes just the affected months. Pins whose scenario
+ * and engine did not change are not recalculated at all.
+ *
+ * Edits and reads are synchronized and cheap; the calculation itself runs outside the lock, so
+ * the Swing view can call {@link #calculate} from a worker thread while the table repaints.
+ */
+public final class ScenarioComparison {
+
+    /**
+     * One pinned scenario and the result last calculated for it, if any.
+     */
+    public static final class Pin {
+        private final String name;
+        private final InvestmentScenario scenario;
+        private final InvestmentResult result;
+        private final String engineName;
+
+        Pin(String name, InvestmentScenario scenario, InvestmentResult result, String engineName) {
+            this.name = name;
+            this.scenario = scenario;
+            this.result = result;
+            this.engineName = engineName;
+        }
+
+        public String getName() { return name; }
+        public InvestmentScenario getScenario() { return scenario; }
+        /** Latest result, or null before the first calculation. */
+        public InvestmentResult getResult() { return result; }
+
+        /**
+         * True when the result was calculated for this scenario, i.e. it has not been edited since.
+         */
+        public boolean isUpToDate() {
+            return result != null && result.getScenario() != null
+                && result.getScenario().getYears() == scenario.getYears()
+                && result.getScenario().firstChangedMonth(scenario) > scenario.getTotalMonths();
+        }
+
+        boolean isCurrent(InvestmentEngine engine) {
+            return engine.getName().equals(engineName) && isUpToDate();
+        }
+    }
+
+    private final List<Pin> pins = new ArrayList<>();
+
+    /**
+     * Adds a scenario; result may be an already calculated result for it, or null.
+     */
+    public synchronized void pin(String name, InvestmentScenario scenario, InvestmentResult result, String engineName) {
+        if (name == null || scenario == null) {
+            throw new IllegalArgumentException("A pinned scenario needs a name and a scenario.");
+        }
+        pins.add(new Pin(name, scenario, result, engineName));
+    }
+
+    public synchronized void remove(int index) {
+        pins.remove(index);
+    }
+
+    public synchronized void clear() {
+        pins.clear();
+    }
+
+    public synchronized int size() {
+        return pins.size();
+    }
+
+    /**
+     * The pins in the order they were added.
+     */
+    public synchronized List<Pin> getPins() {
+        return Collections.unmodifiableList(new ArrayList<>(pins));
+    }
+
+    /**
+     * Applies the same edit, e.g. a new horizon or return rate, to every pinned scenario. The
+     * previous results are kept so the next calculation can resume from them.
+     */
+    public synchronized void applyToAll(UnaryOperator<InvestmentScenario> edit) {
+        List<Pin> edited = new ArrayList<>(pins.size());
+        for (Pin pin : pins) {
+            edited.add(new Pin(pin.name, edit.apply(pin.scenario), pin.result, pin.engineName));
+        }
+        pins.clear();
+        pins.addAll(edited);
+    }
+
+    /**
+     * Brings every pin up to date with the given engine, calculating the stale ones concurrently,
+     * and returns the results in pin order. Pins edited or removed while this runs keep their
+     * newer state.
+     */
+    public List<InvestmentResult> calculate(InvestmentEngine engine) {
+        List<Pin> snapshot = getPins();
+        List<Pin> updated = IntStream.range(0, snapshot.size()).parallel()
+            .mapToObj(i -> {
+                Pin pin = snapshot.get(i);
+                if (pin.isCurrent(engine)) {
+                    return pin;
+                }
+                InvestmentResult result = engine.recalculate(pin.result, pin.scenario);
+                return new Pin(pin.name, pin.scenario, result, engine.getName());
+            })
+            .collect(Collectors.toList());
+
+        synchronized (this) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                int index = pins.indexOf(snapshot.get(i));
+                if (index >= 0) {
+                    pins.set(index, updated.get(i));
+                }
+            }
+        }
+        return updated.stream().map(Pin::getResult).collect(Collectors.toList());
+    }
+}
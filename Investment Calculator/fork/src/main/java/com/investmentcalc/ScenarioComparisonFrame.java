@@ -0,0 +1,230 @@
+package com.investmentcalc;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Window comparing the pinned scenarios: their balances overlaid in one chart and their key
+ * figures side by side in a table.
+ *
+ * Calculations run on a {@link SwingWorker}, so the window stays responsive while the pins are
+ * computed; an edit made during a calculation starts another one as soon as it finishes. Like
+ * {@link FullScreenChartFrame} it is created on first use and reused afterwards.
+ */
+public class ScenarioComparisonFrame extends JFrame {
+    private static final String[] COLUMNS = {
+        "#", "Scenario", "Years", "Return Rate", "End Balance", "Contributions", "Interest", "Money-Weighted Return"
+    };
+
+    private final ScenarioComparison comparison;
+    private final Supplier<InvestmentEngine> engineSupplier;
+    private final InvestmentChartPanel chartPanel;
+    private final DefaultTableModel tableModel;
+    private final JTable table;
+    private final JTextField sharedYearsField;
+    private final JTextField sharedRateField;
+    private final JLabel statusLabel;
+    private String selectedCurrency = "USD";
+
+    private SwingWorker<List<InvestmentResult>, Void> worker;
+    private boolean recalculateAgain;
+
+    public ScenarioComparisonFrame(ScenarioComparison comparison, Supplier<InvestmentEngine> engineSupplier) {
+        super("Scenario Comparison");
+        this.comparison = comparison;
+        this.engineSupplier = engineSupplier;
+        setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+        setSize(1000, 750);
+
+        chartPanel = new InvestmentChartPanel(null);
+
+        tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        table = new JTable(tableModel);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        table.getColumnModel().getColumn(0).setMaxWidth(40);
+        JScrollPane tableScrollPane = new JScrollPane(table);
+        tableScrollPane.setPreferredSize(new Dimension(950, 180));
+
+        // Shared-parameter edits apply to every pinned scenario at once
+        sharedYearsField = new JTextField(5);
+        sharedRateField = new JTextField(5);
+        JButton applyButton = new JButton("Apply to All");
+        applyButton.setBackground(new Color(0, 123, 255));
+        applyButton.setForeground(Color.WHITE);
+        applyButton.addActionListener(e -> applySharedEdit());
+
+        JButton removeButton = new JButton("Remove Selected");
+        removeButton.addActionListener(e -> removeSelected());
+        JButton clearButton = new JButton("Clear All");
+        clearButton.setBackground(new Color(220, 53, 69));
+        clearButton.setForeground(Color.WHITE);
+        clearButton.addActionListener(e -> {
+            comparison.clear();
+            recalculate();
+        });
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setForeground(Color.GRAY);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(new JLabel("Years:"));
+        controlPanel.add(sharedYearsField);
+        controlPanel.add(new JLabel("Annual Return Rate (%):"));
+        controlPanel.add(sharedRateField);
+        controlPanel.add(applyButton);
+        controlPanel.add(Box.createHorizontalStrut(20));
+        controlPanel.add(removeButton);
+        controlPanel.add(clearButton);
+        controlPanel.add(Box.createHorizontalStrut(20));
+        controlPanel.add(statusLabel);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.setBorder(BorderFactory.createTitledBorder("Side-by-Side Summary"));
+        bottomPanel.add(tableScrollPane, BorderLayout.CENTER);
+
+        JPanel content = new JPanel(new BorderLayout(5, 5));
+        content.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        content.add(controlPanel, BorderLayout.NORTH);
+        content.add(chartPanel, BorderLayout.CENTER);
+        content.add(bottomPanel, BorderLayout.SOUTH);
+        add(content);
+    }
+
+    /**
+     * Shows the window and brings every pin up to date.
+     */
+    public void showComparison(String currency, Component parent) {
+        this.selectedCurrency = currency;
+        if (!isVisible()) {
+            setLocationRelativeTo(parent);
+        }
+        setVisible(true);
+        toFront();
+        recalculate();
+    }
+
+    /**
+     * Calculates the stale pins off the event dispatch thread and refreshes the view.
+     */
+    public void recalculate() {
+        if (worker != null && !worker.isDone()) {
+            recalculateAgain = true;
+            return;
+        }
+        InvestmentEngine engine = engineSupplier.get();
+        statusLabel.setText("Calculating " + comparison.size() + " scenarios...");
+        long start = System.nanoTime();
+        worker = new SwingWorker<List<InvestmentResult>, Void>() {
+            @Override
+            protected List<InvestmentResult> doInBackground() {
+                return comparison.calculate(engine);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    statusLabel.setText(String.format("%d scenarios in %.0f ms (%s engine)",
+                        comparison.size(), (System.nanoTime() - start) / 1e6, engine.getName()));
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    statusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(ScenarioComparisonFrame.this,
+                        "Error calculating scenarios: " + cause.getMessage(),
+                        "Calculation Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+                refreshView();
+                if (recalculateAgain) {
+                    recalculateAgain = false;
+                    recalculate();
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void refreshView() {
+        List<ScenarioComparison.Pin> pins = comparison.getPins();
+        List<String> names = new ArrayList<>();
+        List<InvestmentResult> results = new ArrayList<>();
+        tableModel.setRowCount(0);
+        String currencySymbol = InvestmentChartPanel.getCurrencySymbol(selectedCurrency);
+        for (int i = 0; i < pins.size(); i++) {
+            ScenarioComparison.Pin pin = pins.get(i);
+            InvestmentScenario scenario = pin.getScenario();
+            InvestmentResult result = pin.getResult();
+            boolean current = pin.isUpToDate();
+            tableModel.addRow(new Object[] {
+                i + 1,
+                pin.getName(),
+                scenario.getYears(),
+                String.format("%.2f%%", scenario.getAnnualReturnRate()),
+                current ? formatMoney(currencySymbol, result.getEndBalance()) : "...",
+                current ? formatMoney(currencySymbol, result.getTotalContributions()) : "...",
+                current ? formatMoney(currencySymbol, result.getTotalInterest()) : "...",
+                current ? formatRate(ReturnMetrics.of(result).getMoneyWeightedReturn()) : "..."
+            });
+            if (current) {
+                names.add(pin.getName());
+                results.add(result);
+            }
+        }
+        chartPanel.updateComparisonChart(names, results, selectedCurrency);
+    }
+
+    private void applySharedEdit() {
+        String yearsText = sharedYearsField.getText().trim();
+        String rateText = sharedRateField.getText().trim();
+        if (yearsText.isEmpty() && rateText.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Enter the years, the return rate or both to apply to every scenario.",
+                "Missing Input",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        try {
+            Integer years = yearsText.isEmpty() ? null : Integer.parseInt(yearsText);
+            BigDecimal rate = rateText.isEmpty() ? null : new BigDecimal(rateText);
+            comparison.applyToAll(scenario -> {
+                InvestmentScenario edited = years == null ? scenario : scenario.withYears(years);
+                return rate == null ? edited : edited.withAnnualReturnRate(rate);
+            });
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            JOptionPane.showMessageDialog(this,
+                e.getMessage(),
+                "Invalid Input",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        recalculate();
+    }
+
+    private void removeSelected() {
+        int[] rows = table.getSelectedRows();
+        for (int i = rows.length - 1; i >= 0; i--) {
+            comparison.remove(rows[i]);
+        }
+        recalculate();
+    }
+
+    private static String formatMoney(String currencySymbol, BigDecimal amount) {
+        return String.format("%s%,.2f", currencySymbol, amount);
+    }
+
+    private static String formatRate(double rate) {
+        return Double.isNaN(rate) ? "n/a" : String.format("%.2f%%", rate * 100);
+    }
+}
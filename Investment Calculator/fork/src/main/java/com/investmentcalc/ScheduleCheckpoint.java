@@ -0,0 +1,45 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+
+/**
+ * Exact engine state after a number of completed months: the unrounded balance and the running
+ * totals, as the engine itself carries them. Resuming a calculation from a checkpoint produces
+ * the same result as calculating those months again.
+ */
+public final class ScheduleCheckpoint {
+    private final int month;
+    private final BigDecimal balance;
+    private final BigDecimal totalContributions;
+    private final BigDecimal totalInterest;
+    private final BigDecimal totalFees;
+    private final BigDecimal totalTaxes;
+    private final BigDecimal deflator;
+
+    public ScheduleCheckpoint(int month, BigDecimal balance, BigDecimal totalContributions, BigDecimal totalInterest) {
+        this(month, balance, totalContributions, totalInterest, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    /**
+     * @param deflator running product of the monthly deflators; nominal * deflator = real value
+     */
+    public ScheduleCheckpoint(int month, BigDecimal balance, BigDecimal totalContributions, BigDecimal totalInterest,
+                              BigDecimal totalFees, BigDecimal totalTaxes, BigDecimal deflator) {
+        this.month = month;
+        this.balance = balance;
+        this.totalContributions = totalContributions;
+        this.totalInterest = totalInterest;
+        this.totalFees = totalFees;
+        this.totalTaxes = totalTaxes;
+        this.deflator = deflator;
+    }
+
+    /** Number of months completed, 0 for the starting state. */
+    public int getMonth() { return month; }
+    public BigDecimal getBalance() { return balance; }
+    public BigDecimal getTotalContributions() { return totalContributions; }
+    public BigDecimal getTotalInterest() { return totalInterest; }
+    public BigDecimal getTotalFees() { return totalFees; }
+    public BigDecimal getTotalTaxes() { return totalTaxes; }
+    public BigDecimal getDeflator() { return deflator; }
+}
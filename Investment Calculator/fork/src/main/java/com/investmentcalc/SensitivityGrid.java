@@ -0,0 +1,199 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * End balance of a scenario over a grid of two varied parameters, e.g. return rate by years.
+ *
+ * Every cell is one call of {@link ClosedFormInvestmentEngine#calculateEndBalance}, which jumps
+ * across whole years with powers of the yearly map, so a cell costs a few dozen operations and a
+ * grid of a few thousand cells takes milliseconds. The grid is split into square tiles that are
+ * computed in parallel; a listener hears about each finished tile so a view can paint it
+ * straight away. Cells not yet computed, or whose parameters are invalid, hold NaN.
+ */
+public final class SensitivityGrid {
+
+    /**
+     * Edge length of a tile, in cells.
+     */
+    static final int TILE_SIZE = 16;
+
+    /**
+     * A scenario parameter the grid can vary.
+     */
+    public enum Parameter {
+        ANNUAL_RETURN_RATE("Annual Return Rate (%)"),
+        YEARS("Years"),
+        ANNUAL_CONTRIBUTION("Annual Contribution");
+
+        private final String label;
+
+        Parameter(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * The scenario with this parameter set to the given value.
+         */
+        InvestmentScenario apply(InvestmentScenario scenario, double value) {
+            switch (this) {
+                case ANNUAL_RETURN_RATE:
+                    return scenario.withAnnualReturnRate(BigDecimal.valueOf(value));
+                case YEARS:
+                    return scenario.withYears((int) Math.round(value));
+                case ANNUAL_CONTRIBUTION:
+                    return scenario.withAdditionalContribution(BigDecimal.valueOf(value));
+                default:
+                    throw new IllegalArgumentException("Unsupported parameter: " + this);
+            }
+        }
+
+        /**
+         * The scenario's current value of this parameter.
+         */
+        public double valueOf(InvestmentScenario scenario) {
+            switch (this) {
+                case ANNUAL_RETURN_RATE:
+                    return scenario.getAnnualReturnRate().doubleValue();
+                case YEARS:
+                    return scenario.getYears();
+                case ANNUAL_CONTRIBUTION:
+                    return scenario.getAdditionalContribution().doubleValue();
+                default:
+                    throw new IllegalArgumentException("Unsupported parameter: " + this);
+            }
+        }
+    }
+
+    /**
+     * Told about every finished tile, from the worker thread that computed it.
+     */
+    public interface TileListener {
+        /**
+         * Columns [fromColumn, toColumn) of rows [fromRow, toRow) are now filled in.
+         */
+        void tileCompleted(int fromColumn, int toColumn, int fromRow, int toRow);
+    }
+
+    private final InvestmentScenario scenario;
+    private final Parameter columnParameter;
+    private final double[] columnValues;
+    private final Parameter rowParameter;
+    private final double[] rowValues;
+    private final double[] endBalances;
+    private volatile boolean cancelled;
+
+    /**
+     * @param columnParameter the parameter varied along the columns (x axis)
+     * @param rowParameter the parameter varied along the rows (y axis)
+     */
+    public SensitivityGrid(InvestmentScenario scenario, Parameter columnParameter, double[] columnValues,
+                           Parameter rowParameter, double[] rowValues) {
+        if (scenario == null || columnParameter == null || rowParameter == null
+                || columnValues == null || rowValues == null) {
+            throw new IllegalArgumentException("Please fill in all required fields.");
+        }
+        if (columnParameter == rowParameter) {
+            throw new IllegalArgumentException("The grid needs two different parameters.");
+        }
+        if (columnValues.length == 0 || rowValues.length == 0) {
+            throw new IllegalArgumentException("The grid needs at least one value per parameter.");
+        }
+        this.scenario = scenario;
+        this.columnParameter = columnParameter;
+        this.columnValues = columnValues.clone();
+        this.rowParameter = rowParameter;
+        this.rowValues = rowValues.clone();
+        this.endBalances = new double[columnValues.length * rowValues.length];
+        Arrays.fill(endBalances, Double.NaN);
+    }
+
+    /**
+     * count evenly spaced values from first to last inclusive.
+     */
+    public static double[] steps(double first, double last, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Need at least one step.");
+        }
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = count == 1 ? first : first + (last - first) * i / (count - 1);
+        }
+        return values;
+    }
+
+    public InvestmentScenario getScenario() { return scenario; }
+    public Parameter getColumnParameter() { return columnParameter; }
+    public Parameter getRowParameter() { return rowParameter; }
+    public int getColumnCount() { return columnValues.length; }
+    public int getRowCount() { return rowValues.length; }
+    public double getColumnValue(int column) { return columnValues[column]; }
+    public double getRowValue(int row) { return rowValues[row]; }
+
+    /**
+     * End balance of a cell, or NaN if it is not computed yet or its parameters are invalid.
+     */
+    public double getEndBalance(int column, int row) {
+        return endBalances[row * columnValues.length + column];
+    }
+
+    /**
+     * The scenario of one cell.
+     */
+    public InvestmentScenario scenarioAt(int column, int row) {
+        return rowParameter.apply(columnParameter.apply(scenario, columnValues[column]), rowValues[row]);
+    }
+
+    /**
+     * Stops a running {@link #compute}; tiles already started still finish.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Computes every cell, tiles in parallel, and returns when all tiles are done or the grid
+     * was cancelled. The listener may be null.
+     */
+    public void compute(TileListener listener) {
+        ClosedFormInvestmentEngine engine = new ClosedFormInvestmentEngine();
+        int tileColumns = (columnValues.length + TILE_SIZE - 1) / TILE_SIZE;
+        int tileRows = (rowValues.length + TILE_SIZE - 1) / TILE_SIZE;
+        IntStream.range(0, tileColumns * tileRows).parallel().forEach(tile -> {
+            if (cancelled) {
+                return;
+            }
+            int fromColumn = (tile % tileColumns) * TILE_SIZE;
+            int fromRow = (tile / tileColumns) * TILE_SIZE;
+            int toColumn = Math.min(columnValues.length, fromColumn + TILE_SIZE);
+            int toRow = Math.min(rowValues.length, fromRow + TILE_SIZE);
+            for (int row = fromRow; row < toRow; row++) {
+                for (int column = fromColumn; column < toColumn; column++) {
+                    endBalances[row * columnValues.length + column] = endBalance(engine, column, row);
+                }
+            }
+            if (listener != null) {
+                listener.tileCompleted(fromColumn, toColumn, fromRow, toRow);
+            }
+        });
+    }
+
+    private double endBalance(ClosedFormInvestmentEngine engine, int column, int row) {
+        try {
+            return engine.calculateEndBalance(scenarioAt(column, row));
+        } catch (IllegalArgumentException e) {
+            // Outside the valid range, e.g. a rate below -100%
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.investmentcalc;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+
+/**
+ * Heatmap of the end balance over two varied parameters, e.g. return rate by years.
+ *
+ * The grid is computed on a background thread with {@link SensitivityGrid}; each finished tile
+ * repaints only its own rectangle, so the map fills in while the rest is still being computed.
+ * Hovering over a cell shows its parameters and exact end balance. Starting a new sweep cancels
+ * the one still running.
+ */
+public class SensitivityHeatmapPanel extends JPanel {
+
+    /**
+     * The two views offered: years or annual contribution across, return rate down.
+     */
+    public enum View {
+        RATE_BY_YEARS("Return Rate × Years", SensitivityGrid.Parameter.YEARS),
+        RATE_BY_CONTRIBUTION("Return Rate × Contribution", SensitivityGrid.Parameter.ANNUAL_CONTRIBUTION);
+
+        private final String label;
+        private final SensitivityGrid.Parameter columnParameter;
+
+        View(String label, SensitivityGrid.Parameter columnParameter) {
+            this.label = label;
+            this.columnParameter = columnParameter;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final int LEFT = 70;
+    private static final int TOP = 10;
+    private static final int BOTTOM = 40;
+    private static final int RIGHT = 90;
+
+    // Low to high: blue, teal, green, yellow
+    private static final Color[] SCALE = {
+        new Color(49, 54, 149), new Color(33, 144, 140), new Color(94, 201, 98), new Color(253, 231, 37)
+    };
+
+    private SensitivityGrid grid;
+    private String selectedCurrency = "USD";
+    private long sweepStart;
+    private String status = "Heatmap will appear here after calculation";
+
+    public SensitivityHeatmapPanel() {
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(550, 320));
+        // Tooltips come from getToolTipText(MouseEvent)
+        setToolTipText("");
+        ToolTipManager.sharedInstance().setInitialDelay(0);
+    }
+
+    /**
+     * Starts a sweep around the given scenario and shows it as it fills in.
+     */
+    public void showSweep(InvestmentScenario scenario, View view, String currency) {
+        if (grid != null) {
+            grid.cancel();
+        }
+        selectedCurrency = currency;
+        SensitivityGrid sweep = createGrid(scenario, view);
+        grid = sweep;
+        status = "Computing " + (sweep.getColumnCount() * sweep.getRowCount()) + " cells...";
+        sweepStart = System.nanoTime();
+        repaint();
+
+        Thread worker = new Thread(() -> {
+            sweep.compute((fromColumn, toColumn, fromRow, toRow) -> SwingUtilities.invokeLater(() -> {
+                if (grid == sweep) {
+                    repaintCells(fromColumn, toColumn, fromRow, toRow);
+                }
+            }));
+            SwingUtilities.invokeLater(() -> {
+                if (grid == sweep && !sweep.isCancelled()) {
+                    status = String.format("%d cells in %.0f ms", sweep.getColumnCount() * sweep.getRowCount(),
+                        (System.nanoTime() - sweepStart) / 1e6);
+                    repaint();
+                }
+            });
+        }, "sensitivity-sweep");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Grid around the scenario: rates 5 points either side in quarter-point steps, against
+     * either 1 to twice the horizon in years or 0 to twice the contribution.
+     */
+    static SensitivityGrid createGrid(InvestmentScenario scenario, View view) {
+        double rate = scenario.getAnnualReturnRate().doubleValue();
+        double[] rates = SensitivityGrid.steps(Math.max(-50, rate - 5), rate + 5, 41);
+        double[] columns;
+        if (view.columnParameter == SensitivityGrid.Parameter.YEARS) {
+            int maxYears = Math.min(100, Math.max(30, 2 * scenario.getYears()));
+            columns = SensitivityGrid.steps(1, maxYears, maxYears);
+        } else {
+            double contribution = scenario.getAdditionalContribution().doubleValue();
+            double maxContribution = contribution > 0 ? 2 * contribution : 24000;
+            columns = SensitivityGrid.steps(0, maxContribution, 61);
+        }
+        return new SensitivityGrid(scenario, view.columnParameter, columns,
+            SensitivityGrid.Parameter.ANNUAL_RETURN_RATE, rates);
+    }
+
+    SensitivityGrid getGrid() {
+        return grid;
+    }
+
+    private void repaintCells(int fromColumn, int toColumn, int fromRow, int toRow) {
+        Rectangle cells = cellBounds(fromColumn, toColumn, fromRow, toRow);
+        // The colour scale may have widened; the legend follows every tile
+        repaint(cells);
+        repaint(getWidth() - RIGHT, 0, RIGHT, getHeight());
+    }
+
+    private Rectangle cellBounds(int fromColumn, int toColumn, int fromRow, int toRow) {
+        int x0 = columnX(fromColumn);
+        int x1 = columnX(toColumn);
+        // Row 0 is the lowest rate, drawn at the bottom
+        int y0 = rowY(toRow);
+        int y1 = rowY(fromRow);
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    private int plotWidth() {
+        return Math.max(1, getWidth() - LEFT - RIGHT);
+    }
+
+    private int plotHeight() {
+        return Math.max(1, getHeight() - TOP - BOTTOM);
+    }
+
+    private int columnX(int column) {
+        return LEFT + (int) ((long) plotWidth() * column / grid.getColumnCount());
+    }
+
+    private int rowY(int row) {
+        return TOP + plotHeight() - (int) ((long) plotHeight() * row / grid.getRowCount());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (grid == null) {
+            g2.setColor(Color.GRAY);
+            g2.setFont(new Font(Font.SANS_SERIF, Font.ITALIC, 14));
+            FontMetrics fm = g2.getFontMetrics();
+            g2.drawString(status, (getWidth() - fm.stringWidth(status)) / 2, getHeight() / 2);
+            return;
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int row = 0; row < grid.getRowCount(); row++) {
+            for (int column = 0; column < grid.getColumnCount(); column++) {
+                double value = grid.getEndBalance(column, row);
+                if (!Double.isNaN(value)) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+        }
+
+        Rectangle clip = g2.getClipBounds();
+        for (int row = 0; row < grid.getRowCount(); row++) {
+            for (int column = 0; column < grid.getColumnCount(); column++) {
+                Rectangle cell = cellBounds(column, column + 1, row, row + 1);
+                if (clip != null && !clip.intersects(cell)) {
+                    continue;
+                }
+                double value = grid.getEndBalance(column, row);
+                g2.setColor(Double.isNaN(value) ? new Color(235, 235, 235) : colorFor(value, min, max));
+                g2.fillRect(cell.x, cell.y, cell.width, cell.height);
+            }
+        }
+
+        // Outline the cell of the scenario itself
+        int baseColumn = nearest(grid.getColumnParameter().valueOf(grid.getScenario()), true);
+        int baseRow = nearest(grid.getRowParameter().valueOf(grid.getScenario()), false);
+        Rectangle base = cellBounds(baseColumn, baseColumn + 1, baseRow, baseRow + 1);
+        g2.setColor(Color.WHITE);
+        g2.setStroke(new BasicStroke(2f));
+        g2.drawRect(base.x, base.y, base.width, base.height);
+
+        paintAxes(g2);
+        paintLegend(g2, min, max);
+    }
+
+    private void paintAxes(Graphics2D g2) {
+        g2.setColor(Color.DARK_GRAY);
+        g2.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+        FontMetrics fm = g2.getFontMetrics();
+        int bottom = TOP + plotHeight();
+        for (int i = 0; i <= 4; i++) {
+            int column = Math.min(grid.getColumnCount() - 1, i * (grid.getColumnCount() - 1) / 4);
+            String label = formatAxisValue(grid.getColumnParameter(), grid.getColumnValue(column));
+            int x = (columnX(column) + columnX(column + 1)) / 2;
+            g2.drawString(label, x - fm.stringWidth(label) / 2, bottom + fm.getAscent() + 2);
+
+            int row = Math.min(grid.getRowCount() - 1, i * (grid.getRowCount() - 1) / 4);
+            String rowLabel = formatAxisValue(grid.getRowParameter(), grid.getRowValue(row));
+            int y = (rowY(row) + rowY(row + 1)) / 2;
+            g2.drawString(rowLabel, LEFT - fm.stringWidth(rowLabel) - 4, y + fm.getAscent() / 2);
+        }
+        String columnTitle = grid.getColumnParameter().getLabel();
+        g2.drawString(columnTitle, LEFT + (plotWidth() - fm.stringWidth(columnTitle)) / 2, getHeight() - 4);
+        g2.setColor(Color.GRAY);
+        g2.drawString(status, 4, getHeight() - 4);
+    }
+
+    private void paintLegend(Graphics2D g2, double min, double max) {
+        int x = getWidth() - RIGHT + 10;
+        int height = plotHeight();
+        for (int y = 0; y < height; y++) {
+            g2.setColor(colorFor(1 - (double) y / height, 0, 1));
+            g2.fillRect(x, TOP + y, 12, 1);
+        }
+        if (min <= max) {
+            g2.setColor(Color.DARK_GRAY);
+            FontMetrics fm = g2.getFontMetrics();
+            g2.drawString(formatCompact(max), x + 16, TOP + fm.getAscent());
+            g2.drawString(formatCompact(min), x + 16, TOP + height);
+        }
+    }
+
+    private int nearest(double value, boolean column) {
+        int count = column ? grid.getColumnCount() : grid.getRowCount();
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            double candidate = column ? grid.getColumnValue(i) : grid.getRowValue(i);
+            double current = column ? grid.getColumnValue(best) : grid.getRowValue(best);
+            if (Math.abs(candidate - value) < Math.abs(current - value)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Colour on the scale for a value, using the square root so the few large balances at long
+     * horizons and high rates do not wash out the rest of the map.
+     */
+    static Color colorFor(double value, double min, double max) {
+        double t = max > min ? Math.sqrt(Math.max(0, Math.min(1, (value - min) / (max - min)))) : 0.5;
+        double position = t * (SCALE.length - 1);
+        int i = Math.min(SCALE.length - 2, (int) position);
+        double f = position - i;
+        Color a = SCALE[i];
+        Color b = SCALE[i + 1];
+        return new Color(
+            (int) Math.round(a.getRed() + f * (b.getRed() - a.getRed())),
+            (int) Math.round(a.getGreen() + f * (b.getGreen() - a.getGreen())),
+            (int) Math.round(a.getBlue() + f * (b.getBlue() - a.getBlue())));
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        if (grid == null || e.getX() < LEFT || e.getX() >= LEFT + plotWidth()
+                || e.getY() < TOP || e.getY() >= TOP + plotHeight()) {
+            return null;
+        }
+        int column = Math.min(grid.getColumnCount() - 1,
+            (int) ((long) (e.getX() - LEFT) * grid.getColumnCount() / plotWidth()));
+        int row = Math.min(grid.getRowCount() - 1,
+            (int) ((long) (TOP + plotHeight() - e.getY()) * grid.getRowCount() / plotHeight()));
+        double value = grid.getEndBalance(column, row);
+        String balance = Double.isNaN(value) ? "not available"
+            : String.format("%s%,.2f", InvestmentChartPanel.getCurrencySymbol(selectedCurrency), value);
+        return String.format("<html>%s: %s<br>%s: %s<br><b>End Balance: %s</b></html>",
+            grid.getColumnParameter().getLabel(), formatAxisValue(grid.getColumnParameter(), grid.getColumnValue(column)),
+            grid.getRowParameter().getLabel(), formatAxisValue(grid.getRowParameter(), grid.getRowValue(row)),
+            balance);
+    }
+
+    private String formatAxisValue(SensitivityGrid.Parameter parameter, double value) {
+        switch (parameter) {
+            case ANNUAL_RETURN_RATE:
+                return String.format("%.2f%%", value);
+            case YEARS:
+                return String.valueOf(Math.round(value));
+            default:
+                return formatCompact(value);
+        }
+    }
+
+    private String formatCompact(double value) {
+        String symbol = InvestmentChartPanel.getCurrencySymbol(selectedCurrency);
+        double abs = Math.abs(value);
+        if (abs >= 1e9) {
+            return String.format("%s%.1fB", symbol, value / 1e9);
+        }
+        if (abs >= 1e6) {
+            return String.format("%s%.1fM", symbol, value / 1e6);
+        }
+        if (abs >= 1e3) {
+            return String.format("%s%.0fk", symbol, value / 1e3);
+        }
+        return String.format("%s%.0f", symbol, value);
+    }
+}
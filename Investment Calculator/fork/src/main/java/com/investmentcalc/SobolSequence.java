@@ -0,0 +1,91 @@
+package com.investmentcalc;
+
+/**
+ * Sobol low-discrepancy sequence in up to {@link #MAX_DIMENSIONS} dimensions, randomized with a
+ * digital shift so that independent replicates give an unbiased estimate and a standard error.
+ *
+ * Direction numbers are the first entries of the Joe and Kuo (2008) table. Only a handful of
+ * dimensions are needed because the Monte Carlo paths are built with a Brownian bridge, which
+ * concentrates most of the variance in the first few coordinates.
+ */
+final class SobolSequence {
+
+    private static final int BITS = 32;
+    private static final double SCALE = 1.0 / (1L << BITS);
+
+    // {degree s, coefficients a, m_1 .. m_s} for dimensions 2..16; dimension 1 is van der Corput
+    private static final int[][] DIRECTIONS = {
+        {1, 0, 1},
+        {2, 1, 1, 3},
+        {3, 1, 1, 3, 1},
+        {3, 2, 1, 1, 1},
+        {4, 1, 1, 1, 3, 3},
+        {4, 4, 1, 3, 5, 13},
+        {5, 2, 1, 1, 5, 5, 17},
+        {5, 4, 1, 1, 5, 5, 5},
+        {5, 7, 1, 1, 7, 11, 19},
+        {5, 11, 1, 1, 5, 1, 1},
+        {5, 13, 1, 1, 1, 3, 11},
+        {5, 14, 1, 3, 5, 5, 31},
+        {6, 1, 1, 3, 3, 9, 7, 49},
+        {6, 13, 1, 1, 1, 15, 21, 21},
+        {6, 16, 1, 3, 1, 13, 27, 49},
+    };
+
+    static final int MAX_DIMENSIONS = DIRECTIONS.length + 1;
+
+    private final int dimensions;
+    private final int[][] v;
+    private final int[] shift;
+    private final int[] x;
+    private long index;
+
+    /**
+     * @param shift one random 32-bit digital shift per dimension (all zero for the plain sequence)
+     */
+    SobolSequence(int dimensions, int[] shift) {
+        if (dimensions < 1 || dimensions > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Sobol dimensions must be between 1 and " + MAX_DIMENSIONS + ".");
+        }
+        this.dimensions = dimensions;
+        this.shift = shift.clone();
+        this.x = new int[dimensions];
+        this.v = new int[dimensions][BITS + 1];
+
+        for (int k = 1; k <= BITS; k++) {
+            v[0][k] = 1 << (BITS - k);
+        }
+        for (int d = 1; d < dimensions; d++) {
+            int[] row = DIRECTIONS[d - 1];
+            int s = row[0];
+            int a = row[1];
+            for (int k = 1; k <= s && k <= BITS; k++) {
+                v[d][k] = row[1 + k] << (BITS - k);
+            }
+            for (int k = s + 1; k <= BITS; k++) {
+                int value = v[d][k - s] ^ (v[d][k - s] >>> s);
+                for (int i = 1; i < s; i++) {
+                    value ^= ((a >>> (s - 1 - i)) & 1) * v[d][k - i];
+                }
+                v[d][k] = value;
+            }
+        }
+    }
+
+    /**
+     * Writes the next point, each coordinate strictly inside (0, 1).
+     */
+    void next(double[] point) {
+        if (index > 0) {
+            // Gray code order: flip the direction number of the lowest zero bit of index - 1
+            int bit = Long.numberOfTrailingZeros(~(index - 1)) + 1;
+            for (int d = 0; d < dimensions; d++) {
+                x[d] ^= v[d][bit];
+            }
+        }
+        index++;
+        for (int d = 0; d < dimensions; d++) {
+            point[d] = (((x[d] ^ shift[d]) & 0xffffffffL) + 0.5) * SCALE;
+        }
+    }
+}
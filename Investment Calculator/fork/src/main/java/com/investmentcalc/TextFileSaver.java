@@ -3,6 +3,7 @@ package com.investmentcalc;
 import org.apache.commons.io.FileUtils;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -33,7 +34,7 @@ public class TextFileSaver {
         
         try {
             String content = formatResultsForFile(result);
-            FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+            writeContent(file, content, false);
             return true;
         } catch (IOException e) {
             System.err.println("Error saving results to file: " + e.getMessage());
@@ -51,7 +52,7 @@ public class TextFileSaver {
     /**
      * Formats the investment results into a readable text format
      */
-    private static String formatResultsForFile(InvestmentResult result) {
+    static String formatResultsForFile(InvestmentResult result) {
         StringBuilder sb = new StringBuilder();
         SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT);
         
@@ -74,11 +75,25 @@ public class TextFileSaver {
         sb.append(String.format("End Balance:           $%,.2f\n", result.getEndBalance()));
         sb.append(String.format("Total Contributions:   $%,.2f\n", result.getTotalContributions()));
         sb.append(String.format("Total Interest Earned: $%,.2f\n", result.getTotalInterest()));
+        if (result.getScenario() != null && !result.getScenario().getAdjustments().isNone()) {
+            PlanAdjustments adjustments = result.getScenario().getAdjustments();
+            sb.append(String.format("Total Fees:            $%,.2f (%.2f%% per year)\n",
+                result.getTotalFees(), adjustments.getAnnualFeeRate()));
+            sb.append(String.format("Total Taxes:           $%,.2f (%.2f%% of returns)\n",
+                result.getTotalTaxes(), adjustments.getTaxRate()));
+            sb.append(String.format("End Balance (real):    $%,.2f (%.2f%% inflation)\n",
+                result.getRealEndBalance(), adjustments.getAnnualInflationRate()));
+        }
         
         BigDecimal totalReturn = result.getTotalInterest()
             .divide(result.getTotalContributions(), 4, BigDecimal.ROUND_HALF_UP)
             .multiply(new BigDecimal("100"));
         sb.append(String.format("Total Return:          %.2f%%\n", totalReturn));
+
+        // Annualized returns that account for when contributions were made
+        ReturnMetrics metrics = ReturnMetrics.of(result);
+        sb.append(String.format("Money-Weighted Return: %s per year (IRR)\n", formatRate(metrics.getMoneyWeightedReturn())));
+        sb.append(String.format("Time-Weighted Return:  %s per year\n", formatRate(metrics.getTimeWeightedReturn())));
         sb.append("\n");
         
         // Add yearly summary if available
@@ -104,6 +119,10 @@ public class TextFileSaver {
         return sb.toString();
     }
     
+    private static String formatRate(double rate) {
+        return Double.isNaN(rate) ? "n/a" : String.format("%.2f%%", rate * 100);
+    }
+    
     /**
      * Appends results to existing file
      */
@@ -117,11 +136,31 @@ public class TextFileSaver {
         
         try {
             String content = "\n\n" + formatResultsForFile(result);
-            FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8, true);
+            writeContent(file, content, true);
             return true;
         } catch (IOException e) {
             System.err.println("Error appending results to file: " + e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Reads a results file back, decompressing it if it was saved gzip-compressed.
+     */
+    public static String readResultsFromFile(String filename) throws IOException {
+        return GzipFiles.readString(new File(filename).toPath());
+    }
+
+    /**
+     * Files named "*.gz" are written gzip-compressed; appending adds a gzip member.
+     */
+    private static void writeContent(File file, String content, boolean append) throws IOException {
+        if (GzipFiles.isGzipName(file.toPath())) {
+            try (Writer writer = GzipFiles.newBufferedWriter(file.toPath(), true, append)) {
+                writer.write(content);
+            }
+        } else {
+            FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8, append);
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Maximum sustainable withdrawal of a plan with fixed returns, from {@link WithdrawalPlanner}.
+ */
+public class WithdrawalPlan {
+    private final InvestmentScenario scenario;
+    private final boolean inflationIndexed;
+    private final double maximumWithdrawal;
+    private final int bindingMonth;
+
+    WithdrawalPlan(InvestmentScenario scenario, boolean inflationIndexed, double maximumWithdrawal, int bindingMonth) {
+        this.scenario = scenario;
+        this.inflationIndexed = inflationIndexed;
+        this.maximumWithdrawal = maximumWithdrawal;
+        this.bindingMonth = bindingMonth;
+    }
+
+    public InvestmentScenario getScenario() { return scenario; }
+    public boolean isInflationIndexed() { return inflationIndexed; }
+
+    /**
+     * Exact maximum annual withdrawal (first-year amount when indexed).
+     */
+    public double getMaximumWithdrawal() { return maximumWithdrawal; }
+
+    /**
+     * Maximum annual withdrawal rounded down to the cent, so that it never depletes the plan.
+     */
+    public BigDecimal getAnnualWithdrawal() {
+        return BigDecimal.valueOf(maximumWithdrawal).setScale(2, RoundingMode.DOWN);
+    }
+
+    /**
+     * Month in which the balance reaches zero when the maximum is withdrawn; a larger withdrawal
+     * runs out here or earlier.
+     */
+    public int getBindingMonth() { return bindingMonth; }
+
+    @Override
+    public String toString() {
+        return String.format("WithdrawalPlan[%s%s per year, balance reaches zero in month %d]",
+            getAnnualWithdrawal(), inflationIndexed ? " indexed" : "", bindingMonth);
+    }
+}
@@ -0,0 +1,300 @@
+package com.investmentcalc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Largest regular withdrawal a plan can sustain without the balance going negative.
+ *
+ * The withdrawal replaces the scenario's regular contribution and follows its frequency and
+ * timing; lump sums, pauses and other events still apply. Every month is affine in the balance
+ * and the withdrawal enters it linearly, so each month-end balance is b(m) - W * s(m), where b is
+ * the plan without the withdrawal and s the balance a withdrawal of 1 per year takes away. One
+ * pass that tracks both gives the exact maximum min(b(m) / s(m)) instead of a search over full
+ * runs. Inflation-indexed withdrawals grow once a year by the scenario's inflation rate.
+ *
+ * The Monte Carlo mode does the same on every path with the lognormal returns of
+ * {@link MonteCarloSimulator}, so the withdrawal sustained with a given success rate is a
+ * quantile of the per-path maxima. Checking one withdrawal stops each path at the month it runs
+ * out of money.
+ */
+public final class WithdrawalPlanner {
+
+    private final double annualVolatility;
+
+    /**
+     * @param annualVolatility standard deviation of annual log returns for the Monte Carlo mode
+     */
+    public WithdrawalPlanner(double annualVolatility) {
+        if (annualVolatility < 0 || Double.isNaN(annualVolatility)) {
+            throw new IllegalArgumentException("Volatility cannot be negative.");
+        }
+        this.annualVolatility = annualVolatility;
+    }
+
+    public double getAnnualVolatility() {
+        return annualVolatility;
+    }
+
+    /**
+     * Largest annual withdrawal that keeps every month-end balance of the plan non-negative.
+     */
+    public static WithdrawalPlan solve(InvestmentScenario scenario, boolean inflationIndexed) {
+        Withdrawals withdrawals = new Withdrawals(scenario, inflationIndexed);
+        double growth = fixedGrowth(scenario);
+        boolean atBeginning = scenario.isContributeAtBeginning();
+
+        double base = scenario.getStartingAmount().doubleValue();
+        double unit = 0.0;
+        double best = Double.POSITIVE_INFINITY;
+        int bindingMonth = 0;
+        for (int i = 0; i < withdrawals.months; i++) {
+            if (atBeginning) {
+                base = (base + withdrawals.base[i]) * growth;
+                unit = (unit + withdrawals.unit[i]) * growth;
+            } else {
+                base = base * growth + withdrawals.base[i];
+                unit = unit * growth + withdrawals.unit[i];
+            }
+            if (base < 0 && unit <= 0) {
+                // Runs out before any withdrawal is taken
+                return new WithdrawalPlan(scenario, inflationIndexed, 0.0, i + 1);
+            }
+            if (unit > 0 && base / unit < best) {
+                best = base / unit;
+                bindingMonth = i + 1;
+            }
+        }
+        return new WithdrawalPlan(scenario, inflationIndexed, Math.max(0.0, best), bindingMonth);
+    }
+
+    /**
+     * First month whose end balance is negative when the given annual amount is withdrawn, or 0
+     * if the money lasts. Stops at that month.
+     */
+    public static int depletionMonth(InvestmentScenario scenario, double annualWithdrawal, boolean inflationIndexed) {
+        Withdrawals withdrawals = new Withdrawals(scenario, inflationIndexed);
+        double growth = fixedGrowth(scenario);
+        boolean atBeginning = scenario.isContributeAtBeginning();
+        double balance = scenario.getStartingAmount().doubleValue();
+        for (int i = 0; i < withdrawals.months; i++) {
+            double c = withdrawals.base[i] - annualWithdrawal * withdrawals.unit[i];
+            balance = atBeginning ? (balance + c) * growth : balance * growth + c;
+            if (balance < 0) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The scenario with a fixed annual withdrawal as its regular contribution, for the engines.
+     */
+    public static InvestmentScenario withWithdrawal(InvestmentScenario scenario, BigDecimal annualWithdrawal) {
+        return scenario.withAdditionalContribution(annualWithdrawal.negate());
+    }
+
+    /**
+     * Maximum sustainable withdrawal of each of the given number of random paths.
+     */
+    public WithdrawalSimulation simulate(InvestmentScenario scenario, boolean inflationIndexed, int paths, long seed) {
+        List<SplittableRandom> generators = generators(paths, seed);
+        Withdrawals withdrawals = new Withdrawals(scenario, inflationIndexed);
+        PathGrowth model = new PathGrowth(scenario, annualVolatility);
+        double[] maxima = new double[paths];
+        long[] simulatedMonths = new long[generators.size()];
+
+        IntStream.range(0, generators.size()).parallel().forEach(c -> {
+            int from = (int) ((long) paths * c / generators.size());
+            int to = (int) ((long) paths * (c + 1) / generators.size());
+            SplittableRandom random = generators.get(c);
+            for (int p = from; p < to; p++) {
+                simulatedMonths[c] += maximum(withdrawals, model, random.split(), maxima, p);
+            }
+        });
+
+        Arrays.sort(maxima);
+        return new WithdrawalSimulation(scenario, inflationIndexed, annualVolatility, maxima,
+            Arrays.stream(simulatedMonths).sum());
+    }
+
+    /**
+     * Depletion probability and months of a given annual withdrawal. Paths use the same draws as
+     * {@link #simulate} with the same seed, and each stops at the month its balance goes negative.
+     */
+    public DepletionSimulation simulateDepletion(InvestmentScenario scenario, double annualWithdrawal,
+                                                 boolean inflationIndexed, int paths, long seed) {
+        Withdrawals withdrawals = new Withdrawals(scenario, inflationIndexed);
+        PathGrowth model = new PathGrowth(scenario, annualVolatility);
+        boolean atBeginning = scenario.isContributeAtBeginning();
+
+        List<SplittableRandom> generators = generators(paths, seed);
+        List<DepletionChunk> chunks = IntStream.range(0, generators.size()).parallel()
+            .mapToObj(c -> {
+                int from = (int) ((long) paths * c / generators.size());
+                int to = (int) ((long) paths * (c + 1) / generators.size());
+                SplittableRandom random = generators.get(c);
+                DepletionChunk chunk = new DepletionChunk(to - from);
+                for (int p = from; p < to; p++) {
+                    MonteCarloSimulator.NormalSampler normal = new MonteCarloSimulator.NormalSampler(random.split());
+                    double balance = scenario.getStartingAmount().doubleValue();
+                    int i = 0;
+                    while (i < withdrawals.months) {
+                        double growth = model.next(normal);
+                        double amount = withdrawals.base[i] - annualWithdrawal * withdrawals.unit[i];
+                        balance = atBeginning ? (balance + amount) * growth : balance * growth + amount;
+                        i++;
+                        if (balance < 0) {
+                            chunk.depleted++;
+                            chunk.months.add(i);
+                            break;
+                        }
+                    }
+                    chunk.simulatedMonths += i;
+                }
+                return chunk;
+            })
+            .collect(Collectors.toList());
+
+        double[] replicates = new double[chunks.size()];
+        double[] weights = new double[chunks.size()];
+        QuantileSketch months = new QuantileSketch();
+        long depleted = 0;
+        long simulatedMonths = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            DepletionChunk chunk = chunks.get(c);
+            replicates[c] = (double) chunk.depleted / chunk.paths;
+            weights[c] = chunk.paths;
+            months.merge(chunk.months);
+            depleted += chunk.depleted;
+            simulatedMonths += chunk.simulatedMonths;
+        }
+        MonteCarloEstimate probability = MonteCarloEstimate.fromReplicates((double) depleted / paths, replicates, weights);
+        return new DepletionSimulation(scenario, annualWithdrawal, paths, probability, months, simulatedMonths);
+    }
+
+    /**
+     * One path of {@link #simulate}; returns the number of months simulated.
+     */
+    private static int maximum(Withdrawals withdrawals, PathGrowth model, SplittableRandom random,
+                               double[] maxima, int path) {
+        MonteCarloSimulator.NormalSampler normal = new MonteCarloSimulator.NormalSampler(random);
+        boolean atBeginning = withdrawals.atBeginning;
+        double base = withdrawals.startingAmount;
+        double unit = 0.0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < withdrawals.months; i++) {
+            double growth = model.next(normal);
+            if (atBeginning) {
+                base = (base + withdrawals.base[i]) * growth;
+                unit = (unit + withdrawals.unit[i]) * growth;
+            } else {
+                base = base * growth + withdrawals.base[i];
+                unit = unit * growth + withdrawals.unit[i];
+            }
+            if (base <= 0) {
+                // No withdrawal survives this month; the rest of the path cannot matter
+                maxima[path] = 0.0;
+                return i + 1;
+            }
+            if (unit > 0) {
+                best = Math.min(best, base / unit);
+            }
+        }
+        maxima[path] = best;
+        return withdrawals.months;
+    }
+
+    private static List<SplittableRandom> generators(int paths, long seed) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("Number of paths must be positive.");
+        }
+        int chunkCount = Math.min(MonteCarloSimulator.CHUNKS, paths);
+        SplittableRandom root = new SplittableRandom(seed);
+        List<SplittableRandom> generators = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            generators.add(root.split());
+        }
+        return generators;
+    }
+
+    private static double fixedGrowth(InvestmentScenario scenario) {
+        return scenario.getAdjustments().adjustGrowth(1.0 + scenario.getFactors().getMonthlyInterestFactorAsDouble());
+    }
+
+    /**
+     * The plan's monthly flows without the withdrawal, and the amount a withdrawal of 1 per year
+     * takes out in each month.
+     */
+    private static final class Withdrawals {
+        final int months;
+        final double startingAmount;
+        final boolean atBeginning;
+        final double[] base;
+        final double[] unit;
+
+        Withdrawals(InvestmentScenario scenario, boolean inflationIndexed) {
+            months = scenario.getTotalMonths();
+            startingAmount = scenario.getStartingAmount().doubleValue();
+            atBeginning = scenario.isContributeAtBeginning();
+            InvestmentScenario without = scenario.withAdditionalContribution(BigDecimal.ZERO);
+            InvestmentScenario perUnit = scenario.withAdditionalContribution(BigDecimal.ONE.negate());
+            // 1 / deflator^12 = 1 + inflation, the yearly step of an indexed withdrawal
+            double yearlyIndex = inflationIndexed
+                ? Math.pow(scenario.getAdjustments().getMonthlyDeflatorAsDouble(), -12) : 1.0;
+            base = new double[months];
+            unit = new double[months];
+            double index = 1.0;
+            boolean withdrawing = false;
+            for (int i = 0; i < months; i++) {
+                if (i > 0 && i % 12 == 0) {
+                    index *= yearlyIndex;
+                }
+                base[i] = without.getContributionForMonthAsDouble(i + 1);
+                unit[i] = (base[i] - perUnit.getContributionForMonthAsDouble(i + 1)) * index;
+                withdrawing |= unit[i] > 0;
+            }
+            if (!withdrawing) {
+                throw new IllegalArgumentException("The plan has no months with regular withdrawals.");
+            }
+        }
+    }
+
+    /**
+     * Net monthly growth factors of a random path, as in {@link MonteCarloSimulator}.
+     */
+    private static final class PathGrowth {
+        final PlanAdjustments adjustments;
+        final double expectedGrowth;
+        final double mu;
+        final double sigma;
+
+        PathGrowth(InvestmentScenario scenario, double annualVolatility) {
+            adjustments = scenario.getAdjustments();
+            expectedGrowth = 1.0 + scenario.getFactors().getMonthlyInterestFactorAsDouble();
+            sigma = annualVolatility / Math.sqrt(12);
+            mu = expectedGrowth > 0 ? Math.log(expectedGrowth) - sigma * sigma / 2 : 0;
+        }
+
+        double next(MonteCarloSimulator.NormalSampler normal) {
+            double z = normal.next();
+            return adjustments.adjustGrowth(expectedGrowth > 0 ? Math.exp(mu + sigma * z) : 0.0);
+        }
+    }
+
+    private static final class DepletionChunk {
+        final int paths;
+        final QuantileSketch months = new QuantileSketch();
+        long depleted;
+        long simulatedMonths;
+
+        DepletionChunk(int paths) {
+            this.paths = paths;
+        }
+    }
+}
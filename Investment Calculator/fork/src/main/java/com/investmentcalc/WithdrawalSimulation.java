@@ -0,0 +1,65 @@
+package com.investmentcalc;
+
+import java.util.Arrays;
+
+/**
+ * Maximum sustainable withdrawal of every Monte Carlo path, from {@link WithdrawalPlanner}.
+ * A withdrawal succeeds on a path when it does not exceed that path's maximum.
+ */
+public class WithdrawalSimulation {
+    private final InvestmentScenario scenario;
+    private final boolean inflationIndexed;
+    private final double annualVolatility;
+    private final double[] sortedMaxima;
+    private final long simulatedMonths;
+
+    WithdrawalSimulation(InvestmentScenario scenario, boolean inflationIndexed, double annualVolatility,
+                         double[] sortedMaxima, long simulatedMonths) {
+        this.scenario = scenario;
+        this.inflationIndexed = inflationIndexed;
+        this.annualVolatility = annualVolatility;
+        this.sortedMaxima = sortedMaxima;
+        this.simulatedMonths = simulatedMonths;
+    }
+
+    public InvestmentScenario getScenario() { return scenario; }
+    public boolean isInflationIndexed() { return inflationIndexed; }
+    public double getAnnualVolatility() { return annualVolatility; }
+    public int getPathCount() { return sortedMaxima.length; }
+
+    /**
+     * Months actually simulated; paths stop once no withdrawal can survive them.
+     */
+    public long getSimulatedMonths() { return simulatedMonths; }
+
+    /**
+     * Largest annual withdrawal that lasts on at least the given share of paths, e.g. 0.9.
+     */
+    public double getSustainableWithdrawal(double successRate) {
+        if (!(successRate > 0 && successRate <= 1)) {
+            throw new IllegalArgumentException("Success rate must be above 0 and at most 1.");
+        }
+        int n = sortedMaxima.length;
+        int index = (int) Math.min(n - 1, (long) Math.floor(n * (1 - successRate) + 1e-9));
+        return sortedMaxima[index];
+    }
+
+    /**
+     * Share of paths on which the given annual withdrawal lasts the whole plan.
+     */
+    public double getSuccessRate(double annualWithdrawal) {
+        int i = Arrays.binarySearch(sortedMaxima, annualWithdrawal);
+        if (i < 0) {
+            i = -i - 1;
+        } else {
+            while (i > 0 && sortedMaxima[i - 1] == annualWithdrawal) {
+                i--;
+            }
+        }
+        return (double) (sortedMaxima.length - i) / sortedMaxima.length;
+    }
+
+    public double getMedianWithdrawal() {
+        return getSustainableWithdrawal(0.5);
+    }
+}
@@ -0,0 +1,80 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveInvestmentEngineTest {
+
+    @Test
+    void testTypicalScenarioUsesDoublePath() {
+        System.out.println("\n=== Test: Adaptive Engine Fast Path ===");
+
+        AdaptiveInvestmentEngine engine = new AdaptiveInvestmentEngine();
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("20000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("12000"), 12, ContributionTiming.BEGINNING_OF_PERIOD);
+
+        InvestmentResult adaptive = engine.calculateInvestment(scenario);
+        InvestmentResult precise = new FinalInvestmentEngine().calculateInvestment(scenario);
+
+        System.out.printf("Adaptive: $%s, precise: $%s (verified %d, fallback %d)%n",
+            cents(adaptive.getEndBalance()), cents(precise.getEndBalance()),
+            engine.getVerifiedRuns(), engine.getFallbackRuns());
+
+        assertEquals(1, engine.getVerifiedRuns());
+        assertEquals(0, engine.getFallbackRuns());
+        assertSameCents(precise, adaptive);
+    }
+
+    @Test
+    void testValueOnRoundingBoundaryFallsBackToBigDecimal() {
+        System.out.println("\n=== Test: Adaptive Engine Fallback ===");
+
+        // 148.14 / 12 = 12.345 exactly: every monthly contribution sits on a half-cent boundary
+        AdaptiveInvestmentEngine engine = new AdaptiveInvestmentEngine();
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("1000"), 2, new BigDecimal("5"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("148.14"), 12, ContributionTiming.END_OF_PERIOD);
+
+        InvestmentResult adaptive = engine.calculateInvestment(scenario);
+        InvestmentResult precise = new FinalInvestmentEngine().calculateInvestment(scenario);
+
+        System.out.printf("Verified %d, fallback %d%n", engine.getVerifiedRuns(), engine.getFallbackRuns());
+        assertEquals(0, engine.getVerifiedRuns());
+        assertEquals(1, engine.getFallbackRuns());
+        assertEquals(precise.getEndBalance(), adaptive.getEndBalance(), "Fallback result should be the precise one");
+        assertSameCents(precise, adaptive);
+    }
+
+    @Test
+    void testCentSafetyCheck() {
+        System.out.println("\n=== Test: Cent Safety Check ===");
+
+        assertTrue(AdaptiveInvestmentEngine.isCentSafe(100.00, 1e-9));
+        assertTrue(AdaptiveInvestmentEngine.isCentSafe(-42.4912, 1e-6));
+        assertFalse(AdaptiveInvestmentEngine.isCentSafe(12.345, 0.0), "Exact half cent is ambiguous");
+        assertFalse(AdaptiveInvestmentEngine.isCentSafe(12.3449, 1e-3), "Bound reaches the boundary");
+        assertFalse(AdaptiveInvestmentEngine.isCentSafe(1e15, 0.0), "Too large to resolve cents");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    private static BigDecimal cents(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static void assertSameCents(InvestmentResult expected, InvestmentResult actual) {
+        assertEquals(cents(expected.getEndBalance()), cents(actual.getEndBalance()));
+        assertEquals(cents(expected.getTotalContributions()), cents(actual.getTotalContributions()));
+        assertEquals(cents(expected.getTotalInterest()), cents(actual.getTotalInterest()));
+        List<MonthlyData> e = expected.getMonthlyData();
+        List<MonthlyData> a = actual.getMonthlyData();
+        assertEquals(e.size(), a.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertEquals(cents(e.get(i).getEndBalance()), cents(a.get(i).getEndBalance()), e.get(i).getMonth());
+            assertEquals(cents(e.get(i).getInterestEarned()), cents(a.get(i).getInterestEarned()), e.get(i).getMonth());
+        }
+    }
+}
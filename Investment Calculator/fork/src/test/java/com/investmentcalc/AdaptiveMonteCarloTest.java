@@ -0,0 +1,108 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveMonteCarloTest {
+
+    private static InvestmentScenario retirement() {
+        return new InvestmentScenario(new BigDecimal("1000000"), 30, new BigDecimal("5"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("-60000"), 12, ContributionTiming.BEGINNING_OF_PERIOD);
+    }
+
+    @Test
+    void testStopsWhenDepletionProbabilityIsPrecise() {
+        System.out.println("\n=== Test: Adaptive Monte Carlo Convergence ===");
+
+        AdaptiveMonteCarlo adaptive = new AdaptiveMonteCarlo(
+            new MonteCarloSimulator(0.12, SamplingMethod.ANTITHETIC, true));
+        AdaptiveMonteCarlo.Result loose = adaptive.run(retirement(), MonteCarloStatistic.DEPLETION_PROBABILITY, 0.01, 60_000, 1L);
+        AdaptiveMonteCarlo.Result tight = adaptive.run(retirement(), MonteCarloStatistic.DEPLETION_PROBABILITY, 0.0025, 60_000, 1L);
+
+        System.out.println("Loose: " + loose);
+        System.out.println("Tight: " + tight);
+
+        assertEquals(AdaptiveMonteCarlo.StopReason.CONVERGED, loose.getStopReason());
+        assertEquals(AdaptiveMonteCarlo.StopReason.CONVERGED, tight.getStopReason());
+        assertTrue(1.96 * tight.getEstimate().getStandardError() <= 0.0025);
+        assertTrue(tight.getPathCount() > loose.getPathCount(), "A tighter tolerance needs more paths");
+        assertEquals(0, tight.getPathCount() % AdaptiveMonteCarlo.DEFAULT_BATCH_PATHS);
+        assertEquals(tight.getEstimate().getValue(),
+            tight.getResult().getStatistic(MonteCarloStatistic.DEPLETION_PROBABILITY).getValue(), 1e-12);
+        assertEquals(loose.getEstimate().getValue(), tight.getEstimate().getValue(), 0.01 + 0.0025);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testMedianEndBalance() {
+        System.out.println("\n=== Test: Adaptive Monte Carlo Median ===");
+
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("20000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12, ContributionTiming.END_OF_PERIOD);
+        AdaptiveMonteCarlo adaptive = new AdaptiveMonteCarlo(new MonteCarloSimulator(0.15, SamplingMethod.SOBOL, true));
+        AdaptiveMonteCarlo.Result result = adaptive.run(scenario, MonteCarloStatistic.MEDIAN_END_BALANCE, 2000, 60_000, 3L);
+
+        System.out.println(result);
+        assertEquals(AdaptiveMonteCarlo.StopReason.CONVERGED, result.getStopReason());
+        assertEquals(result.getEstimate().getValue(), result.getResult().getMedianEndBalance(), 1e-6);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testBudgetsStopTheRun() {
+        System.out.println("\n=== Test: Adaptive Monte Carlo Budgets ===");
+
+        AdaptiveMonteCarlo unlimited = new AdaptiveMonteCarlo(new MonteCarloSimulator(0.12));
+        AdaptiveMonteCarlo.Result timed = unlimited.run(retirement(), MonteCarloStatistic.DEPLETION_PROBABILITY, 1e-9, 100, 1L);
+        System.out.println("Time budget: " + timed);
+        assertEquals(AdaptiveMonteCarlo.StopReason.TIME_BUDGET, timed.getStopReason());
+
+        AdaptiveMonteCarlo limited = new AdaptiveMonteCarlo(new MonteCarloSimulator(0.12), 256, 256 * 48);
+        AdaptiveMonteCarlo.Result capped = limited.run(retirement(), MonteCarloStatistic.DEPLETION_PROBABILITY, 1e-9, 60_000, 1L);
+        System.out.println("Path limit: " + capped);
+        assertEquals(AdaptiveMonteCarlo.StopReason.PATH_LIMIT, capped.getStopReason());
+        assertEquals(256 * 48, capped.getPathCount());
+
+        // A limit that is not a whole number of rounds is still never exceeded
+        AdaptiveMonteCarlo small = new AdaptiveMonteCarlo(new MonteCarloSimulator(0.12), 1024, 5000);
+        AdaptiveMonteCarlo.Result exact = small.run(retirement(), MonteCarloStatistic.MEDIAN_END_BALANCE, 1e-9, 60_000, 1L);
+        System.out.println("Uneven path limit: " + exact);
+        assertEquals(AdaptiveMonteCarlo.StopReason.PATH_LIMIT, exact.getStopReason());
+        assertEquals(5000, exact.getPathCount());
+        assertEquals(1, exact.getRounds());
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testRunMatchesKeepingEveryBatch() {
+        System.out.println("\n=== Test: Adaptive Run Keeps Only Small Replicates ===");
+
+        // The same batches as the adaptive run, kept whole and combined at the end
+        MonteCarloSimulator simulator = new MonteCarloSimulator(0.12, SamplingMethod.ANTITHETIC, true);
+        AdaptiveMonteCarlo adaptive = new AdaptiveMonteCarlo(simulator, 256, 256 * 32);
+        AdaptiveMonteCarlo.Result run = adaptive.run(retirement(), MonteCarloStatistic.DEPLETION_PROBABILITY, 1e-9, 60_000, 5L);
+
+        SplittableRandom root = new SplittableRandom(5L);
+        List<MonteCarloSimulator.ChunkResult> batches = new ArrayList<>();
+        for (int b = 0; b < 32; b++) {
+            batches.add(simulator.simulateChunk(retirement(), 256, root.split()));
+        }
+        MonteCarloResult whole = simulator.buildResult(retirement(), batches);
+
+        System.out.println("Adaptive: " + run);
+        assertEquals(whole.getPathCount(), run.getPathCount());
+        assertEquals(whole.getMedianEndBalance(), run.getResult().getMedianEndBalance(), 1e-9);
+        for (MonteCarloStatistic statistic : MonteCarloStatistic.values()) {
+            assertEquals(whole.getStatistic(statistic).getValue(), run.getResult().getStatistic(statistic).getValue(), 1e-9);
+            assertEquals(whole.getStatistic(statistic).getStandardError(),
+                run.getResult().getStatistic(statistic).getStandardError(), 1e-9);
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,106 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BacktestEngineTest {
+
+    private static InvestmentScenario scenario(int years) {
+        return new InvestmentScenario(new BigDecimal("10000"), years, new BigDecimal("6"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("1200"), 12, ContributionTiming.END_OF_PERIOD);
+    }
+
+    @Test
+    void testConstantHistoryMatchesFixedRateEngine() throws Exception {
+        System.out.println("\n=== Test: Backtest With Constant Returns ===");
+
+        InvestmentScenario scenario = scenario(20);
+        double monthly = scenario.getFactors().getMonthlyInterestFactorAsDouble();
+        double[][] returns = new double[scenario.getTotalMonths()][1];
+        for (double[] month : returns) {
+            month[0] = monthly;
+        }
+
+        try (ReturnSeries series = ReturnSeries.of(2000, 1, returns)) {
+            BacktestEngine engine = new BacktestEngine(series, 0, 0);
+            InvestmentResult backtest = engine.calculateInvestment(scenario);
+            InvestmentResult fixed = new FastInvestmentEngine().calculateInvestment(scenario);
+
+            System.out.println("Backtest end balance: " + backtest.getEndBalance());
+            System.out.println("Fixed-rate end balance: " + fixed.getEndBalance());
+            assertEquals(fixed.getEndBalance(), backtest.getEndBalance());
+            assertEquals(fixed.getTotalInterest(), backtest.getTotalInterest());
+            assertEquals(20, backtest.getYearlyData().size());
+            assertEquals(fixed.getEndBalance().doubleValue(), engine.calculateEndBalance(scenario), 1e-6);
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testBinaryFileRoundTripAndPortfolio(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Memory-Mapped Return Series ===");
+
+        double[][] returns = {
+            {0.01, -0.02}, {0.03, 0.00}, {-0.05, 0.01}, {0.02, 0.02}
+        };
+        Path file = tempDir.resolve("returns.bin");
+        ReturnSeries.write(file, 1987, 10, returns);
+
+        try (ReturnSeries series = ReturnSeries.open(file)) {
+            System.out.printf("Assets: %d, months: %d, from %s%n",
+                series.getAssetCount(), series.getMonthCount(), series.getMonthLabel(0));
+            assertEquals(2, series.getAssetCount());
+            assertEquals(4, series.getMonthCount());
+            assertEquals("1987-10", series.getMonthLabel(0));
+            assertEquals("1988-01", series.getMonthLabel(3));
+            assertEquals(-0.05, series.getReturn(2, 0));
+            assertEquals(0.6 * 0.03 + 0.4 * 0.00, series.getPortfolioReturn(1, new double[]{0.6, 0.4}), 1e-15);
+            assertTrue(Arrays.deepEquals(returns, series.toArray()));
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testCsvConversion(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: CSV Return Series Conversion ===");
+
+        Path csv = tempDir.resolve("returns.csv");
+        Files.write(csv, Arrays.asList("Date,Stocks,Bonds", "2001-01,0.0125,0.004", "2001-02,-0.031,0.006"),
+            StandardCharsets.UTF_8);
+        Path binary = tempDir.resolve("returns.bin");
+        ReturnSeries.convertCsv(csv, binary);
+
+        try (ReturnSeries fromCsv = ReturnSeries.open(csv); ReturnSeries mapped = ReturnSeries.open(binary)) {
+            assertEquals(2001, mapped.getStartYear());
+            assertEquals(1, mapped.getStartMonth());
+            assertTrue(Arrays.deepEquals(fromCsv.toArray(), mapped.toArray()));
+            assertEquals(-0.031, mapped.getReturn(1, 0));
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testHistoryTooShortIsRejected() {
+        System.out.println("\n=== Test: Backtest Coverage Check ===");
+
+        double[][] returns = new double[24][1];
+        ReturnSeries series = ReturnSeries.of(2010, 1, returns);
+        BacktestEngine engine = new BacktestEngine(series, 0, 12);
+
+        assertEquals(13, engine.getAvailableStartCount(scenario(1)));
+        assertNotNull(engine.calculateInvestment(scenario(1)));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> engine.calculateInvestment(scenario(2)));
+        System.out.println("Message: " + e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new BacktestEngine(series, new double[]{0.5, 0.5}, 0));
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,69 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchChartRendererTest {
+
+    private static List<InvestmentResult> clientResults(int count) {
+        FastInvestmentEngine engine = new FastInvestmentEngine();
+        List<InvestmentResult> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(engine.calculateInvestment(new InvestmentScenario(new BigDecimal(10000 + 100 * i), 10 + i % 30,
+                new BigDecimal(2 + i % 9), CompoundingFrequency.MONTHLY, new BigDecimal(1200 * (i % 10)), 12,
+                ContributionTiming.END_OF_PERIOD)));
+        }
+        return results;
+    }
+
+    @Test
+    void testBatchMatchesSingleRenders(@TempDir Path directory) throws Exception {
+        System.out.println("\n=== Test: Batch Chart Rendering ===");
+
+        List<InvestmentResult> results = clientResults(80);
+        BatchChartRenderer renderer = new BatchChartRenderer(800, 500);
+        renderer.render(clientResults(10), "USD", directory.resolve("warm-up"));
+
+        BatchRenderReport report = renderer.render(results, "EUR", directory.resolve("reports"));
+        System.out.println(report);
+        assertEquals(80, report.getChartCount());
+        assertTrue(report.getParallelism() >= 1 && report.getParallelism() <= Runtime.getRuntime().availableProcessors() + 1);
+        assertTrue(report.getChartsPerSecond() > 0);
+
+        long bytes = 0;
+        for (int i = 0; i < results.size(); i++) {
+            Path file = directory.resolve("reports").resolve(BatchChartRenderer.fileName(i, results.size()));
+            assertTrue(Files.exists(file), file.toString());
+            bytes += Files.size(file);
+        }
+        assertEquals(report.getTotalBytes(), bytes);
+        assertEquals("chart-0001.png", BatchChartRenderer.fileName(0, 200));
+        assertEquals("chart-12345.png", BatchChartRenderer.fileName(12344, 20000));
+
+        // A reused buffer holds nothing of the previous chart: the file is the chart drawn on its own
+        for (int i : new int[] {0, 57, 79}) {
+            BufferedImage written = ImageIO.read(directory.resolve("reports").resolve(BatchChartRenderer.fileName(i, 80)).toFile());
+            BufferedImage alone = InvestmentChartPanel.createInvestmentChart(results.get(i), "EUR").createBufferedImage(800, 500);
+            assertEquals(800, written.getWidth());
+            assertEquals(500, written.getHeight());
+            for (int y = 0; y < 500; y += 7) {
+                for (int x = 0; x < 800; x += 7) {
+                    assertEquals(alone.getRGB(x, y) & 0xFFFFFF, written.getRGB(x, y) & 0xFFFFFF);
+                }
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new BatchChartRenderer(0, 500));
+        System.out.println("Result: ✅ PASS");
+    }
+}
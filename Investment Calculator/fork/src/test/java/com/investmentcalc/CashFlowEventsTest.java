@@ -0,0 +1,127 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CashFlowEventsTest {
+
+    private static InvestmentScenario scenario(int years, int contributionsPerYear, ContributionTiming timing,
+                                               CashFlowEvents events) {
+        return new InvestmentScenario(new BigDecimal("25000"), years, new BigDecimal("6.5"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("6000"), contributionsPerYear, timing, events);
+    }
+
+    private static CashFlowEvents lifeEvents() {
+        return CashFlowEvents.of(
+            CashFlowEvent.withdrawal(150, new BigDecimal("40000")),       // house deposit
+            CashFlowEvent.pauseContributions(151),
+            CashFlowEvent.resumeContributions(175),
+            CashFlowEvent.lumpSum(61, new BigDecimal("15000")),           // inheritance
+            CashFlowEvent.setAnnualContribution(241, new BigDecimal("12000")));
+    }
+
+    @Test
+    void testEventsChangeMonthlyContributions() {
+        System.out.println("\n=== Test: Cash-Flow Events Resolve Into Contributions ===");
+
+        InvestmentScenario scenario = scenario(30, 12, ContributionTiming.END_OF_PERIOD, lifeEvents());
+        System.out.println(scenario);
+
+        assertEquals(61, scenario.getEvents().getEvents().get(0).getMonth(), "events are sorted by month");
+        assertEquals(150, scenario.getEvents().nextEventMonth(61));
+        assertEquals(Integer.MAX_VALUE, scenario.getEvents().nextEventMonth(241));
+
+        assertEquals(0, new BigDecimal("500").compareTo(scenario.getContributionForMonth(1)));
+        assertEquals(0, new BigDecimal("15500").compareTo(scenario.getContributionForMonth(61)));
+        assertEquals(0, new BigDecimal("-39500").compareTo(scenario.getContributionForMonth(150)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(scenario.getContributionForMonth(151)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(scenario.getContributionForMonth(174)));
+        assertEquals(0, new BigDecimal("500").compareTo(scenario.getContributionForMonth(175)));
+        assertEquals(0, new BigDecimal("1000").compareTo(scenario.getContributionForMonth(241)));
+        assertEquals(1000.0, scenario.getContributionForMonthAsDouble(360));
+        assertEquals(-39500.0, scenario.getContributionForMonthAsDouble(150));
+
+        // Quarterly plans keep their quarter months after a raise
+        InvestmentScenario quarterly = scenario(30, 4, ContributionTiming.END_OF_PERIOD,
+            CashFlowEvents.of(CashFlowEvent.setAnnualContribution(13, new BigDecimal("8000"))));
+        assertEquals(0, new BigDecimal("1500").compareTo(quarterly.getContributionForMonth(10)));
+        assertEquals(0, new BigDecimal("2000").compareTo(quarterly.getContributionForMonth(13)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(quarterly.getContributionForMonth(14)));
+
+        // Events past the horizon are ignored, and withYears keeps the events
+        assertEquals(0, scenario.withYears(5).getContributionForMonth(60).compareTo(new BigDecimal("500")));
+        assertTrue(scenario.withYears(40).hasEvents());
+
+        assertThrows(IllegalArgumentException.class, () -> CashFlowEvent.lumpSum(0, BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> CashFlowEvent.withdrawal(5, new BigDecimal("-1")));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testEnginesAgreeWithEvents() {
+        System.out.println("\n=== Test: Engines Agree On Plans With Events ===");
+
+        ClosedFormInvestmentEngine closedForm = new ClosedFormInvestmentEngine();
+        for (ContributionTiming timing : ContributionTiming.values()) {
+            for (int perYear : new int[] {1, 4, 12, 26}) {
+                InvestmentScenario scenario = scenario(30, perYear, timing, lifeEvents());
+                InvestmentResult precise = new FinalInvestmentEngine().calculateInvestment(scenario);
+                InvestmentResult fast = new FastInvestmentEngine().calculateInvestment(scenario);
+                InvestmentResult adaptive = new AdaptiveInvestmentEngine().calculateInvestment(scenario);
+                InvestmentResult summary = closedForm.calculateInvestment(scenario);
+                double jump = closedForm.calculateEndBalance(scenario);
+                double expected = precise.getEndBalance().doubleValue();
+
+                System.out.printf("%-20s x%-3d precise %.2f, closed-form %.2f, jump-ahead %.2f%n",
+                    timing.getLabel(), perYear, expected, summary.getEndBalance().doubleValue(), jump);
+                assertEquals(0, precise.getEndBalance().setScale(2, RoundingMode.HALF_UP)
+                    .compareTo(adaptive.getEndBalance().setScale(2, RoundingMode.HALF_UP)));
+                assertEquals(expected, fast.getEndBalance().doubleValue(), 0.005);
+                assertEquals(expected, summary.getEndBalance().doubleValue(), Math.abs(expected) * 1e-10);
+                assertEquals(expected, jump, Math.abs(expected) * 1e-10);
+                assertEquals(precise.getTotalContributions().doubleValue(),
+                    summary.getTotalContributions().doubleValue(), 0.005);
+                for (int y = 0; y < 30; y++) {
+                    assertEquals(precise.getYearlyData().get(y).getContributions().doubleValue(),
+                        summary.getYearlyData().get(y).getContributions().doubleValue(), 0.005);
+                }
+            }
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testJumpAheadCostFollowsEventsNotMonths() {
+        System.out.println("\n=== Test: Jump-Ahead Cost Scales With Events ===");
+
+        long sixtyYears = steps(scenario(60, 12, ContributionTiming.BEGINNING_OF_PERIOD, lifeEvents()));
+        long hundredYears = steps(scenario(100, 12, ContributionTiming.BEGINNING_OF_PERIOD, lifeEvents()));
+        long noEvents = steps(scenario(100, 12, ContributionTiming.BEGINNING_OF_PERIOD, CashFlowEvents.NONE));
+
+        List<CashFlowEvent> many = new ArrayList<>();
+        for (int year = 1; year < 60; year += 2) {
+            many.add(CashFlowEvent.lumpSum(year * 12 + 7, new BigDecimal("1000")));
+        }
+        long manyEvents = steps(scenario(60, 12, ContributionTiming.BEGINNING_OF_PERIOD, CashFlowEvents.of(many)));
+
+        System.out.printf("Steps: no events %d, 5 events over 60y %d, over 100y %d, 30 events over 60y %d%n",
+            noEvents, sixtyYears, hundredYears, manyEvents);
+        assertTrue(noEvents < 30, "an event-free plan is one power of the yearly map");
+        assertTrue(sixtyYears < 300, "a few events cost far less than 720 months");
+        assertTrue(hundredYears - sixtyYears < 20, "a longer horizon adds only a logarithmic term");
+        assertTrue(manyEvents > 3 * sixtyYears, "cost grows with the number of events");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    private static long steps(InvestmentScenario scenario) {
+        ClosedFormInvestmentEngine engine = new ClosedFormInvestmentEngine();
+        engine.calculateEndBalance(scenario);
+        return engine.getEndBalanceSteps();
+    }
+}
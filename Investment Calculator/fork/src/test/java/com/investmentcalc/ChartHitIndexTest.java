@@ -0,0 +1,91 @@
+package com.investmentcalc;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.entity.ChartEntity;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.XYItemEntity;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChartHitIndexTest {
+
+    /**
+     * The linear scan the index replaces: the last item entity containing the point.
+     */
+    private static XYItemEntity scan(EntityCollection entities, double x, double y) {
+        for (int i = entities.getEntityCount() - 1; i >= 0; i--) {
+            ChartEntity entity = entities.getEntity(i);
+            if (entity instanceof XYItemEntity && entity.getArea().contains(x, y)) {
+                return (XYItemEntity) entity;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void testLookupsMatchLinearScan() {
+        System.out.println("\n=== Test: Chart Hit Index Matches Entity Scan ===");
+
+        // Five scenarios of 50 years of monthly balances
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int s = 0; s < 5; s++) {
+            XYSeries series = new XYSeries("Scenario " + (s + 1));
+            double balance = 10000;
+            for (int month = 0; month < 6000; month++) {
+                balance *= 1 + 0.005 + 0.04 * (random.nextDouble() - 0.5);
+                series.add(month / 12.0, balance);
+            }
+            dataset.addSeries(series);
+        }
+        JFreeChart chart = ChartFactory.createXYLineChart("Hit Test", "Years", "Balance", dataset,
+            PlotOrientation.VERTICAL, true, true, false);
+        ChartRenderingInfo info = new ChartRenderingInfo();
+        chart.createBufferedImage(1920, 1080, info);
+        EntityCollection entities = info.getEntityCollection();
+
+        long start = System.nanoTime();
+        ChartHitIndex index = ChartHitIndex.build(entities);
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+        assertEquals(30000, index.getEntityCount());
+
+        // The centre of every item, and random points across the whole image
+        int lookups = 0;
+        for (int i = 0; i < entities.getEntityCount(); i += 7) {
+            Rectangle2D bounds = entities.getEntity(i).getArea().getBounds2D();
+            assertSame(scan(entities, bounds.getCenterX(), bounds.getCenterY()),
+                index.getItemAt(bounds.getCenterX(), bounds.getCenterY()));
+            lookups++;
+        }
+        double[][] points = new double[2000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {random.nextDouble() * 1920, random.nextDouble() * 1080};
+            assertSame(scan(entities, points[i][0], points[i][1]), index.getItemAt(points[i][0], points[i][1]));
+        }
+        assertNull(index.getItemAt(-50, -50));
+
+        start = System.nanoTime();
+        for (double[] point : points) {
+            entities.getEntity(point[0], point[1]);
+        }
+        double scanMicros = (System.nanoTime() - start) / 1e3 / points.length;
+        start = System.nanoTime();
+        for (double[] point : points) {
+            index.getItemAt(point[0], point[1]);
+        }
+        double indexMicros = (System.nanoTime() - start) / 1e3 / points.length;
+        System.out.printf("%d entities, %d item lookups checked; build %.1f ms, lookup %.2f us vs scan %.1f us%n",
+            entities.getEntityCount(), lookups + points.length, buildMillis, indexMicros, scanMicros);
+        assertTrue(indexMicros < scanMicros);
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,276 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Randomized differential harness: runs every registered engine against the BigDecimal
+ * reference (FinalInvestmentEngine) on the same seeded scenarios, reports the worst-case
+ * divergence per output field and compares throughput.
+ *
+ * The JUnit test runs a moderate sample. For longer runs use main, e.g.
+ * {@code -Ddifferential.seed=42 -Ddifferential.scenarios=20000 -Ddifferential.engines=fast}.
+ */
+public class EngineDifferentialTest {
+
+    private static final String[] FREQUENCIES = {"Annually", "Quarterly", "Monthly", "Weekly", "Daily"};
+
+    // Cent agreement is required wherever a double can still resolve cents comfortably
+    private static final double CENT_CHECKED_MAGNITUDE = 1e9;
+    private static final double MAX_ABSOLUTE_DIVERGENCE = 0.005;
+    private static final double MAX_RELATIVE_DIVERGENCE = 1e-9;
+    // Engines that promise identical cent-rounded output everywhere, not just below 1e9
+    private static final List<String> CENT_EXACT_ENGINES = Arrays.asList(AdaptiveInvestmentEngine.NAME);
+
+    @Test
+    void testCandidateEnginesAgreeWithReference() {
+        System.out.println("\n=== Test: Differential Accuracy vs FinalInvestmentEngine ===");
+
+        long seed = Long.getLong("differential.seed", 20251118L);
+        int count = Integer.getInteger("differential.scenarios", 300);
+        List<String> engines = candidateEngines();
+
+        Map<String, EngineReport> reports = run(seed, count, engines);
+        for (EngineReport report : reports.values()) {
+            report.print();
+        }
+
+        for (EngineReport report : reports.values()) {
+            for (FieldDivergence field : report.fields.values()) {
+                assertTrue(field.maxCheckedAbsolute <= MAX_ABSOLUTE_DIVERGENCE,
+                    report.engine + " " + field.name + " diverges by " + field.maxCheckedAbsolute + " in " + field.worstCheckedScenario);
+                assertTrue(field.maxRelative <= MAX_RELATIVE_DIVERGENCE,
+                    report.engine + " " + field.name + " relative divergence " + field.maxRelative + " in " + field.worstRelativeScenario);
+                if (CENT_EXACT_ENGINES.contains(report.engine)) {
+                    assertEquals(0, field.centMismatches, report.engine + " " + field.name + " cent mismatches");
+                }
+            }
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    public static void main(String[] args) {
+        long seed = Long.getLong("differential.seed", System.nanoTime());
+        int count = Integer.getInteger("differential.scenarios", 5000);
+        System.out.printf("Seed: %d, scenarios: %d%n", seed, count);
+        for (EngineReport report : run(seed, count, candidateEngines()).values()) {
+            report.print();
+        }
+    }
+
+    private static List<String> candidateEngines() {
+        String property = System.getProperty("differential.engines");
+        List<String> engines = new ArrayList<>();
+        if (property != null && !property.isEmpty()) {
+            for (String name : property.split(",")) {
+                engines.add(name.trim());
+            }
+        } else {
+            for (String name : InvestmentEngines.getNames()) {
+                if (!InvestmentEngines.PRECISE.equals(name)) {
+                    engines.add(name);
+                }
+            }
+        }
+        return engines;
+    }
+
+    static Map<String, EngineReport> run(long seed, int count, List<String> engines) {
+        List<Scenario> scenarios = generateScenarios(seed, count);
+
+        // Warm up every engine on a handful of scenarios so the timings compare compiled code
+        InvestmentEngine reference = InvestmentEngines.get(InvestmentEngines.PRECISE);
+        for (int i = 0; i < Math.min(20, scenarios.size()); i++) {
+            scenarios.get(i).run(reference);
+            for (String name : engines) {
+                scenarios.get(i).run(InvestmentEngines.get(name));
+            }
+        }
+
+        List<InvestmentResult> expected = new ArrayList<>(scenarios.size());
+        long referenceStart = System.nanoTime();
+        for (Scenario scenario : scenarios) {
+            expected.add(scenario.run(reference));
+        }
+        long referenceNanos = System.nanoTime() - referenceStart;
+
+        Map<String, EngineReport> reports = new LinkedHashMap<>();
+        for (String name : engines) {
+            InvestmentEngine engine = InvestmentEngines.get(name);
+            EngineReport report = new EngineReport(name, scenarios.size(), referenceNanos);
+
+            List<InvestmentResult> actual = new ArrayList<>(scenarios.size());
+            long start = System.nanoTime();
+            for (Scenario scenario : scenarios) {
+                actual.add(scenario.run(engine));
+            }
+            report.engineNanos = System.nanoTime() - start;
+
+            for (int i = 0; i < scenarios.size(); i++) {
+                report.compare(scenarios.get(i), expected.get(i), actual.get(i));
+            }
+            reports.put(name, report);
+        }
+        return reports;
+    }
+
+    private static List<Scenario> generateScenarios(long seed, int count) {
+        Random random = new Random(seed);
+        List<Scenario> scenarios = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Scenario s = new Scenario();
+            s.startingAmount = BigDecimal.valueOf(random.nextInt(100_000_000), 2); // 0 .. 1,000,000.00
+            s.years = 1 + random.nextInt(100);
+            s.annualReturnRate = BigDecimal.valueOf(random.nextInt(3501) - 1000, 2); // -10.00% .. 25.00%
+            s.compoundingFrequency = FREQUENCIES[random.nextInt(FREQUENCIES.length)];
+            // Half of the scenarios use the explicit contribution months, the rest anything in 0..365
+            int[] standard = {0, 1, 4, 12};
+            s.contributionsPerYear = random.nextBoolean()
+                ? standard[random.nextInt(standard.length)]
+                : random.nextInt(366);
+            int contribution = random.nextInt(5) == 0
+                ? -random.nextInt(5_000_000)  // withdrawals up to 50,000.00
+                : random.nextInt(10_000_000); // contributions up to 100,000.00
+            s.additionalContribution = BigDecimal.valueOf(contribution, 2);
+            s.contributeAtBeginning = random.nextBoolean();
+            scenarios.add(s);
+        }
+        return scenarios;
+    }
+
+    static final class Scenario {
+        BigDecimal startingAmount;
+        int years;
+        BigDecimal annualReturnRate;
+        String compoundingFrequency;
+        BigDecimal additionalContribution;
+        int contributionsPerYear;
+        boolean contributeAtBeginning;
+
+        InvestmentResult run(InvestmentEngine engine) {
+            return engine.calculateInvestment(startingAmount, years, annualReturnRate, compoundingFrequency,
+                additionalContribution, contributionsPerYear, contributeAtBeginning);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[start=%s, years=%d, rate=%s%%, %s, contribution=%s x%d, %s]",
+                startingAmount, years, annualReturnRate, compoundingFrequency,
+                additionalContribution, contributionsPerYear, contributeAtBeginning ? "beginning" : "end");
+        }
+    }
+
+    static final class FieldDivergence {
+        final String name;
+        double maxAbsolute;
+        double maxCheckedAbsolute;
+        double maxRelative;
+        long centMismatches;
+        long compared;
+        Scenario worstAbsoluteScenario;
+        Scenario worstCheckedScenario;
+        Scenario worstRelativeScenario;
+
+        FieldDivergence(String name) {
+            this.name = name;
+        }
+
+        void add(Scenario scenario, BigDecimal expected, BigDecimal actual) {
+            compared++;
+            double absolute = expected.subtract(actual).abs().doubleValue();
+            double magnitude = expected.abs().doubleValue();
+            double relative = magnitude > 1.0 ? absolute / magnitude : absolute;
+            if (absolute > maxAbsolute) {
+                maxAbsolute = absolute;
+                worstAbsoluteScenario = scenario;
+            }
+            if (magnitude <= CENT_CHECKED_MAGNITUDE && absolute > maxCheckedAbsolute) {
+                maxCheckedAbsolute = absolute;
+                worstCheckedScenario = scenario;
+            }
+            if (relative > maxRelative) {
+                maxRelative = relative;
+                worstRelativeScenario = scenario;
+            }
+            if (expected.setScale(2, RoundingMode.HALF_UP).compareTo(actual.setScale(2, RoundingMode.HALF_UP)) != 0) {
+                centMismatches++;
+            }
+        }
+    }
+
+    static final class EngineReport {
+        final String engine;
+        final int scenarios;
+        final long referenceNanos;
+        long engineNanos;
+        final Map<String, FieldDivergence> fields = new LinkedHashMap<>();
+
+        EngineReport(String engine, int scenarios, long referenceNanos) {
+            this.engine = engine;
+            this.scenarios = scenarios;
+            this.referenceNanos = referenceNanos;
+        }
+
+        private FieldDivergence field(String name) {
+            return fields.computeIfAbsent(name, FieldDivergence::new);
+        }
+
+        void compare(Scenario scenario, InvestmentResult expected, InvestmentResult actual) {
+            field("endBalance").add(scenario, expected.getEndBalance(), actual.getEndBalance());
+            field("totalContributions").add(scenario, expected.getTotalContributions(), actual.getTotalContributions());
+            field("totalInterest").add(scenario, expected.getTotalInterest(), actual.getTotalInterest());
+
+            List<YearlyData> expectedYears = expected.getYearlyData();
+            List<YearlyData> actualYears = actual.getYearlyData();
+            assertEquals(expectedYears.size(), actualYears.size(), engine + " yearly rows for " + scenario);
+            for (int i = 0; i < expectedYears.size(); i++) {
+                YearlyData e = expectedYears.get(i);
+                YearlyData a = actualYears.get(i);
+                field("yearly.contributions").add(scenario, e.getContributions(), a.getContributions());
+                field("yearly.interest").add(scenario, e.getInterestEarned(), a.getInterestEarned());
+                field("yearly.endBalance").add(scenario, e.getEndBalance(), a.getEndBalance());
+            }
+
+            // Summary engines legitimately skip the monthly schedule
+            List<MonthlyData> actualMonths = actual.getMonthlyData();
+            if (actualMonths != null && !actualMonths.isEmpty()) {
+                List<MonthlyData> expectedMonths = expected.getMonthlyData();
+                assertEquals(expectedMonths.size(), actualMonths.size(), engine + " monthly rows for " + scenario);
+                for (int i = 0; i < expectedMonths.size(); i++) {
+                    MonthlyData e = expectedMonths.get(i);
+                    MonthlyData a = actualMonths.get(i);
+                    field("monthly.contributions").add(scenario, e.getContributions(), a.getContributions());
+                    field("monthly.interest").add(scenario, e.getInterestEarned(), a.getInterestEarned());
+                    field("monthly.endBalance").add(scenario, e.getEndBalance(), a.getEndBalance());
+                }
+            }
+        }
+
+        void print() {
+            System.out.printf("%nEngine: %s (%d scenarios)%n", engine, scenarios);
+            System.out.printf("%-22s %14s %14s %12s %16s%n", "Field", "Max |diff|", "Checked |diff|", "Max rel", "Cent mismatches");
+            for (FieldDivergence f : fields.values()) {
+                System.out.printf("%-22s %14.3e %14.3e %12.3e %9d / %d%n",
+                    f.name, f.maxAbsolute, f.maxCheckedAbsolute, f.maxRelative, f.centMismatches, f.compared);
+            }
+            FieldDivergence end = fields.get("endBalance");
+            if (end != null && end.worstAbsoluteScenario != null) {
+                System.out.println("Worst end balance scenario: " + end.worstAbsoluteScenario);
+            }
+            double referenceRate = scenarios / (referenceNanos / 1e9);
+            double engineRate = scenarios / (engineNanos / 1e9);
+            System.out.printf("Throughput: reference %.0f scenarios/s, %s %.0f scenarios/s (%.1fx)%n",
+                referenceRate, engine, engineRate, engineRate / referenceRate);
+        }
+    }
+}
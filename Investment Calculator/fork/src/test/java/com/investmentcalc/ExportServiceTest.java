@@ -0,0 +1,215 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ExportServiceTest {
+
+    private static InvestmentResult result() {
+        return new FinalInvestmentEngine().calculateInvestment(new InvestmentScenario(new BigDecimal("10000"), 100,
+            new BigDecimal("6"), CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12,
+            ContributionTiming.END_OF_PERIOD));
+    }
+
+    private static List<String> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void awaitIdle(ExportService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (service.getPendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Export did not stop");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testCsvExportOffTheCallingThread(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Asynchronous CSV Export ===");
+
+        InvestmentResult result = result();
+        StringWriter expected = new StringWriter();
+        CsvExporter.writeScheduleCsv(result, true, expected);
+
+        ExportService service = new ExportService();
+        List<int[]> progress = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        Path target = tempDir.resolve("monthly.csv");
+        Future<Path> export = service.exportScheduleCsv(result, true, target, new ExportService.Listener() {
+            @Override
+            public void progress(int done, int total) {
+                progress.add(new int[] {done, total});
+                threads.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void finished(Future<Path> completed) {
+                finished.countDown();
+            }
+        });
+
+        assertEquals(target.toAbsolutePath(), export.get(30, TimeUnit.SECONDS));
+        assertTrue(finished.await(30, TimeUnit.SECONDS));
+        System.out.println("Progress reports: " + progress.size() + " on " + threads.get(0));
+        assertEquals(expected.toString(), new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertEquals(1200 / ExportService.PROGRESS_ROWS, progress.size());
+        assertArrayEquals(new int[] {1200, 1200}, progress.get(progress.size() - 1));
+        assertTrue(threads.get(0).startsWith("export-io-"));
+
+        Path report = tempDir.resolve("results.txt");
+        service.saveResultsText(result, report, null).get(30, TimeUnit.SECONDS);
+        assertTrue(new String(Files.readAllBytes(report), StandardCharsets.UTF_8).contains("INVESTMENT CALCULATION RESULTS"));
+
+        assertEquals(List.of("monthly.csv", "results.txt"), files(tempDir), "No temporary files are left behind");
+        service.shutdown();
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testCancelledOrFailedExportKeepsPreviousFile(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Cancelled Export Never Leaves a Partial File ===");
+
+        ExportService service = new ExportService(1, 1);
+        Path target = tempDir.resolve("schedule.csv");
+        Files.write(target, "previous export\n".getBytes(StandardCharsets.UTF_8));
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        Future<Path> slow = service.submit(target, null, (file, listener) -> {
+            Files.write(file, "half a schedule".getBytes(StandardCharsets.UTF_8));
+            writing.countDown();
+            try {
+                never.await(); // a drive that stopped responding
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ExportService.rowWritten(100, 1200, listener);
+        });
+        assertTrue(writing.await(30, TimeUnit.SECONDS));
+        System.out.println("While writing: " + files(tempDir));
+        assertEquals(2, files(tempDir).size());
+        assertEquals("previous export\n", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+        // One export waits in the queue; the queue is full for the next one
+        Future<Path> queued = service.submit(tempDir.resolve("queued.csv"), null, (file, listener) -> { });
+        assertThrows(RejectedExecutionException.class,
+            () -> service.submit(tempDir.resolve("rejected.csv"), null, (file, listener) -> { }));
+
+        assertTrue(slow.cancel(true));
+        assertThrows(CancellationException.class, slow::get);
+        queued.get(30, TimeUnit.SECONDS);
+        awaitIdle(service);
+
+        Future<Path> failing = service.submit(target, null, (file, listener) -> {
+            Files.write(file, "broken".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Network drive disconnected");
+        });
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.get(30, TimeUnit.SECONDS));
+        System.out.println("Failure: " + failure.getCause().getMessage());
+        awaitIdle(service);
+
+        System.out.println("After: " + files(tempDir));
+        assertEquals(List.of("queued.csv", "schedule.csv"), files(tempDir));
+        assertEquals("previous export\n", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        service.shutdown();
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testExportKeepsFilePermissions(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Exported Files Get Normal Permissions ===");
+        assumeTrue(Files.getFileStore(tempDir).supportsFileAttributeView(PosixFileAttributeView.class));
+
+        ExportService service = new ExportService();
+        Path reference = Files.createFile(tempDir.resolve("reference.csv"));
+        Path target = tempDir.resolve("new.csv");
+        service.exportScheduleCsv(result(), false, target, null).get(30, TimeUnit.SECONDS);
+        System.out.println("New export: " + PosixFilePermissions.toString(Files.getPosixFilePermissions(target)));
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(target));
+
+        // Overwriting keeps the permissions of the file replaced
+        Path shared = tempDir.resolve("shared.csv");
+        Files.write(shared, "previous export\n".getBytes(StandardCharsets.UTF_8));
+        Set<PosixFilePermission> groupReadable = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(shared, groupReadable);
+        service.exportScheduleCsv(result(), false, shared, null).get(30, TimeUnit.SECONDS);
+        assertEquals(groupReadable, Files.getPosixFilePermissions(shared));
+
+        // A cancel after the last row still stops the export before the move
+        Future<Path> cancelled = service.submit(shared, null, (file, listener) -> {
+            Files.write(file, "complete but cancelled".getBytes(StandardCharsets.UTF_8));
+            Thread.currentThread().interrupt();
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> cancelled.get(30, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof InterruptedIOException);
+        awaitIdle(service);
+        assertTrue(new String(Files.readAllBytes(shared), StandardCharsets.UTF_8).startsWith("Year,"));
+        assertEquals(List.of("new.csv", "reference.csv", "shared.csv"), files(tempDir));
+        service.shutdown();
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testCancelAndCommitExcludeEachOther() throws Exception {
+        System.out.println("\n=== Test: Cancel Never Races The Final Move ===");
+
+        ExportService.Listener quiet = new ExportService.Listener() {
+        };
+        List<Boolean> commits = new CopyOnWriteArrayList<>();
+        ExportService.ExportTask committed = new ExportService.ExportTask(task -> {
+            commits.add(task.beginCommit());
+            return null;
+        }, quiet);
+        committed.run();
+        assertFalse(committed.cancel(true), "A committed export cannot be cancelled");
+        assertFalse(committed.isCancelled());
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ExportService.ExportTask late = new ExportService.ExportTask(task -> {
+            started.countDown();
+            cancelled.await(30, TimeUnit.SECONDS);
+            commits.add(task.beginCommit());
+            return null;
+        }, quiet);
+        Thread runner = new Thread(late);
+        runner.start();
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        assertTrue(late.cancel(false));
+        cancelled.countDown();
+        runner.join(30_000);
+
+        System.out.println("Commits: " + commits);
+        assertEquals(List.of(true, false), commits);
+        assertTrue(late.isCancelled());
+        System.out.println("Result: ✅ PASS");
+    }
+}
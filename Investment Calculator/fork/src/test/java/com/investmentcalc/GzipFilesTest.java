@@ -0,0 +1,162 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GzipFilesTest {
+
+    private static InvestmentResult result() {
+        return new FinalInvestmentEngine().calculateInvestment(new InvestmentScenario(new BigDecimal("10000"), 100,
+            new BigDecimal("6"), CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12,
+            ContributionTiming.END_OF_PERIOD));
+    }
+
+    @Test
+    void testCompressedScheduleRoundTrip(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Compressed CSV Export ===");
+
+        InvestmentResult result = result();
+        Path plain = tempDir.resolve("monthly.csv");
+        Path compressed = tempDir.resolve("monthly.csv.gz");
+        CsvExporter.writeScheduleCsvToFile(result, true, plain.toFile());
+        CsvExporter.writeScheduleCsvToFile(result, true, compressed.toFile());
+
+        byte[] bytes = Files.readAllBytes(compressed);
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+        long plainSize = Files.size(plain);
+        System.out.printf("CSV: %,d bytes, gzip: %,d bytes (%.1fx smaller)%n",
+            plainSize, bytes.length, (double) plainSize / bytes.length);
+        assertTrue(bytes.length * 3 < plainSize, "Schedule should compress well");
+
+        assertEquals(new String(Files.readAllBytes(plain), StandardCharsets.UTF_8), GzipFiles.readString(compressed));
+        List<String[]> rows = CsvExporter.readScheduleCsv(compressed);
+        assertEquals(1200, rows.size());
+        assertEquals(CsvExporter.readScheduleCsv(plain).get(1199)[4], rows.get(1199)[4]);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testAsyncExportCompressesByTargetName(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Compressed Export Through The Export Service ===");
+
+        InvestmentResult result = result();
+        StringWriter expected = new StringWriter();
+        CsvExporter.writeScheduleCsv(result, true, expected);
+
+        ExportService service = new ExportService();
+        Path target = tempDir.resolve("monthly.csv.gz");
+        Future<Path> export = service.exportScheduleCsv(result, true, target, null);
+        assertEquals(target.toAbsolutePath(), export.get(30, TimeUnit.SECONDS));
+        assertEquals(expected.toString(), GzipFiles.readString(target));
+
+        Path report = tempDir.resolve("results.txt.gz");
+        service.saveResultsText(result, report, null).get(30, TimeUnit.SECONDS);
+        assertTrue(GzipFiles.readString(report).contains("End of Report"));
+        service.shutdown();
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testAppendAddsGzipMember(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Appending To A Compressed Results File ===");
+
+        InvestmentResult result = result();
+        String file = tempDir.resolve("results.txt.gz").toString();
+        assertTrue(TextFileSaver.saveResultsToFile(result, file));
+        assertTrue(TextFileSaver.appendResultsToFile(result, file));
+
+        String content = TextFileSaver.readResultsFromFile(file);
+        assertEquals(2, content.split("End of Report", -1).length - 1);
+        assertTrue(content.startsWith("=".repeat(60)));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testCompressedReturnSeries(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Reading A Compressed Return History ===");
+
+        Path csv = tempDir.resolve("returns.csv.gz");
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(csv)), StandardCharsets.UTF_8)) {
+            writer.write("Date,Stocks,Bonds\n2001-01,0.0125,0.004\n2001-02,-0.031,0.006\n");
+        }
+        try (ReturnSeries series = ReturnSeries.open(csv)) {
+            assertEquals(2001, series.getStartYear());
+            assertEquals(-0.031, series.getReturn(1, 0));
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testInterruptAbandonsCompression(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Interrupted Compressed Write ===");
+
+        Path file = tempDir.resolve("big.txt.gz");
+        char[] line = "0123456789,0123456789,0123456789\n".toCharArray();
+        Writer writer = GzipFiles.newBufferedWriter(file, false);
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                writer.write(line);
+            }
+            Thread.currentThread().interrupt();
+            assertThrows(InterruptedIOException.class, writer::close);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        // The stream is closed after an abandoned write, and so is the file, so it can be deleted
+        assertThrows(IOException.class, () -> writer.write(line));
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(thread -> thread.getName().equals("gzip-compressor")), "Compressor still running");
+        Files.delete(file);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testFlushMakesWrittenTextReadable(@TempDir Path tempDir) throws Exception {
+        System.out.println("\n=== Test: Flushing A Compressed Writer ===");
+
+        Path file = tempDir.resolve("log.txt.gz");
+        String text = "Year,Start Balance,Contributions,Interest,End Balance\n";
+        try (Writer writer = GzipFiles.newBufferedWriter(file, false)) {
+            writer.write(text);
+            writer.flush();
+
+            // Not finished yet, but everything up to the flush decompresses
+            byte[] partial = Files.readAllBytes(file);
+            System.out.println("Bytes on disk after flush: " + partial.length);
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(partial))) {
+                byte[] decoded = new byte[text.length()];
+                int read = 0;
+                while (read < decoded.length) {
+                    int n = in.read(decoded, read, decoded.length - read);
+                    assertTrue(n > 0, "Flushed text should be readable");
+                    read += n;
+                }
+                assertEquals(text, new String(decoded, StandardCharsets.UTF_8));
+            }
+            writer.write(text);
+        }
+        assertEquals(text + text, GzipFiles.readString(file));
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,86 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvestmentEnginesTest {
+
+    @Test
+    void testBuiltInEnginesAreDiscovered() {
+        System.out.println("\n=== Test: Engine Discovery ===");
+
+        List<String> names = InvestmentEngines.getNames();
+        System.out.println("Engines: " + names);
+
+        assertEquals(InvestmentEngines.PRECISE, names.get(0), "Reference engine should be listed first");
+        assertTrue(names.contains(FastInvestmentEngine.NAME));
+        assertTrue(names.contains(ClosedFormInvestmentEngine.NAME));
+        assertTrue(InvestmentEngines.get(InvestmentEngines.PRECISE) instanceof FinalInvestmentEngine);
+        assertEquals(InvestmentEngines.PRECISE, InvestmentEngines.getDefault().getName());
+    }
+
+    @Test
+    void testUnknownEngineIsRejected() {
+        System.out.println("\n=== Test: Unknown Engine ===");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> InvestmentEngines.get("does-not-exist"));
+        System.out.println("Message: " + e.getMessage());
+        assertTrue(e.getMessage().contains("does-not-exist"));
+    }
+
+    @Test
+    void testBrokenProviderIsSkipped() {
+        System.out.println("\n=== Test: Broken Engine Provider ===");
+
+        // What ServiceLoader's iterator does for a provider whose class fails to load
+        Iterator<InvestmentEngine> providers = new Iterator<InvestmentEngine>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 3;
+            }
+
+            @Override
+            public InvestmentEngine next() {
+                switch (next++) {
+                    case 0: return new FastInvestmentEngine();
+                    case 1: throw new ServiceConfigurationError("com.example.TunedEngine could not be instantiated");
+                    default: return new ClosedFormInvestmentEngine();
+                }
+            }
+        };
+        Map<String, InvestmentEngine> engines = InvestmentEngines.loadEngines(providers);
+
+        System.out.println("Engines: " + engines.keySet());
+        assertEquals(List.of(InvestmentEngines.PRECISE, FastInvestmentEngine.NAME, ClosedFormInvestmentEngine.NAME),
+            List.copyOf(engines.keySet()));
+    }
+
+    @Test
+    void testAllEnginesAgreeOnKnownResult() {
+        System.out.println("\n=== Test: All Engines Agree ===");
+        System.out.println("Input: $1000 starting + $1000/year at 10% annually for 2 years (expected $3520.00)");
+
+        for (String name : InvestmentEngines.getNames()) {
+            InvestmentResult result = InvestmentEngines.get(name).calculateInvestment(
+                new BigDecimal("1000"), 2, new BigDecimal("10"), "Annually",
+                new BigDecimal("1000"), 1, true);
+            BigDecimal actual = result.getEndBalance().setScale(2, RoundingMode.HALF_UP);
+            System.out.printf("%-12s $%s%n", name, actual);
+
+            assertEquals(new BigDecimal("3520.00"), actual, name);
+            assertEquals(new BigDecimal("3000.00"), result.getTotalContributions().setScale(2, RoundingMode.HALF_UP), name);
+            assertEquals(2, result.getYearlyData().size(), name);
+        }
+    }
+}
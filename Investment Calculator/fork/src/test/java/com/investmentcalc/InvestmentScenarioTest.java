@@ -0,0 +1,93 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvestmentScenarioTest {
+
+    private static InvestmentScenario scenario(String start, int years, String rate, int contributionsPerYear) {
+        return new InvestmentScenario(new BigDecimal(start), years, new BigDecimal(rate),
+            CompoundingFrequency.MONTHLY, new BigDecimal("1200"), contributionsPerYear,
+            ContributionTiming.BEGINNING_OF_PERIOD);
+    }
+
+    @Test
+    void testValidationMatchesCalculatorChecks() {
+        System.out.println("\n=== Test: Scenario Validation ===");
+
+        assertEquals("Starting amount cannot be negative.",
+            assertThrows(IllegalArgumentException.class, () -> scenario("-1", 10, "7", 12)).getMessage());
+        assertEquals("Years must be between 1 and 100.",
+            assertThrows(IllegalArgumentException.class, () -> scenario("1000", 0, "7", 12)).getMessage());
+        assertEquals("Years must be between 1 and 100.",
+            assertThrows(IllegalArgumentException.class, () -> scenario("1000", 101, "7", 12)).getMessage());
+        assertEquals("Annual return rate must be between -100% and 1000%.",
+            assertThrows(IllegalArgumentException.class, () -> scenario("1000", 10, "-100.01", 12)).getMessage());
+        assertEquals("Contributions per year must be between 0 and 365.",
+            assertThrows(IllegalArgumentException.class, () -> scenario("1000", 10, "7", 366)).getMessage());
+
+        // Boundaries are accepted
+        assertNotNull(scenario("0", 100, "1000", 365));
+        assertNotNull(scenario("0", 1, "-100", 0));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testFactorsAreSharedPerRateAndFrequency() {
+        System.out.println("\n=== Test: Cached Compounding Factors ===");
+
+        CompoundingFactors a = CompoundingFactors.of(new BigDecimal("7"), CompoundingFrequency.MONTHLY);
+        CompoundingFactors b = CompoundingFactors.of(new BigDecimal("7.00"), CompoundingFrequency.MONTHLY);
+        CompoundingFactors c = CompoundingFactors.of(new BigDecimal("7"), CompoundingFrequency.DAILY);
+
+        assertSame(a, b, "7 and 7.00 should share one cache entry");
+        assertNotSame(a, c, "Different frequencies need different factors");
+        assertSame(a, scenario("1000", 10, "7.0", 12).getFactors());
+        // (1 + 0.07/12)^1 - 1
+        assertEquals(0.07 / 12, a.getMonthlyInterestFactorAsDouble(), 1e-15);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testContributionMonths() {
+        System.out.println("\n=== Test: Contribution Months ===");
+
+        InvestmentScenario quarterly = scenario("1000", 2, "5", 4);
+        int events = 0;
+        for (int month = 1; month <= 24; month++) {
+            BigDecimal c = quarterly.getContributionForMonth(month);
+            if (c.signum() != 0) {
+                events++;
+                assertEquals(1, (month - 1) % 3 + 1, "Quarterly contributions fall in months 1, 4, 7, 10");
+                assertEquals(0, c.compareTo(new BigDecimal("300")));
+            }
+        }
+        assertEquals(8, events);
+
+        InvestmentScenario uneven = scenario("1000", 1, "5", 26);
+        assertEquals(0, uneven.getContributionForMonth(5).compareTo(new BigDecimal("100")),
+            "Nonstandard frequencies are spread evenly over 12 months");
+        assertEquals(100.0, uneven.getContributionForMonthAsDouble(5), 1e-12);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testLegacyAndTypedEntryPointsAgree() {
+        System.out.println("\n=== Test: Legacy vs Typed Entry Point ===");
+
+        FinalInvestmentEngine engine = new FinalInvestmentEngine();
+        InvestmentResult legacy = engine.calculateInvestment(new BigDecimal("5000"), 3, new BigDecimal("6"),
+            "Quarterly", new BigDecimal("600"), 12, false);
+        InvestmentResult typed = engine.calculateInvestment(new InvestmentScenario(new BigDecimal("5000"), 3,
+            new BigDecimal("6"), CompoundingFrequency.QUARTERLY, new BigDecimal("600"), 12, ContributionTiming.END_OF_PERIOD));
+
+        System.out.printf("Legacy: $%s, typed: $%s%n", legacy.getEndBalance(), typed.getEndBalance());
+        assertEquals(legacy.getEndBalance(), typed.getEndBalance());
+        assertEquals(legacy.getTotalInterest(), typed.getTotalInterest());
+        assertEquals("Quarterly", typed.getCompoundingFrequency());
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,171 @@
+package com.investmentcalc;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.xy.YIntervalSeriesCollection;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloSimulatorTest {
+
+    private static InvestmentScenario scenario() {
+        return new InvestmentScenario(new BigDecimal("20000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12, ContributionTiming.END_OF_PERIOD);
+    }
+
+    @Test
+    void testZeroVolatilityReproducesDeterministicPlan() {
+        System.out.println("\n=== Test: Monte Carlo Without Volatility ===");
+
+        InvestmentScenario scenario = scenario();
+        MonteCarloResult result = new MonteCarloSimulator(0.0).simulate(scenario, 1000, 1L);
+        List<YearlyData> years = new FastInvestmentEngine().calculateInvestment(scenario).getYearlyData();
+
+        for (YearlyData year : years) {
+            double expected = year.getEndBalance().doubleValue();
+            for (double value : result.getStandardPercentiles(year.getYear())) {
+                assertEquals(expected, value, expected * 1e-12, "Year " + year.getYear());
+            }
+        }
+        System.out.printf("Median end balance: %.2f%n", result.getMedianEndBalance());
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testPercentileBandsWithVolatility() {
+        System.out.println("\n=== Test: Monte Carlo Percentile Bands ===");
+
+        InvestmentScenario scenario = scenario();
+        int paths = 100_000;
+        long start = System.nanoTime();
+        MonteCarloResult result = new MonteCarloSimulator(0.15).simulate(scenario, paths, 2024L);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        double deterministic = new FastInvestmentEngine().calculateInvestment(scenario).getEndBalance().doubleValue();
+        double[] ends = result.getStandardPercentiles(30);
+        System.out.printf("%d paths in %.2f s%n", paths, seconds);
+        for (int i = 0; i < ends.length; i++) {
+            System.out.printf("  P%-3.0f %,14.2f%n", MonteCarloResult.STANDARD_PERCENTILES[i], ends[i]);
+        }
+        System.out.printf("Mean %,.2f vs deterministic %,.2f%n", result.getMeanBalance(30), deterministic);
+
+        for (int i = 1; i < ends.length; i++) {
+            assertTrue(ends[i] > ends[i - 1], "Percentiles must increase");
+        }
+        // Expected growth matches the fixed rate, so the mean converges to the deterministic plan
+        assertEquals(deterministic, result.getMeanBalance(30), deterministic * 0.01);
+        // Lognormal outcomes: the median sits below the mean
+        assertTrue(result.getMedianEndBalance() < result.getMeanBalance(30));
+        assertEquals(20000, result.getPercentile(0, 50));
+        assertEquals(31, result.getPercentileBand(90).length);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testSameSeedGivesSameResult() {
+        InvestmentScenario scenario = scenario();
+        MonteCarloResult a = new MonteCarloSimulator(0.2).simulate(scenario, 5000, 99L);
+        MonteCarloResult b = new MonteCarloSimulator(0.2).simulate(scenario, 5000, 99L);
+        assertArrayEquals(a.getPercentileBand(25), b.getPercentileBand(25));
+        assertEquals(a.getMeanBalance(30), b.getMeanBalance(30));
+    }
+
+    @Test
+    void testVarianceReductionStandardErrors() {
+        System.out.println("\n=== Test: Monte Carlo Variance Reduction ===");
+
+        InvestmentScenario scenario = scenario();
+        int paths = 64 * 256;
+        MonteCarloResult plain = new MonteCarloSimulator(0.15).simulate(scenario, paths, 5L);
+        MonteCarloResult antithetic = new MonteCarloSimulator(0.15, SamplingMethod.ANTITHETIC, true).simulate(scenario, paths, 5L);
+        MonteCarloResult sobol = new MonteCarloSimulator(0.15, SamplingMethod.SOBOL, true).simulate(scenario, paths, 5L);
+
+        System.out.printf("%-26s %22s %22s %22s%n", "Method", "P(end < contributed)", "Median", "P5");
+        for (MonteCarloResult r : new MonteCarloResult[]{plain, antithetic, sobol}) {
+            System.out.printf("%-26s %22s %22s %22s%n", r.getSampling() + (r == plain ? "" : " + control"),
+                r.getShortfallProbability(), r.getEndPercentile(50), r.getEndPercentile(5));
+        }
+
+        double shortfallGain = variance(plain.getShortfallProbability()) / variance(sobol.getShortfallProbability());
+        double medianGain = variance(plain.getEndPercentile(50)) / variance(sobol.getEndPercentile(50));
+        System.out.printf("Variance reduction with Sobol + control: shortfall %.1fx, median %.1fx%n", shortfallGain, medianGain);
+
+        // Estimates agree within their confidence intervals
+        double difference = Math.abs(plain.getShortfallProbability().getValue() - sobol.getShortfallProbability().getValue());
+        assertTrue(difference < 4 * plain.getShortfallProbability().getStandardError() + 1e-9);
+        assertEquals(0.0, sobol.getMeanEndBalance().getStandardError(), "Control variate knows the mean exactly");
+        // Smooth statistics gain an order of magnitude; the discontinuous shortfall indicator less
+        assertTrue(medianGain > 10, "Same confidence with an order of magnitude fewer paths");
+        assertTrue(shortfallGain > 2, "Shortfall probability should still gain");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testFanChartSizedByYearsNotPaths() {
+        System.out.println("\n=== Test: Fan Chart Bands Sized by Years ===");
+
+        InvestmentScenario scenario = scenario();
+        InvestmentResult result = new FinalInvestmentEngine().calculateInvestment(scenario);
+        MonteCarloResult small = new MonteCarloSimulator(0.15).simulate(scenario, 1_000, 3L);
+        MonteCarloResult large = new MonteCarloSimulator(0.15).simulate(scenario, 200_000, 3L);
+
+        YIntervalSeriesCollection smallBands = InvestmentChartPanel.createFanDataset(small);
+        YIntervalSeriesCollection largeBands = InvestmentChartPanel.createFanDataset(large);
+        assertEquals(InvestmentChartPanel.FAN_BANDS.length, largeBands.getSeriesCount());
+        for (int band = 0; band < largeBands.getSeriesCount(); band++) {
+            assertEquals(31, smallBands.getItemCount(band));
+            assertEquals(31, largeBands.getItemCount(band));
+        }
+
+        // Each band spans its percentiles around the median, and narrower bands sit inside wider ones
+        for (int year = 0; year <= 30; year++) {
+            assertEquals(large.getPercentile(year, 5), largeBands.getStartYValue(0, year), 0.0);
+            assertEquals(large.getPercentile(year, 95), largeBands.getEndYValue(0, year), 0.0);
+            assertEquals(large.getPercentile(year, 50), largeBands.getYValue(2, year), 0.0);
+            assertTrue(largeBands.getStartYValue(0, year) <= largeBands.getStartYValue(2, year));
+            assertTrue(largeBands.getEndYValue(2, year) <= largeBands.getEndYValue(0, year));
+        }
+
+        InvestmentChartPanel panel = new InvestmentChartPanel(null);
+        panel.updateFanChart(result, large, "USD");
+        JFreeChart chart = panel.getCurrentChart();
+        assertEquals(2, chart.getXYPlot().getDatasetCount());
+        chart.createBufferedImage(1920, 1080); // warm-up
+        long start = System.nanoTime();
+        BufferedImage image = chart.createBufferedImage(1920, 1080);
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Full-screen fan of %,d paths drawn in %.1f ms%n", large.getPathCount(), millis);
+        assertEquals(1920, image.getWidth());
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testCancelStopsEveryChunk() {
+        System.out.println("\n=== Test: Cancelling A Million-Path Simulation ===");
+
+        MonteCarloSimulator simulator = new MonteCarloSimulator(0.15);
+        AtomicInteger checks = new AtomicInteger();
+        long start = System.nanoTime();
+        assertThrows(CancellationException.class,
+            () -> simulator.simulate(scenario(), 1_000_000, 42L, () -> checks.incrementAndGet() > 0));
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Stopped after %d checks in %.1f ms%n", checks.get(), millis);
+
+        // Each chunk stops at its first check, after a few hundred of its ~15,600 paths
+        assertTrue(checks.get() <= MonteCarloSimulator.CHUNKS);
+        assertTrue(millis < 5000, "A cancelled simulation should stop well before it finishes");
+        assertEquals(simulator.simulate(scenario(), 2_000, 1L).getMedianEndBalance(),
+            simulator.simulate(scenario(), 2_000, 1L, () -> false).getMedianEndBalance(), 0.0);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    private static double variance(MonteCarloEstimate estimate) {
+        return estimate.getStandardError() * estimate.getStandardError();
+    }
+}
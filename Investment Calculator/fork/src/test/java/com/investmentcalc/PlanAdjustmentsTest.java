@@ -0,0 +1,122 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlanAdjustmentsTest {
+
+    private static final PlanAdjustments ADJUSTMENTS =
+        new PlanAdjustments(new BigDecimal("2.5"), new BigDecimal("0.45"), new BigDecimal("15"));
+
+    private static InvestmentScenario scenario(ContributionTiming timing) {
+        return new InvestmentScenario(new BigDecimal("20000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12, timing,
+            CashFlowEvents.of(CashFlowEvent.lumpSum(61, new BigDecimal("10000")),
+                CashFlowEvent.withdrawal(300, new BigDecimal("25000"))))
+            .withAdjustments(ADJUSTMENTS);
+    }
+
+    @Test
+    void testEnginesAgreeOnAdjustedPlans() {
+        System.out.println("\n=== Test: Fees, Taxes And Real Values Agree Across Engines ===");
+
+        for (ContributionTiming timing : ContributionTiming.values()) {
+            InvestmentScenario scenario = scenario(timing);
+            InvestmentResult precise = new FinalInvestmentEngine().calculateInvestment(scenario);
+            double tolerance = 1e-9 * precise.getEndBalance().doubleValue();
+            System.out.printf("%-20s end %s, fees %s, taxes %s, real %s%n", timing.getLabel(),
+                precise.getEndBalance(), precise.getTotalFees(), precise.getTotalTaxes(), precise.getRealEndBalance());
+
+            // The balance identity holds with the deductions included
+            BigDecimal identity = precise.getTotalContributions().add(precise.getTotalInterest())
+                .subtract(precise.getTotalFees()).subtract(precise.getTotalTaxes());
+            assertEquals(precise.getEndBalance().doubleValue(), identity.doubleValue(), 1e-6);
+
+            for (InvestmentEngine engine : new InvestmentEngine[] {
+                    new FastInvestmentEngine(), new ClosedFormInvestmentEngine(), new AdaptiveInvestmentEngine()}) {
+                InvestmentResult other = engine.calculateInvestment(scenario);
+                assertEquals(precise.getEndBalance().doubleValue(), other.getEndBalance().doubleValue(), tolerance, engine.getName());
+                assertEquals(precise.getTotalFees().doubleValue(), other.getTotalFees().doubleValue(), tolerance, engine.getName());
+                assertEquals(precise.getTotalTaxes().doubleValue(), other.getTotalTaxes().doubleValue(), tolerance, engine.getName());
+                assertEquals(precise.getTotalInterest().doubleValue(), other.getTotalInterest().doubleValue(), tolerance, engine.getName());
+                assertEquals(precise.getRealEndBalance().doubleValue(), other.getRealEndBalance().doubleValue(), tolerance, engine.getName());
+                for (int y = 0; y < precise.getYearlyData().size(); y++) {
+                    YearlyData a = precise.getYearlyData().get(y);
+                    YearlyData b = other.getYearlyData().get(y);
+                    assertEquals(a.getFees().doubleValue(), b.getFees().doubleValue(), tolerance, engine.getName() + " year " + (y + 1));
+                    assertEquals(a.getRealEndBalance().doubleValue(), b.getRealEndBalance().doubleValue(), tolerance, engine.getName() + " year " + (y + 1));
+                }
+            }
+            assertEquals(precise.getEndBalance().doubleValue(),
+                new ClosedFormInvestmentEngine().calculateEndBalance(scenario), tolerance);
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testSingleStagesMatchTheirFormulas() {
+        System.out.println("\n=== Test: Each Stage On Its Own ===");
+
+        InvestmentScenario plain = new InvestmentScenario(new BigDecimal("10000"), 20, new BigDecimal("6"),
+            CompoundingFrequency.MONTHLY, BigDecimal.ZERO, 12, ContributionTiming.END_OF_PERIOD);
+        InvestmentResult gross = new FinalInvestmentEngine().calculateInvestment(plain);
+
+        // No adjustments: identical to the plain plan, real equals nominal
+        InvestmentResult none = new FinalInvestmentEngine().calculateInvestment(plain.withAdjustments(PlanAdjustments.NONE));
+        assertEquals(gross.getEndBalance(), none.getEndBalance());
+        assertEquals(gross.getEndBalance(), none.getRealEndBalance());
+        assertEquals(0, none.getTotalFees().signum());
+
+        // Inflation only deflates: real = nominal / (1 + i)^years
+        InvestmentResult inflated = new FinalInvestmentEngine().calculateInvestment(plain.withAdjustments(
+            new PlanAdjustments(new BigDecimal("3"), BigDecimal.ZERO, BigDecimal.ZERO)));
+        assertEquals(gross.getEndBalance(), inflated.getEndBalance());
+        double expectedReal = gross.getEndBalance().doubleValue() / Math.pow(1.03, 20);
+        System.out.printf("Nominal %.2f, real %s (expected %.2f)%n",
+            gross.getEndBalance().doubleValue(), inflated.getRealEndBalance(), expectedReal);
+        assertEquals(expectedReal, inflated.getRealEndBalance().doubleValue(), 1e-6);
+
+        // A fee only: every month grows by 1.005 * (1 - 0.012 / 12)
+        InvestmentResult charged = new FastInvestmentEngine().calculateInvestment(plain.withAdjustments(
+            new PlanAdjustments(BigDecimal.ZERO, new BigDecimal("1.2"), BigDecimal.ZERO)));
+        assertEquals(10000 * Math.pow(1.005 * 0.999, 240), charged.getEndBalance().doubleValue(), 1e-6);
+        System.out.println("End balance after a 1.2% fee: " + charged.getEndBalance());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new PlanAdjustments(BigDecimal.ZERO, new BigDecimal("-1"), BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class,
+            () -> new PlanAdjustments(BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("101")));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testSimulationsAndRecalculationSeeTheAdjustments() {
+        System.out.println("\n=== Test: Monte Carlo Mean And Resumed Runs With Adjustments ===");
+
+        InvestmentScenario scenario = scenario(ContributionTiming.BEGINNING_OF_PERIOD);
+        double deterministic = new FastInvestmentEngine().calculateInvestment(scenario).getEndBalance().doubleValue();
+        MonteCarloResult simulated = new MonteCarloSimulator(0.15).simulate(scenario, 50_000, 7L);
+        MonteCarloEstimate mean = simulated.getMeanEndBalance();
+        System.out.printf("Simulated mean %,.2f ± %,.2f, deterministic %,.2f%n",
+            mean.getValue(), mean.getStandardError(), deterministic);
+        // Net growth is affine in the gross growth, so the adjusted plan is still the exact mean
+        assertEquals(deterministic, mean.getValue(), 4 * mean.getStandardError());
+
+        // Changing the adjustments recalculates from the start; extending the horizon resumes
+        FinalInvestmentEngine engine = new FinalInvestmentEngine();
+        InvestmentResult before = engine.calculateInvestment(scenario.withAdjustments(PlanAdjustments.NONE));
+        assertEquals(1, before.getScenario().firstChangedMonth(scenario));
+        InvestmentResult adjusted = engine.recalculate(before, scenario);
+        InvestmentResult longer = engine.recalculate(adjusted, scenario.withYears(40));
+        InvestmentResult full = engine.calculateInvestment(scenario.withYears(40));
+        assertEquals(full.getEndBalance(), longer.getEndBalance());
+        assertEquals(full.getTotalFees(), longer.getTotalFees());
+        assertEquals(full.getTotalTaxes(), longer.getTotalTaxes());
+        assertEquals(full.getRealEndBalance(), longer.getRealEndBalance());
+        assertSame(adjusted.getMonthlyData().get(359), longer.getMonthlyData().get(359));
+        System.out.println("Result: ✅ PASS");
+    }
+}
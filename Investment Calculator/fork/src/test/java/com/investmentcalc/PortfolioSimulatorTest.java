@@ -0,0 +1,141 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioSimulatorTest {
+
+    private static final String[] MIX = {"Stocks", "Bonds", "Cash"};
+    private static final double[][] CORRELATIONS = {
+        {1.0, 0.2, 0.0},
+        {0.2, 1.0, 0.1},
+        {0.0, 0.1, 1.0}
+    };
+
+    private static InvestmentScenario scenario(ContributionTiming timing) {
+        return new InvestmentScenario(new BigDecimal("50000"), 25, new BigDecimal("0"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("12000"), 4, timing);
+    }
+
+    @Test
+    void testWithoutVolatilityMatchesHandCalculation() {
+        System.out.println("\n=== Test: Portfolio Without Volatility ===");
+
+        double[] returns = {0.08, 0.04, 0.02};
+        double[] weights = {0.6, 0.3, 0.1};
+        PortfolioSimulator portfolio = new PortfolioSimulator(MIX, returns, new double[3], CORRELATIONS, weights, 1);
+
+        for (ContributionTiming timing : ContributionTiming.values()) {
+            InvestmentScenario scenario = scenario(timing);
+            // Monthly rebalancing: the portfolio grows by the weighted monthly factor every month
+            double growth = 0;
+            for (int a = 0; a < 3; a++) {
+                growth += weights[a] * Math.pow(1 + returns[a], 1.0 / 12);
+            }
+            double expected = scenario.getStartingAmount().doubleValue();
+            for (int month = 1; month <= scenario.getTotalMonths(); month++) {
+                double c = scenario.getContributionForMonthAsDouble(month);
+                expected = timing == ContributionTiming.BEGINNING_OF_PERIOD ? (expected + c) * growth : expected * growth + c;
+            }
+
+            MonteCarloResult result = portfolio.simulate(scenario, 256, 1L);
+            System.out.printf("%s: expected %.2f, median %.2f%n", timing, expected, result.getMedianEndBalance());
+            assertEquals(expected, result.getMedianEndBalance(), expected * 1e-10);
+            assertEquals(expected, result.getPercentile(25, 95), expected * 1e-10);
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testDrawsFollowCorrelationMatrix() {
+        System.out.println("\n=== Test: Correlated Asset Draws ===");
+
+        double[][] correlations = {{1.0, 0.8}, {0.8, 1.0}};
+        PortfolioSimulator portfolio = new PortfolioSimulator(new String[]{"A", "B"}, new double[]{0.05, 0.05},
+            new double[]{0.2, 0.1}, correlations, new double[]{0.5, 0.5}, 12);
+
+        MonteCarloSimulator.NormalSampler normal = new MonteCarloSimulator.NormalSampler(new SplittableRandom(3));
+        double[] z = new double[2];
+        double[] growth = new double[2];
+        int n = 200_000;
+        double sa = 0, sb = 0, saa = 0, sbb = 0, sab = 0;
+        for (int i = 0; i < n; i++) {
+            portfolio.drawGrowth(normal, z, growth);
+            double a = Math.log(growth[0]);
+            double b = Math.log(growth[1]);
+            sa += a; sb += b; saa += a * a; sbb += b * b; sab += a * b;
+        }
+        double va = saa / n - (sa / n) * (sa / n);
+        double vb = sbb / n - (sb / n) * (sb / n);
+        double correlation = (sab / n - (sa / n) * (sb / n)) / Math.sqrt(va * vb);
+        System.out.printf("Sample correlation %.4f, monthly volatilities %.4f / %.4f%n", correlation, Math.sqrt(va), Math.sqrt(vb));
+
+        assertEquals(0.8, correlation, 0.01);
+        assertEquals(0.2 / Math.sqrt(12), Math.sqrt(va), 0.001);
+        assertEquals(0.1 / Math.sqrt(12), Math.sqrt(vb), 0.001);
+        assertEquals(Math.sqrt(0.25 * 0.04 + 0.25 * 0.01 + 2 * 0.25 * 0.8 * 0.2 * 0.1), portfolio.getAnnualVolatility(), 1e-12);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testDiversificationNarrowsTheBand() {
+        System.out.println("\n=== Test: Portfolio Diversification ===");
+
+        InvestmentScenario scenario = scenario(ContributionTiming.END_OF_PERIOD);
+        double[] returns = {0.07, 0.07, 0.07};
+        double[] vols = {0.18, 0.18, 0.18};
+        double[][] independent = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+        double[] equal = {1.0 / 3, 1.0 / 3, 1.0 / 3};
+
+        MonteCarloResult concentrated = new PortfolioSimulator(MIX, returns, vols, independent, new double[]{1, 0, 0}, 12)
+            .simulate(scenario, 20_000, 9L);
+        MonteCarloResult diversified = new PortfolioSimulator(MIX, returns, vols, independent, equal, 12)
+            .simulate(scenario, 20_000, 9L);
+
+        double concentratedSpread = concentrated.getPercentile(25, 90) - concentrated.getPercentile(25, 10);
+        double diversifiedSpread = diversified.getPercentile(25, 90) - diversified.getPercentile(25, 10);
+        System.out.printf("P10-P90 spread: concentrated %,.0f, diversified %,.0f%n", concentratedSpread, diversifiedSpread);
+        assertTrue(diversifiedSpread < concentratedSpread * 0.7);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testInvalidInputsAreRejected() {
+        double[][] notPositive = {{1.0, 1.2}, {1.2, 1.0}};
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioSimulator(new String[]{"A", "B"},
+            new double[]{0.05, 0.05}, new double[]{0.1, 0.1}, notPositive, new double[]{0.5, 0.5}, 12));
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioSimulator(new String[]{"A", "B"},
+            new double[]{0.05, 0.05}, new double[]{0.1, 0.1}, new double[][]{{1, 0}, {0, 1}}, new double[]{0.5, 0.6}, 12));
+        double[][] l = PortfolioSimulator.cholesky(CORRELATIONS);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                double product = 0;
+                for (int k = 0; k < 3; k++) {
+                    product += l[i][k] * l[j][k];
+                }
+                assertEquals(CORRELATIONS[i][j], product, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void testCovarianceMatrixIsRejected() {
+        System.out.println("\n=== Test: Correlation Matrix Needs A Unit Diagonal ===");
+
+        // Positive definite and symmetric, but a variance of 4 where a correlation of 1 belongs
+        double[][] covariance = {{4.0, 0.3}, {0.3, 1.0}};
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new PortfolioSimulator(new String[]{"A", "B"}, new double[]{0.05, 0.05}, new double[]{0.1, 0.1},
+                covariance, new double[]{0.5, 0.5}, 12));
+        System.out.println("Rejected: " + e.getMessage());
+        assertTrue(e.getMessage().contains("diagonal"));
+        assertThrows(IllegalArgumentException.class,
+            () -> PortfolioSimulator.cholesky(new double[][]{{1.0, 0.0}, {0.0, 1.0001}}));
+        assertEquals(1.0, PortfolioSimulator.cholesky(new double[][]{{1.0, 0.5}, {0.5, 1.0}})[0][0], 0.0);
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,128 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressiveScheduleViewTest {
+
+    private static final Function<MonthlyData, String> FORMAT =
+        data -> String.format("%-10s %,.2f%n", data.getMonth(), data.getEndBalance());
+
+    private static List<MonthlyData> months() {
+        return new FinalInvestmentEngine().calculateInvestment(new InvestmentScenario(new BigDecimal("10000"), 100,
+            new BigDecimal("6"), CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12,
+            ContributionTiming.END_OF_PERIOD)).getMonthlyData();
+    }
+
+    private static <T> T onEdt(java.util.concurrent.Callable<T> action) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(action.call());
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result.get();
+    }
+
+    private static void awaitLoaded(ProgressiveScheduleView view) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (onEdt(view::isLoading)) {
+            assertTrue(System.nanoTime() < deadline, "Schedule did not finish loading");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testRowsAppearFirstYearsFirst() throws Exception {
+        System.out.println("\n=== Test: Schedule Rows Stream Into the View ===");
+
+        List<MonthlyData> months = months();
+        StringBuilder expected = new StringBuilder("Month      End Balance\n");
+        months.forEach(data -> expected.append(FORMAT.apply(data)));
+        expected.append("Total months: 1200\n");
+
+        ProgressiveScheduleView view = onEdt(() -> new ProgressiveScheduleView(10));
+        long start = System.nanoTime();
+        String firstText = onEdt(() -> {
+            view.showRows("Month      End Balance\n", months, FORMAT, "Total months: 1200\n");
+            return view.getText();
+        });
+        double firstMillis = (System.nanoTime() - start) / 1e6;
+        assertTrue(onEdt(view::isLoading));
+        assertEquals(1 + ProgressiveScheduleView.FIRST_ROWS, firstText.split("\n").length);
+        assertTrue(expected.toString().startsWith(firstText));
+
+        awaitLoaded(view);
+        double allMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("First %d of %d rows after %.1f ms, all after %.1f ms%n",
+            ProgressiveScheduleView.FIRST_ROWS, months.size(), firstMillis, allMillis);
+        assertEquals(expected.toString(), onEdt(view::getText));
+
+        // A short schedule is shown at once
+        onEdt(() -> {
+            view.showRows("Year\n", months.subList(0, 12), FORMAT, null);
+            return null;
+        });
+        assertFalse(onEdt(view::isLoading));
+        assertEquals(13, onEdt(view::getText).split("\n").length);
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testCancelKeepsRowsShownSoFar() throws Exception {
+        System.out.println("\n=== Test: Cancelled Schedule Keeps Its Rows ===");
+
+        List<MonthlyData> months = months();
+        CountDownLatch reachedBackground = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Function<MonthlyData, String> blocking = data -> {
+            if (data.getMonth().equals(months.get(ProgressiveScheduleView.FIRST_ROWS + ProgressiveScheduleView.CHUNK_ROWS).getMonth())) {
+                reachedBackground.countDown();
+                try {
+                    cancelled.await();
+                } catch (InterruptedException e) {
+                    // cancel(true) interrupts the worker; keep formatting this chunk
+                }
+            }
+            return FORMAT.apply(data);
+        };
+
+        ProgressiveScheduleView view = onEdt(() -> new ProgressiveScheduleView(10));
+        onEdt(() -> {
+            view.showRows("", months, blocking, "Total\n");
+            return null;
+        });
+        assertTrue(reachedBackground.await(30, TimeUnit.SECONDS));
+        onEdt(() -> {
+            view.cancel();
+            return null;
+        });
+        cancelled.countDown();
+        Thread.sleep(200);
+
+        String text = onEdt(view::getText);
+        int rows = text.split("\n").length;
+        System.out.println(onEdt(view::getStatus) + "; " + rows + " rows kept");
+        assertFalse(onEdt(view::isLoading));
+        assertTrue(onEdt(view::hasRows));
+        assertTrue(rows >= ProgressiveScheduleView.FIRST_ROWS && rows < months.size());
+        assertFalse(text.contains("Total"));
+        assertTrue(onEdt(view::getStatus).startsWith("Stopped at"));
+        System.out.println("Result: ✅ PASS");
+    }
+}
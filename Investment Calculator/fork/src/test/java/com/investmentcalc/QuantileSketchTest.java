@@ -0,0 +1,97 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0.001, 0.01, 0.05, 0.10, 0.25, 0.50, 0.75, 0.90, 0.95, 0.99, 0.999};
+
+    /**
+     * Largest distance, in rank, between the sketch's estimates and the exact quantiles.
+     */
+    private static double maxRankError(QuantileSketch sketch, double[] sorted) {
+        double worst = 0;
+        for (double q : QUANTILES) {
+            double estimate = sketch.quantile(q);
+            int below = Arrays.binarySearch(sorted, estimate);
+            if (below < 0) {
+                below = -below - 1;
+            }
+            double rank = (double) below / sorted.length;
+            System.out.printf("  q=%.3f  exact=%12.2f  estimate=%12.2f  rank=%.4f%n",
+                q, sorted[(int) Math.min(sorted.length - 1, q * sorted.length)], estimate, rank);
+            worst = Math.max(worst, Math.abs(rank - q));
+        }
+        return worst;
+    }
+
+    @Test
+    void testQuantilesOfSkewedDistribution() {
+        System.out.println("\n=== Test: Quantile Sketch Accuracy ===");
+
+        Random random = new Random(42);
+        int n = 200_000;
+        double[] values = new double[n];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < n; i++) {
+            values[i] = 100_000 * Math.exp(0.8 * random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        double error = maxRankError(sketch, values);
+        System.out.printf("Max rank error: %.5f%n", error);
+        assertEquals(n, sketch.getCount());
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[n - 1], sketch.getMax());
+        assertTrue(error < 0.002, "Rank error should stay below 0.2%");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testMergedSketchesMatchSingleSketch() {
+        System.out.println("\n=== Test: Quantile Sketch Merge ===");
+
+        Random random = new Random(7);
+        int n = 100_000;
+        double[] values = new double[n];
+        QuantileSketch[] parts = new QuantileSketch[8];
+        for (int p = 0; p < parts.length; p++) {
+            parts[p] = new QuantileSketch();
+        }
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextGaussian() * 1000 + (i % 3) * 500;
+            parts[i % parts.length].add(values[i]);
+        }
+        QuantileSketch merged = new QuantileSketch();
+        for (QuantileSketch part : parts) {
+            part.compact();
+            merged.merge(part);
+        }
+        Arrays.sort(values);
+
+        double error = maxRankError(merged, values);
+        System.out.printf("Max rank error after merge: %.5f%n", error);
+        assertEquals(n, merged.getCount());
+        assertTrue(error < 0.003, "Merging should keep rank error small");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testSmallAndEmptySketches() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        sketch.add(42);
+        assertEquals(42, sketch.quantile(0.05));
+        assertEquals(42, sketch.quantile(0.95));
+        sketch.add(10);
+        sketch.add(20);
+        assertEquals(20, sketch.quantile(0.5), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.NaN));
+    }
+}
@@ -0,0 +1,114 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecalculationTest {
+
+    private final FinalInvestmentEngine engine = new FinalInvestmentEngine();
+
+    private static InvestmentScenario scenario(int years) {
+        return new InvestmentScenario(new BigDecimal("15000"), years, new BigDecimal("7.25"),
+            CompoundingFrequency.QUARTERLY, new BigDecimal("4800"), 12, ContributionTiming.BEGINNING_OF_PERIOD);
+    }
+
+    private static void assertSameResult(InvestmentResult expected, InvestmentResult actual) {
+        assertEquals(expected.getEndBalance(), actual.getEndBalance());
+        assertEquals(expected.getTotalContributions(), actual.getTotalContributions());
+        assertEquals(expected.getTotalInterest(), actual.getTotalInterest());
+        assertEquals(expected.getYears(), actual.getYears());
+
+        List<YearlyData> expectedYears = expected.getYearlyData();
+        List<YearlyData> actualYears = actual.getYearlyData();
+        assertEquals(expectedYears.size(), actualYears.size());
+        for (int i = 0; i < expectedYears.size(); i++) {
+            assertEquals(expectedYears.get(i).getStartBalance(), actualYears.get(i).getStartBalance(), "year " + (i + 1));
+            assertEquals(expectedYears.get(i).getContributions(), actualYears.get(i).getContributions(), "year " + (i + 1));
+            assertEquals(expectedYears.get(i).getInterestEarned(), actualYears.get(i).getInterestEarned(), "year " + (i + 1));
+            assertEquals(expectedYears.get(i).getEndBalance(), actualYears.get(i).getEndBalance(), "year " + (i + 1));
+        }
+
+        List<MonthlyData> expectedMonths = expected.getMonthlyData();
+        List<MonthlyData> actualMonths = actual.getMonthlyData();
+        assertEquals(expectedMonths.size(), actualMonths.size());
+        for (int i = 0; i < expectedMonths.size(); i++) {
+            assertEquals(expectedMonths.get(i).getMonth(), actualMonths.get(i).getMonth());
+            assertEquals(expectedMonths.get(i).getEndBalance(), actualMonths.get(i).getEndBalance(), "month " + (i + 1));
+        }
+        assertEquals(expected.getCheckpoints().size(), actual.getCheckpoints().size());
+    }
+
+    @Test
+    void testExtendingHorizonSimulatesOnlyNewMonths() {
+        System.out.println("\n=== Test: Extending 30 To 40 Years Resumes At Month 361 ===");
+
+        InvestmentResult thirty = engine.calculateInvestment(scenario(30));
+        InvestmentResult resumed = engine.recalculate(thirty, scenario(40));
+        InvestmentResult full = engine.calculateInvestment(scenario(40));
+
+        System.out.println("Resumed end balance: " + resumed.getEndBalance());
+        System.out.println("Full end balance:    " + full.getEndBalance());
+        assertSameResult(full, resumed);
+        // The first 30 years are the prior rows themselves, not recalculated copies
+        assertSame(thirty.getMonthlyData().get(359), resumed.getMonthlyData().get(359));
+        assertSame(thirty.getYearlyData().get(29), resumed.getYearlyData().get(29));
+        assertNotSame(full.getMonthlyData().get(360), resumed.getMonthlyData().get(360));
+
+        // Shortening reuses everything it keeps
+        InvestmentResult shortened = engine.recalculate(full, scenario(25));
+        assertSameResult(engine.calculateInvestment(scenario(25)), shortened);
+        assertSame(full.getMonthlyData().get(299), shortened.getMonthlyData().get(299));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testLateChangeReusesEarlierYears() {
+        System.out.println("\n=== Test: Change From Year 20 Reuses The First 19 Years ===");
+
+        InvestmentResult before = engine.calculateInvestment(scenario(35));
+        InvestmentScenario raised = scenario(35).withEvents(CashFlowEvents.of(
+            CashFlowEvent.setAnnualContribution(229, new BigDecimal("9000")),
+            CashFlowEvent.lumpSum(240, new BigDecimal("20000"))));
+        assertEquals(229, scenario(35).firstChangedMonth(raised));
+
+        InvestmentResult resumed = engine.recalculate(before, raised);
+        assertSameResult(engine.calculateInvestment(raised), resumed);
+        assertSame(before.getMonthlyData().get(227), resumed.getMonthlyData().get(227));
+        assertNotSame(before.getMonthlyData().get(228), resumed.getMonthlyData().get(228));
+        System.out.println("Resumed end balance with raise: " + resumed.getEndBalance());
+
+        // Editing the event again only touches the year of the edit
+        InvestmentScenario moved = scenario(35).withEvents(CashFlowEvents.of(
+            CashFlowEvent.setAnnualContribution(229, new BigDecimal("9000")),
+            CashFlowEvent.lumpSum(300, new BigDecimal("20000"))));
+        assertEquals(240, raised.firstChangedMonth(moved));
+        InvestmentResult movedResult = engine.recalculate(resumed, moved);
+        assertSameResult(engine.calculateInvestment(moved), movedResult);
+        assertSame(resumed.getMonthlyData().get(227), movedResult.getMonthlyData().get(227));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testEarlyChangesAndForeignResultsRecalculateInFull() {
+        System.out.println("\n=== Test: Rate Changes And Other Engines Recalculate In Full ===");
+
+        InvestmentResult before = engine.calculateInvestment(scenario(30));
+        InvestmentScenario newRate = new InvestmentScenario(new BigDecimal("15000"), 30, new BigDecimal("6"),
+            CompoundingFrequency.QUARTERLY, new BigDecimal("4800"), 12, ContributionTiming.BEGINNING_OF_PERIOD);
+        assertEquals(1, scenario(30).firstChangedMonth(newRate));
+        InvestmentResult recalculated = engine.recalculate(before, newRate);
+        assertSameResult(engine.calculateInvestment(newRate), recalculated);
+        assertNotSame(before.getMonthlyData().get(0), recalculated.getMonthlyData().get(0));
+
+        // Results of engines that keep no checkpoints are never resumed from
+        InvestmentResult fast = new FastInvestmentEngine().calculateInvestment(scenario(30));
+        assertTrue(fast.getCheckpoints().isEmpty());
+        assertSameResult(engine.calculateInvestment(scenario(40)), engine.recalculate(fast, scenario(40)));
+        assertSameResult(engine.calculateInvestment(scenario(40)), engine.recalculate(null, scenario(40)));
+        System.out.println("Result: ✅ PASS");
+    }
+}
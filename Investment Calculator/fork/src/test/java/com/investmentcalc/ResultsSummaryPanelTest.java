@@ -0,0 +1,74 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultsSummaryPanelTest {
+
+    private static InvestmentResult calculate(String contribution) {
+        return new FinalInvestmentEngine().calculateInvestment(new InvestmentScenario(new BigDecimal("100000"), 20,
+            new BigDecimal("5"), CompoundingFrequency.MONTHLY, new BigDecimal(contribution), 12,
+            ContributionTiming.END_OF_PERIOD));
+    }
+
+    private static void show(ResultsSummaryPanel panel, InvestmentResult result, String currency) {
+        panel.showResult(result, result.getEndBalance().setScale(2, RoundingMode.HALF_UP),
+            result.getTotalContributions().setScale(2, RoundingMode.HALF_UP),
+            result.getTotalInterest().setScale(2, RoundingMode.HALF_UP), currency);
+    }
+
+    @Test
+    void testSummaryUpdatesInPlace() {
+        System.out.println("\n=== Test: Results Summary Updated In Place ===");
+
+        ResultsSummaryPanel panel = new ResultsSummaryPanel();
+        int components = panel.getComponentCount();
+
+        InvestmentResult saving = calculate("6000");
+        show(panel, saving, "USD");
+        System.out.println(panel.getEndBalanceText());
+        assertEquals(String.format("End Balance: $%,.2f", saving.getEndBalance().setScale(2, RoundingMode.HALF_UP)),
+            panel.getEndBalanceText());
+        assertEquals("Total Additional Contributions: $120,000.00", panel.getContributionsText());
+        assertFalse(panel.isWithdrawalNoteVisible());
+
+        InvestmentResult withdrawing = calculate("-3000");
+        show(panel, withdrawing, "EUR");
+        System.out.println(panel.getEndBalanceText());
+        assertTrue(panel.getEndBalanceText().startsWith("End Balance: €"));
+        assertEquals("Total Withdrawals: €60,000.00", panel.getContributionsText());
+        assertTrue(panel.isWithdrawalNoteVisible());
+        assertEquals(components, panel.getComponentCount(), "Updates reuse the same components");
+
+        // Against re-parsing the equivalent HTML in a JEditorPane
+        JEditorPane editorPane = new JEditorPane();
+        editorPane.setContentType("text/html");
+        String html = "<html><body><div><div>Investment Results</div><div>End Balance: $1,234.56</div>"
+            + "<div><b>Starting Amount:</b> $100,000.00</div><div><b>Total Additional Contributions:</b> $120,000.00</div>"
+            + "<div><b>Total Interest Earned:</b> $99,999.99</div></div><div><div>Details:</div>"
+            + "<div>Compounding Frequency: Monthly</div><div>Annual Return Rate: 5.00%</div>"
+            + "<div>Number of Years: 20</div><div>Currency: USD</div></div></body></html>";
+        for (int i = 0; i < 200; i++) {
+            editorPane.setText(html);
+            show(panel, i % 2 == 0 ? saving : withdrawing, "USD");
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            editorPane.setText(html);
+        }
+        double htmlMicros = (System.nanoTime() - start) / 1e3 / 1000;
+        start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            show(panel, i % 2 == 0 ? saving : withdrawing, "USD");
+        }
+        double labelMicros = (System.nanoTime() - start) / 1e3 / 1000;
+        System.out.printf("Refresh: labels %.1f us, HTML re-parse %.1f us%n", labelMicros, htmlMicros);
+        assertTrue(labelMicros < htmlMicros);
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,135 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReturnMetricsTest {
+
+    @Test
+    void testKnownInternalRatesOfReturn() {
+        System.out.println("\n=== Test: IRR And XIRR Against Known Values ===");
+
+        double irr = ReturnMetrics.irr(new double[] {-1000, 0, 1210});
+        System.out.println("IRR of -1000, 0, +1210: " + irr);
+        assertEquals(0.10, irr, 1e-12);
+
+        // The classic spreadsheet XIRR example
+        double[] amounts = {-10000, 2750, 4250, 3250, 2750};
+        LocalDate[] dates = {
+            LocalDate.of(2008, 1, 1), LocalDate.of(2008, 3, 1), LocalDate.of(2008, 10, 30),
+            LocalDate.of(2009, 2, 15), LocalDate.of(2009, 4, 1)
+        };
+        double xirr = ReturnMetrics.xirr(amounts, dates);
+        System.out.println("XIRR: " + xirr);
+        assertEquals(0.373362535, xirr, 1e-8);
+
+        // Losses and flows without a sign change
+        assertEquals(-0.5, ReturnMetrics.irr(new double[] {-1000, 500}), 1e-12);
+        assertTrue(Double.isNaN(ReturnMetrics.irr(new double[] {-1000, -500})));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testFixedRatePlansEarnTheirRate() {
+        System.out.println("\n=== Test: Fixed-Rate Plans Return Their Rate Either Way ===");
+
+        for (ContributionTiming timing : ContributionTiming.values()) {
+            InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("10000"), 25, new BigDecimal("6"),
+                CompoundingFrequency.MONTHLY, new BigDecimal("3000"), 4, timing,
+                CashFlowEvents.of(CashFlowEvent.withdrawal(200, new BigDecimal("15000"))));
+            double expected = Math.pow(1.005, 12) - 1;
+            for (InvestmentEngine engine : new InvestmentEngine[] {
+                    new FinalInvestmentEngine(), new FastInvestmentEngine(), new ClosedFormInvestmentEngine()}) {
+                ReturnMetrics metrics = ReturnMetrics.of(engine.calculateInvestment(scenario));
+                System.out.printf("%-12s %-20s %s%n", engine.getName(), timing.getLabel(), metrics);
+                assertEquals(expected, metrics.getMoneyWeightedReturn(), 1e-9);
+                assertEquals(expected, metrics.getTimeWeightedReturn(), 1e-9);
+            }
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testFeesAndTaxesReduceBothReturns() {
+        System.out.println("\n=== Test: Fees And Taxes In Money- And Time-Weighted Returns ===");
+
+        // Without contributions there is nothing to weight, so both returns are the net growth rate
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("100000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, BigDecimal.ZERO, 12, ContributionTiming.END_OF_PERIOD)
+            .withAdjustments(new PlanAdjustments(BigDecimal.ZERO, new BigDecimal("1"), new BigDecimal("20")));
+        for (InvestmentEngine engine : new InvestmentEngine[] {
+                new FinalInvestmentEngine(), new FastInvestmentEngine(), new ClosedFormInvestmentEngine()}) {
+            ReturnMetrics metrics = ReturnMetrics.of(engine.calculateInvestment(scenario));
+            System.out.printf("%-12s %s%n", engine.getName(), metrics);
+            assertEquals(metrics.getMoneyWeightedReturn(), metrics.getTimeWeightedReturn(), 1e-6);
+            assertTrue(metrics.getTimeWeightedReturn() < 0.06);
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testStaggeredContributionsSeparateMoneyAndTimeWeighting() throws Exception {
+        System.out.println("\n=== Test: Late Contributions Into A Falling Market ===");
+
+        // Ten good years, then ten bad ones while most of the money goes in
+        double[][] returns = new double[240][1];
+        for (int m = 0; m < 240; m++) {
+            returns[m][0] = m < 120 ? 0.01 : -0.004;
+        }
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("1000"), 20, new BigDecimal("0"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("12000"), 12, ContributionTiming.END_OF_PERIOD);
+        try (ReturnSeries series = ReturnSeries.of(2000, 1, returns)) {
+            InvestmentResult result = new BacktestEngine(series, 0, 0).calculateInvestment(scenario);
+            ReturnMetrics metrics = ReturnMetrics.of(result);
+            double totalReturn = result.getTotalInterest().doubleValue() / result.getTotalContributions().doubleValue();
+
+            double twr = Math.pow(Math.pow(1.01, 120) * Math.pow(0.996, 120), 12.0 / 240) - 1;
+            System.out.printf("Total return %.2f%%, %s, chained %.4f%%%n", totalReturn * 100, metrics, twr * 100);
+            assertEquals(twr, metrics.getTimeWeightedReturn(), 1e-9);
+            assertTrue(metrics.getMoneyWeightedReturn() < metrics.getTimeWeightedReturn(),
+                "money arriving before the losses earns less than the market");
+
+            // The IRR really zeroes the net present value of the plan's flows
+            double[] flows = ReturnMetrics.cashFlows(result);
+            double monthly = Math.pow(1 + metrics.getMoneyWeightedReturn(), 1.0 / 12) - 1;
+            double npv = 0;
+            for (int t = 0; t < flows.length; t++) {
+                npv += flows[t] / Math.pow(1 + monthly, t);
+            }
+            assertEquals(0.0, npv, 1e-6 * result.getEndBalance().doubleValue());
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testBatchThroughput() {
+        System.out.println("\n=== Test: IRR Throughput On 100-Year Schedules ===");
+
+        double[] flows = new double[1201];
+        flows[0] = -25000;
+        for (int t = 1; t < 1200; t++) {
+            flows[t] = t % 97 == 0 ? 4000 : -500;
+        }
+        flows[1200] = 2_500_000;
+
+        double sink = 0;
+        for (int i = 0; i < 2000; i++) {
+            sink += ReturnMetrics.irr(flows);
+        }
+        int runs = 20000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            flows[1200] = 2_500_000 + i;
+            sink += ReturnMetrics.irr(flows);
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / runs;
+        System.out.printf("%.1f µs per IRR over 1,201 flows (checksum %.3f)%n", micros, sink);
+        assertFalse(Double.isNaN(sink));
+        assertTrue(micros < 2000, "IRR should be cheap enough for every row of a batch");
+        System.out.println("Result: ✅ PASS");
+    }
+}
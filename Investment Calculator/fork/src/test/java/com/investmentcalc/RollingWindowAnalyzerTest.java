@@ -0,0 +1,92 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingWindowAnalyzerTest {
+
+    private static ReturnSeries randomHistory(long seed, int months) {
+        Random random = new Random(seed);
+        double[][] returns = new double[months][2];
+        for (double[] month : returns) {
+            month[0] = 0.007 + 0.045 * random.nextGaussian();
+            month[1] = 0.003 + 0.012 * random.nextGaussian();
+        }
+        return ReturnSeries.of(1926, 1, returns);
+    }
+
+    private static void assertMatchesBacktest(ReturnSeries series, double[] weights, InvestmentScenario scenario) {
+        RollingWindowResult result = new RollingWindowAnalyzer(series, weights).analyze(scenario);
+        BacktestEngine backtest = new BacktestEngine(series, weights, 0);
+
+        assertEquals(backtest.getAvailableStartCount(scenario), result.getWindowCount());
+        double maxRelative = 0.0;
+        for (int s = 0; s < result.getWindowCount(); s++) {
+            double expected = backtest.startingAt(s).calculateEndBalance(scenario);
+            double relative = Math.abs(result.getEndBalance(s) - expected) / Math.max(1.0, Math.abs(expected));
+            maxRelative = Math.max(maxRelative, relative);
+        }
+        System.out.printf("%s: %d windows, max relative difference %.2e%n",
+            scenario.getContributionTiming(), result.getWindowCount(), maxRelative);
+        assertTrue(maxRelative < 1e-10, "Sliding composition should match a full replay");
+    }
+
+    @Test
+    void testEveryWindowMatchesFullReplay() {
+        System.out.println("\n=== Test: Rolling Windows vs Full Replay ===");
+
+        ReturnSeries series = randomHistory(7L, 1200);
+        double[] weights = {0.6, 0.4};
+
+        // Monthly contributions: one group sliding a month at a time
+        assertMatchesBacktest(series, weights, new InvestmentScenario(new BigDecimal("10000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12, ContributionTiming.END_OF_PERIOD));
+        // Quarterly contributions: twelve groups sliding a year at a time
+        assertMatchesBacktest(series, weights, new InvestmentScenario(new BigDecimal("50000"), 25, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("8000"), 4, ContributionTiming.BEGINNING_OF_PERIOD));
+        // Annual withdrawals
+        assertMatchesBacktest(series, weights, new InvestmentScenario(new BigDecimal("1000000"), 30, new BigDecimal("5"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("-40000"), 1, ContributionTiming.BEGINNING_OF_PERIOD));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testBestWorstAndMedian() {
+        System.out.println("\n=== Test: Rolling Window Summary ===");
+
+        ReturnSeries series = randomHistory(11L, 600);
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("10000"), 20, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("1200"), 12, ContributionTiming.END_OF_PERIOD);
+        RollingWindowResult result = new RollingWindowAnalyzer(series, 0).analyze(scenario);
+
+        System.out.println("Worst:  " + result.getWorst());
+        System.out.println("Median: " + result.getMedian());
+        System.out.println("Best:   " + result.getBest());
+
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (double b : result.getEndBalances()) {
+            min = Math.min(min, b);
+            max = Math.max(max, b);
+        }
+        assertEquals(600 - 240 + 1, result.getWindowCount());
+        assertEquals(min, result.getWorst().getEndBalance());
+        assertEquals(max, result.getBest().getEndBalance());
+        assertTrue(result.getMedian().getEndBalance() >= min && result.getMedian().getEndBalance() <= max);
+        assertEquals(0.5, result.getShareAtLeast(result.getMedian().getEndBalance()), 0.01);
+        assertEquals("1926-01", result.getWindow(0).getStartLabel());
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testHistoryShorterThanPlanIsRejected() {
+        ReturnSeries series = randomHistory(3L, 100);
+        InvestmentScenario scenario = new InvestmentScenario(new BigDecimal("1000"), 10, new BigDecimal("5"),
+            CompoundingFrequency.MONTHLY, BigDecimal.ZERO, 0, ContributionTiming.END_OF_PERIOD);
+        assertThrows(IllegalArgumentException.class, () -> new RollingWindowAnalyzer(series, 0).analyze(scenario));
+    }
+}
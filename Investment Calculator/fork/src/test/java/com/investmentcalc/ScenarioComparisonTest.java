@@ -0,0 +1,120 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioComparisonTest {
+
+    private static InvestmentScenario scenario(String rate, String contribution) {
+        return new InvestmentScenario(new BigDecimal("20000"), 30, new BigDecimal(rate),
+            CompoundingFrequency.MONTHLY, new BigDecimal(contribution), 12, ContributionTiming.BEGINNING_OF_PERIOD);
+    }
+
+    /**
+     * Counts the calculations it performs on behalf of the precise engine.
+     */
+    private static final class CountingEngine implements InvestmentEngine {
+        final FinalInvestmentEngine delegate = new FinalInvestmentEngine();
+        final AtomicInteger calculations = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public InvestmentResult calculateInvestment(InvestmentScenario scenario) {
+            calculations.incrementAndGet();
+            return delegate.calculateInvestment(scenario);
+        }
+
+        @Override
+        public InvestmentResult recalculate(InvestmentResult prior, InvestmentScenario scenario) {
+            calculations.incrementAndGet();
+            return delegate.recalculate(prior, scenario);
+        }
+    }
+
+    private static ScenarioComparison pinned() {
+        ScenarioComparison comparison = new ScenarioComparison();
+        comparison.pin("Cautious", scenario("4", "6000"), null, null);
+        comparison.pin("Balanced", scenario("6", "9000"), null, null);
+        comparison.pin("Growth", scenario("8", "12000"), null, null);
+        comparison.pin("Late start", scenario("8", "12000").withEvents(
+            CashFlowEvents.of(CashFlowEvent.pauseContributions(1), CashFlowEvent.resumeContributions(121))), null, null);
+        return comparison;
+    }
+
+    @Test
+    void testPinsMatchIndividualCalculations() {
+        System.out.println("\n=== Test: Pinned Scenarios Calculated Together ===");
+
+        ScenarioComparison comparison = pinned();
+        CountingEngine engine = new CountingEngine();
+        List<InvestmentResult> results = comparison.calculate(engine);
+        assertEquals(4, results.size());
+        assertEquals(4, engine.calculations.get());
+
+        List<ScenarioComparison.Pin> pins = comparison.getPins();
+        for (int i = 0; i < pins.size(); i++) {
+            InvestmentResult alone = new FinalInvestmentEngine().calculateInvestment(pins.get(i).getScenario());
+            System.out.printf("%-12s %s%n", pins.get(i).getName(), results.get(i).getEndBalance());
+            assertEquals(alone.getEndBalance(), results.get(i).getEndBalance());
+            assertSame(results.get(i), pins.get(i).getResult());
+            assertTrue(pins.get(i).isUpToDate());
+        }
+
+        // Nothing changed: nothing is recalculated, until the engine changes
+        comparison.calculate(engine);
+        assertEquals(4, engine.calculations.get());
+        List<InvestmentResult> fast = comparison.calculate(new FastInvestmentEngine());
+        assertNotSame(results.get(0), fast.get(0));
+        assertEquals(results.get(0).getEndBalance().doubleValue(), fast.get(0).getEndBalance().doubleValue(), 1e-6);
+
+        comparison.remove(1);
+        assertEquals("Growth", comparison.getPins().get(1).getName());
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testSharedEditsResumeEveryPin() {
+        System.out.println("\n=== Test: Shared Horizon Edit Resumes Each Pin ===");
+
+        ScenarioComparison comparison = pinned();
+        CountingEngine engine = new CountingEngine();
+        List<InvestmentResult> thirty = comparison.calculate(engine);
+
+        comparison.applyToAll(s -> s.withYears(40));
+        assertFalse(comparison.getPins().get(0).isUpToDate());
+        long start = System.nanoTime();
+        List<InvestmentResult> forty = comparison.calculate(engine);
+        double allMillis = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        InvestmentResult oneFull = new FinalInvestmentEngine().calculateInvestment(comparison.getPins().get(0).getScenario());
+        double oneMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Four resumed pins: %.1f ms, one full calculation: %.1f ms%n", allMillis, oneMillis);
+        assertEquals(oneFull.getEndBalance(), forty.get(0).getEndBalance());
+
+        for (int i = 0; i < forty.size(); i++) {
+            InvestmentResult full = new FinalInvestmentEngine().calculateInvestment(comparison.getPins().get(i).getScenario());
+            assertEquals(full.getEndBalance(), forty.get(i).getEndBalance());
+            // The first thirty years are the rows of the previous calculation
+            assertSame(thirty.get(i).getMonthlyData().get(359), forty.get(i).getMonthlyData().get(359));
+        }
+
+        // A rate edit touches every month, so every pin is recalculated in full
+        comparison.applyToAll(s -> s.withAnnualReturnRate(new BigDecimal("5")));
+        List<InvestmentResult> repriced = comparison.calculate(engine);
+        assertEquals(new FinalInvestmentEngine().calculateInvestment(comparison.getPins().get(1).getScenario()).getEndBalance(),
+            repriced.get(1).getEndBalance());
+        assertEquals(12, engine.calculations.get());
+        assertEquals(0, new BigDecimal("5").compareTo(repriced.get(2).getAnnualReturnRate()));
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,108 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SensitivityGridTest {
+
+    private static InvestmentScenario scenario() {
+        return new InvestmentScenario(new BigDecimal("10000"), 30, new BigDecimal("7"),
+            CompoundingFrequency.MONTHLY, new BigDecimal("6000"), 12, ContributionTiming.END_OF_PERIOD);
+    }
+
+    @Test
+    void testCellsMatchTheClosedFormEngine() {
+        System.out.println("\n=== Test: Heatmap Cells Match Single Calculations ===");
+
+        SensitivityGrid grid = new SensitivityGrid(scenario(),
+            SensitivityGrid.Parameter.YEARS, SensitivityGrid.steps(1, 40, 40),
+            SensitivityGrid.Parameter.ANNUAL_RETURN_RATE, SensitivityGrid.steps(-101, 15, 30));
+        assertTrue(Double.isNaN(grid.getEndBalance(0, 0)));
+
+        int[] covered = new int[grid.getColumnCount() * grid.getRowCount()];
+        AtomicInteger tiles = new AtomicInteger();
+        grid.compute((fromColumn, toColumn, fromRow, toRow) -> {
+            tiles.incrementAndGet();
+            synchronized (covered) {
+                for (int row = fromRow; row < toRow; row++) {
+                    for (int column = fromColumn; column < toColumn; column++) {
+                        covered[row * grid.getColumnCount() + column]++;
+                    }
+                }
+            }
+        });
+        System.out.println("Tiles: " + tiles.get());
+        assertEquals(3 * 2, tiles.get());
+        for (int count : covered) {
+            assertEquals(1, count);
+        }
+
+        ClosedFormInvestmentEngine closedForm = new ClosedFormInvestmentEngine();
+        for (int row = 1; row < grid.getRowCount(); row++) {
+            for (int column = 0; column < grid.getColumnCount(); column++) {
+                assertEquals(closedForm.calculateEndBalance(grid.scenarioAt(column, row)),
+                    grid.getEndBalance(column, row), 0.0);
+            }
+        }
+
+        // The cell of the base scenario against the precise engine
+        int column = 29;
+        int row = 27;
+        assertEquals(30, grid.getColumnValue(column), 0.0);
+        assertEquals(7, grid.getRowValue(row), 1e-9);
+        double precise = new FinalInvestmentEngine().calculateInvestment(scenario()).getEndBalance().doubleValue();
+        System.out.printf("Cell: %.2f, precise engine: %.2f%n", grid.getEndBalance(column, row), precise);
+        assertEquals(precise, grid.getEndBalance(column, row), 1e-6);
+
+        // A rate below -100% is not a valid scenario
+        assertEquals(-101, grid.getRowValue(0), 0.0);
+        for (int c = 0; c < grid.getColumnCount(); c++) {
+            assertTrue(Double.isNaN(grid.getEndBalance(c, 0)));
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testFullGridSweep() {
+        System.out.println("\n=== Test: Full Heatmap Sweep ===");
+
+        SensitivityGrid grid = SensitivityHeatmapPanel.createGrid(scenario(), SensitivityHeatmapPanel.View.RATE_BY_YEARS);
+        assertEquals(SensitivityGrid.Parameter.YEARS, grid.getColumnParameter());
+        assertEquals(SensitivityGrid.Parameter.ANNUAL_RETURN_RATE, grid.getRowParameter());
+        assertEquals(60, grid.getColumnCount());
+        assertEquals(41, grid.getRowCount());
+
+        grid.compute(null); // warm-up
+        grid = SensitivityHeatmapPanel.createGrid(scenario(), SensitivityHeatmapPanel.View.RATE_BY_YEARS);
+        long start = System.nanoTime();
+        grid.compute(null);
+        double millis = (System.nanoTime() - start) / 1e6;
+        int cells = grid.getColumnCount() * grid.getRowCount();
+        System.out.printf("%d cells in %.1f ms on %d cores%n", cells, millis, Runtime.getRuntime().availableProcessors());
+        assertTrue(millis < 5000, "The sweep should take well under a second");
+        for (int row = 0; row < grid.getRowCount(); row++) {
+            for (int column = 0; column < grid.getColumnCount(); column++) {
+                assertFalse(Double.isNaN(grid.getEndBalance(column, row)));
+            }
+        }
+
+        SensitivityGrid contributions = SensitivityHeatmapPanel.createGrid(scenario(),
+            SensitivityHeatmapPanel.View.RATE_BY_CONTRIBUTION);
+        assertEquals(SensitivityGrid.Parameter.ANNUAL_CONTRIBUTION, contributions.getColumnParameter());
+        assertEquals(12000, contributions.getColumnValue(contributions.getColumnCount() - 1), 1e-9);
+
+        // A cancelled grid computes nothing
+        SensitivityGrid cancelled = SensitivityHeatmapPanel.createGrid(scenario(), SensitivityHeatmapPanel.View.RATE_BY_YEARS);
+        cancelled.cancel();
+        cancelled.compute((fromColumn, toColumn, fromRow, toRow) -> fail("No tile should be computed"));
+        assertTrue(Double.isNaN(cancelled.getEndBalance(0, 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> new SensitivityGrid(scenario(),
+            SensitivityGrid.Parameter.YEARS, new double[] {1}, SensitivityGrid.Parameter.YEARS, new double[] {2}));
+        System.out.println("Result: ✅ PASS");
+    }
+}
@@ -0,0 +1,73 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SobolSequenceTest {
+
+    @Test
+    void testEveryDimensionIsStratified() {
+        System.out.println("\n=== Test: Sobol Stratification ===");
+
+        int dimensions = SobolSequence.MAX_DIMENSIONS;
+        int n = 1024;
+        SobolSequence sobol = new SobolSequence(dimensions, new int[dimensions]);
+        boolean[][] seen = new boolean[dimensions][n];
+        double[] point = new double[dimensions];
+        for (int i = 0; i < n; i++) {
+            sobol.next(point);
+            for (int d = 0; d < dimensions; d++) {
+                int cell = (int) (point[d] * n);
+                assertFalse(seen[d][cell], "Dimension " + d + " hit cell " + cell + " twice");
+                seen[d][cell] = true;
+            }
+        }
+        System.out.println("Each of " + dimensions + " dimensions has one point in every 1/" + n + " interval");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testBrownianBridgeCovariance() {
+        System.out.println("\n=== Test: Brownian Bridge Covariance ===");
+
+        // The bridge is linear, so feeding unit vectors gives its columns; Cov(W_s, W_t) = min(s, t)
+        int steps = 37;
+        BrownianBridge bridge = new BrownianBridge(steps);
+        double[][] paths = new double[steps][steps];
+        double[] normals = new double[steps];
+        double[] increments = new double[steps];
+        for (int k = 0; k < steps; k++) {
+            java.util.Arrays.fill(normals, 0.0);
+            normals[k] = 1.0;
+            bridge.increments(normals, increments);
+            double w = 0;
+            for (int t = 0; t < steps; t++) {
+                w += increments[t];
+                paths[k][t] = w;
+            }
+        }
+        for (int s = 0; s < steps; s++) {
+            for (int t = 0; t < steps; t++) {
+                double covariance = 0;
+                for (int k = 0; k < steps; k++) {
+                    covariance += paths[k][s] * paths[k][t];
+                }
+                assertEquals(Math.min(s, t) + 1, covariance, 1e-9, "Cov(W" + (s + 1) + ", W" + (t + 1) + ")");
+            }
+        }
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testInverseNormal() {
+        assertEquals(0.0, MonteCarloSimulator.NormalSampler.inverseCdf(0.5), 1e-15);
+        assertEquals(1.959963985, MonteCarloSimulator.NormalSampler.inverseCdf(0.975), 1e-8);
+        assertEquals(-2.326347874, MonteCarloSimulator.NormalSampler.inverseCdf(0.01), 1e-8);
+        assertEquals(-MonteCarloSimulator.NormalSampler.inverseCdf(0.999), MonteCarloSimulator.NormalSampler.inverseCdf(0.001), 1e-12);
+        assertEquals(0.975, MonteCarloSimulator.NormalSampler.cdf(1.959963985), 1e-9);
+        for (double p = 0.001; p < 1; p += 0.0137) {
+            assertEquals(p, MonteCarloSimulator.NormalSampler.cdf(MonteCarloSimulator.NormalSampler.inverseCdf(p)), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.investmentcalc;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WithdrawalPlannerTest {
+
+    private static InvestmentScenario retirement(ContributionTiming timing) {
+        return new InvestmentScenario(new BigDecimal("1000000"), 30, new BigDecimal("5"),
+            CompoundingFrequency.MONTHLY, BigDecimal.ZERO, 12, timing);
+    }
+
+    @Test
+    void testFixedWithdrawalMatchesAnnuityFormula() {
+        System.out.println("\n=== Test: Fixed Withdrawal Equals The Annuity Payment ===");
+
+        InvestmentScenario scenario = retirement(ContributionTiming.END_OF_PERIOD);
+        WithdrawalPlan plan = WithdrawalPlanner.solve(scenario, false);
+        double r = scenario.getFactors().getMonthlyInterestFactorAsDouble();
+        double annuity = 12 * 1_000_000 * r / (1 - Math.pow(1 + r, -360));
+        System.out.println(plan + ", annuity formula " + annuity);
+        assertEquals(annuity, plan.getMaximumWithdrawal(), 1e-6);
+        assertEquals(360, plan.getBindingMonth());
+
+        // The precise engine agrees: the cent-rounded amount lasts, a dollar more does not
+        InvestmentResult result = new FinalInvestmentEngine().calculateInvestment(
+            WithdrawalPlanner.withWithdrawal(scenario, plan.getAnnualWithdrawal()));
+        System.out.println("End balance after withdrawing the maximum: " + result.getEndBalance());
+        assertTrue(result.getEndBalance().signum() >= 0);
+        assertTrue(result.getEndBalance().doubleValue() < 10);
+        assertEquals(0, WithdrawalPlanner.depletionMonth(scenario, plan.getMaximumWithdrawal() - 1, false));
+        assertEquals(360, WithdrawalPlanner.depletionMonth(scenario, plan.getMaximumWithdrawal() + 1, false));
+        assertTrue(WithdrawalPlanner.depletionMonth(scenario, 2 * annuity, false) < 200,
+            "twice the maximum runs out early");
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testIndexedWithdrawalsWithEventsAndAdjustments() {
+        System.out.println("\n=== Test: Inflation-Indexed Withdrawals Around A Large Expense ===");
+
+        for (ContributionTiming timing : ContributionTiming.values()) {
+            InvestmentScenario scenario = retirement(timing)
+                .withEvents(CashFlowEvents.of(CashFlowEvent.withdrawal(121, new BigDecimal("150000"))))
+                .withAdjustments(new PlanAdjustments(new BigDecimal("3"), new BigDecimal("0.5"), new BigDecimal("10")));
+            WithdrawalPlan fixed = WithdrawalPlanner.solve(scenario, false);
+            WithdrawalPlan indexed = WithdrawalPlanner.solve(scenario, true);
+            System.out.printf("%-20s fixed %s, indexed %s%n", timing.getLabel(), fixed, indexed);
+            assertTrue(indexed.getMaximumWithdrawal() < fixed.getMaximumWithdrawal());
+
+            double max = indexed.getMaximumWithdrawal();
+            assertEquals(0, WithdrawalPlanner.depletionMonth(scenario, max * (1 - 1e-9), true));
+            int month = WithdrawalPlanner.depletionMonth(scenario, max * (1 + 1e-9), true);
+            assertEquals(indexed.getBindingMonth(), month);
+
+            // Fixed withdrawals run through the engines; the fast engine sees the same zero crossing
+            InvestmentResult result = new FastInvestmentEngine().calculateInvestment(
+                WithdrawalPlanner.withWithdrawal(scenario, fixed.getAnnualWithdrawal()));
+            assertTrue(result.getEndBalance().signum() >= 0);
+            assertTrue(result.getEndBalance().doubleValue() < 10);
+        }
+
+        InvestmentScenario paused = retirement(ContributionTiming.END_OF_PERIOD)
+            .withEvents(CashFlowEvents.of(CashFlowEvent.pauseContributions(1)));
+        assertThrows(IllegalArgumentException.class, () -> WithdrawalPlanner.solve(paused, false));
+        System.out.println("Result: ✅ PASS");
+    }
+
+    @Test
+    void testMonteCarloWithdrawalsAndEarlyStopping() {
+        System.out.println("\n=== Test: Sustainable Withdrawal At A Success Rate ===");
+
+        InvestmentScenario scenario = retirement(ContributionTiming.BEGINNING_OF_PERIOD);
+        double deterministic = WithdrawalPlanner.solve(scenario, false).getMaximumWithdrawal();
+
+        // Without volatility every path is the deterministic plan
+        WithdrawalSimulation flat = new WithdrawalPlanner(0.0).simulate(scenario, false, 100, 1L);
+        assertEquals(deterministic, flat.getSustainableWithdrawal(0.99), 1e-6 * deterministic);
+
+        WithdrawalPlanner planner = new WithdrawalPlanner(0.15);
+        int paths = 20_000;
+        long start = System.nanoTime();
+        WithdrawalSimulation simulation = planner.simulate(scenario, false, paths, 2024L);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double safe = simulation.getSustainableWithdrawal(0.9);
+        System.out.printf("%d paths in %.3f s: 90%% %,.2f, median %,.2f, deterministic %,.2f%n",
+            paths, seconds, safe, simulation.getMedianWithdrawal(), deterministic);
+        assertTrue(simulation.getSuccessRate(safe) >= 0.9);
+        assertTrue(simulation.getSuccessRate(safe * 1.01) < 0.9);
+        assertTrue(safe < deterministic, "sequence risk lowers the safe withdrawal");
+
+        // Checking one amount on the same paths agrees, and failing paths stop early
+        double amount = simulation.getMedianWithdrawal();
+        DepletionSimulation depletion = planner.simulateDepletion(scenario, amount * 1.1, false, paths, 2024L);
+        System.out.printf("Depletion at 110%% of median: %s, median month %.0f, %.1f%% of months skipped%n",
+            depletion.getDepletionProbability(), depletion.getDepletionMonth(50), depletion.getSkippedShare() * 100);
+        assertEquals(1 - simulation.getSuccessRate(amount * 1.1), depletion.getDepletionProbability().getValue(),
+            2.0 / paths);
+        assertTrue(depletion.getSkippedShare() > 0.02);
+        assertTrue(depletion.getDepletionMonth(50) <= 360);
+        System.out.println("Result: ✅ PASS");
+    }
+}